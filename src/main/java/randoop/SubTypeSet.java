@@ -1,8 +1,16 @@
 package randoop;
 
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import randoop.types.PrimitiveTypes;
+import randoop.types.SubtypeOracle;
 import randoop.types.Type;
 import randoop.util.CheckpointingMultiMap;
 import randoop.util.CheckpointingSet;
@@ -12,6 +20,14 @@ import randoop.util.MultiMap;
 /**
  * A set of classes. This data structure additionally allows for efficient answers to queries about
  * can-be-used-as relationships.
+ *
+ * <p>The types in the set and the query types are indexed by their runtime classes. A type can be
+ * used as a class, interface, or array type only if its runtime class (or, for a primitive type,
+ * its boxed class) is a subtype of the runtime class of that type. So adding a type only tests the
+ * query types whose runtime class is one of the runtime supertypes of the new type, and the first
+ * query for a type only tests the types in the set whose runtime supertypes include the runtime
+ * class of the query type. Primitive query types are tested against primitive and boxed types, and
+ * other types, such as type variables, are tested against everything.
  */
 public class SubTypeSet {
 
@@ -24,18 +40,78 @@ public class SubTypeSet {
    */
   private IMultiMap<Type, Type> subTypes;
 
+  /** The inverse of {@link #subTypes}: maps a type in the set to the query types it matches. */
+  private IMultiMap<Type, Type> matchedQueryTypes;
+
+  /** The types that have been queried: the domain of {@link #subTypes}, including empty entries. */
+  private Set<Type> queryTypes;
+
   /** If true, then {@link #mark} and {@link #undoLastStep()} are supported. */
   private boolean supportsCheckpoints;
 
+  // The following indexes are not checkpointed: they may contain types that were removed by
+  // undoLastStep(), which are ignored.
+
+  /** Maps a runtime class to the types in the set that have it as a runtime supertype. */
+  private final Map<Class<?>, List<Type>> typesByRuntimeSupertype = new HashMap<>();
+
+  /** Maps a runtime class to the query types that have it as their runtime class. */
+  private final Map<Class<?>, List<Type>> queryTypesByRuntimeClass = new HashMap<>();
+
+  /** The types in the set that are primitive or boxed primitive types. */
+  private final List<Type> primitiveAndBoxedTypes = new ArrayList<>();
+
+  /** The query types that are primitive types. */
+  private final List<Type> primitiveQueryTypes = new ArrayList<>();
+
+  /** The types in the set that are not indexed by {@link #isIndexed}. */
+  private final List<Type> otherTypes = new ArrayList<>();
+
+  /** The query types that are not indexed by {@link #isIndexed}. */
+  private final List<Type> otherQueryTypes = new ArrayList<>();
+
+  /**
+   * The runtime supertypes of each class: the classes that a value of the class can be assigned to.
+   * These are the class, its superclasses and superinterfaces, and {@code Object}. For an array
+   * class, they are also the array classes of the runtime supertypes of its component class, and
+   * {@code Cloneable} and {@code Serializable}.
+   */
+  private static final ClassValue<Class<?>[]> runtimeSupertypes =
+      new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> c) {
+          Set<Class<?>> result = new LinkedHashSet<>();
+          if (c.isArray()) {
+            result.add(c);
+            Class<?> componentClass = c.getComponentType();
+            if (!componentClass.isPrimitive()) {
+              for (Class<?> supertype : get(componentClass)) {
+                result.add(Array.newInstance(supertype, 0).getClass());
+              }
+            }
+            result.add(Cloneable.class);
+            result.add(Serializable.class);
+          } else {
+            addSupertypes(c, result);
+          }
+          result.add(Object.class);
+          return result.toArray(new Class<?>[0]);
+        }
+      };
+
   public SubTypeSet(boolean supportsCheckpoints) {
     if (supportsCheckpoints) {
       this.supportsCheckpoints = true;
       this.subTypes = new CheckpointingMultiMap<>();
+      this.matchedQueryTypes = new CheckpointingMultiMap<>();
       this.types = new CheckpointingSet<>();
+      this.queryTypes = new CheckpointingSet<>();
     } else {
       this.supportsCheckpoints = false;
       this.subTypes = new MultiMap<>();
+      this.matchedQueryTypes = new MultiMap<>();
       this.types = new LinkedHashSet<>();
+      this.queryTypes = new LinkedHashSet<>();
     }
   }
 
@@ -45,7 +121,9 @@ public class SubTypeSet {
       throw new RuntimeException("Operation not supported.");
     }
     ((CheckpointingMultiMap<Type, Type>) subTypes).mark();
+    ((CheckpointingMultiMap<Type, Type>) matchedQueryTypes).mark();
     ((CheckpointingSet<Type>) types).mark();
+    ((CheckpointingSet<Type>) queryTypes).mark();
   }
 
   /** Undo changes since the last call to {@link #mark()}. */
@@ -54,7 +132,9 @@ public class SubTypeSet {
       throw new RuntimeException("Operation not supported.");
     }
     ((CheckpointingMultiMap<Type, Type>) subTypes).undoToLastMark();
+    ((CheckpointingMultiMap<Type, Type>) matchedQueryTypes).undoToLastMark();
     ((CheckpointingSet<Type>) types).undoToLastMark();
+    ((CheckpointingSet<Type>) queryTypes).undoToLastMark();
   }
 
   /**
@@ -70,30 +150,116 @@ public class SubTypeSet {
     types.add(c);
 
     // Update existing entries.
-    for (Type cls : subTypes.keySet()) {
-      if (cls.isAssignableFrom(c)) {
-        if (!subTypes.getValues(cls).contains(c)) {
-          subTypes.add(cls, c);
+    if (!isIndexed(c)) {
+      otherTypes.add(c);
+      for (Type cls : queryTypes) {
+        addIfMatch(cls, c);
+      }
+      return;
+    }
+    Class<?> runtimeClass = c.getRuntimeClass();
+    boolean isPrimitiveOrBoxed = c.isPrimitive() || c.isBoxedPrimitive();
+    if (isPrimitiveOrBoxed) {
+      primitiveAndBoxedTypes.add(c);
+      for (Type cls : primitiveQueryTypes) {
+        addIfMatch(cls, c);
+      }
+      if (c.isPrimitive()) {
+        // A primitive value can be boxed and then assigned to a supertype of its boxed type.
+        runtimeClass = PrimitiveTypes.toBoxedType(runtimeClass);
+      }
+    }
+    for (Class<?> supertype : runtimeSupertypes.get(runtimeClass)) {
+      typesByRuntimeSupertype.computeIfAbsent(supertype, __ -> new ArrayList<>()).add(c);
+      List<Type> candidates = queryTypesByRuntimeClass.get(supertype);
+      if (candidates != null) {
+        for (Type cls : candidates) {
+          addIfMatch(cls, c);
         }
       }
     }
+    for (Type cls : otherQueryTypes) {
+      addIfMatch(cls, c);
+    }
   }
 
   private void addQueryType(Type type) {
     if (type == null) throw new IllegalArgumentException("c cannot be null.");
-    Set<Type> keySet = subTypes.keySet();
-    if (keySet.contains(type)) {
+    if (queryTypes.contains(type)) {
       return;
     }
+    queryTypes.add(type);
 
-    Set<Type> compatibleTypes = new LinkedHashSet<>();
-    for (Type t : types) {
-      if (type.isAssignableFrom(t)) {
-        compatibleTypes.add(t);
+    if (!isIndexed(type)) {
+      otherQueryTypes.add(type);
+      for (Type t : types) {
+        addIfMatch(type, t);
       }
+      return;
+    }
+    List<Type> candidates;
+    if (type.isPrimitive()) {
+      primitiveQueryTypes.add(type);
+      candidates = primitiveAndBoxedTypes;
+    } else {
+      queryTypesByRuntimeClass
+          .computeIfAbsent(type.getRuntimeClass(), __ -> new ArrayList<>())
+          .add(type);
+      candidates =
+          typesByRuntimeSupertype.getOrDefault(type.getRuntimeClass(), Collections.emptyList());
+    }
+    for (Type t : candidates) {
+      addIfMatch(type, t);
     }
-    for (Type cls : compatibleTypes) {
-      subTypes.add(type, cls);
+    for (Type t : otherTypes) {
+      addIfMatch(type, t);
+    }
+  }
+
+  /**
+   * Records that {@code type} can be used as the query type {@code cls}, if it can. Ignores types
+   * and query types that were removed by {@link #undoLastStep()}.
+   *
+   * @param cls a query type
+   * @param type a type in the set
+   */
+  private void addIfMatch(Type cls, Type type) {
+    if (queryTypes.contains(cls)
+        && types.contains(type)
+        && SubtypeOracle.isAssignableFrom(cls, type)
+        && !subTypes.getValues(cls).contains(type)) {
+      subTypes.add(cls, type);
+      matchedQueryTypes.add(type, cls);
+    }
+  }
+
+  /**
+   * Returns true if the given type is indexed by its runtime class: it is a primitive, class,
+   * interface, or array type.
+   *
+   * @param type a type
+   * @return true if the type is indexed by its runtime class
+   */
+  private static boolean isIndexed(Type type) {
+    return type.isPrimitive() || type.isClassOrInterfaceType() || type.isArray();
+  }
+
+  /**
+   * Adds the given class and its superclasses and superinterfaces to the given set.
+   *
+   * @param c a class or interface
+   * @param result the set to add to
+   */
+  private static void addSupertypes(Class<?> c, Set<Class<?>> result) {
+    if (!result.add(c)) {
+      return;
+    }
+    Class<?> superclass = c.getSuperclass();
+    if (superclass != null) {
+      addSupertypes(superclass, result);
+    }
+    for (Class<?> iface : c.getInterfaces()) {
+      addSupertypes(iface, result);
     }
   }
 
@@ -106,12 +272,23 @@ public class SubTypeSet {
    * @return the set of types that can be used in place of the query type
    */
   public Set<Type> getMatches(Type type) {
-    if (!subTypes.keySet().contains(type)) {
+    if (!queryTypes.contains(type)) {
       addQueryType(type);
     }
     return Collections.unmodifiableSet(subTypes.getValues(type));
   }
 
+  /**
+   * Returns the query types that the given type can be used as: the types that have been passed to
+   * {@link #getMatches} and whose matches include the given type.
+   *
+   * @param type a type in the set
+   * @return the query types whose matches include the type
+   */
+  public Set<Type> getMatchedQueryTypes(Type type) {
+    return Collections.unmodifiableSet(matchedQueryTypes.getValues(type));
+  }
+
   /**
    * Returns the number of elements of this set.
    *
@@ -0,0 +1,48 @@
+package randoop.compile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+
+/**
+ * A {@code JavaFileManager} that keeps the class files written by the compiler in memory, rather
+ * than writing them to disk. All other requests are forwarded to the underlying file manager.
+ */
+class ClassFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+  /** The class files written by the compiler, indexed by binary name. */
+  private final Map<String, SequenceJavaFileObject> classFiles = new LinkedHashMap<>();
+
+  /**
+   * Creates a {@link ClassFileManager} that forwards to the given file manager.
+   *
+   * @param fileManager the underlying file manager, used for reading
+   */
+  ClassFileManager(JavaFileManager fileManager) {
+    super(fileManager);
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(
+      Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+    SequenceJavaFileObject classFile = new SequenceJavaFileObject(className, kind);
+    classFiles.put(className, classFile);
+    return classFile;
+  }
+
+  /**
+   * Returns the bytecode of the classes written by the compiler.
+   *
+   * @return a map from binary name to bytecode
+   */
+  Map<String, byte[]> getClassFiles() {
+    Map<String, byte[]> result = new LinkedHashMap<>();
+    for (Map.Entry<String, SequenceJavaFileObject> entry : classFiles.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getByteCode());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,72 @@
+package randoop.compile;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class loader for classes that were compiled in memory, such as by {@link
+ * SequenceCompiler#compileToMemory}. Classes that were not compiled in memory are loaded from a
+ * classpath. More compiled classes can be added after the loader is created.
+ */
+public class CompiledClassLoader extends URLClassLoader {
+
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
+  /** The bytecode of the classes compiled in memory, indexed by binary name. */
+  private final Map<String, byte[]> classFiles = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a class loader for the given compiled classes.
+   *
+   * @param classFiles the bytecode of the compiled classes, indexed by binary name
+   * @param classpath where to find other classes
+   * @param parent the parent class loader
+   */
+  public CompiledClassLoader(Map<String, byte[]> classFiles, URL[] classpath, ClassLoader parent) {
+    super(classpath, parent);
+    this.classFiles.putAll(classFiles);
+  }
+
+  /**
+   * Adds compiled classes to this loader. A class that this loader already has must have the same
+   * bytecode, so that a class of a given name always has the same code.
+   *
+   * @param newClassFiles the bytecode of the compiled classes, indexed by binary name
+   * @throws IllegalArgumentException if this loader already has different bytecode for a class of
+   *     one of the names
+   * @see #hasClassFile
+   */
+  public synchronized void addClassFiles(Map<String, byte[]> newClassFiles) {
+    for (Map.Entry<String, byte[]> entry : newClassFiles.entrySet()) {
+      byte[] bytes = classFiles.get(entry.getKey());
+      if (bytes != null && !Arrays.equals(bytes, entry.getValue())) {
+        throw new IllegalArgumentException("A different class " + entry.getKey() + " was added");
+      }
+    }
+    classFiles.putAll(newClassFiles);
+  }
+
+  /**
+   * Returns true if this loader has compiled bytecode for the class of the given name.
+   *
+   * @param name the binary name of a class
+   * @return true if this loader has bytecode for the class
+   */
+  public boolean hasClassFile(String name) {
+    return classFiles.containsKey(name);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    byte[] bytes = classFiles.get(name);
+    if (bytes != null) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+    return super.findClass(name);
+  }
+}
@@ -1,16 +1,12 @@
 package randoop.compile;
 
 import java.io.Closeable;
-import java.io.File;
 import java.io.IOException;
 import java.net.URL;
-import java.net.URLClassLoader;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -21,6 +17,7 @@ import javax.tools.ToolProvider;
 import org.checkerframework.checker.calledmethods.qual.EnsuresCalledMethods;
 import org.checkerframework.checker.mustcall.qual.MustCall;
 import org.checkerframework.checker.mustcall.qual.Owning;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.signature.qual.BinaryName;
 import org.checkerframework.checker.signature.qual.DotSeparatedIdentifiers;
 import org.checkerframework.checker.signature.qual.Identifier;
@@ -54,6 +51,12 @@ import randoop.util.Log;
   /** The {@code FileManager} for this compiler. */
   private final @Owning JavaFileManager fileManager;
 
+  /**
+   * Defines the classes loaded by {@link #compileAndLoad} and {@link #loadClass}. Created when
+   * first needed.
+   */
+  private @MonotonicNonNull CompiledClassLoader classLoader = null;
+
   /** Creates a {@link SequenceCompiler}. */
   public SequenceCompiler() {
     this(new ArrayList<String>(0));
@@ -92,7 +95,7 @@ import randoop.util.Log;
   }
 
   /**
-   * Indicates whether the given class is compilable.
+   * Indicates whether the given class is compilable. Does not write any files.
    *
    * @param packageName the package name for the class, null if default package
    * @param classname the simple name of the class
@@ -102,18 +105,8 @@ import randoop.util.Log;
   public boolean isCompilable(
       final String packageName, final String classname, final String javaSource) {
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-    boolean result = compile(packageName, classname, javaSource, diagnostics);
-
-    // Compilation can create multiple .class files; this only deletes the main one.
-    Path dir = Paths.get((packageName == null) ? "." : packageName.replace(".", "/"));
-    try {
-      Files.delete(dir.resolve(classname + ".class"));
-    } catch (NoSuchFileException e) {
-      // Nothing to do, but I wonder why the file doesn't exist.
-    } catch (IOException e) {
-      System.out.printf(
-          "Unable to delete %s: %s%n", dir.resolve(classname + ".class").toAbsolutePath(), e);
-    }
+    boolean result =
+        compile(packageName, classname, javaSource, diagnostics, new ClassFileManager(fileManager));
 
     if (!result
         && debugCompilationFailure != null
@@ -130,34 +123,38 @@ import randoop.util.Log;
   }
 
   /**
-   * Compiles the given class. If this method returns normally, compilation was successful.
+   * Compiles the given class without writing any files, and returns the errors. Unlike {@link
+   * #isCompilable}, this lets the caller tell which parts of the source are not compilable.
    *
-   * @param packageName the package of the class, null if default package
+   * @param packageName the package name for the class, null if default package
    * @param classname the simple name of the class
    * @param javaSource the source text of the class
-   * @throws SequenceCompilerException if the compilation fails
+   * @return the error diagnostics; empty if the class source was successfully compiled
    */
-  private void compile(final String packageName, final String classname, final String javaSource)
-      throws SequenceCompilerException {
-
+  public List<Diagnostic<? extends JavaFileObject>> compileErrors(
+      final String packageName, final String classname, final String javaSource) {
     DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-
-    boolean success = compile(packageName, classname, javaSource, diagnostics);
-    if (!success) {
-      throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
+    compile(packageName, classname, javaSource, diagnostics, new ClassFileManager(fileManager));
+    List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+      if (d.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(d);
+      }
     }
+    return errors;
   }
 
   /**
-   * A helper method for the {@link #compile(String, String, String)} and {@link
-   * #isCompilable(String, String, String)} methods: compiles the given class using the given
-   * diagnostics collector.
+   * A helper method for {@link #isCompilable}, {@link #compileErrors}, and {@link
+   * #compileToMemory}: compiles the given class using the given diagnostics collector and file
+   * manager.
    *
    * @param packageName the package of the class, null if default package
    * @param classname the simple name of the class
    * @param javaSource the source text of the class
    * @param diagnostics the {@code DiagnosticsCollector} object to use for the compilation. Always
    *     use a new diagnostics collector each compilation to avoid accumulating errors.
+   * @param fileManager the file manager, which determines where class files are written
    * @return true if the class source is successfully compiled, false otherwise
    */
   @SuppressWarnings("UnusedVariable") // TODO: remove packageName formal parameter
@@ -165,7 +162,8 @@ import randoop.util.Log;
       final String packageName,
       final String classname,
       final String javaSource,
-      DiagnosticCollector<JavaFileObject> diagnostics) {
+      DiagnosticCollector<JavaFileObject> diagnostics,
+      JavaFileManager fileManager) {
     String classFileName = classname + ".java";
     List<JavaFileObject> sources = new ArrayList<>(1);
     JavaFileObject source = new SequenceJavaFileObject(classFileName, javaSource);
@@ -201,13 +199,40 @@ import randoop.util.Log;
   }
 
   /**
-   * Compiles the given class, leads it, and returns the Class object. If this method returns
+   * Compiles the given class without writing any files, and returns the class files.
+   *
+   * @param packageName the package of the class, null if default package
+   * @param classname the simple name of the class
+   * @param javaSource the source text of the class
+   * @return the bytecode of the compiled classes, indexed by binary name; can be loaded by a {@link
+   *     CompiledClassLoader}
+   * @throws SequenceCompilerException if the compilation fails
+   */
+  public Map<String, byte[]> compileToMemory(
+      final String packageName, final String classname, final String javaSource)
+      throws SequenceCompilerException {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    ClassFileManager classFileManager = new ClassFileManager(fileManager);
+    boolean success = compile(packageName, classname, javaSource, diagnostics, classFileManager);
+    if (!success) {
+      throw new SequenceCompilerException("Compilation failed", javaSource, diagnostics);
+    }
+    return classFileManager.getClassFiles();
+  }
+
+  /**
+   * Compiles the given class, loads it, and returns the Class object. If this method returns
    * normally, compilation was successful.
    *
+   * <p>The class is compiled in memory and defined by a class loader that is shared by all the
+   * classes loaded by this compiler; see {@link #loadClass}.
+   *
    * @param packageName the package of the class, null if default package
    * @param classname the simple name of the class
    * @param javaSource the source text of the class
    * @throws SequenceCompilerException if the compilation fails
+   * @throws IllegalArgumentException if this compiler already loaded a different class of the same
+   *     name
    * @return the loaded Class object
    */
   public Class<?> compileAndLoad(
@@ -215,25 +240,34 @@ import randoop.util.Log;
       final @Identifier String classname,
       final String javaSource)
       throws SequenceCompilerException {
-    compile(packageName, classname, javaSource);
     String fqName = fullyQualifiedName(packageName, classname);
-    File dir = new File("").getAbsoluteFile();
-    return loadClassFile(dir, fqName);
+    return loadClass(fqName, compileToMemory(packageName, classname, javaSource));
   }
 
   /**
-   * Given a .class file, returns the corresponding Class object.
+   * Loads a class from bytecode, such as that returned by {@link #compileToMemory}, using the class
+   * loader that is shared by the classes loaded by {@link #compileAndLoad}. If the loader already
+   * has a class of the given name with the same bytecode, that class is returned. A class name
+   * cannot be reused for different code: the loader cannot define a second class of the same name,
+   * and returning the first one would run the wrong code.
    *
-   * @param directory the directory containing the .class file (possibly in a package-named
-   *     subdirectory)
-   * @param className the binary name of the class defined in the file
+   * @param className the binary name of the class to load
+   * @param classFiles the bytecode of the class and of any classes that it declares, indexed by
+   *     binary name
    * @return the loaded Class object
+   * @throws IllegalArgumentException if this compiler already loaded a different class of one of
+   *     the names
    */
-  private static Class<?> loadClassFile(File directory, @BinaryName String className) {
-    try (URLClassLoader cl = new URLClassLoader(new URL[] {directory.toURI().toURL()})) {
-      Class<?> cls = cl.loadClass(className);
-      return cls;
-    } catch (ClassNotFoundException | NoClassDefFoundError | IOException e) {
+  public Class<?> loadClass(@BinaryName String className, Map<String, byte[]> classFiles) {
+    if (classLoader == null) {
+      classLoader =
+          new CompiledClassLoader(
+              new HashMap<String, byte[]>(), new URL[0], ClassLoader.getSystemClassLoader());
+    }
+    classLoader.addClassFiles(classFiles);
+    try {
+      return classLoader.loadClass(className);
+    } catch (ClassNotFoundException | LinkageError e) {
       throw new RandoopBug(e);
     }
   }
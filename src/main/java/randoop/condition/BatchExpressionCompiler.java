@@ -0,0 +1,341 @@
+package randoop.condition;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.checker.signature.qual.BinaryName;
+import randoop.Globals;
+import randoop.compile.SequenceCompiler;
+import randoop.compile.SequenceCompilerException;
+import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopBug;
+import randoop.reflection.RawSignature;
+import randoop.util.Log;
+
+/**
+ * Compiles many expression methods at once: the expression methods of one package become the static
+ * methods of one class, compiled by one invocation of the compiler. This is much faster than
+ * compiling a class for each expression, as {@link ExecutableBooleanExpression#createMethod} does.
+ *
+ * <p>If {@link GenInputsAbstract#condition_cache_dir} is set, the bytecode of each class is stored
+ * in that directory, keyed by a hash of the class's source code and of the Java version. A later
+ * run that compiles the same expressions loads the bytecode instead of invoking the compiler.
+ *
+ * <p>If a class does not compile, none of its expressions are compiled, and {@link #getMethod}
+ * returns null for them. The caller then compiles each expression on its own, which reports the
+ * errors for each expression.
+ */
+class BatchExpressionCompiler {
+
+  /** The version of the generated code and of the cache files. Part of the cache key. */
+  private static final int VERSION = 1;
+
+  /** The first four bytes of every class file. */
+  private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+  /** The prefix of the name of each expression method. */
+  private static final String METHOD_NAME_PREFIX = "expression";
+
+  /** The compiler. */
+  private final SequenceCompiler compiler;
+
+  /** The expressions added since the last call to {@link #compile}, indexed by package name. */
+  private final Map<String, Map<String, PendingExpression>> pending = new LinkedHashMap<>();
+
+  /** The compiled expression methods, indexed by {@link #key}. */
+  private final Map<String, Method> methods = new HashMap<>();
+
+  /**
+   * Creates a {@link BatchExpressionCompiler}.
+   *
+   * @param compiler the compiler, which also loads the compiled classes
+   */
+  BatchExpressionCompiler(SequenceCompiler compiler) {
+    this.compiler = compiler;
+  }
+
+  /**
+   * Adds an expression method to be compiled by the next call to {@link #compile}. The arguments
+   * are those of {@link ExecutableBooleanExpression#createMethod}.
+   *
+   * @param signature the signature for the expression method; its name is ignored
+   * @param declarations the parameter declaration string, including parameter names and wrapped in
+   *     parentheses
+   * @param expressionSource a Java expression that is the source code for the expression
+   */
+  void add(RawSignature signature, String declarations, String expressionSource) {
+    String key = key(signature, declarations, expressionSource);
+    if (methods.containsKey(key)) {
+      return;
+    }
+    String packageName = signature.getPackageName() == null ? "" : signature.getPackageName();
+    pending
+        .computeIfAbsent(packageName, p -> new LinkedHashMap<>())
+        .put(key, new PendingExpression(signature, declarations, expressionSource));
+  }
+
+  /** Compiles the expression methods that were added since the last call. */
+  void compile() {
+    for (Map.Entry<String, Map<String, PendingExpression>> entry : pending.entrySet()) {
+      String packageName = entry.getKey().isEmpty() ? null : entry.getKey();
+      compile(packageName, new ArrayList<>(entry.getValue().values()));
+    }
+    pending.clear();
+  }
+
+  /**
+   * Returns the compiled expression method, if it was compiled by {@link #compile}.
+   *
+   * @param signature the signature for the expression method; its name is ignored
+   * @param declarations the parameter declaration string, including parameter names and wrapped in
+   *     parentheses
+   * @param expressionSource a Java expression that is the source code for the expression
+   * @return the compiled method, or null if it has not been compiled
+   */
+  @Nullable Method getMethod(RawSignature signature, String declarations, String expressionSource) {
+    return methods.get(key(signature, declarations, expressionSource));
+  }
+
+  /**
+   * Compiles the given expressions as the methods of one class, or loads the class from the cache.
+   *
+   * @param packageName the package of the expressions, or null for the default package
+   * @param expressions the expressions to compile
+   */
+  private void compile(@Nullable String packageName, List<PendingExpression> expressions) {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < expressions.size(); i++) {
+      PendingExpression expression = expressions.get(i);
+      body.append(
+          String.format(
+              "  public static boolean %s%d%s throws Throwable {%n    return %s;%n  }%n",
+              METHOD_NAME_PREFIX, i, expression.declarations, expression.expressionSource));
+    }
+    String javaVersion = System.getProperty("java.version");
+    String classname =
+        "RandoopConditions"
+            + hash(VERSION + "\n" + javaVersion + "\n" + packageName + "\n" + body);
+    @SuppressWarnings("signature:assignment") // string concatenation
+    @BinaryName String fqName = (packageName == null ? "" : packageName + ".") + classname;
+
+    @Nullable Path cacheFile =
+        GenInputsAbstract.condition_cache_dir == null
+            ? null
+            : GenInputsAbstract.condition_cache_dir.resolve(fqName + ".classes");
+    @Nullable Map<String, byte[]> classFiles =
+        cacheFile == null ? null : readCacheFile(cacheFile, fqName);
+    if (classFiles == null) {
+      String packageDeclaration =
+          packageName == null ? "" : "package " + packageName + ";" + Globals.lineSep;
+      String classText =
+          String.format(
+              "%spublic class %s {%n%s}%n", packageDeclaration, classname, body.toString());
+      try {
+        classFiles = compiler.compileToMemory(packageName, classname, classText);
+      } catch (SequenceCompilerException e) {
+        // Each expression will be compiled on its own, which reports the errors.
+        Log.logPrintf(
+            "Expressions of package %s do not compile together; compiling each on its own%n",
+            packageName);
+        return;
+      }
+      if (cacheFile != null) {
+        writeCacheFile(cacheFile, classFiles);
+      }
+    }
+
+    Class<?> expressionClass = compiler.loadClass(fqName, classFiles);
+    for (int i = 0; i < expressions.size(); i++) {
+      PendingExpression expression = expressions.get(i);
+      try {
+        methods.put(
+            key(expression.signature, expression.declarations, expression.expressionSource),
+            expressionClass.getDeclaredMethod(
+                METHOD_NAME_PREFIX + i, expression.signature.getParameterTypes()));
+      } catch (NoSuchMethodException e) {
+        throw new RandoopBug("Condition class does not contain expression method", e);
+      }
+    }
+  }
+
+  /**
+   * Reads the bytecode written by {@link #writeCacheFile}. A file that is malformed, such as one
+   * that was truncated or corrupted, is treated like a missing file.
+   *
+   * @param cacheFile the cache file
+   * @param className the binary name of the class that the file must contain
+   * @return the bytecode of the classes, indexed by binary name, or null if the file does not
+   *     exist, cannot be read, or is malformed
+   */
+  private static @Nullable Map<String, byte[]> readCacheFile(Path cacheFile, String className) {
+    byte[] contents;
+    try {
+      contents = Files.readAllBytes(cacheFile);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      Log.logPrintf("Cannot read condition cache file %s: %s%n", cacheFile, e);
+      return null;
+    }
+
+    // For a ByteArrayInputStream, available() is the exact number of bytes that remain, so each
+    // length can be checked before an array is allocated for it.
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(contents))) {
+      int count = in.readInt();
+      if (count < 0 || count > in.available()) {
+        return malformedCacheFile(cacheFile, "bad number of classes " + count);
+      }
+      Map<String, byte[]> classFiles = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        String name = in.readUTF();
+        int length = in.readInt();
+        if (length < 4 || length > in.available()) {
+          return malformedCacheFile(cacheFile, "bad length " + length + " of class " + name);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        if (ByteBuffer.wrap(bytes).getInt() != CLASS_FILE_MAGIC) {
+          return malformedCacheFile(cacheFile, "class " + name + " is not a class file");
+        }
+        if (classFiles.put(name, bytes) != null) {
+          return malformedCacheFile(cacheFile, "duplicate class " + name);
+        }
+      }
+      if (in.available() != 0) {
+        return malformedCacheFile(cacheFile, "extra bytes at end");
+      }
+      if (!classFiles.containsKey(className)) {
+        return malformedCacheFile(cacheFile, "no class " + className);
+      }
+      return classFiles;
+    } catch (IOException e) {
+      // Includes EOFException if the file is truncated, and UTFDataFormatException.
+      return malformedCacheFile(cacheFile, e.toString());
+    }
+  }
+
+  /**
+   * Logs that a cache file is malformed, so that it is ignored and will be replaced.
+   *
+   * @param cacheFile the cache file
+   * @param reason why the file is malformed
+   * @return null
+   */
+  private static @Nullable Map<String, byte[]> malformedCacheFile(Path cacheFile, String reason) {
+    Log.logPrintf("Ignoring malformed condition cache file %s: %s%n", cacheFile, reason);
+    return null;
+  }
+
+  /**
+   * Writes the given bytecode to a cache file. The file is replaced atomically, if the file system
+   * supports it, so that concurrent runs of Randoop never read a partial file. If the file cannot
+   * be written, prints a warning and continues.
+   *
+   * @param cacheFile the cache file
+   * @param classFiles the bytecode of the classes, indexed by binary name
+   */
+  private static void writeCacheFile(Path cacheFile, Map<String, byte[]> classFiles) {
+    try {
+      Path dir = cacheFile.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      Path tmpFile = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+        out.writeInt(classFiles.size());
+        for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+      }
+      try {
+        Files.move(
+            tmpFile,
+            cacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      System.out.printf("%nWarning: cannot write condition cache file %s: %s%n", cacheFile, e);
+    }
+  }
+
+  /**
+   * Returns the key for an expression method in {@link #methods}.
+   *
+   * @param signature the signature for the expression method
+   * @param declarations the parameter declaration string
+   * @param expressionSource the source code for the expression
+   * @return the key for the expression method
+   */
+  private static String key(RawSignature signature, String declarations, String expressionSource) {
+    return signature.getPackageName() + "\n" + declarations + "\n" + expressionSource;
+  }
+
+  /**
+   * Returns a hash of the given text, as 16 hexadecimal digits.
+   *
+   * @param text the text to hash
+   * @return the first 64 bits of the SHA-256 hash of the text, in hexadecimal
+   */
+  private static String hash(String text) {
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new RandoopBug("SHA-256 is not available", e);
+    }
+    StringBuilder sb = new StringBuilder(16);
+    for (int i = 0; i < 8; i++) {
+      sb.append(String.format("%02x", digest[i]));
+    }
+    return sb.toString();
+  }
+
+  /** An expression method that has not been compiled yet. */
+  private static class PendingExpression {
+
+    /** The signature for the expression method; its name is ignored. */
+    final RawSignature signature;
+
+    /** The parameter declaration string, including parameter names and wrapped in parentheses. */
+    final String declarations;
+
+    /** A Java expression that is the source code for the expression. */
+    final String expressionSource;
+
+    /**
+     * Creates a {@link PendingExpression}.
+     *
+     * @param signature the signature for the expression method
+     * @param declarations the parameter declaration string
+     * @param expressionSource the source code for the expression
+     */
+    PendingExpression(RawSignature signature, String declarations, String expressionSource) {
+      this.signature = signature;
+      this.declarations = declarations;
+      this.expressionSource = expressionSource;
+    }
+  }
+}
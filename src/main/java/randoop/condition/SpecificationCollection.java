@@ -76,6 +76,12 @@ import randoop.util.Util;
   /** Compiler for creating conditionMethods. */
   private final @Owning SequenceCompiler compiler;
 
+  /** Compiles the condition methods of all the specifications of a class together. */
+  private final BatchExpressionCompiler batchCompiler;
+
+  /** The classes whose specifications have been given to {@link #batchCompiler}. */
+  private final Set<Class<?>> batchCompiledClasses = new HashSet<>();
+
   /**
    * Creates a {@link SpecificationCollection} for the given specification map.
    *
@@ -96,6 +102,7 @@ import randoop.util.Util;
     this.overridden = overridden;
     this.getExecutableSpecificationCache = new HashMap<>();
     this.compiler = new SequenceCompiler();
+    this.batchCompiler = new BatchExpressionCompiler(compiler);
   }
 
   /**
@@ -384,9 +391,10 @@ import randoop.util.Util;
     if (specification == null) {
       execSpec = new ExecutableSpecification();
     } else {
+      batchCompile(executable.getDeclaringClass());
       execSpec =
           SpecificationTranslator.createExecutableSpecification(
-              executable, specification, compiler);
+              executable, specification, compiler, batchCompiler);
     }
 
     if (executable instanceof Method) {
@@ -414,4 +422,26 @@ import randoop.util.Util;
     getExecutableSpecificationCache.put(executable, execSpec);
     return execSpec;
   }
+
+  /**
+   * Compiles the condition methods of all the specifications of constructors and methods declared
+   * in the given class, in one invocation of the compiler, unless this was already done.
+   *
+   * @param declaringClass the class whose specifications to compile
+   */
+  private void batchCompile(Class<?> declaringClass) {
+    if (!batchCompiledClasses.add(declaringClass)) {
+      return;
+    }
+    for (Map.Entry<AccessibleObject, OperationSpecification> entry : specificationMap.entrySet()) {
+      if (entry.getKey() instanceof Executable) {
+        Executable executable = (Executable) entry.getKey();
+        if (executable.getDeclaringClass() == declaringClass) {
+          SpecificationTranslator.addExpressions(
+              executable, entry.getValue(), compiler, batchCompiler);
+        }
+      }
+    }
+    batchCompiler.compile();
+  }
 }
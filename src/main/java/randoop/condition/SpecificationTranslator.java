@@ -58,6 +58,12 @@ public class SpecificationTranslator {
   /** The {@link SequenceCompiler} for compiling expression methods. */
   private final SequenceCompiler compiler;
 
+  /**
+   * The compiler for expression methods that were compiled together, or null. An expression method
+   * that it did not compile is compiled by {@link #compiler}.
+   */
+  private final @Nullable BatchExpressionCompiler batchCompiler;
+
   /**
    * Creates a {@link SpecificationTranslator} object in the given package with the signature
    * strings and variable replacementMap.
@@ -70,6 +76,7 @@ public class SpecificationTranslator {
    *     poststate expression method
    * @param replacementMap the map of expression identifiers to dummy variables
    * @param compiler the {@link SequenceCompiler} for creating expression methods
+   * @param batchCompiler the compiler for expression methods that were compiled together, or null
    */
   private SpecificationTranslator(
       RawSignature prestateExpressionSignature,
@@ -77,13 +84,15 @@ public class SpecificationTranslator {
       RawSignature poststateExpressionSignature,
       String poststateExpressionDeclaration,
       Map<String, String> replacementMap,
-      SequenceCompiler compiler) {
+      SequenceCompiler compiler,
+      @Nullable BatchExpressionCompiler batchCompiler) {
     this.prestateExpressionSignature = prestateExpressionSignature;
     this.prestateExpressionDeclaration = prestateExpressionDeclaration;
     this.poststateExpressionSignature = poststateExpressionSignature;
     this.poststateExpressionDeclarations = poststateExpressionDeclaration;
     this.replacementMap = replacementMap;
     this.compiler = compiler;
+    this.batchCompiler = batchCompiler;
   }
 
   /**
@@ -98,6 +107,25 @@ public class SpecificationTranslator {
    */
   static SpecificationTranslator createTranslator(
       Executable executable, OperationSpecification specification, SequenceCompiler compiler) {
+    return createTranslator(executable, specification, compiler, null);
+  }
+
+  /**
+   * Creates a {@link SpecificationTranslator} object to translate the {@link
+   * OperationSpecification} of {@code executable}.
+   *
+   * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation with {@link
+   *     OperationSpecification} to translate
+   * @param specification the specification to be translated
+   * @param compiler the sequence compiler to use to create expression methods
+   * @param batchCompiler the compiler for expression methods that were compiled together, or null
+   * @return the translator object to convert the specifications for {@code executable}
+   */
+  static SpecificationTranslator createTranslator(
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      @Nullable BatchExpressionCompiler batchCompiler) {
     Identifiers identifiers = specification.getIdentifiers();
 
     // Get expression method signatures.
@@ -127,7 +155,8 @@ public class SpecificationTranslator {
         poststateExpressionSignature,
         poststateExpressionDeclarations,
         replacementMap,
-        compiler);
+        compiler,
+        batchCompiler);
   }
 
   /**
@@ -255,13 +284,75 @@ public class SpecificationTranslator {
    */
   public static ExecutableSpecification createExecutableSpecification(
       Executable executable, OperationSpecification specification, SequenceCompiler compiler) {
-    SpecificationTranslator st = createTranslator(executable, specification, compiler);
+    return createExecutableSpecification(executable, specification, compiler, null);
+  }
+
+  /**
+   * Create the {@link ExecutableSpecification} object for the given {@link OperationSpecification}
+   * using this {@link SpecificationTranslator}.
+   *
+   * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation to translate
+   * @param specification the specification to translate
+   * @param compiler the sequence compiler to use to create expression methods
+   * @param batchCompiler the compiler for expression methods that were compiled together, or null.
+   *     The expression methods that it did not compile are compiled by {@code compiler}.
+   * @return the {@link ExecutableSpecification} for the given specification
+   */
+  static ExecutableSpecification createExecutableSpecification(
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      @Nullable BatchExpressionCompiler batchCompiler) {
+    SpecificationTranslator st =
+        createTranslator(executable, specification, compiler, batchCompiler);
     return new ExecutableSpecification(
         st.getGuardExpressions(specification.getPreconditions()),
         st.getReturnConditions(specification.getPostconditions()),
         st.getThrowsConditions(specification.getThrowsConditions()));
   }
 
+  /**
+   * Adds the expression methods of the given specification to the given batch compiler, so that
+   * they can be compiled together with those of other specifications.
+   *
+   * @param executable the {@code java.lang.reflect.AccessibleObject} for the operation
+   * @param specification the specification of the operation
+   * @param compiler the sequence compiler
+   * @param batchCompiler the compiler to which to add the expression methods
+   */
+  static void addExpressions(
+      Executable executable,
+      OperationSpecification specification,
+      SequenceCompiler compiler,
+      BatchExpressionCompiler batchCompiler) {
+    SpecificationTranslator st =
+        createTranslator(executable, specification, compiler, batchCompiler);
+    for (Precondition precondition : specification.getPreconditions()) {
+      st.addPrestateExpression(batchCompiler, precondition.getGuard());
+    }
+    for (Postcondition postcondition : specification.getPostconditions()) {
+      st.addPrestateExpression(batchCompiler, postcondition.getGuard());
+      batchCompiler.add(
+          st.poststateExpressionSignature,
+          st.poststateExpressionDeclarations,
+          postcondition.getProperty().getConditionSource());
+    }
+    for (ThrowsCondition throwsCondition : specification.getThrowsConditions()) {
+      st.addPrestateExpression(batchCompiler, throwsCondition.getGuard());
+    }
+  }
+
+  /**
+   * Adds the expression method for a guard to the given batch compiler.
+   *
+   * @param batchCompiler the compiler to which to add the expression method
+   * @param guard the guard
+   */
+  private void addPrestateExpression(BatchExpressionCompiler batchCompiler, Guard guard) {
+    batchCompiler.add(
+        prestateExpressionSignature, prestateExpressionDeclaration, guard.getConditionSource());
+  }
+
   /**
    * Construct the list of {@link ExecutableBooleanExpression} objects, one for each {@link
    * Precondition}.
@@ -373,13 +464,12 @@ public class SpecificationTranslator {
    */
   private ExecutableBooleanExpression create(Guard expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
-    return new ExecutableBooleanExpression(
+    return createExpression(
         prestateExpressionSignature,
         prestateExpressionDeclaration,
         expression.getConditionSource(),
         contractText,
-        expression.getDescription(),
-        compiler);
+        expression.getDescription());
   }
 
   /**
@@ -393,13 +483,40 @@ public class SpecificationTranslator {
    */
   public ExecutableBooleanExpression create(Property expression) {
     String contractText = Util.replaceWords(expression.getConditionSource(), replacementMap);
-    return new ExecutableBooleanExpression(
+    return createExpression(
         poststateExpressionSignature,
         poststateExpressionDeclarations,
         expression.getConditionSource(),
         contractText,
-        expression.getDescription(),
-        compiler);
+        expression.getDescription());
+  }
+
+  /**
+   * Creates a {@link ExecutableBooleanExpression}, using the expression method compiled by {@link
+   * #batchCompiler} if there is one.
+   *
+   * @param signature the signature for the expression method
+   * @param declarations the parameter declaration string for the expression method
+   * @param expressionSource the source code for the expression
+   * @param contractSource the source code for the expression, with dummy variable names
+   * @param comment the comment describing the expression
+   * @return the {@link ExecutableBooleanExpression}
+   */
+  private ExecutableBooleanExpression createExpression(
+      RawSignature signature,
+      String declarations,
+      String expressionSource,
+      String contractSource,
+      String comment) {
+    @Nullable Method method =
+        batchCompiler == null
+            ? null
+            : batchCompiler.getMethod(signature, declarations, expressionSource);
+    if (method != null) {
+      return new ExecutableBooleanExpression(method, comment, contractSource);
+    }
+    return new ExecutableBooleanExpression(
+        signature, declarations, expressionSource, contractSource, comment, compiler);
   }
 
   /**
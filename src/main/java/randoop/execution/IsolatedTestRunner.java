@@ -0,0 +1,177 @@
+package randoop.execution;
+
+import static randoop.execution.RunCommand.CommandException;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import randoop.main.RandoopUsageError;
+
+/**
+ * Runs a JUnit test class in a class loader of its own, within the current JVM, and returns the
+ * failures.
+ *
+ * <p>JUnit and the classes under test are loaded from the test classpath, not from Randoop's
+ * classpath, so that the tests do not see the state that test generation left behind. The parent of
+ * the class loader is {@link #isolatedParent()}. Because JUnit is loaded by that class loader, it
+ * is called reflectively.
+ *
+ * <p>A test that does not finish in time cannot be stopped safely. Its thread is interrupted, but
+ * if the test ignores the interrupt, the thread keeps running in the current JVM (as a daemon
+ * thread) until the test finishes or the JVM exits. {@link #run} throws {@link TimedOutException}
+ * in that case, so that the caller can stop running tests in this JVM.
+ */
+public final class IsolatedTestRunner {
+
+  /** The name of the JUnit 4 runner class. */
+  private static final String JUNIT_CORE = "org.junit.runner.JUnitCore";
+
+  private IsolatedTestRunner() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Returns the class loader to use as the parent of a class loader for tests. It loads the JDK
+   * classes, but not the classes on Randoop's classpath.
+   *
+   * @return the parent for a class loader for tests
+   */
+  public static ClassLoader isolatedParent() {
+    return ClassLoader.getSystemClassLoader().getParent();
+  }
+
+  /**
+   * Converts a classpath to the URLs for a {@code URLClassLoader}. An element of the form {@code
+   * dir/*} stands for all the jar files in {@code dir}, as in the {@code java} command.
+   *
+   * @param classpath the classpath, with elements separated by {@code File.pathSeparator}
+   * @return the URLs of the elements of the classpath
+   */
+  public static URL[] classpathUrls(String classpath) {
+    List<URL> result = new ArrayList<>();
+    for (String element : classpath.split(File.pathSeparator)) {
+      if (element.isEmpty()) {
+        continue;
+      }
+      try {
+        if (element.endsWith("*")) {
+          File dir = new File(element.substring(0, element.length() - 1));
+          File[] jars = dir.listFiles((d, name) -> name.endsWith(".jar") || name.endsWith(".JAR"));
+          if (jars != null) {
+            for (File jar : jars) {
+              result.add(jar.toURI().toURL());
+            }
+          }
+        } else {
+          result.add(new File(element).toURI().toURL());
+        }
+      } catch (MalformedURLException e) {
+        throw new RandoopUsageError("Bad classpath element " + element, e);
+      }
+    }
+    return result.toArray(new URL[0]);
+  }
+
+  /**
+   * Runs the named JUnit 4 test class in a new thread, and returns the failures.
+   *
+   * @param loader the class loader for the test class, JUnit, and the classes under test
+   * @param testClassName the binary name of the test class
+   * @param timeoutMillis the time in milliseconds that the tests are allowed to run
+   * @return the failures; empty if all the tests passed
+   * @throws TimedOutException if the tests did not finish in time
+   * @throws CommandException if the tests could not be run
+   * @throws RandoopUsageError if the loader cannot load JUnit
+   */
+  public static List<TestFailure> run(ClassLoader loader, String testClassName, long timeoutMillis)
+      throws CommandException {
+    Method runClasses;
+    try {
+      runClasses = Class.forName(JUNIT_CORE, true, loader).getMethod("runClasses", Class[].class);
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      throw new RandoopUsageError(
+          "Classpath does not contain JUnit.  Please correct the classpath and re-run Randoop.");
+    }
+
+    List<TestFailure> failures = new ArrayList<>();
+    Throwable[] error = new Throwable[1];
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                failures.addAll(runJUnit(runClasses, loader, testClassName));
+              } catch (Throwable e) {
+                error[0] = e;
+              }
+            },
+            "randoop.execution.IsolatedTestRunner-" + testClassName);
+    thread.setDaemon(true);
+    thread.setContextClassLoader(loader);
+    thread.start();
+    try {
+      thread.join(timeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CommandException("Interrupted while running " + testClassName, e);
+    }
+    if (thread.isAlive()) {
+      thread.interrupt();
+      throw new TimedOutException(
+          String.format("Timed out after %d ms running %s", timeoutMillis, testClassName));
+    }
+    if (error[0] != null) {
+      throw new CommandException("Exception running " + testClassName, error[0]);
+    }
+    return failures;
+  }
+
+  /**
+   * Runs the named JUnit 4 test class in the current thread, and returns the failures.
+   *
+   * @param runClasses the {@code JUnitCore.runClasses} method
+   * @param loader the class loader for the test class
+   * @param testClassName the binary name of the test class
+   * @return the failures; empty if all the tests passed
+   * @throws ReflectiveOperationException if the class or the JUnit methods cannot be accessed
+   */
+  private static List<TestFailure> runJUnit(
+      Method runClasses, ClassLoader loader, String testClassName)
+      throws ReflectiveOperationException {
+    Class<?> testClass = Class.forName(testClassName, false, loader);
+    // JUnit reports exceptions thrown by the tests as failures, rather than throwing them.
+    Object result = runClasses.invoke(null, (Object) new Class<?>[] {testClass});
+    List<?> junitFailures = (List<?>) result.getClass().getMethod("getFailures").invoke(result);
+    List<TestFailure> failures = new ArrayList<>(junitFailures.size());
+    for (Object failure : junitFailures) {
+      Class<?> failureClass = failure.getClass();
+      String testHeader = (String) failureClass.getMethod("getTestHeader").invoke(failure);
+      Object description = failureClass.getMethod("getDescription").invoke(failure);
+      String methodName =
+          (String) description.getClass().getMethod("getMethodName").invoke(description);
+      Throwable exception = (Throwable) failureClass.getMethod("getException").invoke(failure);
+      failures.add(new TestFailure(testHeader, methodName, exception));
+    }
+    return failures;
+  }
+
+  /**
+   * Thrown when a test class does not finish in time. The thread that runs the tests may still be
+   * running.
+   */
+  public static final class TimedOutException extends CommandException {
+
+    private static final long serialVersionUID = 20240801L;
+
+    /**
+     * Creates a {@link TimedOutException}.
+     *
+     * @param message the exception message
+     */
+    TimedOutException(String message) {
+      super(message, null);
+    }
+  }
+}
@@ -2,14 +2,36 @@ package randoop.execution;
 
 import static randoop.execution.RunCommand.CommandException;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.plumelib.util.FilesPlume;
+import randoop.Globals;
+import randoop.compile.CompiledClassLoader;
 import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopUsageError;
 
-/** Provides the environment for running JUnit tests. */
+/**
+ * Provides the environment for running JUnit tests.
+ *
+ * <p>Tests can be run in a new JVM ({@link #runTest}), within Randoop's JVM ({@link
+ * #runTestInProcess}), or in a separate JVM that is reused for many test classes ({@link
+ * #runTestInWorker}).
+ */
 public class TestEnvironment {
 
   /** The process timeout in milliseconds. Defaults to 20 minutes. */
@@ -27,6 +49,18 @@ public class TestEnvironment {
   /** The argument string for the replacecall agent. */
   private String replaceCallAgentArgs;
 
+  /** The JVM that runs tests for {@link #runTestInWorker}, or null if it is not running. */
+  private @Nullable Worker worker;
+
+  /**
+   * True if a test class run by {@link #runTestInProcess} timed out. Its thread may still be
+   * running in Randoop's JVM, so later test classes are run in a separate JVM instead.
+   */
+  private volatile boolean inProcessTimedOut = false;
+
+  /** Held while a test class runs within Randoop's JVM, so that test classes run one at a time. */
+  private static final Object IN_PROCESS_LOCK = new Object();
+
   /**
    * Creates a test environment with the given classpath and an empty agent map.
    *
@@ -84,6 +118,178 @@ public class TestEnvironment {
     return RunCommand.run(command, workingDirectory, timeoutMillis);
   }
 
+  /**
+   * Returns true if tests in this environment can be run by {@link #runTestInProcess}: that is, if
+   * they do not need any Java agents, and no test class run in process has timed out.
+   *
+   * @return true if tests can be run within Randoop's JVM
+   */
+  public boolean canRunInProcess() {
+    return replaceCallAgentPath == null && agentMap.isEmpty() && !inProcessTimedOut;
+  }
+
+  /**
+   * Runs the named JUnit test class within Randoop's JVM, in a class loader of its own. Requires
+   * {@link #canRunInProcess()}.
+   *
+   * <p>Test classes of different threads, such as with {@link GenInputsAbstract#output_threads}
+   * greater than 1, are run one at a time. Otherwise they could interfere through the state that
+   * all classes share, such as static fields of the JDK, system properties, the default locale and
+   * time zone, and {@code System.out}.
+   *
+   * <p>If the tests time out, their thread cannot be stopped, and may keep running in Randoop's
+   * JVM. Then this runs the test class again by {@link #runTestInWorker}, and {@link
+   * #canRunInProcess()} is false from then on, so that timed-out tests do not accumulate in
+   * Randoop's JVM. The worker JVM is stopped if a test times out in it.
+   *
+   * @param testClassName the fully-qualified JUnit test class name
+   * @param classFiles the bytecode of the test class, indexed by binary name, as returned by {@link
+   *     randoop.compile.SequenceCompiler#compileToMemory}
+   * @return the failures; empty if all the tests passed
+   * @throws CommandException if the tests could not be run, or did not finish in time
+   */
+  public List<TestFailure> runTestInProcess(String testClassName, Map<String, byte[]> classFiles)
+      throws CommandException {
+    assert replaceCallAgentPath == null && agentMap.isEmpty();
+    synchronized (IN_PROCESS_LOCK) {
+      // Another thread may have timed out while this one was waiting.
+      if (!inProcessTimedOut) {
+        try (CompiledClassLoader loader =
+            new CompiledClassLoader(
+                classFiles,
+                IsolatedTestRunner.classpathUrls(testClasspath),
+                IsolatedTestRunner.isolatedParent())) {
+          return IsolatedTestRunner.run(loader, testClassName, timeoutMillis);
+        } catch (IsolatedTestRunner.TimedOutException e) {
+          inProcessTimedOut = true;
+        } catch (IOException e) {
+          throw new CommandException("Exception closing class loader for " + testClassName, e);
+        }
+      }
+    }
+
+    Path classDirectory;
+    try {
+      classDirectory = Files.createTempDirectory("randoop-test-classes");
+      for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+        String binaryName = entry.getKey();
+        int packageEnd = binaryName.lastIndexOf('.') + 1;
+        Path packageDirectory =
+            classDirectory.resolve(binaryName.substring(0, packageEnd).replace('.', '/'));
+        Files.createDirectories(packageDirectory);
+        Files.write(
+            packageDirectory.resolve(binaryName.substring(packageEnd) + ".class"),
+            entry.getValue());
+      }
+    } catch (IOException e) {
+      throw new CommandException("Exception writing class files for " + testClassName, e);
+    }
+    try {
+      return runTestInWorker(testClassName, classDirectory);
+    } finally {
+      FilesPlume.deleteDir(classDirectory.toFile());
+    }
+  }
+
+  /**
+   * Runs the named JUnit test class in a separate JVM, with the agents of this environment. Unlike
+   * {@link #runTest}, the JVM is started only once and reused by later calls, until {@link
+   * #stopWorker} is called or a test class cannot be run.
+   *
+   * @param testClassName the fully-qualified JUnit test class name
+   * @param classDirectory the directory that contains the class file of the test class
+   * @return the failures; empty if all the tests passed
+   * @throws CommandException if the tests could not be run, or did not finish in time
+   */
+  public synchronized List<TestFailure> runTestInWorker(String testClassName, Path classDirectory)
+      throws CommandException {
+    Worker w = worker;
+    try {
+      if (w == null) {
+        w = startWorker();
+        worker = w;
+      }
+      w.toWorker.writeUTF(testClassName);
+      w.toWorker.writeUTF(classDirectory.toAbsolutePath().toString());
+      w.toWorker.flush();
+      int tag = w.fromWorker.readByte();
+      Object response = w.fromWorker.readObject();
+      if (tag == TestRunnerWorker.FAILURES) {
+        @SuppressWarnings("unchecked") // written by TestRunnerWorker
+        List<TestFailure> failures = (List<TestFailure>) response;
+        return failures;
+      }
+      stopWorker();
+      if (tag == TestRunnerWorker.USAGE_ERROR) {
+        throw new RandoopUsageError((String) response);
+      }
+      throw new CommandException("Error running " + testClassName + ": " + response, null);
+    } catch (IOException | ClassNotFoundException e) {
+      String errorOutput = (w == null) ? "(not started)" : w.errorOutput();
+      stopWorker();
+      throw new CommandException(
+          "Error communicating with test JVM; its error output is:" + Globals.lineSep + errorOutput,
+          e);
+    }
+  }
+
+  /** Stops the JVM started by {@link #runTestInWorker}, if it is running. */
+  public synchronized void stopWorker() {
+    Worker w = worker;
+    if (w == null) {
+      return;
+    }
+    worker = null;
+    try {
+      w.toWorker.close();
+      if (!w.process.waitFor(10, TimeUnit.SECONDS)) {
+        w.process.destroyForcibly();
+      }
+    } catch (IOException e) {
+      w.process.destroyForcibly();
+    } catch (InterruptedException e) {
+      w.process.destroyForcibly();
+      Thread.currentThread().interrupt();
+    }
+    FilesPlume.deleteDir(w.directory.toFile());
+  }
+
+  /**
+   * Starts a JVM for {@link #runTestInWorker}.
+   *
+   * @return the new JVM
+   * @throws IOException if the JVM cannot be started
+   */
+  private Worker startWorker() throws IOException {
+    String randoopClasspath;
+    try {
+      URL location = TestRunnerWorker.class.getProtectionDomain().getCodeSource().getLocation();
+      randoopClasspath = Paths.get(location.toURI()).toString();
+    } catch (URISyntaxException e) {
+      throw new IOException("Cannot find the location of Randoop", e);
+    }
+    List<String> command = jvmCommand();
+    command.add("-classpath");
+    command.add(randoopClasspath);
+    command.add(TestRunnerWorker.class.getName());
+    command.add(Long.toString(timeoutMillis));
+    command.add(testClasspath);
+
+    Path directory = Files.createTempDirectory("randoop-test-worker");
+    Process process =
+        new ProcessBuilder(command)
+            .directory(directory.toFile())
+            .redirectError(directory.resolve(Worker.ERROR_OUTPUT).toFile())
+            .start();
+    try {
+      return new Worker(process, directory);
+    } catch (IOException e) {
+      process.destroyForcibly();
+      FilesPlume.deleteDir(directory.toFile());
+      throw e;
+    }
+  }
+
   /**
    * Constructs the command to run JUnit tests in this environment, minus the name of the test
    * class. Adding the test class name is sufficient to build a runnable command.
@@ -91,6 +297,21 @@ public class TestEnvironment {
    * @return the base command to run JUnit tests in this environment, without a test class name
    */
   private List<String> commandPrefix() {
+    List<String> command = jvmCommand();
+    command.add("-classpath");
+    command.add("." + java.io.File.pathSeparator + testClasspath);
+    command.add("org.junit.runner.JUnitCore");
+
+    return command;
+  }
+
+  /**
+   * Constructs the command to start a JVM in this environment, with its agents, minus the classpath
+   * and the main class.
+   *
+   * @return the command to start a JVM, without a classpath or main class
+   */
+  private List<String> jvmCommand() {
     List<String> command = new ArrayList<>(agentMap.size() + 9);
     command.add("java");
     command.add("-ea");
@@ -107,10 +328,6 @@ public class TestEnvironment {
       command.add(getJavaagentOption(entry.getKey(), args));
     }
 
-    command.add("-classpath");
-    command.add("." + java.io.File.pathSeparator + testClasspath);
-    command.add("org.junit.runner.JUnitCore");
-
     return command;
   }
 
@@ -121,4 +338,51 @@ public class TestEnvironment {
     }
     return agent;
   }
+
+  /** A JVM that runs {@link TestRunnerWorker}, and the streams for communicating with it. */
+  private static class Worker {
+
+    /** The name of the file, in {@link #directory}, that holds the error output of the JVM. */
+    static final String ERROR_OUTPUT = "stderr.txt";
+
+    /** The JVM process. */
+    final Process process;
+
+    /** The working directory of the JVM. */
+    final Path directory;
+
+    /** The standard input of the JVM. */
+    final DataOutputStream toWorker;
+
+    /** The standard output of the JVM. */
+    final ObjectInputStream fromWorker;
+
+    /**
+     * Creates a {@link Worker} for the given process.
+     *
+     * @param process the JVM process
+     * @param directory the working directory of the JVM
+     * @throws IOException if the JVM does not start its output
+     */
+    Worker(Process process, Path directory) throws IOException {
+      this.process = process;
+      this.directory = directory;
+      this.toWorker = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+      this.fromWorker = new ObjectInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    /**
+     * Returns the error output of the JVM.
+     *
+     * @return the error output, or a message saying why it is not available
+     */
+    String errorOutput() {
+      try {
+        return new String(
+            Files.readAllBytes(directory.resolve(ERROR_OUTPUT)), StandardCharsets.UTF_8);
+      } catch (IOException e) {
+        return "(unavailable: " + e.getMessage() + ")";
+      }
+    }
+  }
 }
@@ -0,0 +1,70 @@
+package randoop.execution;
+
+import java.io.Serializable;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.Globals;
+
+/**
+ * A failure of a JUnit test, as reported by the JUnit runner. Unlike the text output of {@code
+ * org.junit.runner.JUnitCore}, it does not need to be parsed.
+ */
+public final class TestFailure implements Serializable {
+
+  private static final long serialVersionUID = 20250301L;
+
+  /** The description of the failed test, such as "test005(pkg.RegressionTest0)". */
+  public final String testHeader;
+
+  /**
+   * The name of the failed test method, such as "test005", or "initializationError" if the class
+   * could not be run. Null if the failure is not associated with a method.
+   */
+  public final @Nullable String methodName;
+
+  /** The string representation of the exception that caused the failure. */
+  public final String exception;
+
+  /** The stack trace of the exception that caused the failure. */
+  public final StackTraceElement[] stackTrace;
+
+  /**
+   * Creates a {@link TestFailure}.
+   *
+   * @param testHeader the description of the failed test
+   * @param methodName the name of the failed test method
+   * @param exception the exception that caused the failure
+   */
+  TestFailure(String testHeader, @Nullable String methodName, Throwable exception) {
+    this.testHeader = testHeader;
+    this.methodName = methodName;
+    this.exception = exception.toString();
+    this.stackTrace = exception.getStackTrace();
+  }
+
+  /**
+   * Returns the line number, in the source file of the given class, of the statement of the failed
+   * test method that threw the exception.
+   *
+   * @param className the binary name of the test class
+   * @return the line number, or -1 if the stack trace does not contain the test method
+   */
+  public int getLineNumber(String className) {
+    for (StackTraceElement element : stackTrace) {
+      if (element.getClassName().equals(className)
+          && element.getMethodName().equals(methodName)) {
+        return element.getLineNumber();
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(testHeader).append(": ").append(exception).append(Globals.lineSep);
+    for (StackTraceElement element : stackTrace) {
+      sb.append("\tat ").append(element).append(Globals.lineSep);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,106 @@
+package randoop.execution;
+
+import static randoop.execution.RunCommand.CommandException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import randoop.main.RandoopUsageError;
+
+/**
+ * The main class of a JVM that runs JUnit test classes for a {@link TestEnvironment}, so that a new
+ * JVM need not be started for each test class. Each test class is run by {@link
+ * IsolatedTestRunner}, in a class loader of its own.
+ *
+ * <p>Reads requests from standard input: pairs of strings, written by {@code
+ * DataOutput.writeUTF}, that are the binary name of a test class and the directory that contains
+ * its class file. For each request, writes a response to standard output using an {@code
+ * ObjectOutputStream}: the byte {@link #FAILURES} followed by a list of {@link TestFailure}, or
+ * {@link #USAGE_ERROR} or {@link #ERROR} followed by a message. After an error, exits. Exits when
+ * standard input is closed.
+ *
+ * <p>Output from the tests is written to standard error.
+ */
+public final class TestRunnerWorker {
+
+  /** Response tag: the tests were run, and a list of failures follows. */
+  static final int FAILURES = 0;
+
+  /** Response tag: the test classpath is wrong, and a message follows. */
+  static final int USAGE_ERROR = 1;
+
+  /** Response tag: the tests could not be run, and a message follows. */
+  static final int ERROR = 2;
+
+  private TestRunnerWorker() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Runs test classes until standard input is closed.
+   *
+   * @param args the timeout in milliseconds for each test class, and the test classpath
+   * @throws IOException if there is a problem communicating with the parent JVM
+   */
+  public static void main(String[] args) throws IOException {
+    long timeoutMillis = Long.parseLong(args[0]);
+    URL[] classpath = IsolatedTestRunner.classpathUrls(args[1]);
+
+    ObjectOutputStream out =
+        new ObjectOutputStream(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+    out.flush();
+    // Keep output from the tests out of the responses.
+    System.setOut(System.err);
+    DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+
+    while (true) {
+      String testClassName;
+      String classDirectory;
+      try {
+        testClassName = in.readUTF();
+        classDirectory = in.readUTF();
+      } catch (EOFException e) {
+        return;
+      }
+
+      URL[] urls = new URL[classpath.length + 1];
+      urls[0] = Paths.get(classDirectory).toUri().toURL();
+      System.arraycopy(classpath, 0, urls, 1, classpath.length);
+      boolean failed = false;
+      try (URLClassLoader loader = new URLClassLoader(urls, IsolatedTestRunner.isolatedParent())) {
+        List<TestFailure> failures = IsolatedTestRunner.run(loader, testClassName, timeoutMillis);
+        out.writeByte(FAILURES);
+        out.writeObject(new ArrayList<>(failures));
+      } catch (RandoopUsageError e) {
+        failed = true;
+        out.writeByte(USAGE_ERROR);
+        out.writeObject(e.getMessage());
+      } catch (CommandException e) {
+        failed = true;
+        StringWriter message = new StringWriter();
+        e.printStackTrace(new PrintWriter(message));
+        out.writeByte(ERROR);
+        out.writeObject(message.toString());
+      }
+      out.reset();
+      out.flush();
+      if (failed) {
+        // A test that timed out may still be running.
+        System.exit(1);
+      }
+    }
+  }
+}
@@ -1,14 +1,21 @@
 package randoop.field;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.main.RandoopBug;
 import randoop.reflection.ReflectionPredicate;
 import randoop.sequence.SequenceExecutionException;
 import randoop.sequence.Variable;
 import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
+import randoop.util.Log;
+import randoop.util.MethodHandleReflectionCode;
+import randoop.util.ReflectionExecutor;
 
 /**
  * AccessibleField represents an accessible field of a class object, which can be an instance field,
@@ -23,6 +30,27 @@ public class AccessibleField {
   private boolean isFinal;
   private boolean isStatic;
 
+  /**
+   * A getter handle of type {@code (Object)Object} that ignores its argument if the field is
+   * static, or null if not yet resolved or if no handle could be created. Resolved after the first
+   * reflective read completes, so that errors in class initialization are reported exactly as core
+   * reflection reports them.
+   */
+  private @Nullable MethodHandle getter;
+
+  /** True once {@link #getter} has been resolved, whether or not resolution succeeded. */
+  private boolean getterResolved;
+
+  /**
+   * A setter handle of type {@code (Object,Object)void} that ignores its first argument if the
+   * field is static, or null if not yet resolved or if no handle could be created. Resolved like
+   * {@link #getter}.
+   */
+  private @Nullable MethodHandle setter;
+
+  /** True once {@link #setter} has been resolved, whether or not resolution succeeded. */
+  private boolean setterResolved;
+
   /**
    * Create the public field object for the given {@code Field}.
    *
@@ -108,6 +136,15 @@ public class AccessibleField {
    *     IllegalAccessException}.
    */
   public Object getValue(Object object) {
+    if (getter != null && ReflectionExecutor.method_handles && isReceiver(object)) {
+      try {
+        return (Object) getter.invokeExact(object);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RandoopBug("Unexpected exception reading field: " + field.getName(), e);
+      }
+    }
     Object ret;
     try {
       ret = field.get(object);
@@ -116,6 +153,10 @@ public class AccessibleField {
     } catch (IllegalAccessException e) {
       throw new RandoopBug("Access control violation for field: " + field.getName(), e);
     }
+    if (!getterResolved && ReflectionExecutor.method_handles) {
+      getter = getterHandle();
+      getterResolved = true;
+    }
     return ret;
   }
 
@@ -130,6 +171,20 @@ public class AccessibleField {
    */
   public void setValue(Object object, Object value) {
     assert !isFinal : "cannot set a final field";
+    if (setter != null
+        && ReflectionExecutor.method_handles
+        && isReceiver(object)
+        && MethodHandleReflectionCode.argumentsMatch(
+            new Class<?>[] {field.getType()}, new Object[] {value}, 0)) {
+      try {
+        setter.invokeExact(object, value);
+        return;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RandoopBug("Unexpected exception setting field: " + field.getName(), e);
+      }
+    }
     try {
       field.set(object, value);
     } catch (IllegalArgumentException e) {
@@ -137,6 +192,59 @@ public class AccessibleField {
     } catch (IllegalAccessException e) {
       throw new RandoopBug("Access control violation for field: ", e);
     }
+    if (!setterResolved && ReflectionExecutor.method_handles) {
+      setter = setterHandle();
+      setterResolved = true;
+    }
+  }
+
+  /**
+   * Returns true if the given object may be passed to a cached handle with the same outcome as core
+   * reflection: the field is static, or the object is a non-null instance of the declaring class.
+   *
+   * @param object instance to which field belongs, or null if static
+   * @return true if a cached handle may be used for {@code object}
+   */
+  private boolean isReceiver(Object object) {
+    return isStatic || field.getDeclaringClass().isInstance(object);
+  }
+
+  /**
+   * Returns a getter handle of type {@code (Object)Object} for this field, or null if none can be
+   * created.
+   *
+   * @return a getter handle for this field, or null
+   */
+  private @Nullable MethodHandle getterHandle() {
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+      if (isStatic) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return handle.asType(MethodType.methodType(Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      Log.logPrintf("no getter handle for %s: %s%n", field, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a setter handle of type {@code (Object,Object)void} for this field, or null if none can
+   * be created.
+   *
+   * @return a setter handle for this field, or null
+   */
+  private @Nullable MethodHandle setterHandle() {
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+      if (isStatic) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      Log.logPrintf("no setter handle for %s: %s%n", field, e);
+      return null;
+    }
   }
 
   /**
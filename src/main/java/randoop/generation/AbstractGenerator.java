@@ -1,6 +1,8 @@
 package randoop.generation;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -19,6 +21,7 @@ import randoop.main.GenInputsAbstract;
 import randoop.operation.TypedOperation;
 import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
+import randoop.test.CompilableTestPredicate;
 import randoop.test.TestCheckGenerator;
 import randoop.util.Log;
 import randoop.util.ProgressDisplay;
@@ -69,6 +72,15 @@ public abstract class AbstractGenerator {
   /** When the generator started (millisecond-based system timestamp). */
   private long startTime = -1;
 
+  /**
+   * The elapsed time of the run that wrote the checkpoint that this generator was resumed from, or
+   * 0. See {@link GenInputsAbstract#resume_from}.
+   */
+  private long resumedElapsedTime = 0;
+
+  /** When the generator last saved a checkpoint (millisecond-based system timestamp). */
+  private long lastCheckpointTime = -1;
+
   /** Sequences that are used in other sequences (and are thus redundant). */
   protected Set<Sequence> subsumed_sequences = new LinkedHashSet<>();
 
@@ -78,7 +90,7 @@ public abstract class AbstractGenerator {
    * @return elapsed time since the generator started
    */
   private long elapsedTime() {
-    return System.currentTimeMillis() - startTime;
+    return resumedElapsedTime + System.currentTimeMillis() - startTime;
   }
 
   /** Limits for generation, after which the generator will stop. */
@@ -107,11 +119,14 @@ public abstract class AbstractGenerator {
   private ProgressDisplay progressDisplay;
 
   /**
-   * This field is set by Randoop to point to the sequence currently being executed. In the event
-   * that Randoop appears to hang, this sequence is printed out to console to help the user debug
-   * the cause of the hanging behavior.
+   * This field is set by Randoop to point to the sequence currently being executed by this
+   * generator. In the event that Randoop appears to hang, this sequence is printed out to console
+   * to help the user debug the cause of the hanging behavior.
    */
-  public static Sequence currSeq = null;
+  private volatile @Nullable Sequence currSeq = null;
+
+  /** The generator whose {@link #createAndClassifySequences} was most recently called, or null. */
+  private static volatile @Nullable AbstractGenerator activeGenerator = null;
 
   /**
    * The list of error test sequences to be output as JUnit tests. May include subsequences of other
@@ -131,6 +146,19 @@ public abstract class AbstractGenerator {
    */
   public Predicate<ExecutableSequence> outputTest;
 
+  /**
+   * If non-null, checks in batches whether the sequences that satisfy {@link #outputTest} are
+   * compilable; a sequence is output only if it is. If null, {@link #outputTest} does any such
+   * check.
+   */
+  private @Nullable CompilableTestPredicate compilableTest = null;
+
+  /**
+   * The sequences that satisfy {@link #outputTest} and have not yet been checked by {@link
+   * #compilableTest}, in the order they were generated.
+   */
+  private final List<ExecutableSequence> compileQueue = new ArrayList<>();
+
   /** Visitor to generate checks for a sequence. */
   protected TestCheckGenerator checkGenerator;
 
@@ -184,6 +212,17 @@ public abstract class AbstractGenerator {
     this.outputTest = outputTest;
   }
 
+  /**
+   * Registers a predicate that checks whether the sequences that satisfy the test predicate are
+   * compilable. The check is done for {@link GenInputsAbstract#compile_batch_size} sequences at a
+   * time.
+   *
+   * @param compilableTest the compilability check
+   */
+  public void setCompilableTestPredicate(CompilableTestPredicate compilableTest) {
+    this.compilableTest = compilableTest;
+  }
+
   /**
    * Registers a visitor with this object for use while executing each generated sequence.
    *
@@ -219,6 +258,118 @@ public abstract class AbstractGenerator {
     this.checkGenerator = checkGenerator;
   }
 
+  /**
+   * Saves the state of this generator to the {@link GenInputsAbstract#checkpoint} file, if {@link
+   * GenInputsAbstract#checkpoint_interval} seconds have passed since the last checkpoint.
+   */
+  private void checkpointMaybe() {
+    long now = System.currentTimeMillis();
+    if (now - lastCheckpointTime >= GenInputsAbstract.checkpoint_interval * 1000L) {
+      // The checkpoint does not record the sequences that wait to be checked.
+      checkQueuedSequences();
+      GenerationCheckpoint.save(this, GenInputsAbstract.checkpoint);
+      lastCheckpointTime = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Writes the state of this generator to a checkpoint, so that {@link #readState} can restore it.
+   * This implementation writes the counters, the elapsed time, and the output sequences. Subclasses
+   * that can be resumed override it to also write the state of generation.
+   *
+   * @param out where to write the state
+   * @throws IOException if there is a problem writing the state
+   */
+  void writeState(CheckpointOutput out) throws IOException {
+    out.writeInt(num_steps);
+    out.writeInt(null_steps);
+    out.writeInt(num_sequences_generated);
+    out.writeInt(num_failing_sequences);
+    out.writeInt(invalidSequenceCount);
+    out.writeInt(num_failed_output_test);
+    out.writeLong(startTime == -1 ? resumedElapsedTime : elapsedTime());
+    writeOutputSequences(out, outRegressionSeqs);
+    writeOutputSequences(out, outErrorSeqs);
+  }
+
+  /**
+   * Restores the state of this generator from the output of {@link #writeState}. Must be called
+   * after the execution visitor and the check generator are set, and before {@link
+   * #createAndClassifySequences}.
+   *
+   * <p>The checks of the output sequences are not part of the checkpoint, because they refer to
+   * run-time values. Instead, this method executes each output sequence once to recompute its
+   * checks, and classifies it again.
+   *
+   * @param in where to read the state from
+   * @throws IOException if there is a problem reading the state
+   */
+  void readState(CheckpointInput in) throws IOException {
+    num_steps = in.readInt();
+    null_steps = in.readInt();
+    num_sequences_generated = in.readInt();
+    num_failing_sequences = in.readInt();
+    invalidSequenceCount = in.readInt();
+    num_failed_output_test = in.readInt();
+    resumedElapsedTime = in.readLong();
+    List<ExecutableSequence> outputSequences = readOutputSequences(in);
+    outputSequences.addAll(readOutputSequences(in));
+    for (ExecutableSequence eSeq : outputSequences) {
+      eSeq.execute(executionVisitor, checkGenerator);
+      if (eSeq.hasInvalidBehavior()) {
+        continue;
+      } else if (eSeq.hasFailure()) {
+        outErrorSeqs.add(eSeq);
+      } else {
+        outRegressionSeqs.add(eSeq);
+      }
+    }
+  }
+
+  /**
+   * Writes a list of output sequences, without their checks.
+   *
+   * @param out where to write the sequences
+   * @param sequences the sequences to write
+   * @throws IOException if there is a problem writing
+   */
+  private static void writeOutputSequences(
+      CheckpointOutput out, List<ExecutableSequence> sequences) throws IOException {
+    out.writeVarInt(sequences.size());
+    for (ExecutableSequence eSeq : sequences) {
+      out.writeSequence(eSeq.sequence);
+      out.writeVarInt(eSeq.componentSequences.size());
+      for (Sequence component : eSeq.componentSequences) {
+        out.writeSequence(component);
+      }
+    }
+  }
+
+  /**
+   * Reads a list of output sequences written by {@link #writeOutputSequences}. The sequences have
+   * not been executed.
+   *
+   * @param in where to read the sequences from
+   * @return the sequences that were read
+   * @throws IOException if there is a problem reading
+   */
+  private static List<ExecutableSequence> readOutputSequences(CheckpointInput in)
+      throws IOException {
+    int size = in.readVarInt();
+    List<ExecutableSequence> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ExecutableSequence eSeq = new ExecutableSequence(in.readSequence());
+      int numComponents = in.readVarInt();
+      List<Sequence> components = new ArrayList<>(numComponents);
+      for (int j = 0; j < numComponents; j++) {
+        components.add(in.readSequence());
+      }
+      eSeq.componentSequences = components;
+      result.add(eSeq);
+    }
+    return result;
+  }
+
   /**
    * Tests stopping criteria.
    *
@@ -233,13 +384,6 @@ public abstract class AbstractGenerator {
         || (stopper != null && stopper.shouldStop());
   }
 
-  /**
-   * Attempt to generate a test (a sequence).
-   *
-   * @return a test sequence, may be null
-   */
-  public abstract @Nullable ExecutableSequence step();
-
   /**
    * Returns the count of attempts to generate a sequence so far.
    *
@@ -256,6 +400,16 @@ public abstract class AbstractGenerator {
    */
   public abstract int numGeneratedSequences();
 
+  /**
+   * Returns the number of component sequences removed from the pool so far, to keep it small. See
+   * {@link GenInputsAbstract#component_eviction}.
+   *
+   * @return the number of component sequences removed so far
+   */
+  public long numEvictedComponents() {
+    return componentManager.numEvictedSequences();
+  }
+
   /**
    * Returns the count of generated sequence currently for output.
    *
@@ -270,7 +424,7 @@ public abstract class AbstractGenerator {
    *
    * @return the number of error test sequences
    */
-  private int numErrorSequences() {
+  protected int numErrorSequences() {
     return outErrorSeqs.size();
   }
 
@@ -278,7 +432,7 @@ public abstract class AbstractGenerator {
    * Creates and executes new sequences until stopping criteria is met.
    *
    * @see AbstractGenerator#shouldStop()
-   * @see AbstractGenerator#step()
+   * @see AbstractGenerator#generateSequences()
    */
   public void createAndClassifySequences() {
     if (checkGenerator == null) {
@@ -286,65 +440,15 @@ public abstract class AbstractGenerator {
     }
 
     startTime = System.currentTimeMillis();
+    lastCheckpointTime = startTime;
+    activeGenerator = this;
 
     if (GenInputsAbstract.progressdisplay) {
       progressDisplay = new ProgressDisplay(this, ProgressDisplay.Mode.MULTILINE);
       progressDisplay.start();
     }
 
-    while (!shouldStop()) {
-
-      num_steps++;
-
-      ExecutableSequence eSeq = step();
-
-      if (dump_sequences) {
-        Log.logPrintf("%nseq before run:%n%s%n", eSeq);
-      }
-
-      if (GenInputsAbstract.progressdisplay
-          && GenInputsAbstract.progressintervalsteps != -1
-          && num_steps % GenInputsAbstract.progressintervalsteps == 0) {
-        progressDisplay.display(!GenInputsAbstract.deterministic);
-      }
-
-      if (eSeq == null) {
-        null_steps++;
-        continue;
-      }
-
-      num_sequences_generated++;
-
-      boolean test;
-      try {
-        test = outputTest.test(eSeq);
-      } catch (Throwable t) {
-        System.out.printf(
-            "%nProblem with sequence:%n%s%n%s%n", eSeq, UtilPlume.stackTraceToString(t));
-        throw t;
-      }
-      if (test) {
-        // Classify the sequence
-        if (eSeq.hasInvalidBehavior()) {
-          invalidSequenceCount++;
-        } else if (eSeq.hasFailure()) {
-          operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
-          num_failing_sequences++;
-          outErrorSeqs.add(eSeq);
-        } else {
-          outRegressionSeqs.add(eSeq);
-          newRegressionTestHook(eSeq.sequence);
-        }
-      } else {
-        num_failed_output_test++;
-      }
-
-      if (dump_sequences) {
-        Log.logPrintf("Sequence after execution:%n%s%n", eSeq);
-        Log.logPrintf("allSequences.size()=%s%n", numGeneratedSequences());
-        // componentManager.log();
-      }
-    }
+    generateSequences();
 
     if (GenInputsAbstract.progressdisplay && progressDisplay != null) {
       progressDisplay.display(!GenInputsAbstract.deterministic);
@@ -371,6 +475,113 @@ public abstract class AbstractGenerator {
     }
   }
 
+  /**
+   * Creates, executes, and classifies new sequences until a stopping criterion is met. Called by
+   * {@link #createAndClassifySequences}, which does the setup and reporting. An implementation
+   * passes the result of each step to {@link #handleStep}, and calls {@link #checkQueuedSequences}
+   * when it stops.
+   *
+   * @see AbstractGenerator#shouldStop()
+   */
+  protected abstract void generateSequences();
+
+  /**
+   * Records the result of one generation step, and classifies the sequence if it satisfies the test
+   * predicate. The caller has already incremented {@link #num_steps}.
+   *
+   * @param eSeq the sequence created by the step, or null if the step did not create one
+   */
+  void handleStep(@Nullable ExecutableSequence eSeq) {
+    if (dump_sequences) {
+      Log.logPrintf("%nseq before run:%n%s%n", eSeq);
+    }
+
+    if (progressDisplay != null
+        && GenInputsAbstract.progressintervalsteps != -1
+        && num_steps % GenInputsAbstract.progressintervalsteps == 0) {
+      progressDisplay.display(!GenInputsAbstract.deterministic);
+    }
+
+    if (GenInputsAbstract.checkpoint != null) {
+      checkpointMaybe();
+    }
+
+    if (eSeq == null) {
+      null_steps++;
+      return;
+    }
+
+    num_sequences_generated++;
+
+    boolean test;
+    try {
+      test = outputTest.test(eSeq);
+    } catch (Throwable t) {
+      System.out.printf(
+          "%nProblem with sequence:%n%s%n%s%n", eSeq, UtilPlume.stackTraceToString(t));
+      throw t;
+    }
+    if (!test) {
+      num_failed_output_test++;
+    } else if (compilableTest == null) {
+      classifyOutputSequence(eSeq);
+    } else {
+      compileQueue.add(eSeq);
+      // Check the batch early if it might meet a stopping criterion, so that the generator
+      // stops at the same point as without batching.
+      if (compileQueue.size() >= GenInputsAbstract.compile_batch_size
+          || numOutputSequences() + compileQueue.size() >= limits.output_limit
+          || (GenInputsAbstract.stop_on_error_test && eSeq.hasFailure())) {
+        checkQueuedSequences();
+      }
+    }
+
+    if (dump_sequences) {
+      Log.logPrintf("Sequence after execution:%n%s%n", eSeq);
+      Log.logPrintf("allSequences.size()=%s%n", numGeneratedSequences());
+      // componentManager.log();
+    }
+  }
+
+  /**
+   * Classifies a sequence that satisfies the test predicate, and adds it to the output sequences if
+   * it is an error-revealing or regression test.
+   *
+   * @param eSeq the sequence to classify
+   */
+  private void classifyOutputSequence(ExecutableSequence eSeq) {
+    if (eSeq.hasInvalidBehavior()) {
+      invalidSequenceCount++;
+    } else if (eSeq.hasFailure()) {
+      operationHistory.add(eSeq.getOperation(), OperationOutcome.ERROR_SEQUENCE);
+      num_failing_sequences++;
+      outErrorSeqs.add(eSeq);
+    } else {
+      outRegressionSeqs.add(eSeq);
+      newRegressionTestHook(eSeq.sequence);
+    }
+  }
+
+  /**
+   * Checks whether the sequences in {@link #compileQueue} are compilable, and classifies those that
+   * are.
+   */
+  void checkQueuedSequences() {
+    CompilableTestPredicate compileCheck = compilableTest;
+    if (compileCheck == null || compileQueue.isEmpty()) {
+      return;
+    }
+    boolean[] compilable = compileCheck.testAll(compileQueue);
+    for (int i = 0; i < compilable.length; i++) {
+      if (compilable[i]) {
+        classifyOutputSequence(compileQueue.get(i));
+      } else {
+        num_failed_output_test++;
+      }
+    }
+    compileQueue.clear();
+  }
+
   /**
    * Return all sequences generated by this object.
    *
@@ -429,6 +640,28 @@ public abstract class AbstractGenerator {
     currSeq = s;
   }
 
+  /**
+   * Returns the sequences currently being executed by this generator. A parallel generator returns
+   * one sequence per worker that is executing one.
+   *
+   * @return the sequences currently being executed
+   */
+  public List<Sequence> getCurrentSequences() {
+    Sequence current = currSeq;
+    return current == null ? Collections.emptyList() : Collections.singletonList(current);
+  }
+
+  /**
+   * Returns the sequences currently being executed by the generator that is running, or that ran
+   * most recently. Used to help the user debug a failure or a hang.
+   *
+   * @return the sequences currently being executed, or an empty list if there is no generator
+   */
+  public static List<Sequence> currentSequences() {
+    AbstractGenerator generator = activeGenerator;
+    return generator == null ? Collections.emptyList() : generator.getCurrentSequences();
+  }
+
   /**
    * Sets the operation history logger for this generator.
    *
@@ -1,12 +1,21 @@
 package randoop.generation;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.CollectionsPlume;
 import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
@@ -20,6 +29,7 @@ import randoop.sequence.Sequence;
 import randoop.types.ClassOrInterfaceType;
 import randoop.util.Randomness;
 import randoop.util.SimpleArrayList;
+import randoop.util.WeightedSampler;
 
 /**
  * Implements the Bloodhound component, as described by the paper "GRT: Program-Analysis-Guided
@@ -40,6 +50,11 @@ import randoop.util.SimpleArrayList;
  * is the total number of times the method appears in any regression test. Both definitions are
  * consistent with the description in the GRT paper. We believe our implementation, which uses the
  * first definition, is likely what was intended by the authors of the GRT paper.
+ *
+ * <p>With {@link GenInputsAbstract#bloodhound_background_update}, branch coverage is collected and
+ * the weights are recomputed in a background thread. The thread produces a {@link WeightSnapshot},
+ * which {@link #selectOperation} swaps in once it is complete. The same thread is used for every
+ * update, until {@link #generationFinished} stops it.
  */
 public class Bloodhound implements TypedOperationSelector {
 
@@ -47,10 +62,13 @@ public class Bloodhound implements TypedOperationSelector {
   private final CoverageTracker coverageTracker;
 
   /**
-   * Map from methods under test to their weights. These weights are dynamic and depend on branch
-   * coverage.
+   * The weights of the methods under test, indexed like {@link #operationSimpleList}. These weights
+   * are dynamic and depend on branch coverage.
    */
-  private final Map<TypedOperation, Double> methodWeights = new HashMap<>();
+  private final WeightedSampler methodWeights;
+
+  /** Map from methods under test to their indices in {@link #operationSimpleList}. */
+  private final Map<TypedOperation, Integer> operationIndices = new HashMap<>();
 
   /**
    * Map from methods under test to the number of times they have been recently selected by the
@@ -99,6 +117,12 @@ public class Bloodhound implements TypedOperationSelector {
    */
   private static final int branchCoverageInterval = 100;
 
+  /**
+   * The uncovered branch ratio of methods with no coverage information. See {@link
+   * #uncoveredRatio}.
+   */
+  private static final double DEFAULT_UNCOVERED_RATIO = 0.5;
+
   /** The total number of successful invocations of all the methods under test. */
   private int totalSuccessfulInvocations = 0;
 
@@ -110,10 +134,45 @@ public class Bloodhound implements TypedOperationSelector {
   private int maxSuccM = 1;
 
   /**
-   * The total weight of all the methods that are under test. This is used by {@link Randomness} to
-   * randomly select an element from a list of weighted elements.
+   * The uncovered branch ratio of each method under test, indexed like {@link
+   * #operationSimpleList}, as of the last update of branch coverage. Computed by {@link
+   * #computeUncoveredRatios}. Never modified, so it may be shared with a {@link WeightSnapshot}.
+   */
+  private double[] uncoveredRatios;
+
+  /** True if branch coverage has been updated at least once. */
+  private boolean coverageInitialized = false;
+
+  /** The number of calls to {@link #selectOperation}. */
+  private long numSelections = 0;
+
+  /**
+   * The computation of new weights in a background thread, or null if none is running or its result
+   * has been applied. Only used with {@link GenInputsAbstract#bloodhound_background_update}.
+   */
+  private @Nullable Future<WeightSnapshot> pendingSnapshot = null;
+
+  /**
+   * Runs the computations of new weights, in a single daemon thread. Created by the first update
+   * that runs in the background, and shut down by {@link #generationFinished}; null if there is no
+   * such thread.
    */
-  private double totalWeightOfMethodsUnderTest = 0;
+  private @Nullable ThreadPoolExecutor backgroundExecutor = null;
+
+  /** The number of background threads created, to give each a distinct name. */
+  private static final AtomicInteger threadsCreated = new AtomicInteger();
+
+  /** {@code System.currentTimeMillis()} when the coverage of the current weights was collected. */
+  private long snapshotTimeMillis = 0;
+
+  /** The value of {@link #numSelections} when the coverage of the current weights was collected. */
+  private long snapshotSelection = 0;
+
+  /** The number of weight snapshots computed in the background and applied. */
+  private int numSnapshotsApplied = 0;
+
+  /** The largest age, in milliseconds, of a weight snapshot when it was applied. */
+  private long maxSnapshotAgeMillis = 0;
 
   /**
    * Initialize Bloodhound. Branch coverage information is initialized and all methods under test
@@ -123,8 +182,25 @@ public class Bloodhound implements TypedOperationSelector {
    * @param classesUnderTest set of classes under test
    */
   public Bloodhound(List<TypedOperation> operations, Set<ClassOrInterfaceType> classesUnderTest) {
+    this(operations, new CoverageTracker(classesUnderTest));
+  }
+
+  /**
+   * Initialize Bloodhound with the given coverage tracker.
+   *
+   * @param operations list of operations under test
+   * @param coverageTracker the coverage tracker for the classes under test
+   */
+  Bloodhound(List<TypedOperation> operations, CoverageTracker coverageTracker) {
     this.operationSimpleList = new SimpleArrayList<>(operations);
-    this.coverageTracker = new CoverageTracker(classesUnderTest);
+    this.methodWeights = new WeightedSampler(operations.size());
+    for (int i = 0; i < operations.size(); i++) {
+      methodWeights.add(0);
+      operationIndices.put(operations.get(i), i);
+    }
+    this.uncoveredRatios = new double[operations.size()];
+    Arrays.fill(uncoveredRatios, DEFAULT_UNCOVERED_RATIO);
+    this.coverageTracker = coverageTracker;
 
     // Compute an initial weight for all methods under test. We also initialize the uncovered ratio
     // value of all methods under test by updating branch coverage information. The weights for all
@@ -142,17 +218,18 @@ public class Bloodhound implements TypedOperationSelector {
    */
   @Override
   public TypedOperation selectOperation() {
+    numSelections++;
+
     // Periodically collect branch coverage and recompute weights for all methods under test.
     updateBranchCoverageMaybe();
 
     // Make a random, weighted choice for the next method.
-    TypedOperation selectedOperation =
-        Randomness.randomMemberWeighted(
-            operationSimpleList, methodWeights, totalWeightOfMethodsUnderTest);
+    int selectedIndex = Randomness.randomIndexWeighted(methodWeights);
+    TypedOperation selectedOperation = operationSimpleList.get(selectedIndex);
 
     // Update the selected method's selection count and recompute its weight.
     CollectionsPlume.incrementMap(methodSelectionCounts, selectedOperation);
-    updateWeight(selectedOperation);
+    updateWeight(selectedIndex);
 
     return selectedOperation;
   }
@@ -170,8 +247,59 @@ public class Bloodhound implements TypedOperationSelector {
    *   <li>Count of successful invocations: branch coverage is updated after every {@code
    *       branchCoverageInteral} successful invocations (of any method under test).
    * </ul>
+   *
+   * <p>With {@link GenInputsAbstract#bloodhound_background_update}, an update starts computing new
+   * weights in a background thread, and the weights are applied when they are complete. With {@link
+   * GenInputsAbstract#deterministic} as well, the weights are applied at the next update, waiting
+   * for them if necessary. The first update is always done immediately.
    */
   private void updateBranchCoverageMaybe() {
+    boolean shouldUpdateBranchCoverage = isUpdateDue();
+
+    if (!GenInputsAbstract.bloodhound_background_update || !coverageInitialized) {
+      if (shouldUpdateBranchCoverage) {
+        if (GenInputsAbstract.bloodhound_logging) {
+          System.out.println("Updating branch coverage information.");
+        }
+
+        methodSelectionCounts.clear();
+        coverageTracker.updateBranchCoverageMap();
+        uncoveredRatios = computeUncoveredRatios();
+        coverageInitialized = true;
+        snapshotTimeMillis = System.currentTimeMillis();
+        snapshotSelection = numSelections;
+        updateWeightsForAllOperations();
+        logMethodWeights();
+      }
+      return;
+    }
+
+    if (GenInputsAbstract.deterministic) {
+      if (shouldUpdateBranchCoverage) {
+        if (pendingSnapshot != null) {
+          applySnapshot(getSnapshot(pendingSnapshot));
+        }
+        // Collect the coverage now, so that it does not depend on the timing of the thread.
+        startSnapshot(coverageTracker.readExecutionData());
+      }
+    } else {
+      if (pendingSnapshot != null && pendingSnapshot.isDone()) {
+        applySnapshot(getSnapshot(pendingSnapshot));
+      }
+      // If the previous computation is still running, skip this update.
+      if (shouldUpdateBranchCoverage && pendingSnapshot == null) {
+        startSnapshot(null);
+      }
+    }
+  }
+
+  /**
+   * Returns true if it is time to update branch coverage, as described in {@link
+   * #updateBranchCoverageMaybe}.
+   *
+   * @return true if branch coverage should be updated now
+   */
+  private boolean isUpdateDue() {
     boolean shouldUpdateBranchCoverage;
 
     switch (GenInputsAbstract.bloodhound_update_mode) {
@@ -205,40 +333,225 @@ public class Bloodhound implements TypedOperationSelector {
             "Unhandled value for bloodhound_update_mode: "
                 + GenInputsAbstract.bloodhound_update_mode);
     }
+    return shouldUpdateBranchCoverage;
+  }
+
+  /**
+   * Starts updating branch coverage and computing the weights of all methods under test in the
+   * background thread, and sets {@link #pendingSnapshot} to its result. The weights use the current
+   * invocation counts.
+   *
+   * @param execData the execution data to use, or null to retrieve it in the background thread
+   */
+  private void startSnapshot(byte @Nullable [] execData) {
+    Map<TypedOperation, Integer> invocationCounts = new HashMap<>(methodInvocationCounts);
+    int maxSucc = maxSuccM;
+    long timeMillis = System.currentTimeMillis();
+    long selection = numSelections;
+    ThreadPoolExecutor executor = backgroundExecutor;
+    if (executor == null) {
+      executor = newBackgroundExecutor();
+      backgroundExecutor = executor;
+    }
+    pendingSnapshot =
+        executor.submit(
+            () -> {
+              coverageTracker.updateBranchCoverageMap(
+                  execData != null ? execData : coverageTracker.readExecutionData());
+              return computeSnapshot(invocationCounts, maxSucc, timeMillis, selection);
+            });
+  }
+
+  /**
+   * Returns an executor that runs tasks one at a time in a single daemon thread. At most one task
+   * waits for the thread; a newer task replaces a waiting one, whose result would be stale.
+   *
+   * <p>{@link #updateBranchCoverageMaybe} submits a task only when no earlier one is pending, so no
+   * task is replaced in practice.
+   *
+   * @return a new executor for background updates
+   */
+  private static ThreadPoolExecutor newBackgroundExecutor() {
+    return new ThreadPoolExecutor(
+        1,
+        1,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1),
+        runnable -> {
+          Thread thread =
+              new Thread(
+                  runnable, "randoop.generation.Bloodhound-" + threadsCreated.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.DiscardOldestPolicy());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Stops the background thread, abandoning any computation of weights that has not been
+   * applied. A later update starts a new thread.
+   */
+  @Override
+  public void generationFinished() {
+    if (pendingSnapshot != null) {
+      pendingSnapshot.cancel(true);
+      pendingSnapshot = null;
+    }
+    if (backgroundExecutor != null) {
+      backgroundExecutor.shutdownNow();
+      backgroundExecutor = null;
+    }
+  }
 
-    if (shouldUpdateBranchCoverage) {
-      if (GenInputsAbstract.bloodhound_logging) {
-        System.out.println("Updating branch coverage information.");
+  /**
+   * Waits for the given background computation and returns its result. Rethrows any exception that
+   * the computation threw.
+   *
+   * @param task the computation
+   * @return the weights that the computation produced
+   */
+  private static WeightSnapshot getSnapshot(Future<WeightSnapshot> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while updating branch coverage", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
       }
+      throw new RandoopBug("Error updating branch coverage", cause);
+    }
+  }
 
-      methodSelectionCounts.clear();
-      coverageTracker.updateBranchCoverageMap();
-      updateWeightsForAllOperations();
-      logMethodWeights();
+  /**
+   * Computes the weights of all methods under test from the current branch coverage, as if no
+   * method had been selected since the update. Runs in a background thread, so it reads no mutable
+   * state of the generator.
+   *
+   * @param invocationCounts the number of successful invocations of each method
+   * @param maxSucc the maximum number of successful invocations of any method
+   * @param timeMillis {@code System.currentTimeMillis()} when the coverage was collected
+   * @param selection the value of {@link #numSelections} when the coverage was collected
+   * @return the weights
+   */
+  private WeightSnapshot computeSnapshot(
+      Map<TypedOperation, Integer> invocationCounts, int maxSucc, long timeMillis, long selection) {
+    double[] ratios = computeUncoveredRatios();
+    double[] weights = new double[operationSimpleList.size()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] =
+          computeWeight(
+              ratios[i],
+              invocationCounts.getOrDefault(operationSimpleList.get(i), 0),
+              maxSucc,
+              null);
+    }
+    return new WeightSnapshot(ratios, weights, timeMillis, selection);
+  }
+
+  /**
+   * Replaces the current weights by the given ones, which were computed in the background.
+   *
+   * @param snapshot the new weights
+   */
+  private void applySnapshot(WeightSnapshot snapshot) {
+    pendingSnapshot = null;
+    methodSelectionCounts.clear();
+    uncoveredRatios = snapshot.uncoveredRatios;
+    methodWeights.setAll(snapshot.weights);
+
+    long ageMillis = System.currentTimeMillis() - snapshot.timeMillis;
+    numSnapshotsApplied++;
+    maxSnapshotAgeMillis = Math.max(maxSnapshotAgeMillis, ageMillis);
+    snapshotTimeMillis = snapshot.timeMillis;
+    snapshotSelection = snapshot.selection;
+    if (GenInputsAbstract.bloodhound_logging) {
+      System.out.printf(
+          "Applying branch coverage information collected %d ms and %d selections ago.%n",
+          ageMillis, numSelections - snapshot.selection);
     }
+    logMethodWeights();
+  }
+
+  /**
+   * Returns the number of sets of weights that were computed in the background and applied.
+   *
+   * @return the number of weight snapshots applied
+   */
+  public int numSnapshotsApplied() {
+    return numSnapshotsApplied;
+  }
+
+  /**
+   * Returns the time since the branch coverage that the current weights are based on was collected.
+   *
+   * @return the age of the current weights, in milliseconds
+   */
+  public long snapshotAgeMillis() {
+    return System.currentTimeMillis() - snapshotTimeMillis;
+  }
+
+  /**
+   * Returns the number of methods selected since the branch coverage that the current weights are
+   * based on was collected.
+   *
+   * @return the age of the current weights, in selections
+   */
+  public long snapshotAgeSelections() {
+    return numSelections - snapshotSelection;
+  }
+
+  /**
+   * Returns the largest age of a set of weights computed in the background, at the time that it was
+   * applied.
+   *
+   * @return the largest age of an applied weight snapshot, in milliseconds
+   */
+  public long maxSnapshotAgeMillis() {
+    return maxSnapshotAgeMillis;
+  }
+
+  /**
+   * Returns the current weight of the given method under test. Used for testing.
+   *
+   * @param operation a method under test
+   * @return the weight of the method
+   */
+  double getWeight(TypedOperation operation) {
+    return methodWeights.get(operationIndices.get(operation));
   }
 
   /** For debugging, print all method weights to standard output. */
   private void logMethodWeights() {
     if (GenInputsAbstract.bloodhound_logging) {
       System.out.println("Method name: method weight");
-      for (TypedOperation typedOperation : new TreeSet<>(methodWeights.keySet())) {
-        System.out.println(typedOperation.getName() + ": " + methodWeights.get(typedOperation));
+      for (TypedOperation typedOperation : new TreeSet<>(operationIndices.keySet())) {
+        System.out.println(
+            typedOperation.getName()
+                + ": "
+                + methodWeights.get(operationIndices.get(typedOperation)));
       }
       System.out.println("--------------------------");
     }
   }
 
   /**
-   * Computes and updates weights in {@code methodWeights} map for all methods under test.
-   * Recomputes the {@code totalWeightOfMethodsUnderTest} to avoid problems with round-off error.
+   * Computes and updates weights in {@code methodWeights} for all methods under test. Replaces all
+   * the weights at once, to avoid problems with round-off error.
    */
   private void updateWeightsForAllOperations() {
-    double totalWeight = 0;
-    for (TypedOperation operation : operationSimpleList) {
-      totalWeight += updateWeight(operation);
+    double[] weights = new double[operationSimpleList.size()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = weight(i);
     }
-    totalWeightOfMethodsUnderTest = totalWeight;
+    methodWeights.setAll(weights);
   }
 
   /**
@@ -253,10 +566,78 @@ public class Bloodhound implements TypedOperationSelector {
    *
    * The weighting scheme is based on Bloodhound in the Guided Random Testing (GRT) paper.
    *
-   * @param operation method to compute weight for
-   * @return the updated weight for the given operation
+   * @param index the index of the method to compute weight for, in {@link #operationSimpleList}
+   */
+  private void updateWeight(int index) {
+    methodWeights.set(index, weight(index));
+  }
+
+  /**
+   * Computes the current weight of a method under test, as described in {@link #updateWeight}.
+   *
+   * @param index the index of the method, in {@link #operationSimpleList}
+   * @return the weight of the method
+   */
+  private double weight(int index) {
+    TypedOperation operation = operationSimpleList.get(index);
+    return computeWeight(
+        uncoveredRatios[index],
+        methodInvocationCounts.getOrDefault(operation, 0),
+        maxSuccM,
+        methodSelectionCounts.get(operation));
+  }
+
+  /**
+   * Computes the weight of a method under test, as described in {@link #updateWeight}.
+   *
+   * @param uncovRatio the uncovered branch ratio of the method
+   * @param succM the number of successful invocations of the method
+   * @param maxSucc the maximum number of successful invocations of any method under test
+   * @param k the number of times the method was selected since the last update of branch coverage,
+   *     or null if it was not selected
+   * @return the weight of the method
+   */
+  private double computeWeight(double uncovRatio, int succM, int maxSucc, @Nullable Integer k) {
+    // Corresponds to w(m, 0) in the GRT paper.
+    double wm0 = alpha * uncovRatio + (1.0 - alpha) * (1.0 - ((double) succM / maxSucc));
+
+    // Corresponds to w(m, k) in the GRT paper.
+    double wmk;
+    // In the GRT paper, "k" is the number of times this method was selected since the last update
+    // of branch coverage. It is reset to zero every time branch coverage is recomputed.
+    if (k == null) {
+      wmk = wm0;
+    } else {
+      // Corresponds to the case where k >= 1 in the GRT paper.
+      double val1 = (-3.0 / Math.log(1.0 - p)) * (Math.pow(p, k) / k);
+      double val2 = 1.0 / Math.log(operationSimpleList.size() + 3.0);
+      wmk = Math.max(val1, val2) * wm0;
+    }
+    return wmk;
+  }
+
+  /**
+   * Returns the uncovered branch ratio of each method under test, from {@link #coverageTracker}.
+   *
+   * @return the uncovered branch ratio of each method under test, indexed like {@link
+   *     #operationSimpleList}
+   */
+  private double[] computeUncoveredRatios() {
+    double[] result = new double[operationSimpleList.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = uncoveredRatio(operationSimpleList.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the uncovered branch ratio of a method under test, from {@link #coverageTracker}.
+   *
+   * @param operation a method under test
+   * @return the uncovered branch ratio of the method, or {@link #DEFAULT_UNCOVERED_RATIO} if there
+   *     is no coverage information for it
    */
-  private double updateWeight(TypedOperation operation) {
+  private double uncoveredRatio(TypedOperation operation) {
     // Remove type arguments, because Jacoco does not include type arguments when naming a method.
     String methodName = operation.getName().replaceAll("<.*>\\.", ".").replace('$', '.');
 
@@ -310,40 +691,9 @@ public class Bloodhound implements TypedOperationSelector {
             "The method " + methodName + " is expected to have coverage info but has none.");
       }
       assert isExpectedToHaveNoCoverage;
-      uncovRatio = 0.5;
+      uncovRatio = DEFAULT_UNCOVERED_RATIO;
     }
-
-    // The number of successful invocations of this method. Corresponds to "succ(m)" in the GRT
-    // paper.
-    Integer succM = methodInvocationCounts.getOrDefault(operation, 0);
-
-    // Corresponds to w(m, 0) in the GRT paper.
-    double wm0 = alpha * uncovRatio + (1.0 - alpha) * (1.0 - (succM.doubleValue() / maxSuccM));
-
-    // Corresponds to w(m, k) in the GRT paper.
-    double wmk;
-    // In the GRT paper, "k" is the number of times this method was selected since the last update
-    // of branch coverage. It is reset to zero every time branch coverage is recomputed.
-    Integer k = methodSelectionCounts.get(operation);
-    if (k == null) {
-      wmk = wm0;
-    } else {
-      // Corresponds to the case where k >= 1 in the GRT paper.
-      double val1 = (-3.0 / Math.log(1.0 - p)) * (Math.pow(p, k) / k);
-      double val2 = 1.0 / Math.log(operationSimpleList.size() + 3.0);
-      wmk = Math.max(val1, val2) * wm0;
-    }
-
-    // Retrieve the weight from the methodWeights map if it exists. Otherwise, default to zero.
-    Double existingWeight = methodWeights.getOrDefault(operation, 0.0);
-
-    methodWeights.put(operation, wmk);
-
-    // Update the contribution of this method to the total weight of all methods under test.
-    totalWeightOfMethodsUnderTest -= existingWeight;
-    totalWeightOfMethodsUnderTest += wmk;
-
-    return wmk;
+    return uncovRatio;
   }
 
   /**
@@ -359,6 +709,62 @@ public class Bloodhound implements TypedOperationSelector {
     maxSuccM = Math.max(maxSuccM, numSuccessfulInvocations);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Writes the selection and invocation counts of the methods under test. The branch coverage is
+   * not saved: after {@link #readState}, it is collected again as generation continues.
+   */
+  @Override
+  public void writeState(CheckpointOutput out) throws IOException {
+    writeCounts(out, methodSelectionCounts);
+    writeCounts(out, methodInvocationCounts);
+    out.writeInt(totalSuccessfulInvocations);
+    out.writeInt(maxSuccM);
+  }
+
+  @Override
+  public void readState(CheckpointInput in) throws IOException {
+    readCounts(in, methodSelectionCounts);
+    readCounts(in, methodInvocationCounts);
+    totalSuccessfulInvocations = in.readInt();
+    maxSuccM = in.readInt();
+    updateWeightsForAllOperations();
+  }
+
+  /**
+   * Writes a map from operations to counts.
+   *
+   * @param out where to write the map
+   * @param counts the map to write
+   * @throws IOException if there is a problem writing
+   */
+  private static void writeCounts(CheckpointOutput out, Map<TypedOperation, Integer> counts)
+      throws IOException {
+    out.writeVarInt(counts.size());
+    for (Map.Entry<TypedOperation, Integer> entry : counts.entrySet()) {
+      out.writeOperation(entry.getKey());
+      out.writeVarInt(entry.getValue());
+    }
+  }
+
+  /**
+   * Replaces the contents of a map from operations to counts by a map written by {@link
+   * #writeCounts}.
+   *
+   * @param in where to read the map from
+   * @param counts the map to replace
+   * @throws IOException if there is a problem reading
+   */
+  private static void readCounts(CheckpointInput in, Map<TypedOperation, Integer> counts)
+      throws IOException {
+    counts.clear();
+    int size = in.readVarInt();
+    for (int i = 0; i < size; i++) {
+      counts.put(in.readOperation(), in.readVarInt());
+    }
+  }
+
   /**
    * Increment the number of successful invocations of the last method in the newly-created sequence
    * that was classified as a regression test.
@@ -369,4 +775,39 @@ public class Bloodhound implements TypedOperationSelector {
   public void newRegressionTestHook(Sequence sequence) {
     incrementSuccessfulInvocationCount(sequence.getOperation());
   }
+
+  /**
+   * The weights of all methods under test, computed from the branch coverage at one time. A
+   * snapshot is not modified after it is created. Its arrays are indexed like {@link
+   * #operationSimpleList}.
+   */
+  private static final class WeightSnapshot {
+
+    /** The uncovered branch ratio of each method under test. */
+    final double[] uncoveredRatios;
+
+    /** The weight of each method under test. */
+    final double[] weights;
+
+    /** {@code System.currentTimeMillis()} when the coverage was collected. */
+    final long timeMillis;
+
+    /** The value of {@link Bloodhound#numSelections} when the coverage was collected. */
+    final long selection;
+
+    /**
+     * Creates a {@link WeightSnapshot}.
+     *
+     * @param uncoveredRatios the uncovered branch ratio of each method under test
+     * @param weights the weight of each method under test
+     * @param timeMillis {@code System.currentTimeMillis()} when the coverage was collected
+     * @param selection the number of selections when the coverage was collected
+     */
+    WeightSnapshot(double[] uncoveredRatios, double[] weights, long timeMillis, long selection) {
+      this.uncoveredRatios = uncoveredRatios;
+      this.weights = weights;
+      this.timeMillis = timeMillis;
+      this.selection = selection;
+    }
+  }
 }
@@ -0,0 +1,118 @@
+package randoop.generation;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.sequence.SequenceDecoder;
+
+/**
+ * A stream from which the state of a generator is read, as written by a {@link CheckpointOutput}.
+ */
+public final class CheckpointInput extends DataInputStream {
+
+  /** The sequences read so far, in the order they were first written. */
+  private final List<Sequence> sequences = new ArrayList<>();
+
+  /** Reads the sequences and operations, and holds the dictionary of operations. */
+  private final SequenceDecoder decoder = new SequenceDecoder(this);
+
+  /**
+   * Creates a checkpoint input stream.
+   *
+   * @param in the underlying input stream
+   */
+  public CheckpointInput(InputStream in) {
+    super(in);
+  }
+
+  /**
+   * Reads an int written by {@link CheckpointOutput#writeVarInt}.
+   *
+   * @return the value that was read
+   * @throws IOException if there is a problem reading
+   */
+  public int readVarInt() throws IOException {
+    return SequenceDecoder.readVarInt(this);
+  }
+
+  /**
+   * Reads a string written by {@link CheckpointOutput#writeString}.
+   *
+   * @return the string that was read
+   * @throws IOException if there is a problem reading
+   */
+  public String readString() throws IOException {
+    return SequenceDecoder.readString(this);
+  }
+
+  /**
+   * Reads a sequence written by {@link CheckpointOutput#writeSequence}. Returns the same object
+   * each time the same sequence is read.
+   *
+   * @return the sequence that was read
+   * @throws IOException if there is a problem reading, or the sequence is malformed
+   */
+  public Sequence readSequence() throws IOException {
+    int index = readVarInt();
+    if (index < sequences.size()) {
+      return sequences.get(index);
+    }
+    if (index != sequences.size()) {
+      throw new IOException("Bad sequence index " + index);
+    }
+    Sequence sequence = decoder.readSequence();
+    int numInactive = readVarInt();
+    for (int i = 0; i < numInactive; i++) {
+      sequence.clearActiveFlag(readVarInt());
+    }
+    sequences.add(sequence);
+    return sequence;
+  }
+
+  /**
+   * Reads an operation written by {@link CheckpointOutput#writeOperation}. Returns the same object
+   * each time the same operation is read.
+   *
+   * @return the operation that was read
+   * @throws IOException if there is a problem reading, or the operation is malformed
+   */
+  public TypedOperation readOperation() throws IOException {
+    return decoder.readOperation();
+  }
+
+  /**
+   * Reads a value written by {@link CheckpointOutput#writePrimitive}.
+   *
+   * @return the value that was read: a boxed primitive or a String
+   * @throws IOException if there is a problem reading
+   */
+  public Object readPrimitive() throws IOException {
+    int tag = readUnsignedByte();
+    switch (tag) {
+      case 'Z':
+        return readBoolean();
+      case 'B':
+        return readByte();
+      case 'S':
+        return readShort();
+      case 'C':
+        return readChar();
+      case 'I':
+        return readInt();
+      case 'J':
+        return readLong();
+      case 'F':
+        return readFloat();
+      case 'D':
+        return readDouble();
+      case 'L':
+        return readString();
+      default:
+        throw new IOException("Bad primitive tag " + tag);
+    }
+  }
+}
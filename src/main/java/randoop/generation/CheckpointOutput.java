@@ -0,0 +1,137 @@
+package randoop.generation;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence;
+import randoop.sequence.SequenceEncoder;
+
+/**
+ * A stream to which the state of a generator is written, to be read back by a {@link
+ * CheckpointInput}. In addition to the methods of {@link DataOutputStream}, it writes sequences and
+ * operations, using a {@link SequenceEncoder}. Each distinct sequence is written in full only the
+ * first time; later occurrences are written as an index, so a sequence that is shared by the
+ * component pool and the output tests is stored once.
+ */
+public final class CheckpointOutput extends DataOutputStream {
+
+  /**
+   * The index of each sequence written so far. Sequences are compared by identity, because equal
+   * sequences may have different active flags.
+   */
+  private final Map<Sequence, Integer> sequenceIndices = new IdentityHashMap<>();
+
+  /** Writes the sequences and operations, and holds the dictionary of operations. */
+  private final SequenceEncoder encoder = new SequenceEncoder(this);
+
+  /**
+   * Creates a checkpoint output stream.
+   *
+   * @param out the underlying output stream
+   */
+  public CheckpointOutput(OutputStream out) {
+    super(out);
+  }
+
+  /**
+   * Writes a non-negative int in a variable number of bytes: 7 bits per byte, low bits first.
+   *
+   * @param value the value to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeVarInt(int value) throws IOException {
+    SequenceEncoder.writeVarInt(this, value);
+  }
+
+  /**
+   * Writes a string of any length, unlike {@link #writeUTF}, which is limited to 64K bytes.
+   *
+   * @param s the string to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeString(String s) throws IOException {
+    SequenceEncoder.writeString(this, s);
+  }
+
+  /**
+   * Writes a sequence, including its active flags.
+   *
+   * @param sequence the sequence to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeSequence(Sequence sequence) throws IOException {
+    Integer index = sequenceIndices.get(sequence);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    int newIndex = sequenceIndices.size();
+    sequenceIndices.put(sequence, newIndex);
+    writeVarInt(newIndex);
+    encoder.writeSequence(sequence);
+    int numInactive = 0;
+    for (int i = 0; i < sequence.size(); i++) {
+      if (!sequence.isActive(i)) {
+        numInactive++;
+      }
+    }
+    writeVarInt(numInactive);
+    for (int i = 0; i < sequence.size(); i++) {
+      if (!sequence.isActive(i)) {
+        writeVarInt(i);
+      }
+    }
+  }
+
+  /**
+   * Writes an operation.
+   *
+   * @param operation the operation to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeOperation(TypedOperation operation) throws IOException {
+    encoder.writeOperation(operation);
+  }
+
+  /**
+   * Writes a primitive value, boxed, or a String.
+   *
+   * @param value the value to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writePrimitive(Object value) throws IOException {
+    if (value instanceof Boolean) {
+      write('Z');
+      writeBoolean((Boolean) value);
+    } else if (value instanceof Byte) {
+      write('B');
+      writeByte((Byte) value);
+    } else if (value instanceof Short) {
+      write('S');
+      writeShort((Short) value);
+    } else if (value instanceof Character) {
+      write('C');
+      writeChar((Character) value);
+    } else if (value instanceof Integer) {
+      write('I');
+      writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      write('J');
+      writeLong((Long) value);
+    } else if (value instanceof Float) {
+      write('F');
+      writeFloat((Float) value);
+    } else if (value instanceof Double) {
+      write('D');
+      writeDouble((Double) value);
+    } else if (value instanceof String) {
+      write('L');
+      writeString((String) value);
+    } else {
+      throw new IllegalArgumentException("Not a primitive value or String: " + value);
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package randoop.generation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
 import randoop.operation.TypedClassOperation;
 import randoop.operation.TypedOperation;
@@ -19,6 +24,8 @@ import randoop.types.PrimitiveType;
 import randoop.types.Type;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
+import randoop.util.PrefixedList;
+import randoop.util.SimpleArrayList;
 import randoop.util.SimpleList;
 
 /**
@@ -38,8 +45,8 @@ import randoop.util.SimpleList;
  * <p>SEED SEQUENCES. Seed sequences are the initial sequences provided to the generation process.
  * They include (1) sequences passed via the constructor, (2) class literals, and (3) package
  * literals. The only different treatment of seed sequences is during calls to the
- * clearGeneratedSequences() method, which removes only general, non-seed components from the
- * collection.
+ * clearGeneratedSequences() and evictGeneratedSequences() methods, which remove only general,
+ * non-seed components from the collection.
  */
 public class ComponentManager {
 
@@ -77,9 +84,27 @@ public class ComponentManager {
    */
   private @Nullable PackageLiterals packageLiterals = null;
 
+  /**
+   * The sequences added by {@link #addGeneratedSequence} since the last call to {@link
+   * #takeNewSequences}, or null if they are not being recorded. Recorded only for the workers of a
+   * {@link ParallelForwardGenerator}, which publish them to the other workers.
+   */
+  private @Nullable List<Sequence> newSequences = null;
+
+  /** The number of general components removed by {@link #evictGeneratedSequences} so far. */
+  private long numEvictedSequences = 0;
+
+  /**
+   * The candidates for the inputs of the operations of each declaring class, for each needed type,
+   * when class or package literals are in use. See {@link #getSequencesForType(TypedOperation, int,
+   * boolean)}. Cleared when a literal is added.
+   */
+  private final Map<ClassOrInterfaceType, Map<Type, PrefixedList<Sequence>>>
+      candidatesWithLiterals = new HashMap<>();
+
   /** Create an empty component manager, with an empty seed sequence set. */
   public ComponentManager() {
-    gralComponents = new SequenceCollection();
+    gralComponents = newPool(Collections.<Sequence>emptySet());
     gralSeeds = Collections.unmodifiableSet(Collections.<Sequence>emptySet());
   }
 
@@ -94,7 +119,27 @@ public class ComponentManager {
     Set<Sequence> seedSet = new LinkedHashSet<>(generalSeeds.size());
     seedSet.addAll(generalSeeds);
     this.gralSeeds = Collections.unmodifiableSet(seedSet);
-    gralComponents = new SequenceCollection(seedSet);
+    gralComponents = newPool(seedSet);
+  }
+
+  /**
+   * Create a component manager that initially contains the same seed sequences, generated
+   * sequences, and literals as the given one. Later changes to either component manager do not
+   * affect the other.
+   *
+   * @param other the component manager to copy
+   */
+  ComponentManager(ComponentManager other) {
+    this.gralSeeds = other.gralSeeds;
+    this.gralComponents = newPool(other.gralComponents.getAllSequences());
+    if (other.classLiterals != null) {
+      this.classLiterals = new ClassLiterals();
+      this.classLiterals.addAll(other.classLiterals);
+    }
+    if (other.packageLiterals != null) {
+      this.packageLiterals = new PackageLiterals();
+      this.packageLiterals.addAll(other.packageLiterals);
+    }
   }
 
   /**
@@ -119,6 +164,7 @@ public class ComponentManager {
       classLiterals = new ClassLiterals();
     }
     classLiterals.addSequence(type, seq);
+    candidatesWithLiterals.clear();
   }
 
   /**
@@ -133,6 +179,7 @@ public class ComponentManager {
       packageLiterals = new PackageLiterals();
     }
     packageLiterals.addSequence(pkg, seq);
+    candidatesWithLiterals.clear();
   }
 
   /**
@@ -142,13 +189,107 @@ public class ComponentManager {
    */
   public void addGeneratedSequence(Sequence sequence) {
     gralComponents.add(sequence);
+    if (newSequences != null) {
+      newSequences.add(sequence);
+    }
+  }
+
+  /**
+   * Add a component sequence that was generated elsewhere, such as by another worker of a {@link
+   * ParallelForwardGenerator}. Unlike {@link #addGeneratedSequence}, the sequence is not recorded
+   * as new.
+   *
+   * @param sequence the sequence
+   */
+  void addSharedSequence(Sequence sequence) {
+    gralComponents.add(sequence);
+  }
+
+  /** Starts recording the sequences passed to {@link #addGeneratedSequence}. */
+  void recordNewSequences() {
+    newSequences = new ArrayList<>();
+  }
+
+  /**
+   * Returns the sequences passed to {@link #addGeneratedSequence} since the previous call, and
+   * clears the record. Requires that {@link #recordNewSequences} has been called.
+   *
+   * @return the sequences added since the previous call
+   */
+  List<Sequence> takeNewSequences() {
+    if (newSequences == null) {
+      throw new RandoopBug("takeNewSequences called without recordNewSequences");
+    }
+    List<Sequence> result = newSequences;
+    newSequences = new ArrayList<>();
+    return result;
   }
 
   /**
    * Removes any components sequences added so far, except for seed sequences, which are preserved.
    */
   void clearGeneratedSequences() {
-    gralComponents = new SequenceCollection(this.gralSeeds);
+    gralComponents = newPool(this.gralSeeds);
+  }
+
+  /**
+   * Shrinks the set of general components, according to {@link
+   * GenInputsAbstract#component_eviction}. Seed sequences are preserved.
+   */
+  void evictGeneratedSequences() {
+    int oldSize = gralComponents.size();
+    switch (GenInputsAbstract.component_eviction) {
+      case CLEAR:
+        clearGeneratedSequences();
+        numEvictedSequences += oldSize - gralComponents.size();
+        break;
+      case LEAST_RECENTLY_USED:
+        numEvictedSequences += gralComponents.evict(0.5, gralSeeds, false);
+        break;
+      case TYPE_QUOTA:
+        numEvictedSequences += gralComponents.evict(0.5, gralSeeds, true);
+        break;
+      default:
+        throw new Error(
+            "Unhandled --component-eviction: " + GenInputsAbstract.component_eviction);
+    }
+    Log.logPrintf(
+        "Component eviction (%s) shrank the pool from %d to %d entries.%n",
+        GenInputsAbstract.component_eviction, oldSize, gralComponents.size());
+  }
+
+  /**
+   * Returns the number of general components removed so far to keep the pool small.
+   *
+   * @return the number of general components removed so far
+   */
+  public long numEvictedSequences() {
+    return numEvictedSequences;
+  }
+
+  /**
+   * Records that the given sequence was used as an input to a new sequence. The eviction policies
+   * other than {@code CLEAR} prefer to keep recently used sequences.
+   *
+   * @param sequence the sequence that was used
+   */
+  void markUsed(Sequence sequence) {
+    gralComponents.markUsed(sequence);
+  }
+
+  /**
+   * Creates a collection of general components that contains the given sequences and, if needed by
+   * {@link GenInputsAbstract#component_eviction}, tracks how recently each was used.
+   *
+   * @param sequences the initial sequences
+   * @return a new collection of general components
+   */
+  private static SequenceCollection newPool(Collection<Sequence> sequences) {
+    SequenceCollection result = new SequenceCollection(sequences);
+    if (GenInputsAbstract.component_eviction != GenInputsAbstract.ComponentEviction.CLEAR) {
+      result.trackUsage();
+    }
+    return result;
   }
 
   /**
@@ -175,13 +316,16 @@ public class ComponentManager {
    * a statement that invokes the given operation. Also includes any applicable class- or
    * package-level literals.
    *
+   * <p>The result may be shared with later calls, and may grow as sequences are added; it must not
+   * be modified. Selecting from it takes constant time and, unless the candidates have changed,
+   * does not allocate.
+   *
    * @param operation the statement
    * @param i the input value index of statement
    * @param onlyReceivers if true, only return sequences that are appropriate to use as a method
    *     call receiver
    * @return the sequences that create values of the given type
    */
-  @SuppressWarnings("unchecked")
   // This method is oddly named, since it does not take as input a type.  However, the method
   // extensively uses the operation, so refactoring the method to take a type instead would take
   // some work.
@@ -203,47 +347,65 @@ public class ComponentManager {
     SimpleList<Sequence> result =
         gralComponents.getSequencesForType(neededType, false, onlyReceivers);
 
-    // Compute relevant literals.
-    SimpleList<Sequence> literals = null;
-    if (operation instanceof TypedClassOperation
+    if ((classLiterals == null && packageLiterals == null)
+        || !(operation instanceof TypedClassOperation)
         // Don't add literals for the receiver
-        && !onlyReceivers) {
-      // The operation is a method call, where the method is defined in class C.  Augment the
-      // returned list with literals that appear in class C or in its package.  At most one of
-      // classLiterals and packageLiterals is non-null.
+        || onlyReceivers) {
+      return result;
+    }
 
-      ClassOrInterfaceType declaringCls = ((TypedClassOperation) operation).getDeclaringType();
-      assert declaringCls != null;
+    // The operation is a method call, where the method is defined in class C.  Augment the
+    // returned list with literals that appear in class C or in its package.  The literals are
+    // cached, because they are requested for every input of every operation.  The result is a view
+    // of the literals followed by the pool's list, which grows with the pool, so it is cached too.
+    ClassOrInterfaceType declaringCls = ((TypedClassOperation) operation).getDeclaringType();
+    assert declaringCls != null;
+    Map<Type, PrefixedList<Sequence>> cache = candidatesWithLiterals.get(declaringCls);
+    if (cache == null) {
+      cache = new HashMap<>();
+      candidatesWithLiterals.put(declaringCls, cache);
+    }
+    PrefixedList<Sequence> candidates = cache.get(neededType);
+    // The list of general components grows in place, until it is replaced.
+    if (candidates == null || candidates.rest != result) {
+      SimpleList<Sequence> literals =
+          (candidates == null) ? getLiterals(declaringCls, neededType) : candidates.prefix;
+      candidates = new PrefixedList<>(literals, result);
+      cache.put(neededType, candidates);
+    }
+    return candidates.prefix.isEmpty() ? result : candidates;
+  }
 
-      if (classLiterals != null) {
-        SimpleList<Sequence> sl = classLiterals.getSequences(declaringCls, neededType);
-        if (!sl.isEmpty()) {
-          literals = sl;
-        }
-      }
+  /**
+   * Returns the literals that appear in the given class or in its package and that create values of
+   * the given type. At most one of classLiterals and packageLiterals is non-null.
+   *
+   * @param declaringCls the class that declares an operation
+   * @param neededType the type of an input of the operation
+   * @return the literals for the class and type; may be empty
+   */
+  @SuppressWarnings("unchecked")
+  private SimpleList<Sequence> getLiterals(ClassOrInterfaceType declaringCls, Type neededType) {
+    SimpleList<Sequence> literals = null;
 
-      if (packageLiterals != null) {
-        Package pkg = declaringCls.getPackage();
-        if (pkg != null) {
-          SimpleList<Sequence> sl = packageLiterals.getSequences(pkg, neededType);
-          if (!sl.isEmpty()) {
-            literals = (literals == null) ? sl : new ListOfLists<>(literals, sl);
-          }
-        }
+    if (classLiterals != null) {
+      SimpleList<Sequence> sl = classLiterals.getSequences(declaringCls, neededType);
+      if (!sl.isEmpty()) {
+        literals = sl;
       }
     }
 
-    // Append literals to result.
-    if (literals != null) {
-      if (result == null) {
-        result = literals;
-      } else if (literals == null) {
-        // nothing to do
-      } else {
-        result = new ListOfLists<>(result, literals);
+    if (packageLiterals != null) {
+      Package pkg = declaringCls.getPackage();
+      if (pkg != null) {
+        SimpleList<Sequence> sl = packageLiterals.getSequences(pkg, neededType);
+        if (!sl.isEmpty()) {
+          literals = (literals == null) ? sl : new ListOfLists<>(literals, sl);
+        }
       }
     }
-    return result;
+
+    return (literals == null) ? new SimpleArrayList<>(0) : literals;
   }
 
   /**
@@ -1,9 +1,11 @@
 package randoop.generation;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +33,10 @@ import randoop.types.ClassOrInterfaceType;
  * this class records the total number of branches and the number of branches that have not been
  * covered in generated tests. This class periodically updates branch coverage information for each
  * method from Jacoco's data structures.
+ *
+ * <p>Updates are incremental. The bytecode of each class under test is read once. An update
+ * analyzes only the classes whose probes (Jacoco's record of which code has executed) have changed
+ * since the previous update; the coverage of the methods of the other classes is unchanged.
  */
 public class CoverageTracker {
   /**
@@ -49,6 +55,18 @@ public class CoverageTracker {
   /** Names of all the classes under test. */
   protected final Set<@BinaryName String> classesUnderTest = new HashSet<>();
 
+  /** The bytecode of each class under test that has been analyzed, indexed by binary name. */
+  private final Map<@BinaryName String, byte[]> classBytes = new HashMap<>();
+
+  /**
+   * The names, in internal form, of the classes whose probes changed since the last update. Set by
+   * {@link #collectCoverageInformation}.
+   */
+  private final Set<String> changedClasses = new HashSet<>();
+
+  /** True if {@link #updateBranchCoverageMap} has been called. */
+  private boolean updated = false;
+
   /**
    * Initialize the coverage tracker.
    *
@@ -66,26 +84,35 @@ public class CoverageTracker {
   }
 
   /**
-   * Retrieve execution data from the Jacoco Java agent and merge the coverage information into
-   * {@code executionData}.
+   * Retrieves the execution data from the Jacoco Java agent. The result is Jacoco's serialized form
+   * of the coverage information so far; see {@link #updateBranchCoverageMap(byte[])}.
+   *
+   * @return the serialized execution data
    */
-  private void collectCoverageInformation() {
+  public byte[] readExecutionData() {
     try {
-      // Retrieve the execution data from the Jacoco Java agent.
-      final InputStream execDataStream;
-      try {
-        execDataStream = new ByteArrayInputStream(RT.getAgent().getExecutionData(false));
-      } catch (IllegalStateException e) {
-        System.out.println(
-            "If the error notes: 'JaCoCo agent not started', the issue is likely "
-                + "that the Jacoco agent is not included as a Java agent.");
-        System.out.println(
-            "To do so, add "
-                + "'-Xbootclasspath/a:/path/to/jacocoagent.jar"
-                + " -javaagent:/path/to/jacocoagent.jar' to the command line argument.");
-        throw e;
-      }
+      return RT.getAgent().getExecutionData(false);
+    } catch (IllegalStateException e) {
+      System.out.println(
+          "If the error notes: 'JaCoCo agent not started', the issue is likely "
+              + "that the Jacoco agent is not included as a Java agent.");
+      System.out.println(
+          "To do so, add "
+              + "'-Xbootclasspath/a:/path/to/jacocoagent.jar"
+              + " -javaagent:/path/to/jacocoagent.jar' to the command line argument.");
+      throw e;
+    }
+  }
 
+  /**
+   * Merge the given execution data into {@code executionData}. Records in {@code changedClasses}
+   * each class whose probes changed.
+   *
+   * @param execData execution data, as returned by {@link #readExecutionData}
+   */
+  private void collectCoverageInformation(byte[] execData) {
+    try {
+      final InputStream execDataStream = new ByteArrayInputStream(execData);
       final ExecutionDataReader reader = new ExecutionDataReader(execDataStream);
 
       // The reader requires a session info visitor, however we do not need any information from it.
@@ -94,6 +121,10 @@ public class CoverageTracker {
           new IExecutionDataVisitor() {
             @Override
             public void visitClassExecution(final ExecutionData data) {
+              ExecutionData previous = executionData.get(data.getId());
+              if (previous == null || hasNewProbes(previous.getProbes(), data.getProbes())) {
+                changedClasses.add(data.getName());
+              }
               // Add the execution data for each class into the execution data store.
               executionData.put(data);
             }
@@ -107,33 +138,70 @@ public class CoverageTracker {
     }
   }
 
+  /**
+   * Returns true if a probe is set in {@code current} but not in {@code previous}.
+   *
+   * @param previous the probes of a class at the last update
+   * @param current the current probes of the class
+   * @return true if {@code current} sets a probe that {@code previous} does not
+   */
+  private static boolean hasNewProbes(boolean[] previous, boolean[] current) {
+    if (previous.length != current.length) {
+      return true;
+    }
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] && !previous[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Updates branch coverage information for all methods under test. At this point, Jacoco has
    * already generated coverage data while Randoop has been constructing and executing its test
    * sequences. Coverage data is now collected and the {@code branchCoverageMap} field is updated to
    * contain the updated coverage information of each method branch.
+   *
+   * <p>The first call analyzes every class under test. Later calls analyze only the classes whose
+   * probes have changed.
    */
   public void updateBranchCoverageMap() {
+    updateBranchCoverageMap(readExecutionData());
+  }
+
+  /**
+   * Updates branch coverage information for all methods under test from the given execution data,
+   * which was retrieved earlier by {@link #readExecutionData}. This need not be called on the
+   * thread that retrieved the data, but calls must not be concurrent.
+   *
+   * @param execData execution data, as returned by {@link #readExecutionData}
+   */
+  public void updateBranchCoverageMap(byte[] execData) {
     // Collect coverage information. This updates the executionData object and gives us updated
     // coverage information for all of the classes under test.
-    collectCoverageInformation();
+    collectCoverageInformation(execData);
 
     CoverageBuilder coverageBuilder = new CoverageBuilder();
     Analyzer analyzer = new Analyzer(executionData, coverageBuilder);
 
-    // For each class that is under test, summarize the branch coverage information
-    // produced by Jacoco and store it in the coverageBuilder local variable.
+    // For each class that is under test and whose coverage has changed, summarize the branch
+    // coverage information produced by Jacoco and store it in the coverageBuilder local variable.
     for (@BinaryName String className : classesUnderTest) {
-      String resource = getResourceFromClassName(className);
-      try (InputStream original = getClass().getResourceAsStream(resource)) {
-        analyzer.analyzeClass(original, className);
+      if (updated && !changedClasses.contains(className.replace('.', '/'))) {
+        continue;
+      }
+      try {
+        analyzer.analyzeClass(getClassBytes(className), className);
       } catch (IOException e) {
         throw new Error(e);
       }
     }
+    changedClasses.clear();
+    updated = true;
 
-    // For each method under test, copy its branch coverage information from the coverageBuilder to
-    // branchCoverageMap.
+    // For each method under test that was analyzed, copy its branch coverage information from the
+    // coverageBuilder to branchCoverageMap.
     // Sorting is to make diagnostic output deterministic.
     ArrayList<IClassCoverage> classes = new ArrayList<>(coverageBuilder.getClasses());
     classes.sort(Comparator.comparing(IClassCoverage::toString));
@@ -165,6 +233,34 @@ public class CoverageTracker {
     }
   }
 
+  /**
+   * Returns the bytecode of the given class under test. The class file is read only once.
+   *
+   * @param className binary name of class
+   * @return the contents of the class file
+   * @throws IOException if the class file cannot be read
+   */
+  private byte[] getClassBytes(@BinaryName String className) throws IOException {
+    byte[] bytes = classBytes.get(className);
+    if (bytes == null) {
+      String resource = getResourceFromClassName(className);
+      try (InputStream original = getClass().getResourceAsStream(resource)) {
+        if (original == null) {
+          throw new IOException("Cannot find class file " + resource);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = original.read(buffer)) != -1) {
+          out.write(buffer, 0, n);
+        }
+        bytes = out.toByteArray();
+      }
+      classBytes.put(className, bytes);
+    }
+    return bytes;
+  }
+
   /**
    * Construct the absolute resource name of a class given a class name.
    *
@@ -185,6 +281,15 @@ public class CoverageTracker {
     return this.branchCoverageMap.get(methodName);
   }
 
+  /**
+   * Returns the uncovered branch ratio of each method. For testing.
+   *
+   * @return a map from method name to uncovered branch ratio
+   */
+  Map<String, Double> getBranchCoverageMap() {
+    return Collections.unmodifiableMap(branchCoverageMap);
+  }
+
   /** An {@link ISessionInfoVisitor} that does nothing. */
   private static class DummySessionInfoVisitor implements ISessionInfoVisitor {
     /** Singleton instance of this class. */
@@ -30,6 +30,7 @@ import randoop.sequence.SequenceCollection;
 import randoop.test.DummyCheckGenerator;
 import randoop.types.ArrayType;
 import randoop.types.NonParameterizedType;
+import randoop.types.SubtypeOracle;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.EquivalenceChecker;
@@ -191,7 +192,7 @@ public class DemandDrivenInputCreator {
     for (String className : UnspecifiedClassTracker.getSpecifiedClasses()) {
       try {
         Class<?> cls = Class.forName(className);
-        userSpecifiedTypes.add(new NonParameterizedType(cls));
+        userSpecifiedTypes.add(NonParameterizedType.forClass(cls));
       } catch (ClassNotFoundException e) {
         throw new RandoopUsageError("Class not found: " + className);
       }
@@ -234,6 +235,7 @@ public class DemandDrivenInputCreator {
       checkAndAddUnspecifiedType(currentType);
 
       Class<?> currentClass = currentType.getRuntimeClass();
+      NonParameterizedType currentClassType = NonParameterizedType.forClass(currentClass);
 
       // Get all constructors and methods of the current class
       List<Executable> constructorsAndMethods = new ArrayList<>();
@@ -245,10 +247,11 @@ public class DemandDrivenInputCreator {
         // 1. Assignable to the target type `targetType`, OR
         // 2. Returns the current class and is static
         boolean isStaticAndReturnsCurrentClass =
-            returnType.equals(new NonParameterizedType(currentClass))
+            returnType.equals(currentClassType)
                 && Modifier.isStatic(method.getModifiers());
 
-        if (targetType.isAssignableFrom(returnType) || isStaticAndReturnsCurrentClass) {
+        if (SubtypeOracle.isAssignableFrom(targetType, returnType)
+            || isStaticAndReturnsCurrentClass) {
           constructorsAndMethods.add(method);
         }
       }
@@ -257,7 +260,7 @@ public class DemandDrivenInputCreator {
       for (Executable executable : constructorsAndMethods) {
         Type returnType;
         if (executable instanceof Constructor) {
-          returnType = new NonParameterizedType(currentClass);
+          returnType = currentClassType;
         } else if (executable instanceof Method) {
           Method method = (Method) executable;
           returnType = Type.forClass(method.getReturnType());
@@ -266,10 +269,11 @@ public class DemandDrivenInputCreator {
           // 1. Assignable to the target type `targetType`, OR
           // 2. Returns the current class and is static
           boolean isStaticAndReturnsCurrentClass =
-              returnType.equals(new NonParameterizedType(currentClass))
+              returnType.equals(currentClassType)
                   && Modifier.isStatic(method.getModifiers());
 
-          if (!(targetType.isAssignableFrom(returnType) || isStaticAndReturnsCurrentClass)) {
+          if (!(SubtypeOracle.isAssignableFrom(targetType, returnType)
+              || isStaticAndReturnsCurrentClass)) {
             continue;
           }
         } else {
@@ -288,9 +292,8 @@ public class DemandDrivenInputCreator {
             (executable instanceof Constructor)
                 ? new ConstructorCall((Constructor<?>) executable)
                 : new MethodCall((Method) executable);
-        NonParameterizedType declaringType = new NonParameterizedType(currentClass);
         TypedOperation typedClassOperation =
-            new TypedClassOperation(callableOperation, declaringType, inputTypes, returnType);
+            new TypedClassOperation(callableOperation, currentClassType, inputTypes, returnType);
 
         // Add the method call to the result.
         result.add(typedClassOperation);
@@ -1,9 +1,14 @@
 package randoop.generation;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -38,6 +43,7 @@ import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.ListOfLists;
 import randoop.util.Log;
+import randoop.util.LongHashSet;
 import randoop.util.MultiMap;
 import randoop.util.Randomness;
 import randoop.util.SimpleArrayList;
@@ -48,12 +54,26 @@ public class ForwardGenerator extends AbstractGenerator {
 
   /**
    * The set of ALL sequences ever generated, including sequences that were executed and then
-   * discarded.
+   * discarded. If {@link #allFingerprints} is non-null, only the {@link
+   * GenInputsAbstract#sequence_history} most recently generated sequences.
    *
    * <p>This must be ordered by insertion to allow for flaky test history collection in {@link
    * randoop.main.GenTests#printSequenceExceptionError(AbstractGenerator, SequenceExceptionError)}.
    */
-  private final LinkedHashSet<Sequence> allSequences = new LinkedHashSet<>();
+  private final Set<Sequence> allSequences;
+
+  /**
+   * The fingerprints of all sequences ever generated, used instead of {@link #allSequences} to
+   * detect duplicates. Null unless {@code --duplicate-filter=FINGERPRINTS}.
+   */
+  private final @Nullable LongHashSet allFingerprints;
+
+  /**
+   * The fingerprints of the sequences generated by the run that wrote the checkpoint that this
+   * generator was resumed from. Used with {@link #allSequences} to detect duplicates; null if this
+   * generator was not resumed or if {@link #allFingerprints} is non-null.
+   */
+  private @Nullable LongHashSet resumedFingerprints = null;
 
   /** The side-effect-free methods. */
   private final Set<TypedOperation> sideEffectFreeMethods;
@@ -130,6 +150,14 @@ public class ForwardGenerator extends AbstractGenerator {
       Set<ClassOrInterfaceType> classesUnderTest) {
     super(operations, limits, componentManager, stopper);
 
+    if (GenInputsAbstract.duplicate_filter == GenInputsAbstract.DuplicateFilter.FINGERPRINTS) {
+      this.allFingerprints = new LongHashSet();
+      this.allSequences = recentSequences(GenInputsAbstract.sequence_history);
+    } else {
+      this.allFingerprints = null;
+      this.allSequences = new LinkedHashSet<>();
+    }
+
     this.sideEffectFreeMethods = sideEffectFreeMethods;
     this.instantiator = componentManager.getTypeInstantiator();
 
@@ -189,6 +217,23 @@ public class ForwardGenerator extends AbstractGenerator {
   }
 
   @Override
+  protected void generateSequences() {
+    try {
+      while (!shouldStop()) {
+        num_steps++;
+        handleStep(step());
+      }
+      checkQueuedSequences();
+    } finally {
+      operationSelector.generationFinished();
+    }
+  }
+
+  /**
+   * Attempt to generate a test (a sequence).
+   *
+   * @return a test sequence, may be null
+   */
   public @Nullable ExecutableSequence step() {
 
     final int nanoPerMilli = 1000000;
@@ -199,11 +244,11 @@ public class ForwardGenerator extends AbstractGenerator {
     long startTimeNanos = System.nanoTime();
 
     if (componentManager.numGeneratedSequences() % GenInputsAbstract.clear == 0) {
-      componentManager.clearGeneratedSequences();
+      componentManager.evictGeneratedSequences();
     }
     if (SystemPlume.usedMemory(false) > GenInputsAbstract.clear_memory
         && SystemPlume.usedMemory(true) > GenInputsAbstract.clear_memory) {
-      componentManager.clearGeneratedSequences();
+      componentManager.evictGeneratedSequences();
     }
 
     ExecutableSequence eSeq = createNewUniqueSequence();
@@ -275,11 +320,58 @@ public class ForwardGenerator extends AbstractGenerator {
     return eSeq;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If {@code --duplicate-filter=FINGERPRINTS}, returns only the {@link
+   * GenInputsAbstract#sequence_history} most recently generated sequences.
+   */
   @Override
   public Set<Sequence> getAllSequences() {
     return this.allSequences;
   }
 
+  /**
+   * Adds the given sequence to {@link #allSequences}, unless it was created before. The workers of
+   * a {@link ParallelForwardGenerator} override this to also discard sequences created by other
+   * workers.
+   *
+   * @param newSequence a newly-created sequence
+   * @return true if the sequence was not created before, false if it is a duplicate
+   */
+  boolean addNewSequence(Sequence newSequence) {
+    if (allFingerprints == null) {
+      if (resumedFingerprints != null && resumedFingerprints.contains(newSequence.fingerprint())) {
+        return false;
+      }
+      return this.allSequences.add(newSequence);
+    }
+    if (!allFingerprints.add(newSequence.fingerprint())) {
+      return false;
+    }
+    this.allSequences.add(newSequence);
+    return true;
+  }
+
+  /**
+   * Returns a set that keeps only the given number of most recently added sequences, in the order
+   * they were added.
+   *
+   * @param capacity the maximum number of sequences to keep
+   * @return a bounded, insertion-ordered set of sequences
+   */
+  private static Set<Sequence> recentSequences(int capacity) {
+    return Collections.newSetFromMap(
+        new LinkedHashMap<Sequence, Boolean>() {
+          private static final long serialVersionUID = 20240601L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Sequence, Boolean> eldest) {
+            return size() > capacity;
+          }
+        });
+  }
+
   /**
    * Implements the "GRT Elephant-Brain" component, as described in "GRT: Program-Analysis-Guided
    * Random Testing" by Ma et. al (ASE 2015): https://people.kth.se/~artho/papers/lei-ase2015.pdf.
@@ -555,14 +647,12 @@ public class ForwardGenerator extends AbstractGenerator {
     randoopConsistencyTests(newSequence);
 
     // Discard if sequence is a duplicate.
-    if (this.allSequences.contains(newSequence)) {
+    if (!addNewSequence(newSequence)) {
       operationHistory.add(operation, OperationOutcome.SEQUENCE_DISCARDED);
       Log.logPrintf("Sequence discarded: the same sequence was previously created.%n");
       return null;
     }
 
-    this.allSequences.add(newSequence);
-
     randoopConsistencyTest2(newSequence);
 
     Log.logPrintf("Successfully created new unique sequence:%n%s%n", newSequence.toString());
@@ -908,6 +998,7 @@ public class ForwardGenerator extends AbstractGenerator {
 
       Sequence chosenSeq = inputSequenceSelector.selectInputSequence(candidates);
       Log.logPrintf("chosenSeq: %s%n", chosenSeq);
+      componentManager.markUsed(chosenSeq);
 
       // TODO: the last statement might not be active -- it might not create a usable variable of
       // such a type.  An example is a void method that is called with only null arguments.
@@ -969,7 +1060,92 @@ public class ForwardGenerator extends AbstractGenerator {
 
   @Override
   public int numGeneratedSequences() {
-    return allSequences.size();
+    if (allFingerprints != null) {
+      return allFingerprints.size();
+    }
+    return allSequences.size() + (resumedFingerprints == null ? 0 : resumedFingerprints.size());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Also writes the fingerprints of all generated sequences, the component pool, the primitive
+   * values seen, the state of the random generator, and the state of the selectors.
+   */
+  @Override
+  void writeState(CheckpointOutput out) throws IOException {
+    super.writeState(out);
+
+    long[] fingerprints;
+    if (allFingerprints != null) {
+      fingerprints = allFingerprints.toArray();
+    } else {
+      long[] resumed = resumedFingerprints == null ? new long[0] : resumedFingerprints.toArray();
+      fingerprints = Arrays.copyOf(resumed, resumed.length + allSequences.size());
+      int i = resumed.length;
+      for (Sequence sequence : allSequences) {
+        fingerprints[i++] = sequence.fingerprint();
+      }
+    }
+    out.writeInt(fingerprints.length);
+    for (long fingerprint : fingerprints) {
+      out.writeLong(fingerprint);
+    }
+
+    Set<Sequence> pool = componentManager.getAllGeneratedSequences();
+    out.writeVarInt(pool.size());
+    for (Sequence sequence : pool) {
+      out.writeSequence(sequence);
+    }
+
+    out.writeVarInt(runtimePrimitivesSeen.size());
+    for (Object value : runtimePrimitivesSeen) {
+      out.writePrimitive(value);
+    }
+
+    Randomness.writeState(out);
+    operationSelector.writeState(out);
+    inputSequenceSelector.writeState(out, pool);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The sequences generated by the resumed run are not kept, only their fingerprints. With
+   * {@code --duplicate-filter=SEQUENCES}, a new sequence is therefore discarded if its fingerprint
+   * equals that of a sequence generated by the resumed run.
+   */
+  @Override
+  void readState(CheckpointInput in) throws IOException {
+    super.readState(in);
+
+    int numFingerprints = in.readInt();
+    LongHashSet fingerprints = allFingerprints;
+    if (fingerprints == null) {
+      fingerprints = new LongHashSet(numFingerprints);
+      resumedFingerprints = fingerprints;
+    }
+    for (int i = 0; i < numFingerprints; i++) {
+      fingerprints.add(in.readLong());
+    }
+
+    Set<Sequence> pool = new HashSet<>(componentManager.getAllGeneratedSequences());
+    int poolSize = in.readVarInt();
+    for (int i = 0; i < poolSize; i++) {
+      Sequence sequence = in.readSequence();
+      if (pool.add(sequence)) {
+        componentManager.addGeneratedSequence(sequence);
+      }
+    }
+
+    int numPrimitives = in.readVarInt();
+    for (int i = 0; i < numPrimitives; i++) {
+      runtimePrimitivesSeen.add(in.readPrimitive());
+    }
+
+    Randomness.readState(in);
+    operationSelector.readState(in);
+    inputSequenceSelector.readState(in);
   }
 
   @Override
@@ -984,7 +1160,7 @@ public class ForwardGenerator extends AbstractGenerator {
                 "num_sequences_generated: " + num_sequences_generated),
             String.join(
                 ", ",
-                "allSequences: " + allSequences.size(),
+                "allSequences: " + numGeneratedSequences(),
                 "regresson seqs: " + outRegressionSeqs.size(),
                 "error seqs: "
                     + outErrorSeqs.size()
@@ -0,0 +1,114 @@
+package randoop.generation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopUsageError;
+
+/**
+ * Saves the state of a generator to a checkpoint file, and restores it, so that a run of Randoop
+ * that was killed can be resumed. See {@link GenInputsAbstract#checkpoint} and {@link
+ * GenInputsAbstract#resume_from}.
+ *
+ * <p>A checkpoint file is a gzipped {@link CheckpointOutput} stream: a header that identifies the
+ * format and the selection strategies, followed by the state written by {@link
+ * AbstractGenerator#writeState}.
+ */
+public final class GenerationCheckpoint {
+
+  /** The first four bytes of a checkpoint file. */
+  private static final int MAGIC = 0x52434b50; // "RCKP"
+
+  /** The version of the checkpoint format. */
+  private static final int VERSION = 2;
+
+  private GenerationCheckpoint() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Saves the state of the given generator to the given file. The file is replaced atomically, if
+   * the file system supports it. If the checkpoint cannot be written, prints a warning and
+   * continues.
+   *
+   * @param generator the generator whose state to save
+   * @param file the checkpoint file
+   */
+  public static void save(AbstractGenerator generator, Path file) {
+    Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (CheckpointOutput out =
+          new CheckpointOutput(
+              new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile))))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(GenInputsAbstract.method_selection.name());
+        out.writeUTF(GenInputsAbstract.input_selection.name());
+        generator.writeState(out);
+      }
+      try {
+        Files.move(
+            tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      System.out.printf("%nWarning: cannot write checkpoint %s: %s%n", file, e.getMessage());
+    }
+  }
+
+  /**
+   * Restores the state of the given generator from the given checkpoint file. Must be called after
+   * the generator is configured, and before {@link AbstractGenerator#createAndClassifySequences}.
+   *
+   * @param generator the generator whose state to restore
+   * @param file the checkpoint file
+   * @throws RandoopUsageError if the file cannot be read, or was written with different selection
+   *     strategies
+   */
+  public static void restore(AbstractGenerator generator, Path file) {
+    try (CheckpointInput in =
+        new CheckpointInput(
+            new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != MAGIC) {
+        throw new RandoopUsageError("Not a checkpoint file: " + file);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new RandoopUsageError(
+            String.format(
+                "Checkpoint file %s has version %d, expected %d", file, version, VERSION));
+      }
+      checkOption(file, "--method-selection", in.readUTF(), GenInputsAbstract.method_selection);
+      checkOption(file, "--input-selection", in.readUTF(), GenInputsAbstract.input_selection);
+      generator.readState(in);
+    } catch (IOException e) {
+      throw new RandoopUsageError("Cannot resume from checkpoint " + file, e);
+    }
+  }
+
+  /**
+   * Checks that the value of an option is the same as when a checkpoint was written.
+   *
+   * @param file the checkpoint file
+   * @param option the name of the option
+   * @param saved the value of the option when the checkpoint was written
+   * @param current the current value of the option
+   * @throws RandoopUsageError if the values differ
+   */
+  private static void checkOption(Path file, String option, String saved, Enum<?> current) {
+    if (!saved.equals(current.name())) {
+      throw new RandoopUsageError(
+          String.format(
+              "Checkpoint file %s was written with %s=%s, but the current value is %s",
+              file, option, saved, current.name()));
+    }
+  }
+}
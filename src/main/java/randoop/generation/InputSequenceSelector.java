@@ -1,5 +1,7 @@
 package randoop.generation;
 
+import java.io.IOException;
+import java.util.Set;
 import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
 import randoop.util.SimpleList;
@@ -22,4 +24,26 @@ public abstract class InputSequenceSelector {
    * @param eSeq the recently executed sequence which is new and unique, and has just been executed
    */
   public void createdExecutableSequence(ExecutableSequence eSeq) {}
+
+  /**
+   * Writes the state of this selector to a checkpoint, so that {@link #readState} can restore it.
+   *
+   * <p>The default implementation writes nothing.
+   *
+   * @param out where to write the state
+   * @param pool the sequences that may be selected in the future; the state of other sequences need
+   *     not be written
+   * @throws IOException if there is a problem writing the state
+   */
+  public void writeState(CheckpointOutput out, Set<Sequence> pool) throws IOException {}
+
+  /**
+   * Restores the state of this selector from the output of {@link #writeState}.
+   *
+   * <p>The default implementation reads nothing.
+   *
+   * @param in where to read the state from
+   * @throws IOException if there is a problem reading the state
+   */
+  public void readState(CheckpointInput in) throws IOException {}
 }
@@ -1,12 +1,22 @@
 package randoop.generation;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.sequence.ExecutableSequence;
 import randoop.sequence.Sequence;
+import randoop.util.ListOfLists;
+import randoop.util.PrefixedList;
 import randoop.util.Randomness;
 import randoop.util.SimpleList;
+import randoop.util.WeightedSampler;
 
 /**
  * Implements the Orienteering component, as described by the paper "GRT: Program-Analysis-Guided
@@ -30,102 +40,88 @@ import randoop.util.SimpleList;
  * <p>The GRT paper also does not describe how to handle input sequences that have not yet been
  * selected. We start ecah input sequences with a selection count of 1 to prevent division by zero
  * when computing weights.
+ *
+ * <p>Each sequence gets a dense integer id when it is first seen, and its details and weight are
+ * stored in arrays indexed by id. A candidate list is usually a {@link ListOfLists} or {@link
+ * PrefixedList} whose leaves are the per-type lists of the component pool and lists of literals.
+ * Each leaf list has a {@link WeightedSampler} of the weights of its elements, which is kept in
+ * sync as the list grows and is updated whenever the weight of one of its elements changes.
+ * Selecting from a candidate list therefore takes time logarithmic in its size, rather than linear.
+ *
+ * <p>Some candidate lists contain leaves that are created for a single selection, such as the
+ * helper lists of the array and collection creation heuristics of {@link ForwardGenerator}. The
+ * weights of a leaf list are discarded when it has not been used for a while, and its slot in
+ * {@link #leaves} and its places are reused, so such lists do not accumulate.
  */
 public class OrienteeringSelection extends InputSequenceSelector {
-  /** Map from a sequence to its details used for computing its weight. */
-  private final Map<Sequence, SequenceDetails> sequenceDetailsMap = new HashMap<>();
+
+  /** The initial capacity of the arrays indexed by sequence id. */
+  private static final int INITIAL_CAPACITY = 1024;
 
   /**
-   * Map from a sequence to its weight. For every sequence s, {@code weightMap.get(s) ==
-   * sequenceDetailsMap.get(s).getWeight()}. This is needed because {@code
-   * Randomneess#randomMemberWeighted} takes a {@code Map<T, Double>} as an argument.
+   * The weights of a leaf list that has not been a candidate for this many selections are
+   * discarded, so that lists that are no longer in the pool can be garbage-collected. They are
+   * recomputed if the list is used again.
    */
-  private final Map<Sequence, Double> weightMap = new HashMap<>();
+  static final int LEAF_RETENTION = 10000;
 
-  /** Information used by Orienteering to compute a weight for a sequence. */
-  private static class SequenceDetails {
-    /** The square root of the number of method calls in the sequence. */
-    private final double methodSizeSqrt;
+  /** Map from a sequence to its id. */
+  private final Map<Sequence, Integer> ids = new HashMap<>();
 
-    /** The execution time of the sequence, in nanoseconds. */
-    private final long executionTimeNanos;
+  /** The number of ids assigned. The ids are 0 through {@code numIds - 1}. */
+  private int numIds = 0;
 
-    /** Number of times this sequence has been selected by {@link OrienteeringSelection}. */
-    private int selectionCount;
+  /** The square root of the number of method calls in each sequence, indexed by id. */
+  private double[] methodSizeSqrts = new double[INITIAL_CAPACITY];
 
-    /**
-     * A {@link Sequence}'s weight. This is computed from the other fields and is updated when
-     * {@link #selectionCount} is.
-     */
-    private double weight;
+  /** The execution time of each sequence, in nanoseconds, indexed by id. */
+  private long[] executionTimesNanos = new long[INITIAL_CAPACITY];
 
-    /**
-     * Create a SequenceDetails for the given sequence, but using the given execution time.
-     *
-     * @param sequence a sequence
-     * @param executionTimeNanos execution time in nanoseconds
-     */
-    SequenceDetails(Sequence sequence, long executionTimeNanos) {
-      this(methodSizeSquareRoot(sequence), executionTimeNanos);
-    }
+  /** The number of times each sequence has been selected, plus 1, indexed by id. */
+  private int[] selectionCounts = new int[INITIAL_CAPACITY];
 
-    /**
-     * Create a SequenceDetails.
-     *
-     * @param methodSizeSqrt the square root of the number of method calls
-     * @param executionTimeNanos the execution time, in nanoseconds
-     */
-    public SequenceDetails(double methodSizeSqrt, long executionTimeNanos) {
-      this.methodSizeSqrt = methodSizeSqrt;
-      this.executionTimeNanos = executionTimeNanos;
-      // Prevent division by zero: start the count at 1.
-      this.selectionCount = 1;
-      updateWeight();
-    }
+  /** The weight of each sequence, indexed by id. Computed by {@link #updateWeight}. */
+  private double[] weights = new double[INITIAL_CAPACITY];
 
-    /** Increments the selection count. */
-    public void incrementSelectionCount() {
-      selectionCount++;
-      updateWeight();
-    }
+  /**
+   * For each id, the places where the sequence is an element of a leaf list whose weights are
+   * tracked. Each place is encoded by {@link #place}. Only the first {@code numPlaces[id]} elements
+   * are used.
+   */
+  private long[][] places = new long[INITIAL_CAPACITY][];
 
-    /**
-     * Returns the weight of the sequence.
-     *
-     * @return the weight of the sequence
-     */
-    public double getWeight() {
-      return weight;
-    }
+  /** For each id, the number of places in {@link #places}. */
+  private int[] numPlaces = new int[INITIAL_CAPACITY];
 
-    /**
-     * Compute the weight of a sequence. The formula for a sequence's weight is:
-     *
-     * <p>1.0 / (k * seq.exec_time * sqrt(seq.meth_size))
-     *
-     * <p>where k is the number of selections of seq and exec_time is the execution time of seq and
-     * meth_size is the number of method call statements in seq. This formula is a slight
-     * simplification of the one described in the GRT paper which maintains a separate exec_time for
-     * each execution of seq. However, we assume that every execution time for a sequence is the
-     * same as the first execution.
-     */
-    private void updateWeight() {
-      weight = 1.0 / (selectionCount * executionTimeNanos * methodSizeSqrt);
-    }
-  }
+  /** The weights of the leaf lists, by identity of the list. */
+  private final Map<SimpleList<Sequence>, LeafWeights> leafWeights = new IdentityHashMap<>();
+
+  /** All leaf weights, indexed by {@link LeafWeights#index}; null for discarded ones. */
+  private final List<@Nullable LeafWeights> leaves = new ArrayList<>();
+
+  /** The indices of the null elements of {@link #leaves}, which are reused for new leaves. */
+  private final ArrayDeque<Integer> freeLeafIndices = new ArrayDeque<>();
+
+  /** The non-empty leaves of the current candidate list. Reused to avoid allocation. */
+  private final List<LeafWeights> candidateLeaves = new ArrayList<>();
+
+  /** The total weight of each of {@link #candidateLeaves}. Reused to avoid allocation. */
+  private final WeightedSampler candidateLeafWeights = new WeightedSampler();
+
+  /** The number of calls to {@link #selectInputSequence}. */
+  private long numSelections = 0;
 
   /**
    * Initialize {@link OrienteeringSelection} and assign a weight to each {@link Sequence} within
    * the given set of seed sequences. This ensures that later, Orienteering will always have a
-   * corresponding {@link SequenceDetails} and therefore a corresponding weight for every {@link
-   * Sequence} within a list of candidates for selection.
+   * corresponding weight for every seed {@link Sequence} within a list of candidates for selection.
    *
    * @param seedSequences set of seed sequences
    */
   public OrienteeringSelection(Set<Sequence> seedSequences) {
     for (Sequence seedSequence : seedSequences) {
       // Treat every seed sequence as having an execution time of 1 nanosecond.
-      createSequenceDetailsWithExecutionTime(seedSequence, 1L);
+      addSequence(seedSequence, 1L);
     }
   }
 
@@ -137,49 +133,131 @@ public class OrienteeringSelection extends InputSequenceSelector {
    */
   @Override
   public Sequence selectInputSequence(SimpleList<Sequence> candidates) {
-    // One could imagine caching the total weight to avoid this iteration over the list.  However,
-    // this candidate list is provided by the client, there are many such lists, and we don't want
-    // to inject code into all the places that the list may be computed.  Also, there might be
-    // issues with floating-point precision from repeatedly updating a running total for each list.
-    double totalWeight = computeTotalWeightForCandidates(candidates);
+    if (candidates.isEmpty()) {
+      throw new IllegalArgumentException("Empty list");
+    }
+    numSelections++;
 
-    Sequence selectedSequence = Randomness.randomMemberWeighted(candidates, weightMap, totalWeight);
+    candidateLeaves.clear();
+    addLeaves(candidates);
+    int leafIndex = 0;
+    if (candidateLeaves.size() > 1) {
+      candidateLeafWeights.clear();
+      for (LeafWeights leaf : candidateLeaves) {
+        candidateLeafWeights.add(leaf.sampler.totalWeight());
+      }
+      leafIndex = Randomness.randomIndexWeighted(candidateLeafWeights);
+    }
+    LeafWeights leaf = candidateLeaves.get(leafIndex);
+    int position = Randomness.randomIndexWeighted(leaf.sampler);
+    Sequence selectedSequence = leaf.list.get(position);
 
-    // Compute and update the weight of the selected sequence which will be affected by its
-    // increased selection count.
-    SequenceDetails sequenceDetails = sequenceDetailsMap.get(selectedSequence);
-    sequenceDetails.incrementSelectionCount();
-    weightMap.put(selectedSequence, sequenceDetails.getWeight());
+    // Update the weight of the selected sequence which will be affected by its increased selection
+    // count.
+    int id = leaf.ids[position];
+    selectionCounts[id]++;
+    updateWeight(id);
 
+    if (numSelections % LEAF_RETENTION == 0) {
+      discardUnusedLeaves();
+    }
     return selectedSequence;
   }
 
   /**
-   * Compute the total weight of the list of candidate {@link Sequence}s.
+   * Adds the non-empty leaf lists of the given list to {@link #candidateLeaves}, bringing their
+   * weights up to date.
    *
-   * @param candidates list of candidate sequences
-   * @return the total weight of the input candidate list
+   * @param list a list of candidates
    */
-  private double computeTotalWeightForCandidates(SimpleList<Sequence> candidates) {
-    double totalWeight = 0;
-    for (int i = 0; i < candidates.size(); i++) {
-      Sequence candidate = candidates.get(i);
-      SequenceDetails details = sequenceDetailsMap.get(candidate);
-      if (details == null) {
+  private void addLeaves(SimpleList<Sequence> list) {
+    if (list instanceof ListOfLists) {
+      for (SimpleList<Sequence> sublist : ((ListOfLists<Sequence>) list).lists) {
+        addLeaves(sublist);
+      }
+    } else if (list instanceof PrefixedList) {
+      addLeaves(((PrefixedList<Sequence>) list).prefix);
+      addLeaves(((PrefixedList<Sequence>) list).rest);
+    } else if (!list.isEmpty()) {
+      candidateLeaves.add(syncLeaf(list));
+    }
+  }
+
+  /**
+   * Returns the weights of the given leaf list, adding the weights of any elements appended to the
+   * list since the last call. If elements were removed from the list, for example by component
+   * eviction, the weights are recomputed.
+   *
+   * @param list a leaf list; not a {@link ListOfLists} or {@link PrefixedList}
+   * @return the weights of the elements of the list
+   */
+  private LeafWeights syncLeaf(SimpleList<Sequence> list) {
+    LeafWeights leaf = leafWeights.get(list);
+    int size = list.size();
+    if (leaf != null) {
+      int oldSize = leaf.sampler.size();
+      // Elements are only appended, unless some were removed.  A removal either shrinks the list or
+      // shifts a different sequence into the position of the last known element.
+      if (oldSize > size || (oldSize > 0 && list.get(oldSize - 1) != leaf.lastSequence)) {
+        discard(leaf);
+        leaf = null;
+      }
+    }
+    if (leaf == null) {
+      if (freeLeafIndices.isEmpty()) {
+        leaf = new LeafWeights(leaves.size(), list);
+        leaves.add(leaf);
+      } else {
+        leaf = new LeafWeights(freeLeafIndices.pop(), list);
+        leaves.set(leaf.index, leaf);
+      }
+      leafWeights.put(list, leaf);
+    }
+    for (int position = leaf.sampler.size(); position < size; position++) {
+      Sequence sequence = list.get(position);
+      Integer id = ids.get(sequence);
+      if (id == null) {
         // This might be a literal that was created by ComponentManager.getSequencesForType().
-        createdExecutableSequence(new ExecutableSequence(candidate));
-        details = sequenceDetailsMap.get(candidate);
+        // Treat it as having an execution time of 1 nanosecond, as for any negligible run time.
+        id = addSequence(sequence, 1L);
+      }
+      leaf.add(id, weights[id]);
+      addPlace(id, place(leaf.index, position));
+      leaf.lastSequence = sequence;
+    }
+    leaf.lastUsed = numSelections;
+    return leaf;
+  }
+
+  /**
+   * Stops tracking the weights of the given leaf list, and forgets the places of its elements so
+   * that its index can be reused.
+   *
+   * @param leaf the weights of a leaf list
+   */
+  private void discard(LeafWeights leaf) {
+    for (int position = 0; position < leaf.sampler.size(); position++) {
+      removePlace(leaf.ids[position], place(leaf.index, position));
+    }
+    leaves.set(leaf.index, null);
+    freeLeafIndices.push(leaf.index);
+    leafWeights.remove(leaf.list);
+  }
+
+  /** Discards the weights of the leaf lists that have not been used recently. */
+  private void discardUnusedLeaves() {
+    for (LeafWeights leaf : leaves) {
+      if (leaf != null && numSelections - leaf.lastUsed > LEAF_RETENTION) {
+        discard(leaf);
       }
-      totalWeight += details.getWeight();
     }
-    return totalWeight;
   }
 
   /**
    * {@inheritDoc}
    *
-   * <p>This implementation creates and stores a {@link SequenceDetails} for the underlying {@link
-   * Sequence} in the given {@link ExecutableSequence}.
+   * <p>This implementation records the execution time of the underlying {@link Sequence} in the
+   * given {@link ExecutableSequence}.
    *
    * @param eSeq the recently executed sequence which is new and unique, and has just been executed.
    *     It contains its overall execution time for the underlying {@link Sequence}.
@@ -190,21 +268,187 @@ public class OrienteeringSelection extends InputSequenceSelector {
     if (eSeq.exectime <= 0) {
       eSeq.exectime = 1;
     }
-    createSequenceDetailsWithExecutionTime(eSeq.sequence, eSeq.exectime);
+    addSequence(eSeq.sequence, eSeq.exectime);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Writes the execution time and selection count of each sequence in the pool.
+   */
+  @Override
+  public void writeState(CheckpointOutput out, Set<Sequence> pool) throws IOException {
+    List<Sequence> sequences = new ArrayList<>(pool.size());
+    for (Sequence sequence : pool) {
+      if (ids.containsKey(sequence)) {
+        sequences.add(sequence);
+      }
+    }
+    out.writeVarInt(sequences.size());
+    for (Sequence sequence : sequences) {
+      int id = ids.get(sequence);
+      out.writeSequence(sequence);
+      out.writeLong(executionTimesNanos[id]);
+      out.writeVarInt(selectionCounts[id]);
+    }
+  }
+
+  @Override
+  public void readState(CheckpointInput in) throws IOException {
+    int size = in.readVarInt();
+    for (int i = 0; i < size; i++) {
+      Sequence sequence = in.readSequence();
+      int id = addSequence(sequence, in.readLong());
+      selectionCounts[id] = in.readVarInt();
+      updateWeight(id);
+    }
   }
 
   /**
-   * Creates and stores a {@link SequenceDetails} for the given {@link Sequence} with the
-   * corresponding execution time.
+   * Records the given {@link Sequence} with the corresponding execution time and a selection count
+   * of 1, assigning it an id if it does not have one yet.
    *
    * @param sequence the sequence to add
    * @param executionTimeNanos the execution time of the sequence, in nanoseconds
+   * @return the id of the sequence
    */
-  private void createSequenceDetailsWithExecutionTime(Sequence sequence, long executionTimeNanos) {
-    SequenceDetails sequenceDetails = new SequenceDetails(sequence, executionTimeNanos);
+  private int addSequence(Sequence sequence, long executionTimeNanos) {
+    Integer existingId = ids.get(sequence);
+    int id;
+    if (existingId != null) {
+      id = existingId;
+    } else {
+      id = numIds++;
+      if (id == weights.length) {
+        int capacity = 2 * id;
+        methodSizeSqrts = Arrays.copyOf(methodSizeSqrts, capacity);
+        executionTimesNanos = Arrays.copyOf(executionTimesNanos, capacity);
+        selectionCounts = Arrays.copyOf(selectionCounts, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        places = Arrays.copyOf(places, capacity);
+        numPlaces = Arrays.copyOf(numPlaces, capacity);
+      }
+      ids.put(sequence, id);
+      methodSizeSqrts[id] = methodSizeSquareRoot(sequence);
+    }
+    executionTimesNanos[id] = executionTimeNanos;
+    // Prevent division by zero: start the count at 1.
+    selectionCounts[id] = 1;
+    updateWeight(id);
+    return id;
+  }
+
+  /**
+   * Compute the weight of a sequence, and update it in every leaf list that contains the sequence.
+   * The formula for a sequence's weight is:
+   *
+   * <p>1.0 / (k * seq.exec_time * sqrt(seq.meth_size))
+   *
+   * <p>where k is the number of selections of seq and exec_time is the execution time of seq and
+   * meth_size is the number of method call statements in seq. This formula is a slight
+   * simplification of the one described in the GRT paper which maintains a separate exec_time for
+   * each execution of seq. However, we assume that every execution time for a sequence is the same
+   * as the first execution.
+   *
+   * @param id the id of a sequence
+   */
+  private void updateWeight(int id) {
+    double weight = 1.0 / (selectionCounts[id] * executionTimesNanos[id] * methodSizeSqrts[id]);
+    weights[id] = weight;
+    long[] idPlaces = places[id];
+    for (int i = 0; i < numPlaces[id]; i++) {
+      LeafWeights leaf = leaves.get(leafIndex(idPlaces[i]));
+      assert leaf != null : "discarded leaves have no places";
+      leaf.sampler.set(position(idPlaces[i]), weight);
+    }
+  }
+
+  /**
+   * Records that the sequence with the given id is at the given place.
+   *
+   * @param id the id of a sequence
+   * @param place the place of the sequence in a leaf list, encoded by {@link #place}
+   */
+  private void addPlace(int id, long place) {
+    long[] idPlaces = places[id];
+    if (idPlaces == null) {
+      idPlaces = new long[2];
+      places[id] = idPlaces;
+    } else if (numPlaces[id] == idPlaces.length) {
+      idPlaces = Arrays.copyOf(idPlaces, 2 * idPlaces.length);
+      places[id] = idPlaces;
+    }
+    idPlaces[numPlaces[id]++] = place;
+  }
+
+  /**
+   * Records that the sequence with the given id is no longer at the given place.
+   *
+   * @param id the id of a sequence
+   * @param place a place of the sequence, encoded by {@link #place}
+   */
+  private void removePlace(int id, long place) {
+    long[] idPlaces = places[id];
+    int last = numPlaces[id] - 1;
+    for (int i = 0; i <= last; i++) {
+      if (idPlaces[i] == place) {
+        idPlaces[i] = idPlaces[last];
+        numPlaces[id] = last;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of slots for leaf lists, including free ones. Used for testing.
+   *
+   * @return the size of {@link #leaves}
+   */
+  int numLeafSlots() {
+    return leaves.size();
+  }
+
+  /**
+   * Returns the number of places of the given sequence in leaf lists whose weights are tracked.
+   * Used for testing.
+   *
+   * @param sequence a sequence
+   * @return the number of places of the sequence, or 0 if it has no id
+   */
+  int numPlaces(Sequence sequence) {
+    Integer id = ids.get(sequence);
+    return id == null ? 0 : numPlaces[id];
+  }
+
+  /**
+   * Encodes a position in a leaf list as a {@code long}.
+   *
+   * @param leafIndex the {@link LeafWeights#index} of the leaf list
+   * @param position the position in the leaf list
+   * @return the encoded place
+   */
+  private static long place(int leafIndex, int position) {
+    return ((long) leafIndex << 32) | position;
+  }
+
+  /**
+   * Returns the index of the leaf list of a place encoded by {@link #place}.
+   *
+   * @param place an encoded place
+   * @return the {@link LeafWeights#index} of the leaf list
+   */
+  private static int leafIndex(long place) {
+    return (int) (place >>> 32);
+  }
 
-    sequenceDetailsMap.put(sequence, sequenceDetails);
-    weightMap.put(sequence, sequenceDetails.getWeight());
+  /**
+   * Returns the position in its leaf list of a place encoded by {@link #place}.
+   *
+   * @param place an encoded place
+   * @return the position in the leaf list
+   */
+  private static int position(long place) {
+    return (int) place;
   }
 
   /**
@@ -223,4 +467,54 @@ public class OrienteeringSelection extends InputSequenceSelector {
       return Math.sqrt(methodSize);
     }
   }
+
+  /**
+   * The weights of the elements of a leaf list, which is not a {@link ListOfLists} or {@link
+   * PrefixedList}.
+   */
+  private static final class LeafWeights {
+
+    /** The index of this in {@link OrienteeringSelection#leaves}. */
+    final int index;
+
+    /** The leaf list. */
+    final SimpleList<Sequence> list;
+
+    /** The weight of each element of the list, as of the last sync. */
+    final WeightedSampler sampler = new WeightedSampler();
+
+    /** The id of each element of the list. Only the first {@code sampler.size()} are used. */
+    int[] ids = new int[16];
+
+    /** The last element of the list, as of the last sync; null if the list was empty. */
+    @Nullable Sequence lastSequence = null;
+
+    /** The value of {@link OrienteeringSelection#numSelections} when this was last used. */
+    long lastUsed;
+
+    /**
+     * Creates the weights of an empty leaf list.
+     *
+     * @param index the index of this in {@link OrienteeringSelection#leaves}
+     * @param list the leaf list
+     */
+    LeafWeights(int index, SimpleList<Sequence> list) {
+      this.index = index;
+      this.list = list;
+    }
+
+    /**
+     * Adds the weight of the next element of the list.
+     *
+     * @param id the id of the element
+     * @param weight the weight of the element
+     */
+    void add(int id, double weight) {
+      int position = sampler.add(weight);
+      if (position == ids.length) {
+        ids = Arrays.copyOf(ids, 2 * ids.length);
+      }
+      ids[position] = id;
+    }
+  }
 }
@@ -0,0 +1,636 @@
+package randoop.generation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.Globals;
+import randoop.main.GenInputsAbstract;
+import randoop.main.RandoopBug;
+import randoop.operation.TypedOperation;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.types.ClassOrInterfaceType;
+import randoop.util.LongHashSet;
+import randoop.util.Randomness;
+
+/**
+ * A generator that runs several {@link ForwardGenerator}s, called workers, each in its own thread.
+ *
+ * <p>Each worker has its own copy of the operations and its own pool of component sequences, so the
+ * workers do not contend while generating. Every {@link
+ * GenInputsAbstract#generation_publish_interval} steps, a worker publishes the components it
+ * created since its last exchange, and adds the components published by the other workers to its
+ * own pool. Each worker publishes to its own log, so a worker contends only with readers of its
+ * log. All workers discard a new sequence if any worker has already created it. To detect such
+ * duplicates, the workers share the sequences they create or, with {@code
+ * --duplicate-filter=FINGERPRINTS}, only their {@linkplain Sequence#fingerprint() fingerprints}.
+ *
+ * <p>The stopping criteria apply to the workers together: for example, the attempted limit bounds
+ * the total number of steps of all workers. Because the workers read each other's counts without
+ * synchronization, the workers may slightly overshoot a limit.
+ *
+ * <p>With {@link GenInputsAbstract#deterministic}, the result depends only on the random seed and
+ * the number of workers, not on thread scheduling:
+ *
+ * <ul>
+ *   <li>Each worker uses its own stream of random numbers, split from {@link
+ *       GenInputsAbstract#randomseed} by worker index.
+ *   <li>The workers exchange components in lockstep: every worker publishes, then every worker
+ *       collects, then every worker resumes generating.
+ *   <li>Each worker discards duplicates of the sequences that it created or collected, rather than
+ *       consulting a set that other workers update concurrently.
+ *   <li>Each worker has its own share of each limit, rather than reading the other workers' counts.
+ * </ul>
+ *
+ * <p>When all workers have stopped, their regression and error-revealing sequences are merged, in
+ * order of the workers' indices. A sequence that more than one worker created is kept only once.
+ */
+public class ParallelForwardGenerator extends AbstractGenerator {
+
+  /** The workers, in order of their indices. */
+  private final List<Worker> workers;
+
+  /**
+   * True if the result must not depend on thread scheduling; see {@link
+   * GenInputsAbstract#deterministic}.
+   */
+  private final boolean deterministic;
+
+  /**
+   * Synchronizes the exchanges of components among the workers, so that they happen in lockstep.
+   * Used only if {@link #deterministic}.
+   */
+  private final Phaser phaser;
+
+  /**
+   * The component sequences published by each worker, indexed by worker. Each list is append-only,
+   * and is guarded by itself.
+   */
+  private final List<List<Sequence>> published;
+
+  /**
+   * True if the workers detect duplicates by their fingerprints rather than by the sequences; see
+   * {@link GenInputsAbstract#duplicate_filter}.
+   */
+  private final boolean byFingerprint;
+
+  /**
+   * The sequences created by each worker, indexed by worker, so that other workers can discard
+   * duplicates of them. Each list is append-only, and is guarded by itself. Used only if {@link
+   * #deterministic} and not {@link #byFingerprint}; otherwise, the workers share one {@link
+   * KnownSequences} instead.
+   */
+  private final List<List<Sequence>> publishedCreated;
+
+  /**
+   * The fingerprints of the sequences created by each worker, like {@link #publishedCreated}. Used
+   * only if {@link #deterministic} and {@link #byFingerprint}.
+   */
+  private final List<List<Long>> publishedCreatedFingerprints;
+
+  /** The first exception thrown by a worker, or null if no worker has thrown an exception. */
+  private final AtomicReference<@Nullable Throwable> workerFailure = new AtomicReference<>();
+
+  /**
+   * Create a parallel generator.
+   *
+   * @param operations list of operations under test
+   * @param sideEffectFreeMethods side-effect-free methods
+   * @param limits limits for generation, which apply to all the workers together
+   * @param componentManager the initial sequences; each worker gets a copy
+   * @param stopper determines when the test generation process should conclude. Can be null.
+   * @param classesUnderTest the classes that are under test
+   * @param numWorkers the number of workers, at least 1
+   * @param configureWorker sets the test check generator, test predicate, and execution visitors of
+   *     a worker. Each worker needs its own, because they are not thread-safe.
+   */
+  public ParallelForwardGenerator(
+      List<TypedOperation> operations,
+      Set<TypedOperation> sideEffectFreeMethods,
+      GenInputsAbstract.Limits limits,
+      ComponentManager componentManager,
+      IStopper stopper,
+      Set<ClassOrInterfaceType> classesUnderTest,
+      int numWorkers,
+      Consumer<? super AbstractGenerator> configureWorker) {
+    super(operations, limits, componentManager, stopper);
+    if (numWorkers < 1) {
+      throw new IllegalArgumentException("numWorkers must be positive, is " + numWorkers);
+    }
+    this.deterministic = GenInputsAbstract.deterministic;
+    this.phaser = new Phaser(numWorkers);
+    this.byFingerprint =
+        GenInputsAbstract.duplicate_filter == GenInputsAbstract.DuplicateFilter.FINGERPRINTS;
+
+    // Every sequence created by any worker; used by the workers to discard duplicates. Guarded by
+    // itself.
+    KnownSequences sharedKnown = new KnownSequences(byFingerprint);
+    this.workers = new ArrayList<>(numWorkers);
+    this.published = new ArrayList<>(numWorkers);
+    this.publishedCreated = new ArrayList<>(numWorkers);
+    this.publishedCreatedFingerprints = new ArrayList<>(numWorkers);
+    for (int i = 0; i < numWorkers; i++) {
+      Worker worker =
+          new Worker(
+              i,
+              numWorkers,
+              new ArrayList<>(operations),
+              sideEffectFreeMethods,
+              deterministic
+                  ? shareOfLimits(limits, i, numWorkers)
+                  // Workers stop when this generator's stopping criteria are met; see
+                  // Worker.shouldStop.
+                  : new GenInputsAbstract.Limits(
+                      0, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE),
+              new ComponentManager(componentManager),
+              classesUnderTest,
+              deterministic ? new KnownSequences(byFingerprint) : sharedKnown);
+      configureWorker.accept(worker);
+      workers.add(worker);
+      published.add(new ArrayList<>());
+      publishedCreated.add(new ArrayList<>());
+      publishedCreatedFingerprints.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * The sequences that a worker must not create again. Keeps either the sequences themselves or,
+   * with {@code --duplicate-filter=FINGERPRINTS}, only their fingerprints.
+   */
+  private static final class KnownSequences {
+
+    /** If true, only the fingerprints of the known sequences are kept. */
+    private final boolean byFingerprint;
+
+    /** The known sequences. Empty if {@link #byFingerprint}. */
+    private final Set<Sequence> sequences = new HashSet<>();
+
+    /** The fingerprints of the known sequences. Empty unless {@link #byFingerprint}. */
+    private final LongHashSet fingerprints = new LongHashSet();
+
+    /**
+     * Create an empty set of known sequences.
+     *
+     * @param byFingerprint if true, keep only the fingerprints of the sequences
+     */
+    KnownSequences(boolean byFingerprint) {
+      this.byFingerprint = byFingerprint;
+    }
+
+    /**
+     * Adds the given sequence, unless it is already known.
+     *
+     * @param sequence a sequence
+     * @return true if the sequence was not known before
+     */
+    boolean add(Sequence sequence) {
+      if (byFingerprint) {
+        return fingerprints.add(sequence.fingerprint());
+      }
+      return sequences.add(sequence);
+    }
+
+    /**
+     * Adds the sequence with the given fingerprint. Used only if fingerprints are kept.
+     *
+     * @param fingerprint the fingerprint of a sequence
+     */
+    void addFingerprint(long fingerprint) {
+      fingerprints.add(fingerprint);
+    }
+  }
+
+  /**
+   * Returns the limits for one worker, such that the limits for all the workers add up to the given
+   * limits.
+   *
+   * @param limits the limits for all the workers together
+   * @param index the index of the worker
+   * @param numWorkers the number of workers
+   * @return the limits for the worker
+   */
+  private static GenInputsAbstract.Limits shareOfLimits(
+      GenInputsAbstract.Limits limits, int index, int numWorkers) {
+    return new GenInputsAbstract.Limits(
+        limits.time_limit_millis / 1000,
+        share(limits.attempted_limit, index, numWorkers),
+        share(limits.generated_limit, index, numWorkers),
+        share(limits.output_limit, index, numWorkers));
+  }
+
+  /**
+   * Returns one worker's share of the given total. The shares of all the workers add up to the
+   * total, and differ by at most 1.
+   *
+   * @param total the total to divide among the workers
+   * @param index the index of the worker
+   * @param numWorkers the number of workers
+   * @return the worker's share of the total
+   */
+  private static int share(int total, int index, int numWorkers) {
+    return total / numWorkers + (index < total % numWorkers ? 1 : 0);
+  }
+
+  /** A forward generator that shares components with the other workers. */
+  private class Worker extends ForwardGenerator {
+
+    /** The index of this worker. */
+    final int index;
+
+    /**
+     * For each worker, the number of components published by that worker that this worker has added
+     * to its pool.
+     */
+    final int[] consumed;
+
+    /**
+     * For each worker, the number of sequences created by that worker that this worker has added to
+     * {@link #known}. Used only if {@link #deterministic}.
+     */
+    final int[] consumedCreated;
+
+    /**
+     * The sequences that this worker must not create again. If {@link #deterministic}, these are
+     * the sequences this worker created or collected from other workers; otherwise, this set is
+     * shared by all the workers, and is guarded by itself.
+     */
+    final KnownSequences known;
+
+    /**
+     * The sequences this worker created since it last published. Used only if {@link
+     * #deterministic}.
+     */
+    final List<Sequence> newlyCreated = new ArrayList<>();
+
+    /** Set at a lockstep exchange if all workers must stop. Used only if {@link #deterministic}. */
+    boolean stopAll = false;
+
+    /**
+     * Create a worker.
+     *
+     * @param index the index of the worker
+     * @param numWorkers the number of workers
+     * @param operations the operations, which the worker may modify
+     * @param sideEffectFreeMethods side-effect-free methods
+     * @param limits limits for generation of this worker
+     * @param componentManager the worker's pool of component sequences
+     * @param classesUnderTest the classes that are under test
+     * @param known the sequences that the worker must not create again
+     */
+    Worker(
+        int index,
+        int numWorkers,
+        List<TypedOperation> operations,
+        Set<TypedOperation> sideEffectFreeMethods,
+        GenInputsAbstract.Limits limits,
+        ComponentManager componentManager,
+        Set<ClassOrInterfaceType> classesUnderTest,
+        KnownSequences known) {
+      super(
+          operations,
+          sideEffectFreeMethods,
+          limits,
+          componentManager,
+          /* stopper= */ null,
+          classesUnderTest);
+      this.index = index;
+      this.consumed = new int[numWorkers];
+      this.consumedCreated = new int[numWorkers];
+      this.known = known;
+      componentManager.recordNewSequences();
+    }
+
+    @Override
+    boolean addNewSequence(Sequence newSequence) {
+      if (deterministic) {
+        if (!known.add(newSequence)) {
+          return false;
+        }
+        newlyCreated.add(newSequence);
+      } else {
+        synchronized (known) {
+          if (!known.add(newSequence)) {
+            return false;
+          }
+        }
+      }
+      return super.addNewSequence(newSequence);
+    }
+
+    @Override
+    public @Nullable ExecutableSequence step() {
+      if (num_steps % GenInputsAbstract.generation_publish_interval == 0) {
+        if (deterministic) {
+          exchangeInLockstep(this);
+        } else {
+          publish(this);
+          collect(this);
+        }
+      }
+      return super.step();
+    }
+
+    @Override
+    protected boolean shouldStop() {
+      if (workerFailure.get() != null) {
+        return true;
+      } else if (deterministic) {
+        // This worker's own share of the limits, or a decision made at a lockstep exchange.
+        return stopAll || super.shouldStop();
+      } else {
+        return ParallelForwardGenerator.this.shouldStop();
+      }
+    }
+  }
+
+  /**
+   * Exchanges components between the given worker and the other workers, in lockstep with the other
+   * workers. When this method returns, the worker has collected everything that every other worker
+   * published before the exchange, and nothing that any worker published after it.
+   *
+   * @param worker the worker
+   */
+  private void exchangeInLockstep(Worker worker) {
+    publish(worker);
+    phaser.arriveAndAwaitAdvance();
+    // No worker publishes until every worker has collected.
+    collect(worker);
+    // Every worker sees the same counts here, so every worker makes the same decision.
+    worker.stopAll = ParallelForwardGenerator.this.shouldStop();
+    phaser.arriveAndAwaitAdvance();
+  }
+
+  /**
+   * Publishes the components that the given worker created since it last published.
+   *
+   * @param worker the worker
+   */
+  private void publish(Worker worker) {
+    append(published.get(worker.index), worker.componentManager.takeNewSequences());
+    if (deterministic) {
+      if (byFingerprint) {
+        List<Long> fingerprints = new ArrayList<>(worker.newlyCreated.size());
+        for (Sequence sequence : worker.newlyCreated) {
+          fingerprints.add(sequence.fingerprint());
+        }
+        append(publishedCreatedFingerprints.get(worker.index), fingerprints);
+      } else {
+        append(publishedCreated.get(worker.index), worker.newlyCreated);
+      }
+      worker.newlyCreated.clear();
+    }
+  }
+
+  /**
+   * Adds the components that other workers published since the given worker last collected to the
+   * worker's pool, in order of the other workers' indices.
+   *
+   * @param worker the worker
+   */
+  private void collect(Worker worker) {
+    for (int i = 0; i < workers.size(); i++) {
+      if (i == worker.index) {
+        continue;
+      }
+      List<Sequence> components = readFrom(published.get(i), worker.consumed[i]);
+      worker.consumed[i] += components.size();
+      for (Sequence sequence : components) {
+        worker.componentManager.addSharedSequence(sequence);
+      }
+      if (deterministic && byFingerprint) {
+        List<Long> created =
+            readFrom(publishedCreatedFingerprints.get(i), worker.consumedCreated[i]);
+        worker.consumedCreated[i] += created.size();
+        for (long fingerprint : created) {
+          worker.known.addFingerprint(fingerprint);
+        }
+      } else if (deterministic) {
+        List<Sequence> created = readFrom(publishedCreated.get(i), worker.consumedCreated[i]);
+        worker.consumedCreated[i] += created.size();
+        for (Sequence sequence : created) {
+          worker.known.add(sequence);
+        }
+      }
+    }
+  }
+
+  /**
+   * Appends the given elements to a published list.
+   *
+   * @param <T> the type of elements of the list
+   * @param log a list of {@link #published}, {@link #publishedCreated}, or {@link
+   *     #publishedCreatedFingerprints}
+   * @param elements the elements to append
+   */
+  private static <T> void append(List<T> log, List<T> elements) {
+    if (elements.isEmpty()) {
+      return;
+    }
+    synchronized (log) {
+      log.addAll(elements);
+    }
+  }
+
+  /**
+   * Returns the elements of a published list, starting at the given index.
+   *
+   * @param <T> the type of elements of the list
+   * @param log a list of {@link #published}, {@link #publishedCreated}, or {@link
+   *     #publishedCreatedFingerprints}
+   * @param start the index of the first element to return
+   * @return the elements of {@code log} from index {@code start} on
+   */
+  private static <T> List<T> readFrom(List<T> log, int start) {
+    synchronized (log) {
+      return new ArrayList<>(log.subList(start, log.size()));
+    }
+  }
+
+  /** Runs the workers until a stopping criterion is met, then merges their results. */
+  @Override
+  protected void generateSequences() {
+    List<Thread> threads = new ArrayList<>(workers.size());
+    for (Worker worker : workers) {
+      worker.setOperationHistoryLogger(operationHistory);
+      threads.add(
+          new Thread(() -> runWorker(worker), "randoop.generation.Worker-" + worker.index));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+
+    boolean interrupted = false;
+    for (Thread thread : threads) {
+      while (thread.isAlive()) {
+        try {
+          thread.join(100);
+        } catch (InterruptedException e) {
+          interrupted = true;
+          workerFailure.compareAndSet(null, e);
+        }
+        // Keep the counters up to date for the progress display.
+        updateCounters();
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    updateCounters();
+
+    // Merge in order of the workers' indices, keeping the first of any duplicates.
+    Set<Sequence> merged = new HashSet<>();
+    for (Worker worker : workers) {
+      for (ExecutableSequence eSeq : worker.outRegressionSeqs) {
+        if (merged.add(eSeq.sequence)) {
+          outRegressionSeqs.add(eSeq);
+        }
+      }
+      for (ExecutableSequence eSeq : worker.outErrorSeqs) {
+        if (merged.add(eSeq.sequence)) {
+          outErrorSeqs.add(eSeq);
+        }
+      }
+    }
+
+    Throwable failure = workerFailure.get();
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new RandoopBug("Generation worker failed", failure);
+    }
+  }
+
+  /**
+   * Runs the generation loop of the given worker, in the current thread.
+   *
+   * @param worker the worker
+   */
+  private void runWorker(Worker worker) {
+    Randomness.setSeed(GenInputsAbstract.randomseed, worker.index);
+    try {
+      worker.generateSequences();
+    } catch (Throwable e) {
+      workerFailure.compareAndSet(null, e);
+    } finally {
+      if (deterministic) {
+        // The other workers collect these at their next exchange, and then proceed without this
+        // worker.
+        publish(worker);
+        phaser.arriveAndDeregister();
+      }
+    }
+  }
+
+  /** Sets the counters of this generator to the sums of the workers' counters. */
+  private void updateCounters() {
+    int steps = 0;
+    int nullSteps = 0;
+    int generated = 0;
+    int failing = 0;
+    int invalid = 0;
+    int failedOutputTest = 0;
+    for (Worker worker : workers) {
+      steps += worker.num_steps;
+      nullSteps += worker.null_steps;
+      generated += worker.num_sequences_generated;
+      failing += worker.num_failing_sequences;
+      invalid += worker.invalidSequenceCount;
+      failedOutputTest += worker.num_failed_output_test;
+    }
+    num_steps = steps;
+    null_steps = nullSteps;
+    num_sequences_generated = generated;
+    num_failing_sequences = failing;
+    invalidSequenceCount = invalid;
+    num_failed_output_test = failedOutputTest;
+  }
+
+  // Unless the workers are in a lockstep exchange, the counts below are read while the workers are
+  // running, without synchronization.
+
+  @Override
+  public int numAttemptedSequences() {
+    int result = 0;
+    for (Worker worker : workers) {
+      result += worker.num_steps;
+    }
+    return result;
+  }
+
+  @Override
+  public int numGeneratedSequences() {
+    int result = 0;
+    for (Worker worker : workers) {
+      result += worker.numGeneratedSequences();
+    }
+    return result;
+  }
+
+  @Override
+  public long numEvictedComponents() {
+    long result = 0;
+    for (Worker worker : workers) {
+      result += worker.numEvictedComponents();
+    }
+    return result;
+  }
+
+  @Override
+  public int numOutputSequences() {
+    int result = 0;
+    for (Worker worker : workers) {
+      result += worker.outErrorSeqs.size() + worker.outRegressionSeqs.size();
+    }
+    return result;
+  }
+
+  @Override
+  protected int numErrorSequences() {
+    int result = 0;
+    for (Worker worker : workers) {
+      result += worker.outErrorSeqs.size();
+    }
+    return result;
+  }
+
+  @Override
+  public Set<Sequence> getAllSequences() {
+    Set<Sequence> result = new LinkedHashSet<>();
+    for (Worker worker : workers) {
+      result.addAll(worker.getAllSequences());
+    }
+    return result;
+  }
+
+  @Override
+  public List<Sequence> getCurrentSequences() {
+    List<Sequence> result = new ArrayList<>(workers.size());
+    for (Worker worker : workers) {
+      result.addAll(worker.getCurrentSequences());
+    }
+    return result;
+  }
+
+  @Override
+  public void newRegressionTestHook(Sequence sequence) {
+    // Each worker handles its own regression tests.
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append("ParallelForwardGenerator(workers: ").append(workers.size());
+    for (Worker worker : workers) {
+      result.append(";").append(Globals.lineSep).append("    ").append(worker);
+    }
+    return result.append(")").toString();
+  }
+}
@@ -1,5 +1,6 @@
 package randoop.generation;
 
+import java.io.IOException;
 import randoop.operation.TypedOperation;
 import randoop.sequence.Sequence;
 
@@ -22,4 +23,32 @@ public interface TypedOperationSelector {
    * @param sequence newly created sequence that was classified as a regression test
    */
   public abstract void newRegressionTestHook(Sequence sequence);
+
+  /**
+   * Writes the state of this selector to a checkpoint, so that {@link #readState} can restore it.
+   *
+   * <p>The default implementation writes nothing.
+   *
+   * @param out where to write the state
+   * @throws IOException if there is a problem writing the state
+   */
+  public default void writeState(CheckpointOutput out) throws IOException {}
+
+  /**
+   * Restores the state of this selector from the output of {@link #writeState}.
+   *
+   * <p>The default implementation reads nothing.
+   *
+   * @param in where to read the state from
+   * @throws IOException if there is a problem reading the state
+   */
+  public default void readState(CheckpointInput in) throws IOException {}
+
+  /**
+   * Called when the generator stops generating, so that this selector can release resources such as
+   * threads. The generator may call {@link #selectOperation} again afterward, if it resumes.
+   *
+   * <p>The default implementation does nothing.
+   */
+  public default void generationFinished() {}
 }
@@ -11,7 +11,8 @@ import randoop.types.Type;
  */
 public class UninstantiableTypeTracker {
   /** Types that cannot be instantiated due to the absence of producer methods. */
-  private static final Set<Type> uninstantiableTypes = new HashSet<>();
+  private static final Set<Type> uninstantiableTypes =
+      Collections.synchronizedSet(new HashSet<>());
 
   /**
    * Adds a type to the set of uninstantiable types.
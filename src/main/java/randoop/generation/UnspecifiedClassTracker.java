@@ -40,7 +40,7 @@ public class UnspecifiedClassTracker {
    *
    * @param cls the class to add
    */
-  public static void addClass(Class<?> cls) {
+  public static synchronized void addClass(Class<?> cls) {
     unspecifiedClasses.add(cls);
     if (!inJdk(cls.getName()) && !cls.isPrimitive()) {
       nonJdkUnspecifiedClasses.add(cls);
@@ -61,7 +61,7 @@ public class UnspecifiedClassTracker {
    *
    * @return an unmodifiable set of unspecified classes
    */
-  public static Set<Class<?>> getUnspecifiedClasses() {
+  public static synchronized Set<Class<?>> getUnspecifiedClasses() {
     return Collections.unmodifiableSet(new LinkedHashSet<>(unspecifiedClasses));
   }
 
@@ -70,7 +70,7 @@ public class UnspecifiedClassTracker {
    *
    * @return an unmodifiable set of non-JDK unspecified classes
    */
-  public static Set<Class<?>> getNonJdkUnspecifiedClasses() {
+  public static synchronized Set<Class<?>> getNonJdkUnspecifiedClasses() {
     return Collections.unmodifiableSet(new LinkedHashSet<>(nonJdkUnspecifiedClasses));
   }
 
@@ -285,6 +285,23 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Number of suspected nondeterministic methods to print")
   public static int nondeterministic_methods_to_output = 10;
 
+  /**
+   * If true, the search for flaky tests compiles each regression test class in memory and runs it
+   * within Randoop's JVM, in a class loader of its own, rather than compiling it to disk and
+   * starting a new JVM for each run. This is much faster. The tests do not see the state of test
+   * generation, but they run in Randoop's working directory, and a test that calls {@code
+   * System.exit} stops Randoop. If the tests need the replacecall agent, they are run in a single
+   * separate JVM that is reused for all the test classes. Test classes are run one at a time, even
+   * with {@code --output-threads} greater than 1.
+   *
+   * <p>A test class that times out cannot be stopped within Randoop's JVM: its thread is
+   * interrupted, but it may keep running until it finishes or Randoop exits. After the first
+   * timeout, that class and all later ones are run in a separate JVM instead, which is restarted
+   * whenever a test times out in it.
+   */
+  @Option("Run regression tests within Randoop's JVM when searching for flaky tests")
+  public static boolean flaky_test_filter_in_process = false;
+
   /**
    * Whether to output error-revealing tests. Disables all output when used with {@code
    * --no-regression-tests}. Restricting output can result in long runs if the default values of
@@ -322,6 +339,17 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Whether to check if test sequences are compilable")
   public static boolean check_compilable = true;
 
+  /**
+   * The number of test sequences that are checked for compilability together, in one invocation of
+   * the compiler (see {@code --check-compilable}). Each sequence becomes a method of one class, and
+   * the compiler's errors are mapped back to the sequences. A larger batch amortizes the cost of
+   * starting a compilation over more sequences, but a sequence is classified as a test only when
+   * its batch is checked, up to that many sequences later. 1 checks each sequence as soon as it is
+   * generated.
+   */
+  @Option("Number of test sequences to check for compilability at once")
+  public static int compile_batch_size = 1;
+
   /**
    * Classes that must occur in a test. Randoop will only output tests whose source code has at
    * least one use of a member of a class whose name matches the regular expression.
@@ -479,6 +507,17 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Terminate Randoop if specification condition throws an exception")
   public static boolean ignore_condition_exception_quiet = false;
 
+  /**
+   * A directory in which to cache the compiled specification conditions. The conditions of the
+   * specifications of each class are compiled together, and the result is stored in this directory,
+   * keyed by a hash of their source code and of the Java version. A later run with the same
+   * specifications, such as the JDK specifications, loads the conditions instead of compiling them.
+   * The cache does not detect changes to the classes that the conditions use; delete the directory
+   * after changing them. If not given, nothing is cached.
+   */
+  @Option("Directory in which to cache compiled specification conditions")
+  public static Path condition_cache_dir = null;
+
   /**
    * File containing side-effect-free methods (also known as "pure methods"), each given as a <a
    * href="https://randoop.github.io/randoop/manual/#fully-qualified-signature">fully-qualified
@@ -697,6 +736,19 @@ public abstract class GenInputsAbstract extends CommandHandler {
     INVOCATIONS
   }
 
+  /**
+   * If true, Bloodhound collects coverage information and recomputes method weights in a background
+   * thread, rather than pausing test generation to do so. The weights lag behind the coverage by
+   * the time the background thread takes.
+   *
+   * <p>With {@code --deterministic}, each set of weights is computed from the coverage at one
+   * update and used from the next update on, so the weights do not depend on how long the
+   * background thread takes.
+   */
+  @Unpublicized
+  @Option("Update Bloodhound's coverage information in a background thread")
+  public static boolean bloodhound_background_update = false;
+
   // Implementation note: when checking whether a String S exceeds the given
   // maxlength, we test if StringsPlume.escapeJava(S), because this is
   // the length of the string that will actually be printed out as code.
@@ -787,6 +839,63 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Clear the component set when Randoop uses this much memory")
   public static long clear_memory = 4000000000L; // default: 4G
 
+  /** How to shrink the component set when it gets too big. */
+  public enum ComponentEviction {
+    /** Remove every component except the seed sequences. */
+    CLEAR,
+    /** Remove the half of the components that were least recently used to create a new test. */
+    LEAST_RECENTLY_USED,
+    /**
+     * Like {@code LEAST_RECENTLY_USED}, but first remove components of the types that have more
+     * than their share of the components.
+     */
+    TYPE_QUOTA,
+  }
+
+  /**
+   * What to do when the component set gets too big, as determined by {@code --clear} and {@code
+   * --clear-memory}.
+   *
+   * <p>{@code CLEAR} discards every generated component, so generation restarts from the seed
+   * sequences. The other policies discard only half of the generated components, keeping the ones
+   * most recently used to create new tests. They never discard the last component that creates a
+   * value of a given type.
+   */
+  @Option("How to shrink the component set when it gets too big")
+  public static ComponentEviction component_eviction = ComponentEviction.CLEAR;
+
+  /** How to detect that a newly-created sequence duplicates one that Randoop created earlier. */
+  public enum DuplicateFilter {
+    /** Keep every sequence, and compare sequences statement by statement. */
+    SEQUENCES,
+    /** Keep only a 64-bit fingerprint of every sequence, and compare fingerprints. */
+    FINGERPRINTS,
+  }
+
+  /**
+   * How Randoop remembers the sequences it has created, so that it does not create the same one
+   * twice.
+   *
+   * <p>{@code SEQUENCES} keeps every sequence that Randoop created, including ones it discarded. On
+   * long runs, these sequences can take up most of the memory and cause the component set to be
+   * cleared (see {@code --clear-memory}). {@code FINGERPRINTS} keeps only 8 bytes per sequence,
+   * plus the {@code --sequence-history} most recent sequences. If a new sequence has the same
+   * fingerprint as a different, earlier sequence, Randoop discards the new sequence as a duplicate.
+   *
+   * <p>With {@code --generation-threads}, the threads share the same kind of record, so {@code
+   * SEQUENCES} keeps every sequence that any thread created.
+   */
+  @Option("How to detect duplicate sequences")
+  public static DuplicateFilter duplicate_filter = DuplicateFilter.SEQUENCES;
+
+  /**
+   * The number of most recently created sequences that Randoop keeps when {@code
+   * --duplicate-filter=FINGERPRINTS}. When a test is flaky, Randoop searches these sequences to log
+   * the operations performed since the flaky test's input was first created.
+   */
+  @Option("Number of recent sequences to keep with --duplicate-filter=FINGERPRINTS")
+  public static int sequence_history = 10000;
+
   /** Maximum number of tests to write to each JUnit file. */
   // ///////////////////////////////////////////////////////////////////
   @OptionGroup("Outputting the JUnit tests")
@@ -860,6 +969,15 @@ public abstract class GenInputsAbstract extends CommandHandler {
   @Option("Name of the directory to which JUnit files should be written")
   public static String junit_output_dir = null;
 
+  /**
+   * The number of threads that write the JUnit files. The test classes are independent, so several
+   * of them can be created, written, and checked for flaky tests (see {@code
+   * --flaky-test-behavior}) at once. The file names and test method names do not depend on the
+   * number of threads. The suite or driver class is written after all the test classes.
+   */
+  @Option("Number of threads that write the JUnit files")
+  public static int output_threads = 1;
+
   /**
    * Run test generation without output. May be desirable when running with a visitor.
    *
@@ -896,6 +1014,53 @@ public abstract class GenInputsAbstract extends CommandHandler {
   // CircleCI runs out of memory during test generation if 2500m.
   public static String jvm_max_memory = "3000m";
 
+  /**
+   * The number of threads that generate tests. With more than one thread, each thread runs its own
+   * generation loop with its own pool of component sequences, and the threads periodically share
+   * the components they create (see {@code --generation-publish-interval}). All the threads run in
+   * the same JVM as Randoop, so the code under test must tolerate being called from several threads
+   * at once. With {@code --capture-output}, statements are executed one at a time.
+   *
+   * <p>With {@code --deterministic}, the threads exchange components in lockstep and each thread
+   * gets its own share of the limits, so the same random seed and number of threads always produce
+   * the same tests.
+   */
+  @Option("Number of threads that generate tests")
+  public static int generation_threads = 1;
+
+  /**
+   * How often, in generation steps, each generation thread shares its new component sequences with
+   * the other threads and adds theirs to its own pool. Has no effect unless {@code
+   * --generation-threads} is greater than 1.
+   */
+  @Option("Generation steps between exchanges of components among generation threads")
+  public static int generation_publish_interval = 100;
+
+  /**
+   * File to which Randoop periodically saves the state of test generation (see {@code
+   * --checkpoint-interval}). If Randoop is killed, passing this file to {@code --resume-from}
+   * continues generation where the last checkpoint left off. The file is replaced atomically, so it
+   * always holds a complete checkpoint. Cannot be used with {@code --generation-threads} greater
+   * than 1.
+   */
+  @Option("Periodically save the generation state to this file")
+  public static Path checkpoint = null;
+
+  /** How often, in seconds, to save the generation state to the {@code --checkpoint} file. */
+  @Option("Seconds between checkpoints of the generation state")
+  public static int checkpoint_interval = 600;
+
+  /**
+   * A file written by {@code --checkpoint}. Randoop restores the generation state from the file and
+   * continues generating tests, instead of starting from scratch. The remaining command-line
+   * arguments should be the same as those of the run that wrote the checkpoint. Elapsed time and
+   * the numbers of generated and output sequences carry over from that run, so the limits such as
+   * {@code --time-limit} apply to both runs together. Cannot be used with {@code
+   * --generation-threads} greater than 1.
+   */
+  @Option("Resume generation from a checkpoint file")
+  public static Path resume_from = null;
+
   @Unpublicized
   @Option("Store all output to stdout and stderr in the ExecutionOutcome.")
   public static boolean capture_output = false;
@@ -912,9 +1077,9 @@ public abstract class GenInputsAbstract extends CommandHandler {
   public static int randomseed = (int) Randomness.DEFAULT_SEED;
 
   // Currently, Randoop is deterministic, and there isn't a way to make Randoop not pay the costs of
-  // (for example) LinkedHashMaps instead of HashMaps.  The only effect of this command-line
-  // argument is to forbid certain other command-line arguments that would themselves introduce
-  // nondeterminism.
+  // (for example) LinkedHashMaps instead of HashMaps.  This command-line argument forbids certain
+  // other command-line arguments that would themselves introduce nondeterminism, and makes the
+  // features that use threads behave deterministically.
   /**
    * By default, Randoop is deterministic: running Randoop twice with the same arguments will
    * produce the same test suite, so long as the program under test is deterministic. (To produce
@@ -922,8 +1087,19 @@ public abstract class GenInputsAbstract extends CommandHandler {
    * there are command-line arguments that make Randoop non-deterministic. Passing {@code
    * --deterministic} makes Randoop fail if one of the non-deterministic command-line arguments is
    * also passed; that is, passing {@code --deterministic} is a way to ensure you are not invoking
-   * Randoop in a way that may lead to non-deterministic output. The {@code --deterministic} command
-   * line argument doesn't itself do anything except check other command-line arguments.
+   * Randoop in a way that may lead to non-deterministic output.
+   *
+   * <p>Passing {@code --deterministic} also changes how some features that use threads behave, so
+   * that their output does not depend on thread scheduling:
+   *
+   * <ul>
+   *   <li>With {@code --generation-threads} greater than 1, the threads exchange components in
+   *       lockstep, each thread discards only duplicates of sequences it created or collected, and
+   *       each thread gets its own share of the limits.
+   *   <li>With {@code --bloodhound-background-update}, the weights computed at one Bloodhound
+   *       update are applied at the next update, rather than as soon as they are ready.
+   *   <li>The progress display does not show timing information.
+   * </ul>
    */
   @Option("If true, Randoop is deterministic")
   public static boolean deterministic = false;
@@ -1029,6 +1205,41 @@ public abstract class GenInputsAbstract extends CommandHandler {
               + " specified a class literal file and --use-class-literals=NONE");
     }
 
+    if (generation_threads < 1) {
+      throw new RandoopUsageError(
+          "--generation-threads must be at least 1 but was " + generation_threads);
+    }
+
+    if (compile_batch_size < 1) {
+      throw new RandoopUsageError(
+          "--compile-batch-size must be at least 1 but was " + compile_batch_size);
+    }
+
+    if (output_threads < 1) {
+      throw new RandoopUsageError("--output-threads must be at least 1 but was " + output_threads);
+    }
+
+    if (sequence_history < 0) {
+      throw new RandoopUsageError(
+          "--sequence-history must be non-negative but was " + sequence_history);
+    }
+
+    if (generation_publish_interval < 1) {
+      throw new RandoopUsageError(
+          "--generation-publish-interval must be at least 1 but was "
+              + generation_publish_interval);
+    }
+
+    if (checkpoint_interval < 1) {
+      throw new RandoopUsageError(
+          "--checkpoint-interval must be at least 1 but was " + checkpoint_interval);
+    }
+
+    if (generation_threads > 1 && (checkpoint != null || resume_from != null)) {
+      throw new RandoopUsageError(
+          "Invalid parameter combination: --checkpoint or --resume-from with --generation-threads");
+    }
+
     if (deterministic && ReflectionExecutor.usethreads) {
       throw new RandoopUsageError(
           "Invalid parameter combination: --deterministic with --usethreads");
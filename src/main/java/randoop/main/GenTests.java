@@ -3,7 +3,6 @@ package randoop.main;
 import static randoop.reflection.AccessibilityPredicate.IS_PUBLIC;
 
 import com.github.javaparser.ParseException;
-import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import java.io.File;
 import java.io.IOException;
@@ -33,6 +32,14 @@ import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -57,7 +64,9 @@ import randoop.execution.TestEnvironment;
 import randoop.generation.AbstractGenerator;
 import randoop.generation.ComponentManager;
 import randoop.generation.ForwardGenerator;
+import randoop.generation.GenerationCheckpoint;
 import randoop.generation.OperationHistoryLogger;
+import randoop.generation.ParallelForwardGenerator;
 import randoop.generation.RandoopGenerationError;
 import randoop.generation.SeedSequences;
 import randoop.generation.UninstantiableTypeTracker;
@@ -448,17 +457,50 @@ public class GenTests extends GenInputsAbstract {
 
     operationModel.log();
 
+    /*
+     * Setup for test predicate
+     */
+    // Always exclude a singleton sequence with just new Object()
+    TypedOperation objectConstructor;
+    try {
+      objectConstructor = TypedOperation.forConstructor(Object.class.getConstructor());
+    } catch (NoSuchMethodException e) {
+      throw new RandoopBug("failed to get Object constructor", e);
+    }
+
+    Sequence newObj = new Sequence().extend(objectConstructor);
+    Set<Sequence> excludeSet = new LinkedHashSet<>(CollectionsPlume.mapCapacity(1));
+    excludeSet.add(newObj);
+
+    Consumer<AbstractGenerator> configureGenerator =
+        generatorConfiguration(
+            accessibility, operationModel, sideEffectFreeMethodsByType, excludeSet);
+
     /*
      * Create the generator for this session.
      */
-    AbstractGenerator explorer =
-        new ForwardGenerator(
-            operations,
-            sideEffectFreeMethods,
-            new GenInputsAbstract.Limits(),
-            componentMgr,
-            /* stopper= */ null,
-            classesUnderTest);
+    AbstractGenerator explorer;
+    if (GenInputsAbstract.generation_threads > 1) {
+      explorer =
+          new ParallelForwardGenerator(
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentMgr,
+              /* stopper= */ null,
+              classesUnderTest,
+              GenInputsAbstract.generation_threads,
+              configureGenerator);
+    } else {
+      explorer =
+          new ForwardGenerator(
+              operations,
+              sideEffectFreeMethods,
+              new GenInputsAbstract.Limits(),
+              componentMgr,
+              /* stopper= */ null,
+              classesUnderTest);
+    }
 
     // log setup.
     if (GenInputsAbstract.all_logs) {
@@ -495,66 +537,12 @@ public class GenTests extends GenInputsAbstract {
     // operationModel.dumpModel(System.out);
     // System.out.println("isLoggingOn = " + Log.isLoggingOn());
 
-    /*
-     * Create the test check generator for the contracts and side-effect-free methods
-     */
-    ContractSet contracts = operationModel.getContracts();
-    TestCheckGenerator testGen =
-        createTestCheckGenerator(
-            accessibility,
-            contracts,
-            sideEffectFreeMethodsByType,
-            operationModel.getOmitMethodsPredicate());
-    explorer.setTestCheckGenerator(testGen);
+    configureGenerator.accept(explorer);
 
-    /*
-     * Setup for test predicate
-     */
-    // Always exclude a singleton sequence with just new Object()
-    TypedOperation objectConstructor;
-    try {
-      objectConstructor = TypedOperation.forConstructor(Object.class.getConstructor());
-    } catch (NoSuchMethodException e) {
-      throw new RandoopBug("failed to get Object constructor", e);
+    if (GenInputsAbstract.resume_from != null) {
+      GenerationCheckpoint.restore(explorer, GenInputsAbstract.resume_from);
     }
 
-    Sequence newObj = new Sequence().extend(objectConstructor);
-    Set<Sequence> excludeSet = new LinkedHashSet<>(CollectionsPlume.mapCapacity(1));
-    excludeSet.add(newObj);
-
-    // Define test predicate to decide which test sequences will be output.
-    // It returns true if the sequence should be output.
-    Predicate<ExecutableSequence> isOutputTest =
-        createTestOutputPredicate(
-            excludeSet,
-            operationModel.getCoveredClassesGoal(),
-            GenInputsAbstract.require_classname_in_test);
-
-    explorer.setTestPredicate(isOutputTest);
-
-    /*
-     * Setup visitors
-     */
-    List<ExecutionVisitor> visitors = new ArrayList<>();
-    // instrumentation visitor
-    if (GenInputsAbstract.require_covered_classes != null) {
-      visitors.add(new CoveredClassVisitor(operationModel.getCoveredClassesGoal()));
-    }
-    // Install any user-specified visitors.
-    if (!GenInputsAbstract.visitor.isEmpty()) {
-      for (String visitorClsName : GenInputsAbstract.visitor) {
-        try {
-          @SuppressWarnings("unchecked")
-          Class<ExecutionVisitor> cls = (Class<ExecutionVisitor>) Class.forName(visitorClsName);
-          ExecutionVisitor vis = cls.getDeclaredConstructor().newInstance();
-          visitors.add(vis);
-        } catch (Exception e) {
-          throw new RandoopBug("Error while loading visitor class " + visitorClsName, e);
-        }
-      }
-    }
-    explorer.setExecutionVisitor(visitors);
-
     // Diagnostic output
     if (GenInputsAbstract.progressdisplay) {
       System.out.printf("Explorer = %s%n", explorer);
@@ -634,12 +622,16 @@ public class GenTests extends GenInputsAbstract {
       }
       FailingAssertionCommentWriter codeWriter =
           new FailingAssertionCommentWriter(testEnvironment, javaFileWriter);
-      writeTestFiles(
-          junitCreator,
-          regressionSequences,
-          codeWriter,
-          GenInputsAbstract.regression_test_basename,
-          "Regression");
+      try {
+        writeTestFiles(
+            junitCreator,
+            regressionSequences,
+            codeWriter,
+            GenInputsAbstract.regression_test_basename,
+            "Regression");
+      } finally {
+        testEnvironment.stopWorker();
+      }
 
       // TODO: We don't rerun Error Test Sequences, so we do not know whether they are flaky.
       if (GenInputsAbstract.progressdisplay) {
@@ -1013,7 +1005,8 @@ public class GenTests extends GenInputsAbstract {
    * @param classNamePrefix the prefix for the class name
    * @param testKind a {@code String} indicating the kind of tests for logging and error messages
    */
-  private void writeTestFiles(
+  // package-private to enable test code to call it
+  static void writeTestFiles(
       JUnitCreator junitCreator,
       List<ExecutableSequence> testSequences,
       CodeWriter codeWriter,
@@ -1032,29 +1025,32 @@ public class GenTests extends GenInputsAbstract {
       System.out.printf("Writing %s JUnit tests...%n", testKind.toLowerCase(Locale.getDefault()));
     }
     try {
-      List<String> testClasses = new ArrayList<>();
-
       int numTests = testSequences.size();
       // Test class names are classNamePrefix, followed by an integer in 0..numFiles-1.
       int numFiles = (numTests - 1) / testsperfile + 1;
 
-      NameGenerator methodNameGenerator = new NameGenerator(TEST_METHOD_NAME_PREFIX, 1, numTests);
-
+      List<String> testClasses = new ArrayList<>(numFiles);
+      List<Callable<Path>> writeTasks = new ArrayList<>(numFiles);
       for (int i = 0; i < numFiles; i++) {
+        int start = i * testsperfile;
         List<ExecutableSequence> partition =
-            testSequences.subList(i * testsperfile, Math.min((i + 1) * testsperfile, numTests));
+            testSequences.subList(start, Math.min(start + testsperfile, numTests));
         String testClassName = classNamePrefix + i;
         testClasses.add(testClassName);
-        CompilationUnit classAST =
-            junitCreator.createTestClass(testClassName, methodNameGenerator, partition);
-        String classSource = classAST.toString();
-        Path testFile =
-            codeWriter.writeClassCode(
-                GenInputsAbstract.junit_package_name, testClassName, classSource);
-        if (GenInputsAbstract.progressdisplay) {
-          System.out.printf("Created file %s%n", testFile.toAbsolutePath());
-        }
+        // Each class numbers its methods from its own offset, so the method names do not depend on
+        // the order in which the classes are created.
+        NameGenerator methodNameGenerator =
+            new NameGenerator(TEST_METHOD_NAME_PREFIX, start + 1, numTests);
+        writeTasks.add(
+            () -> {
+              String classSource =
+                  junitCreator.createTestClassSource(
+                      testClassName, methodNameGenerator, partition);
+              return codeWriter.writeClassCode(
+                  GenInputsAbstract.junit_package_name, testClassName, classSource);
+            });
       }
+      runWriteTasks(writeTasks);
 
       // Create and write suite or driver class.
       String driverName;
@@ -1087,6 +1083,82 @@ public class GenTests extends GenInputsAbstract {
     }
   }
 
+  /**
+   * Runs the given tasks, each of which creates and writes one test class, using {@link
+   * GenInputsAbstract#output_threads} threads. Reports the files in the order of the tasks, which
+   * does not depend on the number of threads.
+   *
+   * @param writeTasks the tasks, each of which returns the file it wrote
+   * @throws RandoopOutputException if a task could not write its file
+   */
+  private static void runWriteTasks(List<Callable<Path>> writeTasks)
+      throws RandoopOutputException {
+    int numThreads = Math.min(GenInputsAbstract.output_threads, writeTasks.size());
+    ExecutorService executor = null;
+    if (numThreads > 1) {
+      AtomicInteger threadCount = new AtomicInteger();
+      executor =
+          Executors.newFixedThreadPool(
+              numThreads,
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, "randoop.output.Writer-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    try {
+      List<FutureTask<Path>> futures = new ArrayList<>(writeTasks.size());
+      for (Callable<Path> task : writeTasks) {
+        FutureTask<Path> future = new FutureTask<>(task);
+        futures.add(future);
+        if (executor != null) {
+          executor.execute(future);
+        }
+      }
+      for (FutureTask<Path> future : futures) {
+        if (executor == null) {
+          future.run();
+        }
+        Path testFile = getWriteResult(future);
+        if (GenInputsAbstract.progressdisplay) {
+          System.out.printf("Created file %s%n", testFile.toAbsolutePath());
+        }
+      }
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Waits for a task created by {@link #writeTestFiles} and returns the file it wrote. Rethrows any
+   * exception that the task threw.
+   *
+   * @param future the task
+   * @return the file that the task wrote
+   * @throws RandoopOutputException if the task could not write its file
+   */
+  private static Path getWriteResult(Future<Path> future) throws RandoopOutputException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RandoopBug("Interrupted while writing tests", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RandoopOutputException) {
+        throw (RandoopOutputException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RandoopBug("Error writing tests", cause);
+    }
+  }
+
   /**
    * Create fixture code from {@link GenInputsAbstract#junit_after_all}, {@link
    * GenInputsAbstract#junit_after_each}, {@link GenInputsAbstract#junit_before_all}, and {@link
@@ -1311,6 +1383,78 @@ public class GenTests extends GenInputsAbstract {
     }
   }
 
+  /**
+   * Returns a function that sets up a generator's test check generator, test predicate, and
+   * execution visitors. Each call of the function creates new ones, so that the workers of a {@link
+   * ParallelForwardGenerator} do not share them.
+   *
+   * @param accessibility the accessibility predicate
+   * @param operationModel the model of the operations under test
+   * @param sideEffectFreeMethodsByType the map from types to side-effect-free methods
+   * @param excludeSet the set of sequences to exclude from the output
+   * @return a function that sets up a generator
+   */
+  private Consumer<AbstractGenerator> generatorConfiguration(
+      AccessibilityPredicate accessibility,
+      OperationModel operationModel,
+      MultiMap<Type, TypedClassOperation> sideEffectFreeMethodsByType,
+      Set<Sequence> excludeSet) {
+    // Create the test check generator for the contracts and side-effect-free methods.
+    ContractSet contracts = operationModel.getContracts();
+    return generator -> {
+      generator.setTestCheckGenerator(
+          createTestCheckGenerator(
+              accessibility,
+              contracts,
+              sideEffectFreeMethodsByType,
+              operationModel.getOmitMethodsPredicate()));
+
+      // Define test predicate to decide which test sequences will be output.
+      // It returns true if the sequence should be output.
+      generator.setTestPredicate(
+          createTestOutputPredicate(
+              excludeSet,
+              operationModel.getCoveredClassesGoal(),
+              GenInputsAbstract.require_classname_in_test));
+      // As with a batch size of 1 (see createTestOutputPredicate), the compilability check applies
+      // to exactly the sequences that satisfy the test predicate.
+      if (GenInputsAbstract.check_compilable && GenInputsAbstract.compile_batch_size > 1) {
+        generator.setCompilableTestPredicate(createCompilableTestPredicate());
+      }
+
+      generator.setExecutionVisitor(createExecutionVisitors(operationModel));
+    };
+  }
+
+  /**
+   * Creates the visitors to use while executing each generated sequence: an instrumentation
+   * visitor, if {@code --require-covered-classes} is given, and any user-specified visitors.
+   *
+   * @param operationModel the model of the operations under test
+   * @return the visitors
+   */
+  private static List<ExecutionVisitor> createExecutionVisitors(OperationModel operationModel) {
+    List<ExecutionVisitor> visitors = new ArrayList<>();
+    // instrumentation visitor
+    if (GenInputsAbstract.require_covered_classes != null) {
+      visitors.add(new CoveredClassVisitor(operationModel.getCoveredClassesGoal()));
+    }
+    // Install any user-specified visitors.
+    if (!GenInputsAbstract.visitor.isEmpty()) {
+      for (String visitorClsName : GenInputsAbstract.visitor) {
+        try {
+          @SuppressWarnings("unchecked")
+          Class<ExecutionVisitor> cls = (Class<ExecutionVisitor>) Class.forName(visitorClsName);
+          ExecutionVisitor vis = cls.getDeclaredConstructor().newInstance();
+          visitors.add(vis);
+        } catch (Exception e) {
+          throw new RandoopBug("Error while loading visitor class " + visitorClsName, e);
+        }
+      }
+    }
+    return visitors;
+  }
+
   /**
    * Builds the test predicate that determines whether a particular sequence will be included in the
    * output based on command-line arguments. A true result means the test is a candidate for output.
@@ -1352,24 +1496,35 @@ public class GenTests extends GenInputsAbstract {
 
     Predicate<ExecutableSequence> isOutputTest = baseTest.and(checkTest);
 
-    if (GenInputsAbstract.check_compilable) {
-      JUnitCreator junitCreator =
-          JUnitCreator.getTestCreator(
-              junit_package_name,
-              beforeAllFixtureBody,
-              afterAllFixtureBody,
-              beforeEachFixtureBody,
-              afterEachFixtureBody);
-      try (CompilableTestPredicate ctp = new CompilableTestPredicate(junitCreator, this)) {
-        isOutputTest = isOutputTest.and(ctp);
-      } catch (IOException e) {
-        throw new RandoopBug(e);
-      }
+    // With larger batches, the generator does the compilability check; see
+    // generatorConfiguration.
+    if (GenInputsAbstract.check_compilable && GenInputsAbstract.compile_batch_size == 1) {
+      isOutputTest = isOutputTest.and(createCompilableTestPredicate());
     }
 
     return isOutputTest;
   }
 
+  /**
+   * Creates the predicate that checks whether a test sequence is compilable.
+   *
+   * @return the predicate
+   */
+  private CompilableTestPredicate createCompilableTestPredicate() {
+    JUnitCreator junitCreator =
+        JUnitCreator.getTestCreator(
+            junit_package_name,
+            beforeAllFixtureBody,
+            afterAllFixtureBody,
+            beforeEachFixtureBody,
+            afterEachFixtureBody);
+    try (CompilableTestPredicate ctp = new CompilableTestPredicate(junitCreator, this)) {
+      return ctp;
+    } catch (IOException e) {
+      throw new RandoopBug(e);
+    }
+  }
+
   /**
    * Creates the test check generator for this run based on the command-line arguments. The goal of
    * the generator is to produce all appropriate checks for each sequence it is applied to.
@@ -1511,7 +1666,7 @@ public class GenTests extends GenInputsAbstract {
   }
 
   /** Increments the count of sequence compilation failures. */
-  public void incrementSequenceCompileFailureCount() {
+  public synchronized void incrementSequenceCompileFailureCount() {
     this.sequenceCompileFailureCount++;
   }
 }
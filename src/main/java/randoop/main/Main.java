@@ -115,10 +115,11 @@ public class Main {
       if (!success) {
         System.out.println();
         System.out.println("Randoop failed.");
-        Sequence lastSequence = AbstractGenerator.currSeq;
-        if (lastSequence == null) {
+        List<Sequence> lastSequences = AbstractGenerator.currentSequences();
+        if (lastSequences.isEmpty()) {
           System.out.println("No sequences generated.");
-        } else {
+        }
+        for (Sequence lastSequence : lastSequences) {
           System.out.println("Last sequence under execution: ");
           String[] lines = lastSequence.toString().split(Globals.lineSep);
           for (String line : lines) {
@@ -1,10 +1,12 @@
 package randoop.operation;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
 import randoop.reflection.ReflectionPredicate;
@@ -13,6 +15,7 @@ import randoop.types.ClassOrInterfaceType;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.ConstructorReflectionCode;
+import randoop.util.MethodHandleReflectionCode;
 import randoop.util.ReflectionExecutor;
 import randoop.util.Util;
 
@@ -28,6 +31,24 @@ public final class ConstructorCall extends CallableOperation {
 
   private final Constructor<?> constructor;
 
+  /**
+   * The formal parameter types of the constructor, including the enclosing instance of an inner
+   * class.
+   */
+  private final Class<?>[] parameterTypes;
+
+  /**
+   * A spread-adapted handle for the constructor, or null if not yet resolved or if no handle could
+   * be created. Resolved after the first call through core reflection completes, so that errors in
+   * class initialization are reported exactly as core reflection reports them.
+   */
+  private @Nullable MethodHandle constructorHandle;
+
+  /**
+   * True once {@link #constructorHandle} has been resolved, whether or not resolution succeeded.
+   */
+  private boolean constructorHandleResolved;
+
   // Cached values (for improved performance). Their values
   // are computed upon the first invocation of the respective
   // getter method.
@@ -43,6 +64,7 @@ public final class ConstructorCall extends CallableOperation {
     if (constructor == null) throw new IllegalArgumentException("constructor should not be null.");
     this.constructor = constructor;
     this.constructor.setAccessible(true);
+    this.parameterTypes = constructor.getParameterTypes();
   }
 
   /**
@@ -169,10 +191,22 @@ public final class ConstructorCall extends CallableOperation {
         return new ExceptionalExecution(new NullPointerException(message), 0);
       }
     }
+    if (constructorHandle != null
+        && ReflectionExecutor.method_handles
+        && MethodHandleReflectionCode.argumentsMatch(parameterTypes, statementInput, 0)) {
+      return ReflectionExecutor.executeReflectionCode(
+          new MethodHandleReflectionCode(this.constructor, constructorHandle, statementInput));
+    }
+
     ConstructorReflectionCode code =
         new ConstructorReflectionCode(this.constructor, statementInput);
 
-    return ReflectionExecutor.executeReflectionCode(code);
+    ExecutionOutcome outcome = ReflectionExecutor.executeReflectionCode(code);
+    if (!constructorHandleResolved && code.hasRun() && ReflectionExecutor.method_handles) {
+      constructorHandle = MethodHandleReflectionCode.spreadHandle(this.constructor);
+      constructorHandleResolved = true;
+    }
+    return outcome;
   }
 
   /**
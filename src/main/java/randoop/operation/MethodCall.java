@@ -1,11 +1,13 @@
 package randoop.operation;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.StringsPlume;
 import randoop.ExceptionalExecution;
 import randoop.ExecutionOutcome;
@@ -15,6 +17,7 @@ import randoop.sequence.Variable;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.Log;
+import randoop.util.MethodHandleReflectionCode;
 import randoop.util.MethodReflectionCode;
 import randoop.util.ReflectionExecutor;
 
@@ -43,6 +46,19 @@ public final class MethodCall extends CallableOperation {
   /** True if the method is static. */
   private final boolean isStatic;
 
+  /** The formal parameter types of the method, not including the receiver. */
+  private final Class<?>[] parameterTypes;
+
+  /**
+   * A spread-adapted handle for the method, or null if not yet resolved or if no handle could be
+   * created. Resolved after the first call through core reflection completes, so that errors in
+   * class initialization are reported exactly as core reflection reports them.
+   */
+  private @Nullable MethodHandle methodHandle;
+
+  /** True once {@link #methodHandle} has been resolved, whether or not resolution succeeded. */
+  private boolean methodHandleResolved;
+
   /**
    * getMethod returns Method object of this MethodCall.
    *
@@ -65,6 +81,7 @@ public final class MethodCall extends CallableOperation {
     this.method = method;
     this.method.setAccessible(true);
     this.isStatic = Modifier.isStatic(method.getModifiers() & Modifier.methodModifiers());
+    this.parameterTypes = method.getParameterTypes();
   }
 
   /**
@@ -163,6 +180,11 @@ public final class MethodCall extends CallableOperation {
 
     Log.logPrintf("MethodCall.execute: this = %s%n", this);
 
+    if (methodHandle != null && ReflectionExecutor.method_handles && canUseMethodHandle(input)) {
+      return ReflectionExecutor.executeReflectionCode(
+          new MethodHandleReflectionCode(this.method, methodHandle, input));
+    }
+
     Object receiver = null;
     int paramsLength = input.length;
     int paramsStartIndex = 0;
@@ -182,7 +204,29 @@ public final class MethodCall extends CallableOperation {
 
     MethodReflectionCode code = new MethodReflectionCode(this.method, receiver, params);
 
-    return ReflectionExecutor.executeReflectionCode(code);
+    ExecutionOutcome outcome = ReflectionExecutor.executeReflectionCode(code);
+    if (!methodHandleResolved && code.hasRun() && ReflectionExecutor.method_handles) {
+      methodHandle = MethodHandleReflectionCode.spreadHandle(this.method);
+      methodHandleResolved = true;
+    }
+    return outcome;
+  }
+
+  /**
+   * Returns true if {@link #methodHandle} may be applied to the given inputs with the same outcome
+   * as core reflection. A null receiver and arguments that need conversion are left to core
+   * reflection.
+   *
+   * @param input the receiver (for an instance method) followed by the arguments
+   * @return true if the inputs match the formal parameter types of the method
+   */
+  private boolean canUseMethodHandle(Object[] input) {
+    if (isStatic()) {
+      return MethodHandleReflectionCode.argumentsMatch(parameterTypes, input, 0);
+    }
+    return input.length > 0
+        && method.getDeclaringClass().isInstance(input[0])
+        && MethodHandleReflectionCode.argumentsMatch(parameterTypes, input, 1);
   }
 
   /**
@@ -9,21 +9,26 @@ import static randoop.reflection.SignatureParser.ID_STRING;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.FilesPlume;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
 import randoop.compile.FileCompiler;
+import randoop.compile.SequenceCompiler;
+import randoop.compile.SequenceCompilerException;
 import randoop.execution.TestEnvironment;
+import randoop.execution.TestFailure;
 import randoop.generation.AbstractGenerator;
 import randoop.main.GenInputsAbstract;
 import randoop.main.GenTests;
@@ -81,8 +86,11 @@ public class FailingAssertionCommentWriter implements CodeWriter {
   /** The underlying {@link randoop.output.JavaFileWriter} for writing a test class. */
   private final JavaFileWriter javaFileWriter;
 
-  /** Method names for flaky tests (e.g., "test005"). */
-  private final HashSet<String> flakyTestNames = new HashSet<>();
+  /**
+   * Method names for flaky tests (e.g., "test005"). Several test classes may be written
+   * concurrently.
+   */
+  private final Set<String> flakyTestNames = ConcurrentHashMap.newKeySet();
 
   /**
    * Create a {@link FailingAssertionCommentWriter}.
@@ -121,6 +129,11 @@ public class FailingAssertionCommentWriter implements CodeWriter {
 
     String qualifiedClassname = packageName == null ? classname : packageName + "." + classname;
 
+    if (GenInputsAbstract.flaky_test_filter_in_process) {
+      classSource = commentFailingAssertionsWithoutFork(packageName, classname, classSource);
+      return javaFileWriter.writeClassCode(packageName, classname, classSource);
+    }
+
     int iteration = 0; // Used to create unique working directory name.
     boolean passing = false; // true if all tests pass
 
@@ -187,6 +200,70 @@ public class FailingAssertionCommentWriter implements CodeWriter {
     return javaFileWriter.writeClassCode(packageName, classname, javaCode);
   }
 
+  /**
+   * Repeatedly compiles and runs the test class, and comments out failing assertions, until all the
+   * tests pass. Does not start a new JVM for each run: see {@link
+   * GenInputsAbstract#flaky_test_filter_in_process}.
+   *
+   * @param packageName the package name of the test class
+   * @param classname the simple (unqualified) name of the test class
+   * @param classSource the source code for the test class
+   * @return the class source edited so that failing assertions are replaced by comments
+   */
+  private String commentFailingAssertionsWithoutFork(
+      String packageName, String classname, String classSource) {
+    String qualifiedClassname = packageName == null ? classname : packageName + "." + classname;
+
+    int iteration = 0; // Used to create unique working directory name.
+    while (true) {
+      List<TestFailure> failures;
+      try {
+        if (testEnvironment.canRunInProcess()) {
+          Map<String, byte[]> classFiles;
+          try (SequenceCompiler compiler = new SequenceCompiler()) {
+            classFiles = compiler.compileToMemory(packageName, classname, classSource);
+          } catch (SequenceCompilerException e) {
+            classSource =
+                commentCatchStatements(
+                    packageName, classSource, e.getDiagnostics().getDiagnostics(), null, e);
+            continue;
+          } catch (IOException e) {
+            throw new RandoopBug("Error closing compiler", e);
+          }
+          failures = testEnvironment.runTestInProcess(qualifiedClassname, classFiles);
+        } else {
+          Path workingDirectory = createWorkingDirectory(classname, iteration);
+          try {
+            try {
+              compileTestClass(packageName, classname, classSource, workingDirectory);
+            } catch (FileCompiler.FileCompilerException e) {
+              classSource =
+                  commentCatchStatements(
+                      packageName,
+                      classSource,
+                      e.getDiagnostics().getDiagnostics(),
+                      workingDirectory,
+                      e);
+              continue;
+            }
+            failures = testEnvironment.runTestInWorker(qualifiedClassname, workingDirectory);
+          } finally {
+            FilesPlume.deleteDir(workingDirectory.toFile());
+            iteration++;
+          }
+        }
+      } catch (CommandException e) {
+        throw new RandoopBug("Error filtering regression tests", e);
+      }
+
+      if (failures.isEmpty()) {
+        return classSource;
+      }
+      classSource =
+          commentFailingAssertions(packageName, classname, classSource, failures, flakyTestNames);
+    }
+  }
+
   /**
    * Comments out lines with unnecessary catch or try statements. Fails if any other compilation
    * errors exist. Ignores compilation warnings.
@@ -194,7 +271,8 @@ public class FailingAssertionCommentWriter implements CodeWriter {
    * @param packageName the package name of the test class
    * @param javaCode the source code for the test class; each assertion must be on its own line
    * @param diagnostics the errors and warnings from compiling the class
-   * @param destinationDir the directory that contains the source code, used only for debugging
+   * @param destinationDir the directory that contains the source code, used only for debugging;
+   *     null if the source code was compiled in memory
    * @param e the exception that was raised when compiling the source code, used only for debugging
    * @return the class source edited so that failing assertions are replaced by comments
    * @throws RandoopBug if there is an unhandled compilation error (i.e., not about an unnecessary
@@ -204,8 +282,8 @@ public class FailingAssertionCommentWriter implements CodeWriter {
       String packageName,
       String javaCode,
       List<Diagnostic<? extends JavaFileObject>> diagnostics,
-      Path destinationDir,
-      FileCompiler.FileCompilerException e) {
+      @Nullable Path destinationDir,
+      Throwable e) {
     assert !Objects.equals(packageName, "");
 
     String[] javaCodeLines = javaCode.split(Globals.lineSep);
@@ -241,17 +319,18 @@ public class FailingAssertionCommentWriter implements CodeWriter {
   /**
    * Issue an exception because of a non-recoverable compilation error.
    *
-   * @param destinationDir the directory that contains the source code, used only for debugging
+   * @param destinationDir the directory that contains the source code, used only for debugging;
+   *     null if the source code was compiled in memory
    * @param classSource the text of the test class
    * @param diagnostics the errors and warnings from compiling the class
    * @param e the exception that was raised when compiling the source code, used only for debugging
    */
   private void compilationError(
       // String sourceFile,
-      Path destinationDir,
+      @Nullable Path destinationDir,
       String classSource,
       List<Diagnostic<? extends JavaFileObject>> diagnostics,
-      FileCompiler.FileCompilerException e) {
+      Throwable e) {
 
     String message =
         String.format(
@@ -318,24 +397,7 @@ public class FailingAssertionCommentWriter implements CodeWriter {
       String failureLine = failureHeaderMatch.line;
       String methodName = failureHeaderMatch.group;
 
-      // Check that the method name in the failure message is a test method.
-      if (!methodName.matches(GenTests.TEST_METHOD_NAME_PREFIX + "\\d+")) {
-        System.out.println();
-        System.out.printf("Failure in commentFailingAssertions(%s, %s)%n", packageName, classname);
-        System.out.printf("javaCode =%n%s%n", javaCode);
-        System.out.printf("status =%n%s%n", status);
-        System.out.println();
-        if (failureLine.contains("initializationError")) {
-          throw new RandoopBug(
-              "Check configuration of test environment: "
-                  + "initialization error of test in flaky-test filter: "
-                  + failureLine);
-        } else {
-          throw new RandoopBug(
-              "Bad method name " + methodName + " in flaky-test filter: " + failureLine);
-        }
-      }
-
+      checkTestMethodName(packageName, classname, javaCode, methodName, failureLine, status);
       flakyTests.add(methodName);
 
       // Search for the stacktrace entry corresponding to the test method, and capture the line
@@ -361,56 +423,177 @@ public class FailingAssertionCommentWriter implements CodeWriter {
 
       // lineNumber is 1-based, not 0-based
       int lineNumber = Integer.parseInt(failureLineMatch.group);
-      if (lineNumber < 1 || lineNumber > javaCodeLines.length) {
+      commentFailingLine(
+          javaCodeLines,
+          javaCode,
+          classname,
+          methodName,
+          lineNumber,
+          failureLine,
+          failureLineMatch.line);
+    }
+
+    // TODO: For efficiency, have this method return the array and redo writeClass so that it writes
+    // from array (?).
+    return StringsPlume.joinLines(javaCodeLines);
+  }
+
+  /**
+   * Comments out lines with failing assertions. Uses the failures from running JUnit in the same
+   * JVM (see {@link GenInputsAbstract#flaky_test_filter_in_process}) to identify lines with failing
+   * assertions.
+   *
+   * @param packageName the package name of the test class
+   * @param classname the simple (unqualified) name of the test class
+   * @param javaCode the source code for the test class; each assertion must be on its own line
+   * @param failures the failures from running the test with JUnit; not empty
+   * @param flakyTests names of flaky tests, e.g. "test005". This is an output parameter that is
+   *     augmented by this method.
+   * @return the class source edited so that failing assertions are replaced by comments
+   * @throws RandoopBug if {@code failures} contains a failure not involving a Randoop-generated
+   *     test method
+   */
+  private String commentFailingAssertions(
+      String packageName,
+      String classname,
+      String javaCode,
+      List<TestFailure> failures,
+      Set<String> flakyTests) {
+    assert !Objects.equals(packageName, "");
+    String qualifiedClassname = packageName == null ? classname : packageName + "." + classname;
+
+    String[] javaCodeLines = javaCode.split(Globals.lineSep);
+
+    for (TestFailure failure : failures) {
+      System.out.println(failure);
+    }
+
+    for (int failureCount = 0; failureCount < failures.size(); failureCount++) {
+      TestFailure failure = failures.get(failureCount);
+      // The same text as the header of the failure in the output of JUnitCore.
+      String failureLine = String.format("%d) %s", failureCount + 1, failure.testHeader);
+      String methodName = failure.methodName == null ? failure.testHeader : failure.methodName;
+
+      checkTestMethodName(packageName, classname, javaCode, methodName, failureLine, failures);
+      flakyTests.add(methodName);
+
+      // lineNumber is 1-based, not 0-based
+      int lineNumber = failure.getLineNumber(qualifiedClassname);
+      if (lineNumber == -1) {
         throw new RandoopBug(
             String.format(
-                "Line number %d read from JUnit is out of range [1,%d]: %s",
-                lineNumber, javaCodeLines.length, failureLineMatch.line));
+                "Didn't find %s.%s in stack trace of failure:%n%s",
+                qualifiedClassname, methodName, failure));
       }
+      commentFailingLine(
+          javaCodeLines, javaCode, classname, methodName, lineNumber, failureLine, failureLine);
+    }
 
-      if (GenInputsAbstract.flaky_test_behavior == FlakyTestAction.HALT) {
-        StringBuilder message = new StringBuilder();
-        message.append(
-            String.join(
-                System.lineSeparator(),
-                "A test code assertion failed during flaky-test filtering. Most likely,",
-                "you ran Randoop on a program with nondeterministic behavior. See section",
-                "\"Nondeterminism\" in the Randoop manual for ways to diagnose and handle this.",
-                String.format(
-                    "Class: %s, Method: %s, Line number: %d, Source line:%n%s%n",
-                    classname, methodName, lineNumber, javaCodeLines[lineNumber - 1])));
-
-        // fromLine and toLine are 0-based.
-        int fromLine = lineNumber - 1;
-        while (fromLine > 0 && !javaCodeLines[fromLine].contains("@Test")) {
-          fromLine--;
-        }
-        int toLine = lineNumber;
-        while (toLine < javaCodeLines.length && !javaCodeLines[toLine].contains("@Test")) {
-          toLine++;
-        }
-        message.append(String.format("Containing method:%n"));
-        for (int i = fromLine; i < toLine; i++) {
-          message.append(String.format("%s%n", javaCodeLines[i]));
-        }
+    return StringsPlume.joinLines(javaCodeLines);
+  }
 
-        if (GenInputsAbstract.print_non_compiling_file) {
-          message.append(String.format("Full source file:%n%s%n", javaCode));
-        } else {
-          message.append(
+  /**
+   * Checks that the method named in a JUnit failure is a Randoop-generated test method.
+   *
+   * @param packageName the package name of the test class
+   * @param classname the simple (unqualified) name of the test class
+   * @param javaCode the source code for the test class, used only for debugging output
+   * @param methodName the name of the method that failed
+   * @param failureLine the description of the failure
+   * @param failures all the failures, used only for debugging output
+   * @throws RandoopBug if the method is not a test method
+   */
+  private void checkTestMethodName(
+      String packageName,
+      String classname,
+      String javaCode,
+      String methodName,
+      String failureLine,
+      Object failures) {
+    if (!methodName.matches(GenTests.TEST_METHOD_NAME_PREFIX + "\\d+")) {
+      System.out.println();
+      System.out.printf("Failure in commentFailingAssertions(%s, %s)%n", packageName, classname);
+      System.out.printf("javaCode =%n%s%n", javaCode);
+      System.out.printf("status =%n%s%n", failures);
+      System.out.println();
+      if (failureLine.contains("initializationError")) {
+        throw new RandoopBug(
+            "Check configuration of test environment: "
+                + "initialization error of test in flaky-test filter: "
+                + failureLine);
+      } else {
+        throw new RandoopBug(
+            "Bad method name " + methodName + " in flaky-test filter: " + failureLine);
+      }
+    }
+  }
+
+  /**
+   * Replaces a line with a failing assertion by a comment, or halts if {@link
+   * GenInputsAbstract#flaky_test_behavior} is {@code HALT}.
+   *
+   * @param javaCodeLines the lines of the test class; side-effected by this method
+   * @param javaCode the source code for the test class, used only for debugging output
+   * @param classname the simple (unqualified) name of the test class
+   * @param methodName the name of the test method that failed
+   * @param lineNumber the 1-based number of the failing line
+   * @param failureLine the description of the failure, included in the comment
+   * @param lineDescription where the line number came from, used only for debugging output
+   * @throws RandoopUsageError if {@link GenInputsAbstract#flaky_test_behavior} is {@code HALT}
+   */
+  private void commentFailingLine(
+      String[] javaCodeLines,
+      String javaCode,
+      String classname,
+      String methodName,
+      int lineNumber,
+      String failureLine,
+      String lineDescription) {
+    if (lineNumber < 1 || lineNumber > javaCodeLines.length) {
+      throw new RandoopBug(
+          String.format(
+              "Line number %d read from JUnit is out of range [1,%d]: %s",
+              lineNumber, javaCodeLines.length, lineDescription));
+    }
+
+    if (GenInputsAbstract.flaky_test_behavior == FlakyTestAction.HALT) {
+      StringBuilder message = new StringBuilder();
+      message.append(
+          String.join(
+              System.lineSeparator(),
+              "A test code assertion failed during flaky-test filtering. Most likely,",
+              "you ran Randoop on a program with nondeterministic behavior. See section",
+              "\"Nondeterminism\" in the Randoop manual for ways to diagnose and handle this.",
               String.format(
-                  "Use --print-non-compiling-file to print the full file with the flaky test.%n"));
-        }
-        throw new RandoopUsageError(message.toString());
+                  "Class: %s, Method: %s, Line number: %d, Source line:%n%s%n",
+                  classname, methodName, lineNumber, javaCodeLines[lineNumber - 1])));
+
+      // fromLine and toLine are 0-based.
+      int fromLine = lineNumber - 1;
+      while (fromLine > 0 && !javaCodeLines[fromLine].contains("@Test")) {
+        fromLine--;
+      }
+      int toLine = lineNumber;
+      while (toLine < javaCodeLines.length && !javaCodeLines[toLine].contains("@Test")) {
+        toLine++;
+      }
+      message.append(String.format("Containing method:%n"));
+      for (int i = fromLine; i < toLine; i++) {
+        message.append(String.format("%s%n", javaCodeLines[i]));
       }
 
-      javaCodeLines[lineNumber - 1] =
-          flakyLineReplacement(javaCodeLines[lineNumber - 1], failureLine);
+      if (GenInputsAbstract.print_non_compiling_file) {
+        message.append(String.format("Full source file:%n%s%n", javaCode));
+      } else {
+        message.append(
+            String.format(
+                "Use --print-non-compiling-file to print the full file with the flaky test.%n"));
+      }
+      throw new RandoopUsageError(message.toString());
     }
 
-    // TODO: For efficiency, have this method return the array and redo writeClass so that it writes
-    // from array (?).
-    return StringsPlume.joinLines(javaCodeLines);
+    javaCodeLines[lineNumber - 1] =
+        flakyLineReplacement(javaCodeLines[lineNumber - 1], failureLine);
   }
 
   /**
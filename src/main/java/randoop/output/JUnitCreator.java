@@ -36,11 +36,11 @@ import com.github.javaparser.ast.stmt.TryStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.VoidType;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
 import randoop.main.GenTests;
@@ -60,15 +60,18 @@ public class JUnitCreator {
   private final NodeList<Modifier> PUBLIC_STATIC =
       new NodeList<>(Modifier.publicModifier(), Modifier.staticModifier());
 
+  /** One level of indentation, as printed by JavaParser. */
+  private static final String INDENT = "    ";
+
   /** The package name. May be null, but may not be the empty string. */
   private final String packageName;
 
   /**
    * classMethodCounts maps test class names to the number of methods in each class. This is used to
    * generate lists of method names for a class. Each test method is named TEST_METHOD_NAME_PREFIX+i
-   * for some integer i.
+   * for some integer i. Test classes may be created concurrently.
    */
-  private Map<String, Integer> classMethodCounts;
+  private final Map<String, Integer> classMethodCounts = new ConcurrentHashMap<>();
 
   /** The Java text for BeforeAll method of generated test class. */
   private BlockStmt beforeAllBody = null;
@@ -162,7 +165,15 @@ public class JUnitCreator {
   private JUnitCreator(String packageName) {
     assert !Objects.equals(packageName, "");
     this.packageName = packageName;
-    this.classMethodCounts = new LinkedHashMap<>();
+  }
+
+  /**
+   * Returns the package of the test classes created by this.
+   *
+   * @return the package name, or null for the default package
+   */
+  public String getPackageName() {
+    return packageName;
   }
 
   /**
@@ -201,6 +212,20 @@ public class JUnitCreator {
     this.afterEachBody = text;
   }
 
+  /**
+   * The declaration of the {@code debug} field of each test class. Parsed once; each test class
+   * gets a copy.
+   */
+  private static final BodyDeclaration<?> DEBUG_FIELD =
+      javaParser.parseBodyDeclaration("public static boolean debug=false;").getResult().get();
+
+  /**
+   * The declaration of {@link #BOOLEAN_ARRAY_EQUALS_METHOD}. Parsed once; each test class gets a
+   * copy.
+   */
+  private static final MethodDeclaration BOOLEAN_ARRAY_EQUALS_DECLARATION =
+      javaParser.parseMethodDeclaration(BOOLEAN_ARRAY_EQUALS_METHOD).getResult().get();
+
   /**
    * Create a test class.
    *
@@ -213,6 +238,51 @@ public class JUnitCreator {
       String testClassName, NameGenerator methodNameGen, List<ExecutableSequence> sequences) {
     this.classMethodCounts.put(testClassName, sequences.size());
 
+    CompilationUnit compilationUnit = createTestClassSkeleton(testClassName);
+    TypeDeclaration<?> classDeclaration = compilationUnit.getType(0);
+    for (ExecutableSequence eseq : sequences) {
+      MethodDeclaration testMethod = createTestMethod(testClassName, methodNameGen.next(), eseq);
+      if (testMethod != null) {
+        classDeclaration.addMember(testMethod);
+      }
+    }
+    return compilationUnit;
+  }
+
+  /**
+   * Create the source text of a test class. The result is the same as printing {@link
+   * #createTestClass}, except that the code of the sequences is not parsed and pretty-printed. It
+   * is written directly, one statement per line, and indented according to its braces. This is much
+   * faster when there are many tests.
+   *
+   * @param testClassName the class name
+   * @param methodNameGen the generator that creates method names
+   * @param sequences the contents of the test methods
+   * @return the source text of the test class
+   */
+  public String createTestClassSource(
+      String testClassName, NameGenerator methodNameGen, List<ExecutableSequence> sequences) {
+    this.classMethodCounts.put(testClassName, sequences.size());
+
+    // The skeleton is small: the test methods are inserted before its closing brace.
+    String skeleton = createTestClassSkeleton(testClassName).toString();
+    int classEnd = skeleton.lastIndexOf('}');
+    StringBuilder sb = new StringBuilder(skeleton.length() + 1024 * sequences.size());
+    sb.append(skeleton, 0, classEnd);
+    for (ExecutableSequence eseq : sequences) {
+      appendTestMethod(sb, testClassName, methodNameGen.next(), eseq);
+    }
+    sb.append(skeleton, classEnd, skeleton.length());
+    return sb.toString();
+  }
+
+  /**
+   * Create a test class that has all its members except the test methods.
+   *
+   * @param testClassName the class name
+   * @return the CompilationUnit for a test class without test methods
+   */
+  private CompilationUnit createTestClassSkeleton(String testClassName) {
     CompilationUnit compilationUnit = new CompilationUnit();
     if (packageName != null) {
       compilationUnit.setPackageDeclaration(new PackageDeclaration(new Name(packageName)));
@@ -246,19 +316,7 @@ public class JUnitCreator {
     classDeclaration.setAnnotations(annotations);
 
     NodeList<BodyDeclaration<?>> bodyDeclarations = new NodeList<>();
-    // // add debug field
-    // VariableDeclarator debugVariable = javaParser.parseVariableDeclarationExpr("boolean
-    // debug=false;");
-    // debugVariable.setInitializer(new BooleanLiteralExpr(false));
-    // FieldDeclaration debugField =
-    //     new FieldDeclaration(
-    //         PUBLIC_STATIC),
-    //         new NodeList<AnnotationExpr>(PrimitiveType.forClass(PrimitiveType.booleanType())),
-    //         new NodeList<VariableDeclarator>(debugVariable));
-    BodyDeclaration<?> debugField =
-        javaParser.parseBodyDeclaration("public static boolean debug=false;").getResult().get();
-
-    bodyDeclarations.add(debugField);
+    bodyDeclarations.add(DEBUG_FIELD.clone());
 
     if (beforeAllBody != null) {
       MethodDeclaration fixture =
@@ -293,16 +351,8 @@ public class JUnitCreator {
     // to the test class.
     // This is a backward compatibility feature in case the user is using JUnit 4.11 or below
     // when running the generated tests.
-    MethodDeclaration assertBooleanArrayEqualsMethod =
-        javaParser.parseMethodDeclaration(BOOLEAN_ARRAY_EQUALS_METHOD).getResult().get();
-    bodyDeclarations.add(assertBooleanArrayEqualsMethod);
+    bodyDeclarations.add(BOOLEAN_ARRAY_EQUALS_DECLARATION.clone());
 
-    for (ExecutableSequence eseq : sequences) {
-      MethodDeclaration testMethod = createTestMethod(testClassName, methodNameGen.next(), eseq);
-      if (testMethod != null) {
-        bodyDeclarations.add(testMethod);
-      }
-    }
     classDeclaration.setMembers(bodyDeclarations);
     NodeList<TypeDeclaration<?>> types = new NodeList<>(classDeclaration);
     compilationUnit.setTypes(types);
@@ -310,6 +360,59 @@ public class JUnitCreator {
     return compilationUnit;
   }
 
+  /**
+   * Appends the source text of a test method for the sequence {@code testSequence}, formatted as a
+   * member of a class printed by JavaParser.
+   *
+   * @param sb where to append the test method
+   * @param className the name of the test class
+   * @param methodName the name of the test method
+   * @param testSequence the {@link ExecutableSequence} test sequence
+   */
+  private static void appendTestMethod(
+      StringBuilder sb, String className, String methodName, ExecutableSequence testSequence) {
+    String lineSep = Globals.lineSep;
+    sb.append(lineSep);
+    sb.append(INDENT).append("@Test").append(lineSep);
+    sb.append(INDENT)
+        .append("public void ")
+        .append(methodName)
+        .append("() throws Throwable {")
+        .append(lineSep);
+    sb.append(INDENT).append(INDENT).append("if (debug)").append(lineSep);
+    sb.append(INDENT)
+        .append(INDENT)
+        .append(INDENT)
+        .append("System.out.format(\"%n%s%n\", \"")
+        .append(className)
+        .append('.')
+        .append(methodName)
+        .append("\");")
+        .append(lineSep);
+
+    // The code has one statement per line, but is not consistently indented.
+    int depth = 2;
+    for (String line : testSequence.toCodeString().split(lineSep)) {
+      line = line.trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      boolean isComment = line.startsWith("//");
+      if (!isComment && line.startsWith("}")) {
+        depth--;
+      }
+      for (int i = 0; i < depth; i++) {
+        sb.append(INDENT);
+      }
+      sb.append(line).append(lineSep);
+      if (!isComment && line.endsWith("{")) {
+        depth++;
+      }
+    }
+
+    sb.append(INDENT).append('}').append(lineSep);
+  }
+
   /**
    * Creates a test method as a {@code String} for the sequence {@code testSequence}.
    *
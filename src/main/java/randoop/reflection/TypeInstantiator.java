@@ -20,6 +20,7 @@ import randoop.types.ParameterizedType;
 import randoop.types.ReferenceArgument;
 import randoop.types.ReferenceType;
 import randoop.types.Substitution;
+import randoop.types.SubtypeOracle;
 import randoop.types.Type;
 import randoop.types.TypeArgument;
 import randoop.types.TypeTuple;
@@ -75,7 +76,7 @@ public class TypeInstantiator {
       if (operation.isConstructorCall()
           || (operation.isStatic()
               && ((InstantiatedType) outputType).getGenericClassType().equals(declaringType))) {
-        if (declaringType.isSubtypeOf(JDKTypes.SORTED_SET_TYPE)) {
+        if (SubtypeOracle.isSubtypeOf(declaringType, JDKTypes.SORTED_SET_TYPE)) {
           substitution = instantiateSortedSetType(operation);
         } else {
           substitution = instantiateClass(declaringType);
@@ -89,13 +89,16 @@ public class ExecutableSequence {
    */
   private boolean hasNullInput = false;
 
-  /** Captures output from the executed sequence. */
-  // static, so initializing eagerly is not a large cost.
-  private static ByteArrayOutputStream output_buffer = new ByteArrayOutputStream();
+  /**
+   * Captures output from the executed sequence. Each thread that executes sequences has its own
+   * buffer.
+   */
+  private static final ThreadLocal<ByteArrayOutputStream> output_buffer =
+      ThreadLocal.withInitial(ByteArrayOutputStream::new);
 
   /** Used to populate {@link #output_buffer}. */
-  // static, so initializing eagerly is not a large cost.
-  private static PrintStream output_buffer_stream = new PrintStream(output_buffer);
+  private static final ThreadLocal<PrintStream> output_buffer_stream =
+      ThreadLocal.withInitial(() -> new PrintStream(output_buffer.get()));
 
   /** Maps a value to the set of variables that hold it. */
   private IdentityMultiMap<Object, Variable> variableMap = new IdentityMultiMap<>();
@@ -396,44 +399,61 @@ public class ExecutableSequence {
       Sequence s, List<ExecutionOutcome> outcome, int index, Object[] inputVariables) {
     Statement statement = s.getStatement(index);
 
-    // Capture any output Synchronize with ProgressDisplay so that
-    // we don't capture its output as well.
+    if (!GenInputsAbstract.capture_output) {
+      outcome.set(index, executeStatement(statement, inputVariables));
+      return;
+    }
+
+    // Capture any output. System.out and System.err are global, so this serializes statement
+    // execution across threads. Synchronize with ProgressDisplay so that we don't capture its
+    // output as well.
     synchronized (ProgressDisplay.print_synchro) {
       PrintStream orig_out = System.out;
       PrintStream orig_err = System.err;
-      if (GenInputsAbstract.capture_output) {
-        System.out.flush();
-        System.err.flush();
-        System.setOut(output_buffer_stream);
-        System.setErr(output_buffer_stream);
-      }
-
-      // assert ((statement.isMethodCall() && !statement.isStatic()) ?
-      // inputVariables[0] != null : true);
+      PrintStream buffer_stream = output_buffer_stream.get();
+      System.out.flush();
+      System.err.flush();
+      System.setOut(buffer_stream);
+      System.setErr(buffer_stream);
 
       ExecutionOutcome r;
       try {
-        r = statement.execute(inputVariables);
-      } catch (SequenceExecutionException e) {
-        throw new SequenceExecutionException("Problem while executing " + statement, e);
+        r = executeStatement(statement, inputVariables);
       } finally {
-        if (GenInputsAbstract.capture_output) {
-          System.setOut(orig_out);
-          System.setErr(orig_err);
-        }
-      }
-      assert r != null;
-      if (GenInputsAbstract.capture_output) {
-        output_buffer_stream.flush();
-        @SuppressWarnings("DefaultCharset") // JDK 8 version does not accept UTF_8 argument
-        String output_buffer_string = output_buffer.toString();
-        r.set_output(output_buffer_string);
-        output_buffer.reset();
+        System.setOut(orig_out);
+        System.setErr(orig_err);
       }
+      buffer_stream.flush();
+      ByteArrayOutputStream buffer = output_buffer.get();
+      @SuppressWarnings("DefaultCharset") // JDK 8 version does not accept UTF_8 argument
+      String output_buffer_string = buffer.toString();
+      r.set_output(output_buffer_string);
+      buffer.reset();
       outcome.set(index, r);
     }
   }
 
+  /**
+   * Executes the given statement.
+   *
+   * @param statement the statement to execute
+   * @param inputVariables the inputs to the statement
+   * @return the outcome of executing the statement
+   */
+  private static ExecutionOutcome executeStatement(Statement statement, Object[] inputVariables) {
+    // assert ((statement.isMethodCall() && !statement.isStatic()) ?
+    // inputVariables[0] != null : true);
+
+    ExecutionOutcome r;
+    try {
+      r = statement.execute(inputVariables);
+    } catch (SequenceExecutionException e) {
+      throw new SequenceExecutionException("Problem while executing " + statement, e);
+    }
+    assert r != null;
+    return r;
+  }
+
   /**
    * This method is typically used by ExecutionVisitors.
    *
@@ -63,6 +63,19 @@ public class MappedSequences<K> {
     emptyList = new ListOfLists<>(emptyJDKList);
   }
 
+  /**
+   * Adds all the sequences in the given collection, under the same keys.
+   *
+   * @param other the collection whose sequences to add
+   */
+  public void addAll(MappedSequences<K> other) {
+    for (Map.Entry<K, SequenceCollection> entry : other.map.entrySet()) {
+      for (Sequence seq : entry.getValue().getAllSequences()) {
+        addSequence(entry.getKey(), seq);
+      }
+    }
+  }
+
   /**
    * Returns all sequences as the union of all of the sequence collections.
    *
@@ -22,11 +22,9 @@ import randoop.operation.TypedOperation;
 import randoop.types.JavaTypes;
 import randoop.types.NonParameterizedType;
 import randoop.types.Type;
-import randoop.util.ListOfLists;
 import randoop.util.Log;
-import randoop.util.OneMoreElementList;
 import randoop.util.Randomness;
-import randoop.util.SimpleArrayList;
+import randoop.util.SharedArrayList;
 import randoop.util.SimpleList;
 
 /**
@@ -38,7 +36,10 @@ import randoop.util.SimpleList;
  */
 public final class Sequence {
 
-  /** The list of statements. */
+  /**
+   * The list of statements. For sequences built by {@link #extend} and {@link #concatenate}, this
+   * is a {@link SharedArrayList}, so indexing into it takes constant time.
+   */
   public final SimpleList<Statement> statements;
 
   /**
@@ -57,24 +58,25 @@ public final class Sequence {
 
   /** Create a new, empty sequence. */
   public Sequence() {
-    this(new SimpleArrayList<Statement>(0), 0, 0);
+    this(SharedArrayList.<Statement>empty(), 0, 0);
   }
 
   /**
-   * Create a sequence that has the given statements and hashCode (hashCode is for optimization).
+   * Create a sequence that has the given statements and fingerprint (fingerprint is for
+   * optimization).
    *
-   * <p>See {@link #computeHashcode(SimpleList)} for details on the hashCode.
+   * <p>See {@link #computeFingerprint(SimpleList)} for details on the fingerprint.
    *
    * @param statements the statements of the new sequence
-   * @param hashCode the hashcode for the new sequence
+   * @param fingerprint the fingerprint for the new sequence
    * @param netSize the net size for the new sequence
    */
-  private Sequence(SimpleList<Statement> statements, int hashCode, int netSize) {
+  private Sequence(SimpleList<Statement> statements, long fingerprint, int netSize) {
     if (statements == null) {
       throw new IllegalArgumentException("`statements' argument cannot be null");
     }
     this.statements = statements;
-    this.savedHashCode = hashCode;
+    this.savedFingerprint = fingerprint;
     this.savedNetSize = netSize;
     this.computeLastStatementInfo();
     this.activeFlags = new BitSet(this.size());
@@ -88,7 +90,7 @@ public final class Sequence {
    * @param statements the statements
    */
   public Sequence(SimpleList<Statement> statements) {
-    this(statements, computeHashcode(statements), computeNetSize(statements));
+    this(statements, computeFingerprint(statements), computeNetSize(statements));
   }
 
   /**
@@ -166,8 +168,8 @@ public final class Sequence {
     Statement statement = new Statement(operation, indexList);
     int newNetSize = operation.isNonreceivingValue() ? this.savedNetSize : this.savedNetSize + 1;
     return new Sequence(
-        new OneMoreElementList<>(this.statements, statement),
-        this.savedHashCode + statement.hashCode(),
+        SharedArrayList.append(this.statements, statement),
+        this.savedFingerprint * FINGERPRINT_BASE + statement.fingerprint(),
         newNetSize);
   }
 
@@ -204,14 +206,14 @@ public final class Sequence {
    */
   public static Sequence concatenate(List<Sequence> sequences) {
     List<SimpleList<Statement>> statements1 = new ArrayList<>(sequences.size());
-    int newHashCode = 0;
+    long newFingerprint = 0;
     int newNetSize = 0;
     for (Sequence c : sequences) {
-      newHashCode += c.savedHashCode;
+      newFingerprint = newFingerprint * fingerprintBasePower(c.size()) + c.savedFingerprint;
       newNetSize += c.savedNetSize;
       statements1.add(c.statements);
     }
-    return new Sequence(new ListOfLists<>(statements1), newHashCode, newNetSize);
+    return new Sequence(SharedArrayList.concatenate(statements1), newFingerprint, newNetSize);
   }
 
   /**
@@ -375,7 +377,13 @@ public final class Sequence {
     return !activeFlags.isEmpty();
   }
 
-  boolean isActive(int i) {
+  /**
+   * Returns true if the value of the given statement may be used as an input to a new sequence.
+   *
+   * @param i the index of a statement of this sequence
+   * @return true if the given index is active
+   */
+  public boolean isActive(int i) {
     return activeFlags.get(i);
   }
 
@@ -422,20 +430,45 @@ public final class Sequence {
   }
 
   /**
-   * The hashcode of a sequence is the sum of each statement's hashcode. This seems good enough, and
-   * it makes computing hashCode of a concatenation of sequences faster (it's just the addition of
-   * each sequence's' hashCode). Otherwise, hashCode computation used to be a hotspot.
-   *
-   * @param statements the list of statements over which to compute the hash code
-   * @return the sum of the hash codes of the statements in the sequence
+   * The fingerprint of a sequence is a polynomial hash of the fingerprints of its statements: for
+   * statements s<sub>1</sub>...s<sub>n</sub> it is the sum of fp(s<sub>i</sub>) &times;
+   * B<sup>n-i</sup>, modulo 2<sup>64</sup>, where B is {@link #FINGERPRINT_BASE}. Unlike a sum of
+   * hash codes, it depends on the order of the statements. It is also cheap to maintain: extending
+   * a sequence multiplies its fingerprint by B and adds the new statement's, and the fingerprint of
+   * a concatenation AB is fp(A) &times; B<sup>|B|</sup> + fp(B). Otherwise, hashCode computation
+   * used to be a hotspot.
+   *
+   * @param statements the list of statements over which to compute the fingerprint
+   * @return the fingerprint of the sequence
    */
-  private static int computeHashcode(SimpleList<Statement> statements) {
-    int hashCode = 0;
+  private static long computeFingerprint(SimpleList<Statement> statements) {
+    long fingerprint = 0;
     for (int i = 0; i < statements.size(); i++) { // SimpleList has no iterator
       Statement s = statements.get(i);
-      hashCode += s.hashCode();
+      fingerprint = fingerprint * FINGERPRINT_BASE + s.fingerprint();
     }
-    return hashCode;
+    return fingerprint;
+  }
+
+  /**
+   * Returns {@link #FINGERPRINT_BASE} raised to the given power, modulo 2<sup>64</sup>.
+   *
+   * @param exponent the exponent, which is non-negative
+   * @return {@code FINGERPRINT_BASE} to the power {@code exponent}
+   */
+  private static long fingerprintBasePower(int exponent) {
+    if (exponent < FINGERPRINT_BASE_POWERS.length) {
+      return FINGERPRINT_BASE_POWERS[exponent];
+    }
+    long result = 1;
+    long base = FINGERPRINT_BASE;
+    for (int e = exponent; e != 0; e >>>= 1) {
+      if ((e & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+    }
+    return result;
   }
 
   /**
@@ -570,6 +603,10 @@ public final class Sequence {
       return false;
     }
     Sequence other = (Sequence) o;
+    if (this.savedFingerprint != other.savedFingerprint) {
+      // Sequences with different fingerprints are never equal, so skip the element-wise comparison.
+      return false;
+    }
     if (this.getStatementsWithInputs().size() != other.getStatementsWithInputs().size()) {
       verifyNotEqual("size", other);
       return false;
@@ -628,16 +665,39 @@ public final class Sequence {
     }
   }
 
-  // A saved copy of this sequence's hashcode to avoid recalculation.
-  private final int savedHashCode;
+  /** The base of the polynomial hash that computes fingerprints. An odd 64-bit constant. */
+  static final long FINGERPRINT_BASE = 0x9e3779b97f4a7c15L;
+
+  /** The powers of {@link #FINGERPRINT_BASE}, for exponents that are common sequence sizes. */
+  private static final long[] FINGERPRINT_BASE_POWERS = new long[256];
+
+  static {
+    FINGERPRINT_BASE_POWERS[0] = 1;
+    for (int i = 1; i < FINGERPRINT_BASE_POWERS.length; i++) {
+      FINGERPRINT_BASE_POWERS[i] = FINGERPRINT_BASE_POWERS[i - 1] * FINGERPRINT_BASE;
+    }
+  }
+
+  // A saved copy of this sequence's fingerprint to avoid recalculation.
+  private final long savedFingerprint;
 
   // A saved copy of this sequence's net size to avoid recomputation.
   private final int savedNetSize;
 
-  // See comment at computeHashCode method for notes on hashCode.
+  // See comment at computeFingerprint method for notes on the fingerprint.
   @Override
   public final int hashCode() {
-    return savedHashCode;
+    return (int) (savedFingerprint ^ (savedFingerprint >>> 32));
+  }
+
+  /**
+   * Returns a 64-bit hash of this sequence that depends on the order of its statements. Equal
+   * sequences have equal fingerprints, and unequal sequences almost never do.
+   *
+   * @return the fingerprint of this sequence
+   */
+  public final long fingerprint() {
+    return savedFingerprint;
   }
 
   /**
@@ -979,9 +1039,9 @@ public final class Sequence {
    * Object var3 = var0.put(var1, var2);
    * </pre>
    *
-   * When writing/reading sequences out to file: you have two options: serialize the sequences using
-   * java's serialization mechanism, or write them out as parsable text. Serialization is faster,
-   * and text is human-readable.
+   * When writing/reading sequences out to file: you have two options: write them in binary form
+   * using {@link SequenceEncoder}, or write them out as parsable text. The binary form is more
+   * compact and much faster to read, and text is human-readable.
    *
    * @param statements the list of statement strings
    * @return the sequence constructed from the list of strings
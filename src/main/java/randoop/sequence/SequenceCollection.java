@@ -2,12 +2,16 @@ package randoop.sequence;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.StringsPlume;
 import randoop.Globals;
 import randoop.SubTypeSet;
@@ -51,9 +55,28 @@ public class SequenceCollection {
    */
   private Set<Type> typesAndSupertypes = new TreeSet<>();
 
+  /**
+   * The results of {@link #getSequencesForType} that are not exact matches, for each query type:
+   * all the sequences in {@link #sequenceMap} under a type that can be used as the query type. Each
+   * list is built on the first query and then kept up to date: {@link #add} appends a new sequence
+   * to the lists for the query types that its type matches. The lists are discarded when sequences
+   * are removed.
+   */
+  private Map<Type, SimpleArrayList<Sequence>> candidates = new HashMap<>();
+
+  /** Like {@link #candidates}, but only contains sequences that are appropriate receivers. */
+  private Map<Type, SimpleArrayList<Sequence>> receiverCandidates = new HashMap<>();
+
   /** Number of sequences in the collection: sum of sizes of all values in sequenceMap. */
   private int sequenceCount = 0;
 
+  /**
+   * Maps each sequence in this collection to the types under which it is stored in {@link
+   * #sequenceMap}, ordered from least to most recently used. Null unless {@link #trackUsage} has
+   * been called. Used by {@link #evict}.
+   */
+  private @Nullable LinkedHashMap<Sequence, List<Type>> usage = null;
+
   /** Checks the representation invariant. */
   private void checkRep() {
     if (!GenInputsAbstract.debug_checks) {
@@ -80,7 +103,12 @@ public class SequenceCollection {
     Log.logPrintf("Clearing sequence collection.%n");
     this.sequenceMap = new LinkedHashMap<>();
     this.typeSet = new SubTypeSet(false);
+    this.candidates = new HashMap<>();
+    this.receiverCandidates = new HashMap<>();
     sequenceCount = 0;
+    if (usage != null) {
+      usage.clear();
+    }
     checkRep();
   }
 
@@ -151,24 +179,143 @@ public class SequenceCollection {
     List<Type> formalTypes = sequence.getTypesForLastStatement();
     List<Variable> arguments = sequence.getVariablesOfLastStatement();
     assert formalTypes.size() == arguments.size();
+    @Nullable List<Type> addedTypes = (usage == null) ? null : new ArrayList<>(1);
     for (int i = 0; i < formalTypes.size(); i++) {
       Variable argument = arguments.get(i);
-      Type formalType = formalTypes.get(i);
+      // The keys of sequenceMap are canonical, so lookups of them only need ==.
+      Type formalType = Type.intern(formalTypes.get(i));
       assert formalType.isAssignableFrom(argument.getType())
           : formalType.getBinaryName()
               + " should be assignable from "
               + argument.getType().getBinaryName();
       if (sequence.isActive(argument.getDeclIndex())) {
-        typesAndSupertypes.add(formalType);
-        if (formalType.isClassOrInterfaceType()) {
+        // If the type was already recorded, then so were its supertypes.
+        if (typesAndSupertypes.add(formalType) && formalType.isClassOrInterfaceType()) {
           // This adds all the supertypes, not just immediate ones.
           typesAndSupertypes.addAll(((ClassOrInterfaceType) formalType).getSuperTypes());
         }
         typeSet.add(formalType);
         updateCompatibleMap(sequence, formalType);
+        updateCandidates(sequence, formalType);
+        if (addedTypes != null) {
+          addedTypes.add(formalType);
+        }
+      }
+    }
+    if (usage != null && addedTypes != null && !addedTypes.isEmpty()) {
+      usage.put(sequence, addedTypes);
+    }
+    checkRep();
+  }
+
+  /**
+   * Starts tracking when each sequence in this collection was last used, so that {@link #evict} can
+   * remove the least recently used sequences. The sequences already in this collection are
+   * considered used in the order they were added.
+   */
+  public void trackUsage() {
+    if (usage != null) {
+      return;
+    }
+    usage = new LinkedHashMap<>(16, 0.75f, /* accessOrder= */ true);
+    for (Map.Entry<Type, SimpleArrayList<Sequence>> entry : sequenceMap.entrySet()) {
+      for (Sequence sequence : entry.getValue()) {
+        usage.computeIfAbsent(sequence, __ -> new ArrayList<>(1)).add(entry.getKey());
+      }
+    }
+  }
+
+  /**
+   * Records that the given sequence was used, for example as an input to a new sequence. Has no
+   * effect unless {@link #trackUsage} has been called.
+   *
+   * @param sequence the sequence that was used; need not be in this collection
+   */
+  public void markUsed(Sequence sequence) {
+    if (usage != null) {
+      // In an access-ordered map, a lookup moves the entry to the most-recently-used end.
+      usage.get(sequence);
+    }
+  }
+
+  /**
+   * Removes the given fraction of the sequences in this collection, least recently used first.
+   * Never removes a sequence in {@code keep}, and never removes the last sequence that creates a
+   * value of some type. Requires that {@link #trackUsage} has been called.
+   *
+   * <p>If {@code perTypeQuota} is true, each type gets an equal share of the sequences that remain,
+   * and a sequence is removed only if each of its types has more than its share. Only if that does
+   * not remove enough sequences are sequences removed regardless of their types' shares. This keeps
+   * sequences for rarely-created types, which are usually the hardest to create again.
+   *
+   * @param fraction the fraction of the sequences to remove, between 0 and 1
+   * @param keep sequences that must not be removed, such as seed sequences
+   * @param perTypeQuota if true, first remove sequences of types that have more than their share
+   * @return the number of sequences removed
+   */
+  public int evict(double fraction, Collection<Sequence> keep, boolean perTypeQuota) {
+    if (usage == null) {
+      throw new RandoopBug("evict called without trackUsage");
+    }
+    int count = (int) (usage.size() * fraction);
+    Map<Type, Integer> remaining = new HashMap<>();
+    for (Map.Entry<Type, SimpleArrayList<Sequence>> entry : sequenceMap.entrySet()) {
+      remaining.put(entry.getKey(), entry.getValue().size());
+    }
+    List<Integer> minimums = new ArrayList<>(2);
+    if (perTypeQuota && !remaining.isEmpty()) {
+      int share = (usage.size() - count) / remaining.size();
+      if (share > 1) {
+        minimums.add(share);
       }
     }
+    minimums.add(1);
+
+    Set<Sequence> evicted = new HashSet<>();
+    for (int minimum : minimums) {
+      Iterator<Map.Entry<Sequence, List<Type>>> iterator = usage.entrySet().iterator();
+      while (evicted.size() < count && iterator.hasNext()) {
+        Map.Entry<Sequence, List<Type>> entry = iterator.next();
+        if (keep.contains(entry.getKey()) || !allExceed(entry.getValue(), remaining, minimum)) {
+          continue;
+        }
+        for (Type type : entry.getValue()) {
+          remaining.merge(type, -1, Integer::sum);
+        }
+        evicted.add(entry.getKey());
+        iterator.remove();
+      }
+    }
+
+    if (!evicted.isEmpty()) {
+      Log.logPrintf("Evicting %d sequences from sequence collection.%n", evicted.size());
+      sequenceCount = 0;
+      for (SimpleArrayList<Sequence> sequences : sequenceMap.values()) {
+        sequences.removeIf(evicted::contains);
+        sequenceCount += sequences.size();
+      }
+      candidates = new HashMap<>();
+      receiverCandidates = new HashMap<>();
+    }
     checkRep();
+    return evicted.size();
+  }
+
+  /**
+   * Returns true if each of the given types has more than {@code minimum} sequences.
+   *
+   * @param types the types
+   * @param remaining the number of sequences for each type
+   * @param minimum the number of sequences that each type must keep
+   * @return true if each type has more than {@code minimum} sequences
+   */
+  private static boolean allExceed(List<Type> types, Map<Type, Integer> remaining, int minimum) {
+    for (Type type : types) {
+      if (remaining.getOrDefault(type, 0) <= minimum) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -187,6 +334,61 @@ public class SequenceCollection {
     sequenceCount++;
   }
 
+  /**
+   * Appends the given sequence to the lists in {@link #candidates} and {@link #receiverCandidates}
+   * for the query types that the given type can be used as.
+   *
+   * @param sequence the sequence
+   * @param type the {@link Type} of a value that the sequence creates
+   */
+  private void updateCandidates(Sequence sequence, Type type) {
+    if (candidates.isEmpty() && receiverCandidates.isEmpty()) {
+      return;
+    }
+    boolean isReceiver = !type.isNonreceiverType();
+    for (Type queryType : typeSet.getMatchedQueryTypes(type)) {
+      SimpleArrayList<Sequence> list = candidates.get(queryType);
+      if (list != null) {
+        list.add(sequence);
+      }
+      if (isReceiver) {
+        list = receiverCandidates.get(queryType);
+        if (list != null) {
+          list.add(sequence);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns all the sequences that create a value of a type that can be used as the given type. The
+   * result is cached; see {@link #candidates}.
+   *
+   * @param type the query type
+   * @param onlyReceivers if true, only return sequences that are appropriate to use as a method
+   *     call receiver
+   * @return the sequences that create a value that can be used as the given type
+   */
+  private SimpleArrayList<Sequence> getCandidates(Type type, boolean onlyReceivers) {
+    Map<Type, SimpleArrayList<Sequence>> cache = onlyReceivers ? receiverCandidates : candidates;
+    SimpleArrayList<Sequence> result = cache.get(type);
+    if (result == null) {
+      result = new SimpleArrayList<>();
+      for (Type compatibleType : typeSet.getMatches(type)) {
+        Log.logPrintf(
+            "candidate compatibleType (isNonreceiverType=%s): %s%n",
+            compatibleType.isNonreceiverType(), compatibleType);
+        if (!(onlyReceivers && compatibleType.isNonreceiverType())) {
+          SimpleArrayList<Sequence> newMethods = this.sequenceMap.get(compatibleType);
+          Log.logPrintf("  Adding %d methods.%n", newMethods.size());
+          result.addAll(newMethods);
+        }
+      }
+      cache.put(type, result);
+    }
+    return result;
+  }
+
   /**
    * Searches through the set of active sequences to find all sequences whose types match with the
    * parameter type.
@@ -202,7 +404,9 @@ public class SequenceCollection {
    * @param useDemandDriven if true while {@link GenInputsAbstract#demand_driven} is true, use
    *     demand-driven input creation to find a sequence
    * @return list of sequence objects that are of type 'type' and abide by the constraints defined
-   *     by nullOk
+   *     by nullOk. If {@code exactMatch} is false, the result may be a list that is shared with
+   *     later calls and that grows as sequences are added to this collection; it must not be
+   *     modified.
    */
   public SimpleList<Sequence> getSequencesForType(
       Type type, boolean exactMatch, boolean onlyReceivers, boolean useDemandDriven) {
@@ -213,24 +417,16 @@ public class SequenceCollection {
 
     Log.logPrintf("getSequencesForType(%s, %s, %s)%n", type, exactMatch, onlyReceivers);
 
-    List<SimpleList<Sequence>> resultList = new ArrayList<>();
-
+    SimpleList<Sequence> result;
     if (exactMatch) {
+      List<SimpleList<Sequence>> resultList = new ArrayList<>(1);
       SimpleList<Sequence> l = this.sequenceMap.get(type);
       if (l != null) {
         resultList.add(l);
       }
+      result = new ListOfLists<>(resultList);
     } else {
-      for (Type compatibleType : typeSet.getMatches(type)) {
-        Log.logPrintf(
-            "candidate compatibleType (isNonreceiverType=%s): %s%n",
-            compatibleType.isNonreceiverType(), compatibleType);
-        if (!(onlyReceivers && compatibleType.isNonreceiverType())) {
-          SimpleArrayList<Sequence> newMethods = this.sequenceMap.get(compatibleType);
-          Log.logPrintf("  Adding %d methods.%n", newMethods.size());
-          resultList.add(newMethods);
-        }
-      }
+      result = getCandidates(type, onlyReceivers);
     }
 
     // Check if the type is known to be uninstantiable
@@ -241,7 +437,7 @@ public class SequenceCollection {
 
     // If we found no sequences of the needed type, use demand-driven input creation to find one
     // if enabled.
-    if (resultList.isEmpty() && GenInputsAbstract.demand_driven && useDemandDriven) {
+    if (result.isEmpty() && GenInputsAbstract.demand_driven && useDemandDriven) {
       Log.logPrintf("DemandDrivenInputCreator will try to find a sequence for type %s%n", type);
       SimpleList<Sequence> sequencesForType;
       DemandDrivenInputCreator demandDrivenInputCreator =
@@ -261,16 +457,15 @@ public class SequenceCollection {
           "Detective found %s for type %s%n",
           StringsPlume.nplural(sequencesForType.size(), "sequence"), type);
       if (!sequencesForType.isEmpty()) {
-        resultList.add(sequencesForType);
+        result = sequencesForType;
       }
     }
 
-    if (resultList.isEmpty()) {
+    if (result.isEmpty()) {
       Log.logPrintf("getSequencesForType: found no sequences matching type %s%n", type);
     }
-    SimpleList<Sequence> selector = new ListOfLists<>(resultList);
-    Log.logPrintf("getSequencesForType(%s) => %s sequences.%n", type, selector.size());
-    return selector;
+    Log.logPrintf("getSequencesForType(%s) => %s sequences.%n", type, result.size());
+    return result;
   }
 
   /**
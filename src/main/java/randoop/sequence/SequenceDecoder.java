@@ -0,0 +1,195 @@
+package randoop.sequence;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import randoop.operation.OperationParseException;
+import randoop.operation.OperationParser;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence.RelativeNegativeIndex;
+import randoop.util.SimpleArrayList;
+
+/**
+ * Reads sequences written by a {@link SequenceEncoder}. Each distinct operation is parsed only once
+ * per stream.
+ *
+ * @see SequenceEncoder
+ */
+public final class SequenceDecoder {
+
+  /** Where to read from. */
+  private final DataInput in;
+
+  /** The operations read so far, in the order they were first written. */
+  private final List<TypedOperation> operations = new ArrayList<>();
+
+  /**
+   * Creates a decoder that reads from the given input, which must have been written by a single
+   * {@link SequenceEncoder}.
+   *
+   * @param in where to read from
+   */
+  public SequenceDecoder(DataInput in) {
+    this.in = in;
+  }
+
+  /**
+   * Reads a sequence written by {@link SequenceEncoder#writeSequence}. All its statements are
+   * active.
+   *
+   * @return the sequence that was read
+   * @throws IOException if there is a problem reading, or the sequence is malformed
+   */
+  public Sequence readSequence() throws IOException {
+    int size = readVarInt(in);
+    List<Statement> statements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      TypedOperation operation = readOperation();
+      int numInputs = operation.getInputTypes().size();
+      List<RelativeNegativeIndex> inputs = new ArrayList<>(numInputs);
+      for (int j = 0; j < numInputs; j++) {
+        int distance = readVarInt(in);
+        if (distance < 1 || distance > i) {
+          throw new IOException(
+              String.format("Bad input %d of statement %d: %d back", j, i, distance));
+        }
+        inputs.add(new RelativeNegativeIndex(-distance));
+      }
+      statements.add(new Statement(operation, inputs));
+    }
+    return new Sequence(new SimpleArrayList<>(statements));
+  }
+
+  /**
+   * Reads an operation written by {@link SequenceEncoder#writeOperation}. Returns the same object
+   * each time the same operation is read.
+   *
+   * @return the operation that was read
+   * @throws IOException if there is a problem reading, or the operation is malformed
+   */
+  public TypedOperation readOperation() throws IOException {
+    int index = readVarInt(in);
+    if (index < operations.size()) {
+      return operations.get(index);
+    }
+    if (index != operations.size()) {
+      throw new IOException("Bad operation index " + index);
+    }
+    String text = readString(in);
+    TypedOperation operation;
+    try {
+      operation = OperationParser.parse(text);
+    } catch (OperationParseException e) {
+      throw new IOException("Malformed operation: " + text, e);
+    }
+    operations.add(operation);
+    return operation;
+  }
+
+  /**
+   * Reads the sequences in a file written by {@link SequenceEncoder#writeFile}. The file is mapped
+   * into memory rather than copied into a buffer.
+   *
+   * @param file the file to read
+   * @return the sequences in the file, in order
+   * @throws IOException if there is a problem reading the file, or it is malformed
+   */
+  public static List<Sequence> readFile(Path file) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    DataInputStream fileIn = new DataInputStream(new ByteBufferInputStream(buffer));
+    if (fileIn.readInt() != SequenceEncoder.MAGIC) {
+      throw new IOException("Not a sequence file: " + file);
+    }
+    int version = fileIn.readInt();
+    if (version != SequenceEncoder.VERSION) {
+      throw new IOException(
+          String.format(
+              "Sequence file %s has version %d, expected %d",
+              file, version, SequenceEncoder.VERSION));
+    }
+    int count = readVarInt(fileIn);
+    SequenceDecoder decoder = new SequenceDecoder(fileIn);
+    List<Sequence> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(decoder.readSequence());
+    }
+    return result;
+  }
+
+  /**
+   * Reads an int written by {@link SequenceEncoder#writeVarInt}.
+   *
+   * @param in where to read from
+   * @return the value that was read
+   * @throws IOException if there is a problem reading
+   */
+  public static int readVarInt(DataInput in) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length int");
+  }
+
+  /**
+   * Reads a string written by {@link SequenceEncoder#writeString}.
+   *
+   * @param in where to read from
+   * @return the string that was read
+   * @throws IOException if there is a problem reading
+   */
+  public static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[readVarInt(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** An input stream that reads the remaining bytes of a buffer. */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    /** The buffer to read from. */
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates an input stream that reads from the given buffer.
+     *
+     * @param buffer the buffer to read from
+     */
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package randoop.sequence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import randoop.operation.TypedOperation;
+import randoop.sequence.Sequence.RelativeNegativeIndex;
+
+/**
+ * Writes sequences in a compact binary form, to be read by a {@link SequenceDecoder}. This is much
+ * faster to read than {@link Sequence#toParsableString()}, which must parse the signature of every
+ * operation in every statement.
+ *
+ * <p>The encoder keeps a dictionary of operations. The first time an operation is written, it is
+ * written in full, as its {@link TypedOperation#toParsableString() parsable string} (which includes
+ * its types); afterward it is written as its index in the dictionary. Definitions appear in the
+ * stream just before their first use, so the stream can be decoded as it is read, without a
+ * separate dictionary section.
+ *
+ * <p>A sequence is written as its number of statements, followed by each statement: the index of
+ * its operation and then, for each input, the distance back to the statement that defines the input
+ * (the negation of its {@code RelativeNegativeIndex}). All numbers are written as variable-length
+ * ints, so most take one byte.
+ *
+ * <p>The stream does not record the active flags of sequences; a client that needs them must write
+ * them separately.
+ *
+ * @see SequenceDecoder
+ */
+public final class SequenceEncoder {
+
+  /** The first four bytes of a file written by {@link #writeFile}. */
+  static final int MAGIC = 0x52534551; // "RSEQ"
+
+  /** The version of the format. */
+  static final int VERSION = 1;
+
+  /** Where to write. */
+  private final DataOutput out;
+
+  /** The index of each operation written so far. */
+  private final Map<TypedOperation, Integer> operationIndices = new HashMap<>();
+
+  /**
+   * Creates an encoder that writes to the given output. The output should be read by a single
+   * {@link SequenceDecoder}, from the beginning.
+   *
+   * @param out where to write
+   */
+  public SequenceEncoder(DataOutput out) {
+    this.out = out;
+  }
+
+  /**
+   * Writes a sequence.
+   *
+   * @param sequence the sequence to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeSequence(Sequence sequence) throws IOException {
+    int size = sequence.size();
+    writeVarInt(out, size);
+    for (int i = 0; i < size; i++) {
+      Statement statement = sequence.statements.get(i);
+      writeOperation(statement.getOperation());
+      for (RelativeNegativeIndex input : statement.inputs) {
+        writeVarInt(out, -input.index);
+      }
+    }
+  }
+
+  /**
+   * Writes an operation: its index in the dictionary, followed by its definition if this is the
+   * first time it is written.
+   *
+   * @param operation the operation to write
+   * @throws IOException if there is a problem writing
+   */
+  public void writeOperation(TypedOperation operation) throws IOException {
+    Integer index = operationIndices.get(operation);
+    if (index != null) {
+      writeVarInt(out, index);
+      return;
+    }
+    int newIndex = operationIndices.size();
+    operationIndices.put(operation, newIndex);
+    writeVarInt(out, newIndex);
+    writeString(out, operation.toParsableString());
+  }
+
+  /**
+   * Writes the given sequences to a file, which {@link SequenceDecoder#readFile} can read.
+   *
+   * @param file the file to write
+   * @param sequences the sequences to write
+   * @throws IOException if there is a problem writing the file
+   */
+  public static void writeFile(Path file, Collection<Sequence> sequences) throws IOException {
+    try (DataOutputStream fileOut =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      fileOut.writeInt(MAGIC);
+      fileOut.writeInt(VERSION);
+      writeVarInt(fileOut, sequences.size());
+      SequenceEncoder encoder = new SequenceEncoder(fileOut);
+      for (Sequence sequence : sequences) {
+        encoder.writeSequence(sequence);
+      }
+    }
+  }
+
+  /**
+   * Writes a non-negative int in a variable number of bytes: 7 bits per byte, low bits first.
+   *
+   * @param out where to write
+   * @param value the value to write
+   * @throws IOException if there is a problem writing
+   * @see SequenceDecoder#readVarInt
+   */
+  public static void writeVarInt(DataOutput out, int value) throws IOException {
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative value: " + value);
+    }
+    while (value >= 0x80) {
+      out.write((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  /**
+   * Writes a string of any length, unlike {@link DataOutput#writeUTF}, which is limited to 64K
+   * bytes.
+   *
+   * @param out where to write
+   * @param s the string to write
+   * @throws IOException if there is a problem writing
+   * @see SequenceDecoder#readString
+   */
+  public static void writeString(DataOutput out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+}
@@ -30,6 +30,9 @@ public final class Statement {
   // See that class for an explanation.
   final List<RelativeNegativeIndex> inputs;
 
+  /** A 64-bit hash of the operation and inputs of this statement. See {@link #fingerprint()}. */
+  private final long fingerprint;
+
   /**
    * Create a new statement of type statement that takes as input the given values.
    *
@@ -39,6 +42,7 @@ public final class Statement {
   public Statement(TypedOperation operation, List<RelativeNegativeIndex> inputVariables) {
     this.operation = operation;
     this.inputs = new ArrayList<>(inputVariables);
+    this.fingerprint = computeFingerprint(operation, this.inputs);
   }
 
   /**
@@ -80,7 +84,133 @@ public final class Statement {
 
   @Override
   public int hashCode() {
-    return java.util.Objects.hash(operation, inputs);
+    return (int) (fingerprint ^ (fingerprint >>> 32));
+  }
+
+  /**
+   * Returns a 64-bit hash of this statement. Equal statements have equal fingerprints. Used to
+   * compute the fingerprint of a {@link Sequence}.
+   *
+   * @return the fingerprint of this statement
+   */
+  long fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Computes the fingerprint of a statement: the fingerprint of the operation, followed by the
+   * input indices, combined by a polynomial hash and scrambled so that all 64 bits depend on every
+   * input.
+   *
+   * @param operation the operation of the statement
+   * @param inputs the inputs of the statement
+   * @return the fingerprint of the statement
+   */
+  private static long computeFingerprint(
+      TypedOperation operation, List<RelativeNegativeIndex> inputs) {
+    long h = mix64(operationFingerprint(operation));
+    for (RelativeNegativeIndex input : inputs) {
+      h = h * Sequence.FINGERPRINT_BASE + input.index;
+    }
+    return mix64(h + inputs.size());
+  }
+
+  /**
+   * Computes a 64-bit hash of an operation from its kind, name, declaring type, input and output
+   * types, and, for a literal, its full value. Equal operations have equal fingerprints.
+   *
+   * <p>{@link TypedOperation#hashCode()} is not enough: it has only 32 bits, and the hash codes of
+   * literals such as {@code "Aa"} and {@code "BB"}, or {@code 0L} and {@code 0x100000001L}, are
+   * equal.
+   *
+   * @param operation the operation
+   * @return the fingerprint of the operation
+   */
+  private static long operationFingerprint(TypedOperation operation) {
+    CallableOperation callable = operation.getOperation();
+    long h = fingerprint(callable.getClass().getName());
+    h = h * Sequence.FINGERPRINT_BASE + fingerprint(callable.getName());
+    h = h * Sequence.FINGERPRINT_BASE + callable.hashCode();
+    if (operation instanceof TypedClassOperation) {
+      h =
+          h * Sequence.FINGERPRINT_BASE
+              + typeFingerprint(((TypedClassOperation) operation).getDeclaringType());
+    }
+    for (Type inputType : operation.getInputTypes()) {
+      h = h * Sequence.FINGERPRINT_BASE + typeFingerprint(inputType);
+    }
+    h = h * Sequence.FINGERPRINT_BASE + typeFingerprint(operation.getOutputType());
+    if (operation.isNonreceivingValue()) {
+      h = h * Sequence.FINGERPRINT_BASE + valueFingerprint(operation.getValue());
+    }
+    return h;
+  }
+
+  /**
+   * Computes a 64-bit hash of a type: its runtime class name and its hash code.
+   *
+   * @param type the type
+   * @return the fingerprint of the type
+   */
+  private static long typeFingerprint(Type type) {
+    Class<?> runtimeClass = type.getRuntimeClass();
+    long h = runtimeClass == null ? 0 : fingerprint(runtimeClass.getName());
+    return h * Sequence.FINGERPRINT_BASE + type.hashCode();
+  }
+
+  /**
+   * Computes a 64-bit hash of the value of a literal, using every bit of the value.
+   *
+   * @param value the value of a literal: a boxed primitive, a String, a Class, or null
+   * @return the fingerprint of the value
+   */
+  private static long valueFingerprint(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    long h;
+    if (value instanceof String) {
+      h = fingerprint((String) value);
+    } else if (value instanceof Double) {
+      h = Double.doubleToLongBits((Double) value);
+    } else if (value instanceof Float) {
+      h = Float.floatToIntBits((Float) value);
+    } else if (value instanceof Number) {
+      h = ((Number) value).longValue();
+    } else if (value instanceof Character) {
+      h = (Character) value;
+    } else if (value instanceof Class) {
+      h = fingerprint(((Class<?>) value).getName());
+    } else {
+      h = value.hashCode();
+    }
+    return h * Sequence.FINGERPRINT_BASE + fingerprint(value.getClass().getName());
+  }
+
+  /**
+   * Computes a 64-bit polynomial hash of the characters of a string.
+   *
+   * @param s the string
+   * @return the fingerprint of the string
+   */
+  private static long fingerprint(String s) {
+    long h = s.length();
+    for (int i = 0; i < s.length(); i++) {
+      h = h * Sequence.FINGERPRINT_BASE + s.charAt(i);
+    }
+    return mix64(h);
+  }
+
+  /**
+   * Scrambles the bits of a long. This is the finalizer of the SplitMix64 generator.
+   *
+   * @param z the value to scramble
+   * @return a value whose bits each depend on all bits of {@code z}
+   */
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
   }
 
   public Type getOutputType() {
@@ -1,6 +1,7 @@
 package randoop.sequence;
 
 import java.lang.reflect.Array;
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.regex.Pattern;
@@ -183,7 +184,8 @@ public class Value {
   }
 
   /** Used to increase performance of stringLengthOk method. */
-  private static Map<String, Boolean> escapedStringLengthOkCached = new WeakHashMap<>();
+  private static final Map<String, Boolean> escapedStringLengthOkCached =
+      Collections.synchronizedMap(new WeakHashMap<>());
 
   /**
    * Returns true if the given string, when quoted for inclusion in a Java program, is no longer
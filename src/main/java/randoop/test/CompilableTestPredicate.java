@@ -1,28 +1,42 @@
 package randoop.test;
 
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.PackageDeclaration;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.function.Predicate;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 import org.checkerframework.checker.calledmethods.qual.EnsuresCalledMethods;
 import org.checkerframework.checker.mustcall.qual.MustCall;
 import org.checkerframework.checker.mustcall.qual.Owning;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.Globals;
 import randoop.compile.SequenceCompiler;
 import randoop.main.GenTests;
 import randoop.output.JUnitCreator;
 import randoop.output.NameGenerator;
 import randoop.sequence.ExecutableSequence;
 import randoop.util.Log;
+import randoop.util.LongHashSet;
 
 /**
  * {@code TestPredicate} that returns true if the given {@link ExecutableSequence} is compilable.
+ *
+ * <p>{@link #testAll} checks many sequences in one compilation, as the methods of one class, and
+ * maps the compiler's errors back to the sequences. Compilation does not write any files. The
+ * result for each sequence is cached, keyed by a fingerprint of the sequence's code, so code that
+ * was already checked is never compiled again.
  */
 @MustCall("close") public class CompilableTestPredicate implements Closeable, Predicate<ExecutableSequence> {
+
+  /** The prefix of the test method names. */
+  private static final String METHOD_NAME_PREFIX = "theSequence";
+
   /** The compiler for sequence code. */
   private final @Owning SequenceCompiler compiler;
 
@@ -41,6 +55,12 @@ import randoop.util.Log;
   /** The {@link GenTests} instance that created this predicate. */
   private final GenTests genTests;
 
+  /** The fingerprints of the code of the sequences that are known to be compilable. */
+  private final LongHashSet compilableCode = new LongHashSet();
+
+  /** The fingerprints of the code of the sequences that are known not to be compilable. */
+  private final LongHashSet uncompilableCode = new LongHashSet();
+
   /**
    * Creates a predicate using the given {@link JUnitCreator} to construct the test class for each
    * sequence.
@@ -50,9 +70,9 @@ import randoop.util.Log;
    */
   public CompilableTestPredicate(JUnitCreator junitCreator, GenTests genTests) {
     List<String> compilerOptions = new ArrayList<>(6);
-    // only need to know an error exists:
+    // only need to know which test methods have an error, not every error in each:
     compilerOptions.add("-Xmaxerrs");
-    compilerOptions.add("1");
+    compilerOptions.add("100");
     // no class generation:
     compilerOptions.add("-implicit:none");
     // no annotation processing: (note that -proc:only does not produce correct results)
@@ -64,7 +84,7 @@ import randoop.util.Log;
     this.compiler = new SequenceCompiler(compilerOptions);
     this.junitCreator = junitCreator;
     this.classNameGenerator = new NameGenerator("RandoopTemporarySeqTest");
-    this.methodNameGenerator = new NameGenerator("theSequence");
+    this.methodNameGenerator = new NameGenerator(METHOD_NAME_PREFIX);
     this.genTests = genTests;
   }
 
@@ -84,21 +104,193 @@ import randoop.util.Log;
    */
   @Override
   public boolean test(ExecutableSequence eseq) {
+    return testAll(Collections.singletonList(eseq))[0];
+  }
+
+  /**
+   * Indicates which of the given sequences are compilable. The sequences whose results are not
+   * cached are compiled together, as the methods of one class.
+   *
+   * @param sequences the sequences to check
+   * @return an array whose i-th element is true if the i-th sequence can be compiled
+   */
+  public boolean[] testAll(List<ExecutableSequence> sequences) {
+    boolean[] result = new boolean[sequences.size()];
+    long[] fingerprints = new long[sequences.size()];
+    // The indices of the sequences to compile.
+    List<Integer> toCompile = new ArrayList<>();
+    // The fingerprints of the sequences to compile, to compile each distinct code only once.
+    LongHashSet toCompileCode = new LongHashSet();
+    for (int i = 0; i < sequences.size(); i++) {
+      fingerprints[i] = fingerprint(sequences.get(i).toCodeString());
+      if (!compilableCode.contains(fingerprints[i])
+          && !uncompilableCode.contains(fingerprints[i])
+          && toCompileCode.add(fingerprints[i])) {
+        toCompile.add(i);
+      }
+    }
+
+    List<@Nullable String> errors = new ArrayList<>(Collections.nCopies(sequences.size(), null));
+    while (!toCompile.isEmpty()) {
+      List<ExecutableSequence> batch = new ArrayList<>(toCompile.size());
+      for (int i : toCompile) {
+        batch.add(sequences.get(i));
+      }
+      List<@Nullable String> batchErrors = compileErrors(batch);
+      List<Integer> remaining = new ArrayList<>(toCompile.size());
+      for (int j = 0; j < toCompile.size(); j++) {
+        int i = toCompile.get(j);
+        String error = batchErrors.get(j);
+        if (error != null) {
+          uncompilableCode.add(fingerprints[i]);
+          errors.set(i, error);
+        } else {
+          remaining.add(i);
+        }
+      }
+      if (remaining.size() == toCompile.size()) {
+        // No errors, so the remaining sequences are compilable.
+        for (int i : remaining) {
+          compilableCode.add(fingerprints[i]);
+        }
+        break;
+      }
+      // The compiler may skip some checks of a class that has errors, so compile the rest again.
+      toCompile = remaining;
+    }
+
+    for (int i = 0; i < sequences.size(); i++) {
+      result[i] = compilableCode.contains(fingerprints[i]);
+      if (!result[i]) {
+        genTests.incrementSequenceCompileFailureCount();
+        Log.logPrintf(
+            "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nerrors =%n%s%n",
+            sequences.get(i), errors.get(i) == null ? "(same code as before)" : errors.get(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compiles the given sequences as the methods of one class, and returns the errors in each
+   * method. If the compiler reports an error outside the test methods, compiles each sequence on
+   * its own instead.
+   *
+   * @param sequences the sequences to compile; not empty
+   * @return a list whose i-th element is the errors for the i-th sequence, or null if there are
+   *     none
+   */
+  private List<@Nullable String> compileErrors(List<ExecutableSequence> sequences) {
     String testClassName = classNameGenerator.next();
-    List<ExecutableSequence> sequences = Collections.singletonList(eseq);
-    CompilationUnit source =
-        junitCreator.createTestClass(testClassName, methodNameGenerator, sequences);
-    Optional<PackageDeclaration> oPkg = source.getPackageDeclaration();
-    String packageName = oPkg.isPresent() ? oPkg.get().getName().toString() : null;
-    boolean result = testSource(testClassName, source, packageName);
-    if (!result) {
-      genTests.incrementSequenceCompileFailureCount();
-      Log.logPrintf(
-          "%nCompilableTestPredicate => false for%n%nsequence =%n%s%nsource =%n%s%n", eseq, source);
+    String source =
+        junitCreator.createTestClassSource(testClassName, methodNameGenerator, sequences);
+    List<Diagnostic<? extends JavaFileObject>> diagnostics =
+        compiler.compileErrors(junitCreator.getPackageName(), testClassName, source);
+
+    List<@Nullable StringJoiner> methodErrors = new ArrayList<>(sequences.size());
+    for (int i = 0; i < sequences.size(); i++) {
+      methodErrors.add(null);
+    }
+    int[] startLines = methodStartLines(source, sequences.size());
+    for (Diagnostic<? extends JavaFileObject> d : diagnostics) {
+      int index = Arrays.binarySearch(startLines, (int) d.getLineNumber());
+      if (index < 0) {
+        // The insertion point is after the method that contains the line.
+        index = -index - 2;
+      }
+      if (index < 0) {
+        if (sequences.size() != 1) {
+          // The error is not in a test method, so it cannot be attributed to a sequence: compile
+          // each sequence on its own.
+          return compileErrorsSeparately(sequences);
+        }
+        index = 0;
+      }
+      StringJoiner errors = methodErrors.get(index);
+      if (errors == null) {
+        errors = new StringJoiner(Globals.lineSep);
+        methodErrors.set(index, errors);
+      }
+      errors.add(d.toString());
+    }
+
+    List<@Nullable String> result = new ArrayList<>(sequences.size());
+    for (StringJoiner errors : methodErrors) {
+      result.add(errors == null ? null : errors.toString());
+    }
+    return result;
+  }
+
+  /**
+   * Compiles each of the given sequences in its own class, and returns the errors in each.
+   *
+   * @param sequences the sequences to compile
+   * @return a list whose i-th element is the errors for the i-th sequence, or null if there are
+   *     none
+   */
+  private List<@Nullable String> compileErrorsSeparately(List<ExecutableSequence> sequences) {
+    List<@Nullable String> result = new ArrayList<>(sequences.size());
+    for (ExecutableSequence eseq : sequences) {
+      String testClassName = classNameGenerator.next();
+      String source =
+          junitCreator.createTestClassSource(
+              testClassName, methodNameGenerator, Collections.singletonList(eseq));
+      List<Diagnostic<? extends JavaFileObject>> diagnostics =
+          compiler.compileErrors(junitCreator.getPackageName(), testClassName, source);
+      if (diagnostics.isEmpty()) {
+        result.add(null);
+      } else {
+        StringJoiner errors = new StringJoiner(Globals.lineSep);
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics) {
+          errors.add(d.toString());
+        }
+        errors.add(source);
+        result.add(errors.toString());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the line numbers of the declarations of the test methods in the given source, which was
+   * created by {@link JUnitCreator#createTestClassSource}.
+   *
+   * @param source the source text of a test class
+   * @param numMethods the number of test methods in the class
+   * @return the 1-based line number of the declaration of each test method, in increasing order
+   */
+  private static int[] methodStartLines(String source, int numMethods) {
+    int[] result = new int[numMethods];
+    String declarationStart = "public void " + METHOD_NAME_PREFIX;
+    String[] lines = source.split("\n", -1);
+    int found = 0;
+    for (int i = 0; i < lines.length && found < numMethods; i++) {
+      if (lines[i].trim().startsWith(declarationStart)) {
+        result[found++] = i + 1;
+      }
+    }
+    if (found != numMethods) {
+      throw new IllegalArgumentException(
+          String.format("Found %d of %d test methods in:%n%s", found, numMethods, source));
     }
     return result;
   }
 
+  /**
+   * Returns a 64-bit fingerprint of the given code: its FNV-1a hash.
+   *
+   * @param code the code of a sequence
+   * @return the fingerprint of the code
+   */
+  private static long fingerprint(String code) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < code.length(); i++) {
+      hash ^= code.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
   /**
    * Return true if the given source code compiles without error. This is here to allow the
    * mechanics of the predicate to be tested directly. Otherwise, we have to create a broken {@link
@@ -16,6 +16,7 @@ import randoop.types.GenericClassType;
 import randoop.types.InstantiatedType;
 import randoop.types.ReferenceType;
 import randoop.types.Substitution;
+import randoop.types.SubtypeOracle;
 import randoop.types.Type;
 import randoop.types.TypeTuple;
 import randoop.util.TupleSet;
@@ -210,7 +211,7 @@ public final class ContractCheckingGenerator extends TestCheckGenerator {
         } else { // have generic input type, and non-class value
           return false;
         }
-      } else if (!inputType.isAssignableFrom(valueType)) {
+      } else if (!SubtypeOracle.isAssignableFrom(inputType, valueType)) {
         return false;
       }
       i++;
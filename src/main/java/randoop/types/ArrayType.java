@@ -26,6 +26,9 @@ public class ArrayType extends ReferenceType {
   /** The runtime type for this array. */
   private final Class<?> runtimeClass;
 
+  /** The hash code of this type, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Creates an {@code ArrayType} with the given component type and runtime class.
    *
@@ -49,7 +52,7 @@ public class ArrayType extends ReferenceType {
     }
 
     Type componentType = Type.forClass(arrayClass.getComponentType());
-    return new ArrayType(componentType, arrayClass);
+    return Type.intern(new ArrayType(componentType, arrayClass));
   }
 
   /**
@@ -87,8 +90,9 @@ public class ArrayType extends ReferenceType {
     if (componentType instanceof TypeVariable) {
       return new ArrayType(componentType, Array.newInstance(Object.class, 0).getClass());
     }
-    return new ArrayType(
-        componentType, Array.newInstance(componentType.getRuntimeClass(), 0).getClass());
+    return Type.intern(
+        new ArrayType(
+            componentType, Array.newInstance(componentType.getRuntimeClass(), 0).getClass()));
   }
 
   @Override
@@ -105,7 +109,11 @@ public class ArrayType extends ReferenceType {
 
   @Override
   public int hashCode() {
-    return Objects.hash(componentType, runtimeClass);
+    // Array types are immutable, so the hash code is computed once.
+    if (hashCode == 0) {
+      hashCode = Objects.hash(componentType, runtimeClass);
+    }
+    return hashCode;
   }
 
   @Override
@@ -239,7 +247,7 @@ public class ArrayType extends ReferenceType {
     if (!componentType.isGeneric()) {
       return this;
     }
-    return new ArrayType(componentType.getRawtype(), runtimeClass);
+    return Type.intern(new ArrayType(componentType.getRawtype(), runtimeClass));
   }
 
   @Override
@@ -8,6 +8,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.plumelib.util.StringsPlume;
 
 /**
@@ -31,12 +33,24 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
   /** Set to true to enable debug output to standard out. */
   private static boolean debug = false;
 
+  /**
+   * Guards the caches of {@link NonParameterizedType} and {@link ParameterizedType}. A single lock
+   * is used for both, because creating a type of either kind may create types of the other kind.
+   */
+  static final Object CACHE_LOCK = new Object();
+
   /**
    * The enclosing type. Non-null only if this is a nested type (either a member type or a nested
    * static type).
    */
   protected ClassOrInterfaceType enclosingType = null;
 
+  /** The value of {@link #getSuperTypes}, or null if it has not been computed. */
+  private volatile @Nullable List<ClassOrInterfaceType> superTypes = null;
+
+  /** The value of {@link #getAllSupertypesInclusive}, or null if it has not been computed. */
+  private volatile @Nullable List<ClassOrInterfaceType> allSupertypesInclusive = null;
+
   /**
    * Translates a {@code Class} object that represents a class or interface into a {@code
    * ClassOrInterfaceType} object. If the object has parameters, then delegates to {@link
@@ -93,7 +107,7 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
       // the type in the code.  In this case, it is possible to have two distinct
       // java.lang.reflect.TypeVariables that represent the same type parameter.
       //
-      return new NonParameterizedType(classType);
+      return NonParameterizedType.forClass(classType);
     }
 
     throw new IllegalArgumentException("Unable to create class type from type " + type);
@@ -340,15 +354,31 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
   public abstract ClassOrInterfaceType getSuperclass();
 
   /**
-   * Return the set of all of the supertypes of this type.
+   * Return the set of all of the supertypes of this type, without duplicates. The result is
+   * computed on the first call and cached, so it must not be modified.
    *
    * @return the set of all supertypes of this type
    */
   public Collection<ClassOrInterfaceType> getSuperTypes() {
-    Collection<ClassOrInterfaceType> supertypes = new ArrayList<>();
+    List<ClassOrInterfaceType> result = superTypes;
+    if (result == null) {
+      result = computeSuperTypes();
+      superTypes = result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the value of {@link #getSuperTypes}, from the cached supertypes of the immediate
+   * supertypes of this type.
+   *
+   * @return the supertypes of this type, in depth-first order
+   */
+  private List<ClassOrInterfaceType> computeSuperTypes() {
     if (this.isObject()) {
-      return supertypes;
+      return Collections.emptyList();
     }
+    Set<ClassOrInterfaceType> supertypes = new LinkedHashSet<>();
     ClassOrInterfaceType superclass = this.getSuperclass();
     if (superclass != null) {
       supertypes.add(superclass);
@@ -358,7 +388,7 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
       supertypes.add(interfaceType);
       supertypes.addAll(interfaceType.getSuperTypes());
     }
-    return supertypes;
+    return Collections.unmodifiableList(new ArrayList<>(supertypes));
   }
 
   /**
@@ -380,22 +410,29 @@ public abstract class ClassOrInterfaceType extends ReferenceType {
   }
 
   /**
-   * Return all supertypes of this type, including itself.
+   * Return all supertypes of this type, including itself. The result is computed on the first call
+   * and cached, so it must not be modified.
    *
    * @return all supertypes of this type, including itself
    */
   public Collection<ClassOrInterfaceType> getAllSupertypesInclusive() {
-    LinkedHashSet<ClassOrInterfaceType> result = new LinkedHashSet<>();
+    List<ClassOrInterfaceType> result = allSupertypesInclusive;
+    if (result != null) {
+      return result;
+    }
+    LinkedHashSet<ClassOrInterfaceType> supertypes = new LinkedHashSet<>();
 
     Queue<ClassOrInterfaceType> worklist = new ArrayDeque<>();
     worklist.add(this);
     while (!worklist.isEmpty()) {
       ClassOrInterfaceType type = worklist.remove();
-      if (result.add(type)) {
-        // result did not already contain the element
+      if (supertypes.add(type)) {
+        // supertypes did not already contain the element
         worklist.addAll(type.getImmediateSupertypes());
       }
     }
+    result = Collections.unmodifiableList(new ArrayList<>(supertypes));
+    allSupertypesInclusive = result;
     return result;
   }
 
@@ -66,8 +66,10 @@ public class GenericClassType extends ParameterizedType {
             (TypeVariable variable) ->
                 TypeArgument.forType(substitution.getOrDefault(variable, variable)),
             parameters);
-    return (InstantiatedType)
-        substitute(substitution, new InstantiatedType(new GenericClassType(rawType), argumentList));
+    return Type.intern(
+        (InstantiatedType)
+            substitute(
+                substitution, new InstantiatedType(new GenericClassType(rawType), argumentList)));
   }
 
   @Override
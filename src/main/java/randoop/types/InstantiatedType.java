@@ -23,6 +23,9 @@ public class InstantiatedType extends ParameterizedType {
   /** The type arguments for this class. */
   private final List<TypeArgument> argumentList;
 
+  /** The hash code of this type, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Create a parameterized type from the generic class type.
    *
@@ -60,7 +63,11 @@ public class InstantiatedType extends ParameterizedType {
 
   @Override
   public int hashCode() {
-    return Objects.hash(genericType, argumentList);
+    // The generic class and the type arguments never change, so the hash code is computed once.
+    if (hashCode == 0) {
+      hashCode = Objects.hash(genericType, argumentList);
+    }
+    return hashCode;
   }
 
   @Override
@@ -68,8 +75,9 @@ public class InstantiatedType extends ParameterizedType {
     List<TypeArgument> argumentList =
         CollectionsPlume.mapList(
             (TypeArgument argument) -> argument.substitute(substitution), this.argumentList);
-    return (InstantiatedType)
-        substitute(substitution, new InstantiatedType(genericType, argumentList));
+    return Type.intern(
+        (InstantiatedType)
+            substitute(substitution, new InstantiatedType(genericType, argumentList)));
   }
 
   /**
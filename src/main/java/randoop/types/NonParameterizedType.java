@@ -17,7 +17,9 @@ public class NonParameterizedType extends ClassOrInterfaceType {
   /** The runtime class of this simple type. */
   private final Class<?> runtimeType;
 
-  /** A cache of all NonParameterizedTypes that have been created. */
+  /**
+   * A cache of all NonParameterizedTypes that have been created. Guarded by {@link #CACHE_LOCK}.
+   */
   private static final Map<Class<?>, NonParameterizedType> cache = new HashMap<>();
 
   /**
@@ -32,12 +34,18 @@ public class NonParameterizedType extends ClassOrInterfaceType {
     // because NonParameterizedType::new side-effects `cache`.  It does so by calling
     // ClassOrInterfaceType.forClass which may call back into NonParameterizedType.
 
-    NonParameterizedType cached = cache.get(runtimeType);
-    if (cached == null) {
-      cached = new NonParameterizedType(runtimeType);
-      cache.put(runtimeType, cached);
+    synchronized (CACHE_LOCK) {
+      NonParameterizedType cached = cache.get(runtimeType);
+      if (cached == null) {
+        cached = new NonParameterizedType(runtimeType);
+        if (!cached.isMemberClass()) {
+          // This is the canonical instance; see Type.intern.
+          cached.internId = SubtypeOracle.newId();
+        }
+        cache.put(runtimeType, cached);
+      }
+      return cached;
     }
-    return cached;
   }
 
   /**
@@ -78,8 +86,9 @@ public class NonParameterizedType extends ClassOrInterfaceType {
 
   @Override
   public NonParameterizedType substitute(Substitution substitution) {
-    return (NonParameterizedType)
-        substitute(substitution, new NonParameterizedType(this.runtimeType));
+    return Type.intern(
+        (NonParameterizedType)
+            substitute(substitution, new NonParameterizedType(this.runtimeType)));
   }
 
   @Override
@@ -17,7 +17,7 @@ import org.plumelib.util.CollectionsPlume;
  */
 public abstract class ParameterizedType extends ClassOrInterfaceType {
 
-  /** A cache of all ParameterizedTypes that have been created. */
+  /** A cache of all ParameterizedTypes that have been created. Guarded by {@link #CACHE_LOCK}. */
   private static final Map<Class<?>, GenericClassType> cache = new HashMap<>();
 
   /**
@@ -35,12 +35,14 @@ public abstract class ParameterizedType extends ClassOrInterfaceType {
     //   return cache.computeIfAbsent(typeClass, GenericClassType::new);
     // because of a recursive call that might side-effect `cache`.
 
-    GenericClassType cached = cache.get(typeClass);
-    if (cached == null) {
-      cached = new GenericClassType(typeClass);
-      cache.put(typeClass, cached);
+    synchronized (CACHE_LOCK) {
+      GenericClassType cached = cache.get(typeClass);
+      if (cached == null) {
+        cached = new GenericClassType(typeClass);
+        cache.put(typeClass, cached);
+      }
+      return cached;
     }
-    return cached;
   }
 
   /**
@@ -67,7 +69,7 @@ public abstract class ParameterizedType extends ClassOrInterfaceType {
     // rawtype, and then instantiate with the arguments collected from the
     // java.lang.reflect.ParameterizedType interface.
     GenericClassType genericClass = ParameterizedType.forClass((Class<?>) rawType);
-    return new InstantiatedType(genericClass, typeArguments);
+    return intern(new InstantiatedType(genericClass, typeArguments));
   }
 
   @Override
@@ -1,7 +1,7 @@
 package randoop.types;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a Java primitive type. Corresponds to primitive types as defined in JLS <a
@@ -14,7 +14,7 @@ public class PrimitiveType extends Type {
   private final Class<?> runtimeClass;
 
   /** All the PrimitiveTypes that have been created. */
-  private static Map<Class<?>, PrimitiveType> cache = new HashMap<>();
+  private static final Map<Class<?>, PrimitiveType> cache = new ConcurrentHashMap<>();
 
   /**
    * Creates a primitive type from the given runtime class.
@@ -36,6 +36,8 @@ public class PrimitiveType extends Type {
         : "must be initialized with primitive type, got " + runtimeClass.getName();
     assert !runtimeClass.equals(void.class) : "void should be represented by VoidType";
     this.runtimeClass = runtimeClass;
+    // PrimitiveType.forClass returns only canonical instances; see Type.intern.
+    this.internId = SubtypeOracle.newId();
   }
 
   /**
@@ -0,0 +1,179 @@
+package randoop.types;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Memoizes {@link Type#isSubtypeOf} and {@link Type#isAssignableFrom}. Each canonical instance of
+ * an interned type (see {@link Type#intern}) has a dense id, and records the results of the tests
+ * against other interned types in a bit matrix indexed by their ids, so that repeating a test takes
+ * constant time. Tests that involve a type that is not interned, such as a generic type, use the
+ * algorithms of {@link Type} every time.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class SubtypeOracle {
+  private SubtypeOracle() {
+    throw new IllegalStateException("no instances");
+  }
+
+  /** The last id assigned by {@link #newId}. */
+  private static final AtomicInteger lastId = new AtomicInteger();
+
+  /** The offset in a {@link Memo} entry of the result of {@link Type#isSubtypeOf}. */
+  private static final int SUBTYPE = 0;
+
+  /** The offset in a {@link Memo} entry of the result of {@link Type#isAssignableFrom}. */
+  private static final int ASSIGNABLE = 2;
+
+  /**
+   * Returns true if {@code type} is a subtype of {@code otherType}. Equivalent to {@code
+   * type.isSubtypeOf(otherType)}.
+   *
+   * @param type a type
+   * @param otherType the possible supertype
+   * @return true if {@code type} is a subtype of {@code otherType}
+   */
+  public static boolean isSubtypeOf(Type type, Type otherType) {
+    int column = otherType.internId;
+    if (type.internId == 0 || column == 0) {
+      return type.isSubtypeOf(otherType);
+    }
+    Memo memo = memo(type);
+    int known = memo.get(column, SUBTYPE);
+    if (known != Memo.UNKNOWN) {
+      return known == Memo.TRUE;
+    }
+    boolean result = type.isSubtypeOf(otherType);
+    memo.put(column, SUBTYPE, result);
+    return result;
+  }
+
+  /**
+   * Returns true if {@code type} can be assigned from {@code sourceType}. Equivalent to {@code
+   * type.isAssignableFrom(sourceType)}.
+   *
+   * @param type a type
+   * @param sourceType the type to test for assignability
+   * @return true if {@code type} can be assigned from {@code sourceType}
+   */
+  public static boolean isAssignableFrom(Type type, Type sourceType) {
+    int column = sourceType.internId;
+    if (type.internId == 0 || column == 0) {
+      return type.isAssignableFrom(sourceType);
+    }
+    Memo memo = memo(type);
+    int known = memo.get(column, ASSIGNABLE);
+    if (known != Memo.UNKNOWN) {
+      return known == Memo.TRUE;
+    }
+    boolean result = type.isAssignableFrom(sourceType);
+    memo.put(column, ASSIGNABLE, result);
+    return result;
+  }
+
+  /**
+   * Returns a new id for a canonical instance of an interned type.
+   *
+   * @return a new id, greater than 0
+   */
+  static int newId() {
+    return lastId.incrementAndGet();
+  }
+
+  /**
+   * Returns the memo of the given interned type, creating it if needed.
+   *
+   * @param type a type whose {@link Type#internId} is not 0
+   * @return the memo of the type
+   */
+  private static Memo memo(Type type) {
+    Memo memo = type.memo;
+    if (memo == null) {
+      synchronized (type) {
+        memo = type.memo;
+        if (memo == null) {
+          memo = new Memo();
+          type.memo = memo;
+        }
+      }
+    }
+    return memo;
+  }
+
+  /**
+   * The results of the tests of one type against other types, indexed by the ids of the other
+   * types. Each entry has 4 bits: 2 for each test, which are {@link #UNKNOWN}, {@link #FALSE}, or
+   * {@link #TRUE}.
+   */
+  static final class Memo {
+
+    /** The result of a test that has not been recorded. */
+    static final int UNKNOWN = 0;
+
+    /** The result of a test that is false. */
+    static final int FALSE = 2;
+
+    /** The result of a test that is true. */
+    static final int TRUE = 3;
+
+    /** The entries, 16 per element. Replaced by a larger array when needed. */
+    private volatile AtomicLongArray bits = new AtomicLongArray(1);
+
+    /**
+     * Returns the recorded result of a test.
+     *
+     * @param column the id of the other type
+     * @param offset {@link #SUBTYPE} or {@link #ASSIGNABLE}
+     * @return {@link #UNKNOWN}, {@link #FALSE}, or {@link #TRUE}
+     */
+    int get(int column, int offset) {
+      AtomicLongArray bits = this.bits;
+      int index = column >>> 4;
+      if (index >= bits.length()) {
+        return UNKNOWN;
+      }
+      return (int) (bits.get(index) >>> (((column & 15) << 2) + offset)) & 3;
+    }
+
+    /**
+     * Records the result of a test. A result that is recorded concurrently with {@link #grow} may
+     * be lost, in which case the test is performed again the next time.
+     *
+     * @param column the id of the other type
+     * @param offset {@link #SUBTYPE} or {@link #ASSIGNABLE}
+     * @param result the result of the test
+     */
+    void put(int column, int offset, boolean result) {
+      int index = column >>> 4;
+      AtomicLongArray bits = this.bits;
+      if (index >= bits.length()) {
+        bits = grow(index);
+      }
+      long entry = (long) (result ? TRUE : FALSE) << (((column & 15) << 2) + offset);
+      long old;
+      do {
+        old = bits.get(index);
+      } while (!bits.compareAndSet(index, old, old | entry));
+    }
+
+    /**
+     * Replaces {@link #bits} by a copy that has an element at the given index.
+     *
+     * @param index an index into {@link #bits}
+     * @return the new value of {@link #bits}
+     */
+    private synchronized AtomicLongArray grow(int index) {
+      AtomicLongArray bits = this.bits;
+      if (index < bits.length()) {
+        return bits;
+      }
+      AtomicLongArray newBits = new AtomicLongArray(Math.max(index + 1, 2 * bits.length()));
+      for (int i = 0; i < bits.length(); i++) {
+        newBits.set(i, bits.get(i));
+      }
+      this.bits = newBits;
+      return newBits;
+    }
+  }
+}
@@ -3,6 +3,9 @@ package randoop.types;
 import java.lang.reflect.Array;
 import java.lang.reflect.WildcardType;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.ClassGetName;
 import org.checkerframework.checker.signature.qual.FqBinaryName;
 import org.plumelib.reflection.Signatures;
@@ -37,6 +40,18 @@ import org.plumelib.reflection.Signatures;
  */
 public abstract class Type implements Comparable<Type> {
 
+  /** The canonical instance of each interned type. See {@link #intern}. */
+  private static final ConcurrentMap<Type, Type> internTable = new ConcurrentHashMap<>();
+
+  /**
+   * The id of this type in {@link SubtypeOracle} if this is the canonical instance of an interned
+   * type, or 0 otherwise.
+   */
+  int internId = 0;
+
+  /** The results of {@link SubtypeOracle} for this type; null until the first test. */
+  volatile SubtypeOracle.@Nullable Memo memo = null;
+
   /**
    * Translates a {@code Class} into a {@link Type} object. For primitive types, creates a {@link
    * PrimitiveType} object. For reference types, delegates to {@link ReferenceType#forClass(Class)}.
@@ -197,6 +212,80 @@ public abstract class Type implements Comparable<Type> {
     return ReferenceType.forType(type);
   }
 
+  /**
+   * Returns the canonical instance of the given type: a type that is equal to it, and that is the
+   * same object for all equal types. Comparing canonical instances, and looking them up in hash
+   * tables, only needs {@code ==} rather than a deep traversal of the types.
+   *
+   * <p>Only types that are built from classes, type arguments that are such types, and array types
+   * of them are interned; for example, {@code String}, {@code List<String>}, and {@code Map<String,
+   * Integer>[]}. Other types, such as types with type variables or wildcards, and member classes of
+   * a parameterized type, are returned unchanged.
+   *
+   * <p>{@link NonParameterizedType#forClass}, {@link ArrayType#forClass}, {@link
+   * ArrayType#ofComponentType}, and the substitution methods return interned types.
+   *
+   * @param <T> the class of the type
+   * @param type the type to intern
+   * @return the canonical instance of the type, or the type itself if it is not interned
+   */
+  @SuppressWarnings("unchecked") // an equal type has the same class, checked below
+  public static <T extends Type> T intern(T type) {
+    if (type.isPrimitive() || !isInternable(type)) {
+      // PrimitiveType.forClass already returns canonical instances.
+      return type;
+    }
+    if (type instanceof NonParameterizedType) {
+      // NonParameterizedType.forClass caches its result, which is thus the canonical instance.
+      NonParameterizedType canonical = NonParameterizedType.forClass(type.getRuntimeClass());
+      return canonical.equals(type) ? (T) canonical : type;
+    }
+    // Try get() first: putIfAbsent() locks even if the type is present.
+    Type canonical = internTable.get(type);
+    if (canonical == null) {
+      canonical = internTable.putIfAbsent(type, type);
+      if (canonical == null) {
+        type.internId = SubtypeOracle.newId();
+        return type;
+      }
+    }
+    return canonical.getClass() == type.getClass() ? (T) canonical : type;
+  }
+
+  /**
+   * Returns true if {@link #intern} returns a canonical instance for the given type. Member classes
+   * are not interned because the equality test of {@link InstantiatedType} ignores the enclosing
+   * type.
+   *
+   * @param type a type
+   * @return true if the type can be interned
+   */
+  private static boolean isInternable(Type type) {
+    if (type.isPrimitive()) {
+      return true;
+    }
+    if (type instanceof ArrayType) {
+      return isInternable(((ArrayType) type).getComponentType());
+    }
+    if (type instanceof NonParameterizedType) {
+      return !((NonParameterizedType) type).isMemberClass();
+    }
+    if (type instanceof InstantiatedType) {
+      InstantiatedType instantiatedType = (InstantiatedType) type;
+      if (instantiatedType.isMemberClass()) {
+        return false;
+      }
+      for (TypeArgument argument : instantiatedType.getTypeArguments()) {
+        if (!(argument instanceof ReferenceArgument)
+            || !isInternable(((ReferenceArgument) argument).getReferenceType())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Returns the runtime {@code Class} object for this type. For use when reflection is needed.
    *
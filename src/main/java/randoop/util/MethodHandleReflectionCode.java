@@ -0,0 +1,156 @@
+package randoop.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import randoop.types.PrimitiveTypes;
+
+/**
+ * Wraps a method handle together with its arguments, ready for execution. Can be run only once.
+ *
+ * <p>The handle is spread-adapted to type {@code (Object[])Object}: it takes all inputs, including
+ * the receiver of an instance method, as a single array, and returns the (possibly boxed) result,
+ * or null for a void method. Such a handle is created once per method or constructor by {@link
+ * #spreadHandle(Method)} or {@link #spreadHandle(Constructor)} and reused for every call, avoiding
+ * the access checks, argument-array copying, and wrapping of exceptions that {@link
+ * Method#invoke(Object, Object...)} performs on each call.
+ *
+ * <p>Unlike core reflection, a method handle does not distinguish an argument of the wrong type
+ * from an exception thrown by the callee. Callers must therefore check {@link
+ * #argumentsMatch(Class[], Object[], int)} and fall back to {@link MethodReflectionCode} or {@link
+ * ConstructorReflectionCode} when it fails.
+ */
+public final class MethodHandleReflectionCode extends ReflectionCode {
+
+  /** The lookup used to create handles. Accessibility is determined by {@code setAccessible}. */
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  /** The type of every handle produced by this class. */
+  private static final MethodType SPREAD_TYPE =
+      MethodType.methodType(Object.class, Object[].class);
+
+  /** The method or constructor that the handle invokes; used for diagnostics only. */
+  private final Member member;
+
+  /** The spread-adapted handle, of type {@code (Object[])Object}. */
+  private final MethodHandle handle;
+
+  /** The inputs, including the receiver of an instance method as the first element. */
+  private final Object[] inputs;
+
+  /**
+   * Create a new MethodHandleReflectionCode to represent a call through a method handle.
+   *
+   * @param member the method or constructor that {@code handle} invokes
+   * @param handle a handle created by {@link #spreadHandle(Method)} or {@link
+   *     #spreadHandle(Constructor)}
+   * @param inputs the inputs, including the receiver of an instance method as the first element
+   */
+  public MethodHandleReflectionCode(Member member, MethodHandle handle, Object[] inputs) {
+    if (!handle.type().equals(SPREAD_TYPE)) {
+      throw new IllegalArgumentException("handle has type " + handle.type());
+    }
+    this.member = member;
+    this.handle = handle;
+    this.inputs = inputs;
+  }
+
+  @SuppressWarnings("Finally")
+  @Override
+  public void runReflectionCodeRaw() {
+    Log.logPrintf("runReflectionCodeRaw: %s%n", member);
+    try {
+      this.retval = (Object) handle.invokeExact(inputs);
+    } catch (Throwable e) {
+      // The arguments were checked by the caller, so the callee threw this exception.
+      this.exceptionThrown = e;
+    }
+  }
+
+  /**
+   * Returns a spread-adapted handle for the given method, or null if no handle can be created. The
+   * method must already have been made accessible.
+   *
+   * @param method the method
+   * @return a handle of type {@code (Object[])Object} that invokes the method, or null
+   */
+  public static @Nullable MethodHandle spreadHandle(Method method) {
+    try {
+      return spread(LOOKUP.unreflect(method));
+    } catch (IllegalAccessException | RuntimeException e) {
+      Log.logPrintf("no method handle for %s: %s%n", method, e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a spread-adapted handle for the given constructor, or null if no handle can be created.
+   * The constructor must already have been made accessible.
+   *
+   * @param constructor the constructor
+   * @return a handle of type {@code (Object[])Object} that invokes the constructor, or null
+   */
+  public static @Nullable MethodHandle spreadHandle(Constructor<?> constructor) {
+    try {
+      return spread(LOOKUP.unreflectConstructor(constructor));
+    } catch (IllegalAccessException | RuntimeException e) {
+      Log.logPrintf("no method handle for %s: %s%n", constructor, e);
+      return null;
+    }
+  }
+
+  /**
+   * Adapts a direct handle to type {@code (Object[])Object}.
+   *
+   * @param direct a handle obtained by unreflecting a method or constructor
+   * @return the adapted handle
+   */
+  private static MethodHandle spread(MethodHandle direct) {
+    MethodHandle fixed = direct.asFixedArity();
+    return fixed
+        .asType(fixed.type().generic())
+        .asSpreader(Object[].class, fixed.type().parameterCount())
+        .asType(SPREAD_TYPE);
+  }
+
+  /**
+   * Returns true if core reflection would accept the given arguments for the given formal parameter
+   * types without conversion: each reference argument is null or an instance of its parameter type,
+   * and each primitive argument is a non-null instance of the corresponding wrapper class.
+   *
+   * <p>This test is conservative: it rejects widening conversions that core reflection accepts.
+   * When it returns false, the caller should execute via core reflection, which reports any error.
+   *
+   * @param parameterTypes the formal parameter types
+   * @param args the actual arguments
+   * @param offset the index in {@code args} of the argument for {@code parameterTypes[0]}
+   * @return true if every argument matches its formal parameter type
+   */
+  public static boolean argumentsMatch(Class<?>[] parameterTypes, Object[] args, int offset) {
+    if (args.length - offset != parameterTypes.length) {
+      return false;
+    }
+    for (int i = 0; i < parameterTypes.length; i++) {
+      Class<?> parameterType = parameterTypes[i];
+      Object arg = args[i + offset];
+      if (parameterType.isPrimitive()) {
+        if (arg == null || arg.getClass() != PrimitiveTypes.toBoxedType(parameterType)) {
+          return false;
+        }
+      } else if (arg != null && !parameterType.isInstance(arg)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "Call to " + member + " args: " + Arrays.toString(inputs) + status();
+  }
+}
@@ -0,0 +1,83 @@
+package randoop.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A list that consists of the elements of a fixed prefix list followed by the elements of another
+ * list, without copying either of them. Unlike a {@link ListOfLists}, this reflects elements that
+ * are appended to the second list after this is created.
+ */
+public final class PrefixedList<E> implements SimpleList<E>, Serializable {
+
+  private static final long serialVersionUID = 20240715L;
+
+  /** The first elements of this. Must not change while this is in use. */
+  @SuppressWarnings("serial") // TODO: use a serializable type.
+  public final SimpleList<E> prefix;
+
+  /** The remaining elements of this. Elements may be appended to it. */
+  @SuppressWarnings("serial") // TODO: use a serializable type.
+  public final SimpleList<E> rest;
+
+  /** The size of {@link #prefix}. */
+  private final int prefixSize;
+
+  /**
+   * Creates a list of the elements of {@code prefix} followed by those of {@code rest}.
+   *
+   * @param prefix the first elements, which must not change while this is in use
+   * @param rest the remaining elements, to which elements may be appended
+   */
+  public PrefixedList(SimpleList<E> prefix, SimpleList<E> rest) {
+    this.prefix = prefix;
+    this.rest = rest;
+    this.prefixSize = prefix.size();
+  }
+
+  @Override
+  public int size() {
+    return prefixSize + rest.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return prefixSize == 0 && rest.isEmpty();
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+    if (index < prefixSize) {
+      return prefix.get(index);
+    }
+    return rest.get(index - prefixSize);
+  }
+
+  @Override
+  public SimpleList<E> getSublist(int index) {
+    if (index < 0) {
+      throw new IndexOutOfBoundsException("No such index: " + index);
+    }
+    if (index < prefixSize) {
+      return prefix.getSublist(index);
+    }
+    return rest.getSublist(index - prefixSize);
+  }
+
+  @Override
+  public List<E> toJDKList() {
+    List<E> result = new ArrayList<>(size());
+    result.addAll(prefix.toJDKList());
+    result.addAll(rest.toJDKList());
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
@@ -10,6 +10,7 @@ import org.plumelib.util.SystemPlume;
 import randoop.Globals;
 import randoop.generation.AbstractGenerator;
 import randoop.main.GenInputsAbstract;
+import randoop.sequence.Sequence;
 
 /** Modified from Daikon.FileIOProgress. */
 // TODO: Split this class into two: one is responsible for
@@ -70,6 +71,7 @@ public class ProgressDisplay extends Thread {
         + generator.num_sequences_generated
         + ", failing inputs="
         + generator.num_failing_sequences
+        + evictionMessage()
         + (withTime
             ? ("      ("
                 + Instant.now()
@@ -79,6 +81,17 @@ public class ProgressDisplay extends Thread {
             : "");
   }
 
+  /**
+   * Return the part of the progress message about components removed from the pool, or the empty
+   * string if none have been removed.
+   *
+   * @return the part of the progress message about evicted components
+   */
+  private String evictionMessage() {
+    long evicted = generator.numEvictedComponents();
+    return evicted == 0 ? "" : ", evicted components=" + evicted;
+  }
+
   /**
    * Clients should set this variable instead of calling Thread.stop(), which is deprecated.
    * Typically a client calls "display()" before setting this.
@@ -134,7 +147,9 @@ public class ProgressDisplay extends Thread {
     System.out.println(
         "See https://randoop.github.io/randoop/manual/index.html#no-input-generation .");
     System.out.println();
-    System.out.println(AbstractGenerator.currSeq);
+    for (Sequence sequence : generator.getCurrentSequences()) {
+      System.out.println(sequence);
+    }
     System.out.println();
     System.out.println("Will dump a heap profile to randoop-slow.hprof.");
     File hprofFile = new File("randoop-slow.hprof");
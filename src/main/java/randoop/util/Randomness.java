@@ -1,11 +1,19 @@
 package randoop.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import randoop.main.GenInputsAbstract;
 import randoop.main.RandoopBug;
 
@@ -28,35 +36,140 @@ public final class Randomness {
   public static final long DEFAULT_SEED = 0;
 
   /**
-   * The random generator that makes random choices. (Developer note: do not declare new Random
-   * objects; use this one instead).
+   * The random state of each thread. Every thread that makes random choices, such as each worker of
+   * a parallel generator, has its own random generator, initially seeded with {@link
+   * #DEFAULT_SEED}. (Developer note: do not declare new Random objects; use this one instead).
    */
-  private static Random random = new Random(DEFAULT_SEED);
+  private static final ThreadLocal<RandomState> state = ThreadLocal.withInitial(RandomState::new);
+
+  /** The random generator of one thread, and the number of calls to it. */
+  private static final class RandomState {
+    /** The random generator that makes random choices, unless {@link #stream} is non-null. */
+    Random random = new Random(DEFAULT_SEED);
+
+    /** The split stream that makes random choices, or null to use {@link #random}. */
+    @Nullable SplittableRandom stream = null;
+
+    /** Number of calls to the random generator. */
+    int totalCallsToRandom = 0;
+
+    /**
+     * Uniformly random int from [0, bound).
+     *
+     * @param bound upper bound on range for generated values
+     * @return a value selected from range [0, bound)
+     */
+    int nextInt(int bound) {
+      return (stream == null) ? random.nextInt(bound) : stream.nextInt(bound);
+    }
+
+    /**
+     * Uniformly random double from [0, 1).
+     *
+     * @return a value selected from range [0, 1)
+     */
+    double nextDouble() {
+      return (stream == null) ? random.nextDouble() : stream.nextDouble();
+    }
+  }
 
   /**
-   * Sets the seed of this random number generator.
+   * Sets the seed of the current thread's random number generator.
    *
    * @param seed the initial seed
    */
   public static void setSeed(long seed) {
-    random.setSeed(seed);
-    totalCallsToRandom = 0;
+    RandomState current = state.get();
+    current.random.setSeed(seed);
+    current.stream = null;
+    current.totalCallsToRandom = 0;
     logSelection("[Random object]", "setSeed", seed);
   }
 
-  /** Number of calls to the underlying Random instance that this wraps. */
-  private static int totalCallsToRandom = 0;
+  /**
+   * Makes the current thread use one of several independent streams of random numbers derived from
+   * the given seed. The streams are split from a {@link SplittableRandom} with the given seed, so
+   * the same seed and stream index always yield the same stream, regardless of what other threads
+   * do. Used to give each worker of a parallel generator its own stream.
+   *
+   * @param seed the seed from which all the streams are derived
+   * @param streamIndex the index of the stream to use; non-negative
+   */
+  public static void setSeed(long seed, int streamIndex) {
+    if (streamIndex < 0) {
+      throw new IllegalArgumentException("streamIndex is negative: " + streamIndex);
+    }
+    SplittableRandom root = new SplittableRandom(seed);
+    SplittableRandom stream = root.split();
+    for (int i = 0; i < streamIndex; i++) {
+      stream = root.split();
+    }
+    RandomState current = state.get();
+    current.stream = stream;
+    current.totalCallsToRandom = 0;
+    logSelection("[SplittableRandom object]", "setSeed", seed + ", " + streamIndex);
+  }
 
   /**
-   * Call this before every use of Randomness.random.
+   * Writes the state of the current thread's random generator, so that {@link #readState} can
+   * restore it, for example in a later run of Randoop.
    *
-   * @param caller the name of the method that called Randomness.random
+   * @param out where to write the state
+   * @throws IOException if there is a problem writing the state
+   * @throws IllegalStateException if the current thread uses a split stream of random numbers
+   * @see #setSeed(long, int)
    */
-  private static void incrementCallsToRandom(String caller) {
-    totalCallsToRandom++;
+  public static void writeState(DataOutput out) throws IOException {
+    RandomState current = state.get();
+    if (current.stream != null) {
+      throw new IllegalStateException("Cannot save the state of a split stream of random numbers");
+    }
+    // Serialization is the only way to read the seed of a Random.
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+      objectOut.writeObject(current.random);
+    }
+    out.writeInt(bytes.size());
+    out.write(bytes.toByteArray());
+    out.writeInt(current.totalCallsToRandom);
+  }
+
+  /**
+   * Restores the state of the current thread's random generator from the output of {@link
+   * #writeState}. Afterward, the random generator makes the same choices as the one that was saved.
+   *
+   * @param in where to read the state from
+   * @throws IOException if there is a problem reading the state
+   */
+  public static void readState(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    Random random;
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      random = (Random) objectIn.readObject();
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Malformed random state", e);
+    }
+    RandomState current = state.get();
+    current.random = random;
+    current.stream = null;
+    current.totalCallsToRandom = in.readInt();
+    logSelection("[Random object]", "readState", current.totalCallsToRandom);
+  }
+
+  /**
+   * Call this before every use of the current thread's random generator.
+   *
+   * @param caller the name of the method that called the random generator
+   * @return the current thread's random state
+   */
+  private static RandomState incrementCallsToRandom(String caller) {
+    RandomState current = state.get();
+    current.totalCallsToRandom++;
     Log.logPrintf(
         "randoop.util.Randomness called by %s: %d calls to Random so far%n",
-        caller, totalCallsToRandom);
+        caller, current.totalCallsToRandom);
+    return current;
   }
 
   /**
@@ -66,8 +179,7 @@ public final class Randomness {
    * @return a value selected from range [0, i)
    */
   public static int nextRandomInt(int i) {
-    incrementCallsToRandom("nextRandomInt");
-    int value = Randomness.random.nextInt(i);
+    int value = incrementCallsToRandom("nextRandomInt").nextInt(i);
     logSelection(value, "nextRandomInt", i);
     return value;
   }
@@ -170,8 +282,8 @@ public final class Randomness {
     }
 
     // Select a random point in interval and find its corresponding element.
-    incrementCallsToRandom("randomMemberWeighted(SimpleList)");
-    double chosenPoint = Randomness.random.nextDouble() * totalWeight;
+    double chosenPoint =
+        incrementCallsToRandom("randomMemberWeighted(SimpleList)").nextDouble() * totalWeight;
     if (GenInputsAbstract.selection_log != null) {
       try {
         GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
@@ -197,6 +309,35 @@ public final class Randomness {
     throw new RandoopBug("Unable to select random member");
   }
 
+  /**
+   * Randomly selects an element of a {@link WeightedSampler}, with probability proportional to its
+   * weight. Takes time O(log n).
+   *
+   * @param sampler the weights of the elements to select from
+   * @return the index of a randomly selected element of {@code sampler}
+   */
+  public static int randomIndexWeighted(WeightedSampler sampler) {
+
+    if (sampler.size() == 0) {
+      throw new IllegalArgumentException("Empty list");
+    }
+
+    // Select a random point in interval and find its corresponding element.
+    double chosenPoint =
+        incrementCallsToRandom("randomIndexWeighted").nextDouble() * sampler.totalWeight();
+    if (GenInputsAbstract.selection_log != null) {
+      try {
+        GenInputsAbstract.selection_log.write(String.format("chosenPoint = %s%n", chosenPoint));
+      } catch (IOException e) {
+        throw new Error("Problem writing to selection-log " + GenInputsAbstract.selection_log, e);
+      }
+    }
+
+    int index = sampler.find(chosenPoint);
+    logSelection(index, "randomIndexWeighted", sampler);
+    return index;
+  }
+
   /**
    * Return a random member of the set, selected uniformly at random.
    *
@@ -223,8 +364,7 @@ public final class Randomness {
       throw new IllegalArgumentException("arg must be between 0 and 1.");
     }
     double falseProb = 1 - trueProb;
-    incrementCallsToRandom("weightedCoinFlip");
-    boolean result = Randomness.random.nextDouble() >= falseProb;
+    boolean result = incrementCallsToRandom("weightedCoinFlip").nextDouble() >= falseProb;
     logSelection(result, "weightedCoinFlip", trueProb);
     return result;
   }
@@ -248,8 +388,8 @@ public final class Randomness {
       throw new IllegalArgumentException("falseProb and trueProb are both 0");
     }
     double falseProbNormalized = falseProb / totalProb;
-    incrementCallsToRandom("randomBoolFromDistribution");
-    boolean result = Randomness.random.nextDouble() >= falseProbNormalized;
+    boolean result =
+        incrementCallsToRandom("randomBoolFromDistribution").nextDouble() >= falseProbNormalized;
     logSelection(result, "randomBoolFromDistribution", falseProb + ", " + trueProb);
     return result;
   }
@@ -268,6 +408,7 @@ public final class Randomness {
       if (argument != null) {
         methodWithArg += "(" + toString(argument) + ")";
       }
+      int totalCallsToRandom = state.get().totalCallsToRandom;
       try {
         String msg =
             String.format(
@@ -1,7 +1,12 @@
 package randoop.util;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import org.plumelib.options.Option;
 import org.plumelib.options.OptionGroup;
 import org.plumelib.util.FileWriterWithName;
@@ -13,9 +18,9 @@ import randoop.main.RandoopBug;
 /**
  * Static methods that executes the code of a ReflectionCode object.
  *
- * <p>This class maintains an "executor" thread. Code is executed on that thread. If the code takes
- * longer than the specified timeout, the thread is killed and a TimeoutException exception is
- * reported.
+ * <p>With {@code --usethreads}, this class maintains a pool of "executor" threads. Code is executed
+ * on one of those threads. If the code takes longer than the specified timeout, a watchdog thread
+ * kills the executor thread and a TimeoutException exception is reported.
  */
 public final class ReflectionExecutor {
 
@@ -30,9 +35,9 @@ public final class ReflectionExecutor {
    * command-line option to make Randoop produce the log.
    *
    * <p>Use this option if Randoop does not terminate, which is usually due to execution of code
-   * under test that results in an infinite loop or that waits for user input. The downside of this
-   * option is a BIG (order-of-magnitude) decrease in generation speed. The tests are not run in
-   * parallel, merely in isolation.
+   * under test that results in an infinite loop or that waits for user input. The threads are
+   * pooled and reused, so the cost of this option is modest; a new thread is created only after a
+   * thread is killed. The tests are not run in parallel, merely in isolation.
    */
   @OptionGroup("Threading")
   @Option("Execute each test in a separate thread, with timeout")
@@ -58,43 +63,57 @@ public final class ReflectionExecutor {
   @Option("Maximum number of milliseconds a test may run. Only meaningful with --usethreads")
   public static int call_timeout = CALL_TIMEOUT_MILLIS_DEFAULT;
 
-  // Execution statistics.
+  /**
+   * If true, Randoop invokes methods and constructors through method handles that are created once
+   * per operation and cached, rather than through {@link java.lang.reflect.Method#invoke} and
+   * {@link java.lang.reflect.Constructor#newInstance}, and accesses fields through cached getter
+   * and setter handles. This makes each call cheaper. Set it to false to use core reflection for
+   * every call, as older versions of Randoop did.
+   */
+  @OptionGroup("Invocation")
+  @Option("Invoke methods, constructors, and fields through cached method handles")
+  public static boolean method_handles = true;
+
+  /** Kills runner threads that exceed {@link #call_timeout}; created on first use. */
+  private static ScheduledExecutorService watchdog = null;
+
+  // Execution statistics. These are updated by every generation thread.
   /** The sum of durations for normal executions, in nanoseconds. */
-  private static long normal_exec_duration_nanos = 0;
+  private static final LongAdder normal_exec_duration_nanos = new LongAdder();
 
   /** The number of normal executions. */
-  private static int normal_exec_count = 0;
+  private static final LongAdder normal_exec_count = new LongAdder();
 
   /** The sum of durations for exceptional executions, in nanoseconds. */
-  private static long excep_exec_duration_nanos = 0;
+  private static final LongAdder excep_exec_duration_nanos = new LongAdder();
 
   /** The number of exceptional executions. */
-  private static int excep_exec_count = 0;
+  private static final LongAdder excep_exec_count = new LongAdder();
 
   /** Set statistics about normal and exceptional executions to zero. */
   public static void resetStatistics() {
-    normal_exec_duration_nanos = 0;
-    normal_exec_count = 0;
-    excep_exec_duration_nanos = 0;
-    excep_exec_count = 0;
+    normal_exec_duration_nanos.reset();
+    normal_exec_count.reset();
+    excep_exec_duration_nanos.reset();
+    excep_exec_count.reset();
   }
 
   public static int normalExecs() {
-    return normal_exec_count;
+    return normal_exec_count.intValue();
   }
 
   public static int excepExecs() {
-    return excep_exec_count;
+    return excep_exec_count.intValue();
   }
 
   /** The average normal execution time, in milliseconds. */
   public static double normalExecAvgMillis() {
-    return ((normal_exec_duration_nanos / (double) normal_exec_count) / Math.pow(10, 6));
+    return ((normal_exec_duration_nanos.sum() / normal_exec_count.doubleValue()) / Math.pow(10, 6));
   }
 
   /** The average exceptional execution time, in milliseconds. */
   public static double excepExecAvgMillis() {
-    return ((excep_exec_duration_nanos / (double) excep_exec_count) / Math.pow(10, 6));
+    return ((excep_exec_duration_nanos.sum() / excep_exec_count.doubleValue()) / Math.pow(10, 6));
   }
 
   /**
@@ -131,60 +150,81 @@ public final class ReflectionExecutor {
 
     if (code.getExceptionThrown() != null) {
       // Add durationNanos to running sum for exceptional execution.
-      excep_exec_duration_nanos += durationNanos;
-      assert excep_exec_duration_nanos > 0; // check no overflow.
-      excep_exec_count++;
+      excep_exec_duration_nanos.add(durationNanos);
+      excep_exec_count.increment();
       // System.out.println("exceptional execution: " + code);
       return new ExceptionalExecution(code.getExceptionThrown(), durationNanos);
     } else {
       // Add durationNanos to running sum for normal execution.
-      normal_exec_duration_nanos += durationNanos;
-      assert normal_exec_duration_nanos > 0; // check no overflow.
-      normal_exec_count++;
+      normal_exec_duration_nanos.add(durationNanos);
+      normal_exec_count.increment();
       // System.out.println("normal execution: " + code);
       return new NormalExecution(code.getReturnValue(), durationNanos);
     }
   }
 
   /**
-   * Executes code.runReflectionCode() in its own thread.
+   * Executes code.runReflectionCode() in a pooled {@link RunnerThread}. The shared watchdog kills
+   * the runner thread if the call does not finish within {@link #call_timeout} milliseconds; only
+   * then is a new runner thread created for later calls.
    *
    * @param code the {@link ReflectionCode} to be executed
    * @throws TimeoutException if execution times out
    */
-  @SuppressWarnings({"deprecation", "removal", "DeprecatedThreadMethods"})
   private static void executeReflectionCodeThreaded(ReflectionCode code) throws TimeoutException {
 
-    RunnerThread runnerThread = new RunnerThread(null);
-    runnerThread.setup(code);
-
-    try {
+    RunnerThread runnerThread = RunnerThread.acquire();
 
-      // Start the test.
-      runnerThread.start();
-
-      // If test doesn't finish in time, suspend it.
-      runnerThread.join(call_timeout);
-
-      if (!runnerThread.runFinished) {
-        Log.logPrintf("Exceeded timeout: aborting execution of call: %s%n", runnerThread.getCode());
-        // TODO: is it possible to log the test being executed?
-        // (Maybe not here, but it has been previously logged.)
-
-        // We use this deprecated method because it's the only way to
-        // stop a thread no matter what it's doing.
-        runnerThread.stop();
-
-        throw new TimeoutException();
-      }
+    // If test doesn't finish in time, the watchdog kills the runner thread.
+    ScheduledFuture<?> alarm =
+        watchdog().schedule(() -> runnerThread.kill(code), call_timeout, TimeUnit.MILLISECONDS);
 
+    boolean finished;
+    try {
+      finished = runnerThread.execute(code);
     } catch (java.lang.InterruptedException e) {
       throw new IllegalStateException(
           "A RunnerThread thread shouldn't be interrupted by anyone! (This may be a bug in"
               + " Randoop; please report it at https://github.com/randoop/randoop/issues ,"
               + " providing the information requested at"
               + " https://randoop.github.io/randoop/manual/index.html#bug-reporting .)");
+    } catch (ReflectionCode.ReflectionCodeException e) { // bug in Randoop
+      runnerThread.release();
+      throw new RandoopBug("code=" + code, e);
+    } finally {
+      alarm.cancel(false);
+    }
+
+    if (!finished) {
+      Log.logPrintf("Exceeded timeout: aborting execution of call: %s%n", runnerThread.getCode());
+      // TODO: is it possible to log the test being executed?
+      // (Maybe not here, but it has been previously logged.)
+      throw new TimeoutException();
+    }
+    runnerThread.release();
+  }
+
+  /**
+   * Returns the watchdog that kills runner threads whose calls exceed {@link #call_timeout}. It
+   * runs on a single daemon thread, shared by all calls.
+   *
+   * @return the watchdog
+   */
+  private static synchronized ScheduledExecutorService watchdog() {
+    if (watchdog == null) {
+      ScheduledThreadPoolExecutor executor =
+          new ScheduledThreadPoolExecutor(
+              1,
+              runnable -> {
+                Thread thread = new Thread(runnable, "randoop.util.ReflectionExecutor-watchdog");
+                thread.setDaemon(true);
+                return thread;
+              });
+      // Calls usually finish long before their timeout; don't keep their alarms in the queue.
+      executor.setRemoveOnCancelPolicy(true);
+      watchdog = executor;
     }
+    return watchdog;
   }
 
   /**
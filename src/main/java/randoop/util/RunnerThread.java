@@ -1,19 +1,47 @@
 package randoop.util;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reusable thread that executes {@link ReflectionCode} objects on behalf of {@link
+ * ReflectionExecutor}, one at a time.
+ *
+ * <p>Idle runner threads are kept in a pool, so a thread is created only when no idle thread is
+ * available. A runner thread leaves the pool for good only when it is killed because a call
+ * exceeded its timeout. Runner threads are daemon threads, so idle ones do not keep the JVM alive.
+ */
 public class RunnerThread extends Thread {
 
-  // Fields assigned when calling setup(..)
+  /** The idle runner threads, most recently used first. */
+  private static final Deque<RunnerThread> idleThreads = new ArrayDeque<>();
+
+  /** The number of runner threads created so far; used to name them. */
+  private static final AtomicInteger threadsCreated = new AtomicInteger();
+
+  /** The code being run, or that was most recently run. */
   private ReflectionCode code;
 
-  // Fields assigned when calling run()
-  boolean runFinished;
+  /**
+   * A Randoop bug thrown while running {@link #code}, or null. Only meaningful in state {@link
+   * State#FINISHED}.
+   */
+  private ReflectionCode.ReflectionCodeException bug;
 
-  // The state of the thread.
-  private NextCallMustBe state;
+  /** The state of the thread. Guarded by {@code this}. */
+  private State state;
 
-  private enum NextCallMustBe {
-    SETUP,
-    RUN
+  /** The states of a runner thread. */
+  private enum State {
+    /** Waiting for code to run. */
+    IDLE,
+    /** Running {@link #code}. */
+    RUNNING,
+    /** Finished running {@link #code}; the caller has not yet collected the result. */
+    FINISHED,
+    /** Killed while running {@link #code}; the thread must not be reused. */
+    KILLED
   }
 
   /**
@@ -22,31 +50,131 @@ public class RunnerThread extends Thread {
    * @param threadGroup the group for this thread
    */
   RunnerThread(ThreadGroup threadGroup) {
-    super(threadGroup, "randoop.util.RunnerThread");
+    super(threadGroup, "randoop.util.RunnerThread-" + threadsCreated.getAndIncrement());
     this.code = null;
-    this.runFinished = false;
-    this.state = NextCallMustBe.SETUP;
+    this.state = State.IDLE;
+    this.setDaemon(true);
     this.setUncaughtExceptionHandler(RandoopUncaughtRunnerThreadExceptionHandler.getHandler());
   }
 
-  public void setup(ReflectionCode code) {
-    if (state != NextCallMustBe.SETUP) throw new IllegalStateException();
-    if (code == null) throw new IllegalArgumentException("code cannot be null.");
+  /**
+   * Returns an idle runner thread from the pool, or a newly started one if the pool is empty.
+   *
+   * @return an idle, started runner thread
+   */
+  static RunnerThread acquire() {
+    RunnerThread runnerThread;
+    synchronized (idleThreads) {
+      runnerThread = idleThreads.pollFirst();
+    }
+    if (runnerThread == null) {
+      runnerThread = new RunnerThread(null);
+      runnerThread.start();
+    }
+    return runnerThread;
+  }
+
+  /**
+   * Returns this thread to the pool of idle runner threads. Must be called only after {@link
+   * #execute} returned true.
+   */
+  void release() {
+    synchronized (this) {
+      if (state != State.IDLE) {
+        throw new IllegalStateException("Cannot release runner thread in state " + state);
+      }
+    }
+    synchronized (idleThreads) {
+      idleThreads.addFirst(this);
+    }
+  }
+
+  /**
+   * Runs the given code on this thread, and waits until it finishes or until this thread is killed
+   * by {@link #kill}.
+   *
+   * @param code the code to run
+   * @return true if the code finished, false if this thread was killed
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   * @throws ReflectionCode.ReflectionCodeException if running the code revealed a bug in Randoop
+   */
+  synchronized boolean execute(ReflectionCode code) throws InterruptedException {
+    if (state != State.IDLE) {
+      throw new IllegalStateException("Cannot execute in runner thread in state " + state);
+    }
+    if (code == null) {
+      throw new IllegalArgumentException("code cannot be null.");
+    }
     this.code = code;
-    this.state = NextCallMustBe.RUN;
+    this.bug = null;
+    this.state = State.RUNNING;
+    notifyAll();
+    while (state == State.RUNNING) {
+      wait();
+    }
+    if (state == State.KILLED) {
+      return false;
+    }
+    state = State.IDLE;
+    if (bug != null) {
+      throw bug;
+    }
+    return true;
   }
 
-  @Override
-  public final void run() {
-    if (state != NextCallMustBe.RUN) throw new IllegalStateException();
-    runFinished = false;
-    executeReflectionCode();
-    runFinished = true;
-    this.state = NextCallMustBe.SETUP;
+  /**
+   * Kills this thread if it is still running the given code. Called by the watchdog when a call
+   * exceeds its timeout. A killed thread is never reused.
+   *
+   * @param code the code that was submitted to this thread
+   * @return true if this thread was killed
+   */
+  @SuppressWarnings({"deprecation", "removal", "DeprecatedThreadMethods"})
+  synchronized boolean kill(ReflectionCode code) {
+    if (state != State.RUNNING || this.code != code) {
+      return false;
+    }
+    state = State.KILLED;
+    notifyAll();
+    // We use this deprecated method because it's the only way to
+    // stop a thread no matter what it's doing.
+    stop();
+    return true;
   }
 
-  private void executeReflectionCode() throws ReflectionCode.ReflectionCodeException {
-    code.runReflectionCode();
+  @Override
+  public final void run() {
+    while (true) {
+      ReflectionCode current;
+      synchronized (this) {
+        while (state != State.RUNNING) {
+          if (state == State.KILLED) {
+            return;
+          }
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            // Nobody but the watchdog should touch this thread; keep waiting.
+          }
+        }
+        current = code;
+      }
+      ReflectionCode.ReflectionCodeException thrown = null;
+      try {
+        current.runReflectionCode();
+      } catch (ReflectionCode.ReflectionCodeException e) {
+        thrown = e;
+      }
+      synchronized (this) {
+        if (state != State.RUNNING) {
+          // Killed while running the code under test, which swallowed the ThreadDeath.
+          return;
+        }
+        bug = thrown;
+        state = State.FINISHED;
+        notifyAll();
+      }
+    }
   }
 
   /**
@@ -0,0 +1,227 @@
+package randoop.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable list whose elements are stored in a flat array, so that {@link #get(int)} takes
+ * constant time no matter how the list was built.
+ *
+ * <p>Lists created by {@link #append} share their backing array with the list they extend: the new
+ * element is written into the first unused slot of the array, and the new list simply records a
+ * larger size. Only one list can claim a given slot, so when a list is extended a second time (or
+ * its array is full), the elements are copied into a new, larger array. Appending therefore takes
+ * amortized constant time and space, like {@link OneMoreElementList}. {@link #concatenate} copies
+ * the elements of its constituent lists once, leaving room for one more element, because a
+ * concatenated list is usually extended right away.
+ *
+ * <p>Each list also remembers how it was built, so that {@link #getSublist(int)} returns the same
+ * sublists as {@link OneMoreElementList} and {@link ListOfLists} would.
+ *
+ * <p>This class is thread-safe: slots are claimed atomically, and a list never reads a slot beyond
+ * its own size.
+ *
+ * @param <E> the type of elements of the list
+ */
+public final class SharedArrayList<E> implements SimpleList<E>, Serializable {
+
+  private static final long serialVersionUID = 20240601L;
+
+  /** The empty list. */
+  @SuppressWarnings("rawtypes")
+  private static final SharedArrayList EMPTY =
+      new SharedArrayList<>(new Object[0], 0, new AtomicInteger(0), null, null, null);
+
+  /** The backing array; only the first {@link #size} elements belong to this list. */
+  private final Object[] elements;
+
+  /** The number of elements in this list. */
+  private final int size;
+
+  /**
+   * The number of slots of {@link #elements} that have been claimed by some list. Shared by all
+   * lists that use the same backing array.
+   */
+  private final AtomicInteger claimed;
+
+  /**
+   * The list that this list extends by one element, or null if this list was not created by {@link
+   * #append}.
+   */
+  private final @Nullable SimpleList<E> prefix;
+
+  /**
+   * The lists that were concatenated to form this list, or null if this list was not created by
+   * {@link #concatenate}.
+   */
+  @SuppressWarnings("serial") // TODO: use a serializable type.
+  private final @Nullable List<SimpleList<E>> parts;
+
+  /** The cumulative sizes of {@link #parts}, or null if {@link #parts} is null. */
+  private final int @Nullable [] partEnds;
+
+  /**
+   * Creates a new list. Does not copy the backing array.
+   *
+   * @param elements the backing array
+   * @param size the number of elements in the list
+   * @param claimed the number of claimed slots of {@code elements}
+   * @param prefix the list that this list extends by one element, or null
+   * @param parts the lists that were concatenated to form this list, or null
+   * @param partEnds the cumulative sizes of {@code parts}, or null
+   */
+  private SharedArrayList(
+      Object[] elements,
+      int size,
+      AtomicInteger claimed,
+      @Nullable SimpleList<E> prefix,
+      @Nullable List<SimpleList<E>> parts,
+      int @Nullable [] partEnds) {
+    this.elements = elements;
+    this.size = size;
+    this.claimed = claimed;
+    this.prefix = prefix;
+    this.parts = parts;
+    this.partEnds = partEnds;
+  }
+
+  /**
+   * Returns the empty list.
+   *
+   * @param <E> the type of elements of the list
+   * @return the empty list
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> SharedArrayList<E> empty() {
+    return (SharedArrayList<E>) EMPTY;
+  }
+
+  /**
+   * Returns a list that contains the elements of the given list followed by the given element.
+   *
+   * @param <E> the type of elements of the list
+   * @param list the list to extend
+   * @param element the element to add
+   * @return a list containing the elements of {@code list} and then {@code element}
+   */
+  public static <E> SharedArrayList<E> append(SimpleList<E> list, E element) {
+    if (list instanceof SharedArrayList) {
+      SharedArrayList<E> shared = (SharedArrayList<E>) list;
+      int size = shared.size;
+      if (size < shared.elements.length && shared.claimed.compareAndSet(size, size + 1)) {
+        shared.elements[size] = element;
+        return new SharedArrayList<>(shared.elements, size + 1, shared.claimed, list, null, null);
+      }
+    }
+    int size = list.size();
+    Object[] elements = new Object[size + 1 + (size >> 1)];
+    copyInto(list, elements, 0);
+    elements[size] = element;
+    return new SharedArrayList<>(
+        elements, size + 1, new AtomicInteger(size + 1), list, null, null);
+  }
+
+  /**
+   * Returns a list that contains the elements of the given lists, in order.
+   *
+   * @param <E> the type of elements of the list
+   * @param lists the lists to concatenate
+   * @return the concatenation of the lists
+   */
+  public static <E> SharedArrayList<E> concatenate(List<SimpleList<E>> lists) {
+    if (lists.size() == 1 && lists.get(0) instanceof SharedArrayList) {
+      return (SharedArrayList<E>) lists.get(0);
+    }
+    int[] partEnds = new int[lists.size()];
+    int size = 0;
+    for (int i = 0; i < partEnds.length; i++) {
+      SimpleList<E> l = lists.get(i);
+      if (l == null) {
+        throw new IllegalArgumentException("All lists should be non-null");
+      }
+      size += l.size();
+      partEnds[i] = size;
+    }
+    if (size == 0) {
+      return empty();
+    }
+    Object[] elements = new Object[size + 1];
+    for (int i = 0; i < partEnds.length; i++) {
+      copyInto(lists.get(i), elements, i == 0 ? 0 : partEnds[i - 1]);
+    }
+    return new SharedArrayList<>(
+        elements, size, new AtomicInteger(size), null, new ArrayList<>(lists), partEnds);
+  }
+
+  /**
+   * Copies the elements of the given list into the given array.
+   *
+   * @param list the list to copy
+   * @param dest the array to copy into
+   * @param offset the position in {@code dest} for the first element of {@code list}
+   */
+  private static void copyInto(SimpleList<?> list, Object[] dest, int offset) {
+    if (list instanceof SharedArrayList) {
+      SharedArrayList<?> shared = (SharedArrayList<?>) list;
+      System.arraycopy(shared.elements, 0, dest, offset, shared.size);
+    } else {
+      for (int i = 0; i < list.size(); i++) { // SimpleList has no iterator
+        dest[offset + i] = list.get(i);
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such element: " + index);
+    }
+    return (E) elements[index];
+  }
+
+  @Override
+  public SimpleList<E> getSublist(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No such index: " + index);
+    }
+    if (prefix != null) {
+      return index == size - 1 ? this : prefix.getSublist(index);
+    }
+    if (parts != null && partEnds != null) {
+      int previousListSize = 0;
+      for (int i = 0; i < partEnds.length; i++) {
+        if (index < partEnds[i]) {
+          return parts.get(i).getSublist(index - previousListSize);
+        }
+        previousListSize = partEnds[i];
+      }
+    }
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<E> toJDKList() {
+    return new ArrayList<>((List<E>) Arrays.asList(elements).subList(0, size));
+  }
+
+  @Override
+  public String toString() {
+    return toJDKList().toString();
+  }
+}
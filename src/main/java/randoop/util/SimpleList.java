@@ -10,6 +10,8 @@ import java.util.List;
  *   <li>{@link SimpleArrayList}: a typical list is stored as an array list.
  *   <li>{@link ListOfLists}: a list that only stores pointers to its constituent sub-lists.
  *   <li>{@link OneMoreElementList}: stores a SimpleList plus one additional final element.
+ *   <li>{@link SharedArrayList}: a flat array that is shared with the lists it is appended to.
+ *   <li>{@link PrefixedList}: a fixed list followed by a list that may grow.
  * </ul>
  *
  * <p>IMPLEMENTATION NOTE
@@ -29,6 +31,13 @@ import java.util.List;
  * <p>When extending a Sequence with a new statement, we store the old sequence's statements plus
  * the new statement in a {@code OneMoreElementList}, which takes up only 2 references in memory
  * (and constant creation time).
+ *
+ * <p>Both representations make indexing slow: {@code get(i)} walks down the nesting of lists, which
+ * grows with every concatenation and extension. Sequences are indexed far more often than they are
+ * created, so {@link randoop.sequence.Sequence} now stores its statements in a {@link
+ * SharedArrayList}. Concatenation copies the statements once, and extension writes the new
+ * statement into spare room in the shared array, so it still takes constant amortized time and
+ * space.
  */
 public interface SimpleList<E> {
 
@@ -0,0 +1,208 @@
+package randoop.util;
+
+import java.util.Arrays;
+import randoop.main.RandoopBug;
+
+/**
+ * A list of non-negative {@code double} weights, from which an index can be drawn with probability
+ * proportional to its weight. Each element keeps the index it was added at. Adding an element,
+ * changing a weight, computing the total weight, and finding the element at a point all take time
+ * O(log n); see {@link Randomness#randomIndexWeighted}.
+ *
+ * <p>The weights are stored in a Fenwick tree (binary indexed tree): element {@code i} of {@link
+ * #tree}, counting from 1, holds the sum of the {@code i & -i} weights ending at weight {@code
+ * i-1}.
+ *
+ * <p>This class is not thread-safe.
+ */
+public final class WeightedSampler {
+
+  /** The weight of each element. Only the first {@link #size} are used. */
+  private double[] weights;
+
+  /** The Fenwick tree of partial sums of {@link #weights}. Element 0 is unused. */
+  private double[] tree;
+
+  /** The number of elements. */
+  private int size = 0;
+
+  /** Create an empty sampler. */
+  public WeightedSampler() {
+    this(16);
+  }
+
+  /**
+   * Create an empty sampler that can hold the given number of elements without resizing.
+   *
+   * @param expectedSize the expected number of elements
+   */
+  public WeightedSampler(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expectedSize must be non-negative: " + expectedSize);
+    }
+    int capacity = Math.max(expectedSize, 1);
+    this.weights = new double[capacity];
+    this.tree = new double[capacity + 1];
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds an element with the given weight.
+   *
+   * @param weight the weight of the new element; must be non-negative
+   * @return the index of the new element
+   */
+  public int add(double weight) {
+    checkWeight(weight);
+    if (size == weights.length) {
+      weights = Arrays.copyOf(weights, 2 * size);
+      tree = Arrays.copyOf(tree, 2 * size + 1);
+    }
+    int index = size++;
+    weights[index] = weight;
+    // The new node covers its own weight and those of its children in the tree.
+    int node = index + 1;
+    double sum = weight;
+    for (int child = 1; child < (node & -node); child <<= 1) {
+      sum += tree[node - child];
+    }
+    tree[node] = sum;
+    return index;
+  }
+
+  /**
+   * Returns the weight of the given element.
+   *
+   * @param index the index of an element
+   * @return the weight of the element
+   */
+  public double get(int index) {
+    checkIndex(index);
+    return weights[index];
+  }
+
+  /**
+   * Sets the weight of the given element.
+   *
+   * @param index the index of an element
+   * @param weight the new weight of the element; must be non-negative
+   */
+  public void set(int index, double weight) {
+    checkIndex(index);
+    checkWeight(weight);
+    double delta = weight - weights[index];
+    weights[index] = weight;
+    for (int node = index + 1; node <= size; node += node & -node) {
+      tree[node] += delta;
+    }
+  }
+
+  /**
+   * Replaces all the elements. This also discards any round-off error accumulated by {@link #set}.
+   * Takes time O(n).
+   *
+   * @param newWeights the weights of the elements; each must be non-negative
+   */
+  public void setAll(double[] newWeights) {
+    for (double weight : newWeights) {
+      checkWeight(weight);
+    }
+    if (newWeights.length > weights.length) {
+      weights = new double[newWeights.length];
+      tree = new double[newWeights.length + 1];
+    }
+    size = newWeights.length;
+    System.arraycopy(newWeights, 0, weights, 0, size);
+    System.arraycopy(newWeights, 0, tree, 1, size);
+    for (int node = 1; node <= size; node++) {
+      int parent = node + (node & -node);
+      if (parent <= size) {
+        tree[parent] += tree[node];
+      }
+    }
+  }
+
+  /** Removes all the elements. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Returns the sum of the weights of all the elements.
+   *
+   * @return the total weight
+   */
+  public double totalWeight() {
+    double sum = 0;
+    for (int node = size; node > 0; node -= node & -node) {
+      sum += tree[node];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the element at the given point, when the elements are laid out in order as intervals
+   * whose lengths are their weights. That is, returns the smallest index {@code i} such that the
+   * sum of the weights of elements 0 through {@code i} is greater than {@code point}. An element
+   * whose weight is zero is never returned.
+   *
+   * @param point a point in [0, {@link #totalWeight()})
+   * @return the index of the element at the point
+   */
+  public int find(double point) {
+    int node = 0;
+    double remaining = point;
+    for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+      int next = node + step;
+      if (next <= size && tree[next] <= remaining) {
+        node = next;
+        remaining -= tree[next];
+      }
+    }
+    if (node < size) {
+      return node;
+    }
+    // Round-off error put the point past the end; use the last element that can be chosen.
+    for (int index = size - 1; index >= 0; index--) {
+      if (weights[index] > 0) {
+        return index;
+      }
+    }
+    throw new RandoopBug("Unable to select random member: all weights are zero");
+  }
+
+  /**
+   * Checks that the given index is the index of an element.
+   *
+   * @param index an index
+   */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+    }
+  }
+
+  /**
+   * Checks that the given weight is non-negative.
+   *
+   * @param weight a weight
+   */
+  private static void checkWeight(double weight) {
+    if (!(weight >= 0)) {
+      throw new RandoopBug("Weight should be non-negative: " + weight);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WeightedSampler of size " + size;
+  }
+}
@@ -0,0 +1,115 @@
+package randoop;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import randoop.types.ArrayType;
+import randoop.types.GenericClassType;
+import randoop.types.JavaTypes;
+import randoop.types.NonParameterizedType;
+import randoop.types.Type;
+
+public class SubTypeSetTest {
+
+  /** Types to add to the set and to query, in an order that mixes adds and first queries. */
+  private static final List<Type> TYPES;
+
+  static {
+    GenericClassType listType = GenericClassType.forClass(List.class);
+    GenericClassType arrayListType = GenericClassType.forClass(ArrayList.class);
+    TYPES =
+        Arrays.asList(
+            JavaTypes.INT_TYPE,
+            JavaTypes.OBJECT_TYPE,
+            Type.forClass(Integer.class),
+            Type.forClass(long.class),
+            Type.forClass(Number.class),
+            Type.forClass(Serializable.class),
+            JavaTypes.STRING_TYPE,
+            Type.forClass(CharSequence.class),
+            Type.forClass(int[].class),
+            Type.forClass(Object[].class),
+            Type.forClass(String[][].class),
+            Type.forClass(Object[][].class),
+            Type.forClass(Cloneable.class),
+            NonParameterizedType.forClass(Collection.class),
+            NonParameterizedType.forClass(ArrayList.class),
+            listType.instantiate(JavaTypes.STRING_TYPE),
+            arrayListType.instantiate(JavaTypes.STRING_TYPE),
+            arrayListType.instantiate(NonParameterizedType.forClass(Integer.class)),
+            ArrayType.ofComponentType(arrayListType.instantiate(JavaTypes.STRING_TYPE)),
+            listType.instantiate(listType.getTypeParameters().get(0)));
+  }
+
+  @Test
+  public void testMatches() {
+    SubTypeSet set = new SubTypeSet(false);
+    List<Type> added = new ArrayList<>();
+    for (Type type : TYPES) {
+      set.add(type);
+      added.add(type);
+      // Query every other type before the next add, so that later adds update existing queries.
+      for (int i = 0; i < TYPES.size(); i += 2) {
+        assertEquals(expectedMatches(TYPES.get(i), added), set.getMatches(TYPES.get(i)));
+      }
+    }
+    for (Type query : TYPES) {
+      assertEquals(expectedMatches(query, added), set.getMatches(query));
+    }
+    for (Type type : TYPES) {
+      Set<Type> matchedQueryTypes = new HashSet<>();
+      for (Type query : TYPES) {
+        if (query.isAssignableFrom(type)) {
+          matchedQueryTypes.add(query);
+        }
+      }
+      assertEquals(matchedQueryTypes, set.getMatchedQueryTypes(type));
+    }
+  }
+
+  @Test
+  public void testCheckpoints() {
+    SubTypeSet set = new SubTypeSet(true);
+    List<Type> firstHalf = TYPES.subList(0, TYPES.size() / 2);
+    for (Type type : firstHalf) {
+      set.add(type);
+    }
+    set.getMatches(JavaTypes.OBJECT_TYPE);
+    set.mark();
+    for (Type type : TYPES) {
+      set.add(type);
+      set.getMatches(type);
+    }
+    assertEquals(
+        expectedMatches(JavaTypes.OBJECT_TYPE, TYPES), set.getMatches(JavaTypes.OBJECT_TYPE));
+    set.undoLastStep();
+    assertEquals(firstHalf.size(), set.size());
+    for (Type query : TYPES) {
+      assertEquals(expectedMatches(query, firstHalf), set.getMatches(query));
+    }
+  }
+
+  /**
+   * Returns the types that can be used as the query type.
+   *
+   * @param query the query type
+   * @param types the types in the set
+   * @return the types that are assignable to the query type
+   */
+  private static Set<Type> expectedMatches(Type query, List<Type> types) {
+    Set<Type> result = new HashSet<>();
+    for (Type type : types) {
+      if (query.isAssignableFrom(type)) {
+        result.add(type);
+      }
+    }
+    return result;
+  }
+}
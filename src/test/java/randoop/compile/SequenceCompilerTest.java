@@ -6,6 +6,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
@@ -27,6 +29,8 @@ import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import javax.tools.Diagnostic;
@@ -73,6 +77,34 @@ public class SequenceCompilerTest {
     }
   }
 
+  @Test
+  public void sharedClassLoaderTest() throws SequenceCompilerException {
+    SequenceCompiler compiler = getSequenceCompiler();
+    Class<?> first =
+        compiler.compileAndLoad("foo", "First", "package foo; public class First {}");
+    Class<?> second =
+        compiler.compileAndLoad("foo", "Second", "package foo; public class Second {}");
+    assertEquals("foo.First", first.getName());
+    assertEquals("foo.Second", second.getName());
+    assertSame(first.getClassLoader(), second.getClassLoader());
+    assertFalse("class file was written", Files.exists(Paths.get("foo", "First.class")));
+  }
+
+  @Test
+  public void classNameCollisionTest() throws SequenceCompilerException {
+    SequenceCompiler compiler = getSequenceCompiler();
+    String source = "package foo; public class Same { public int f() { return 1; } }";
+    Class<?> first = compiler.compileAndLoad("foo", "Same", source);
+    assertSame(first, compiler.compileAndLoad("foo", "Same", source));
+    try {
+      compiler.compileAndLoad(
+          "foo", "Same", "package foo; public class Same { public int f() { return 2; } }");
+      fail("loaded a different class of the same name");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   private String createCompilableClass() {
     CompilationUnit compilationUnit = new CompilationUnit();
     ClassOrInterfaceDeclaration classDeclaration =
@@ -0,0 +1,170 @@
+package randoop.condition;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Test;
+import randoop.compile.SequenceCompiler;
+import randoop.main.GenInputsAbstract;
+import randoop.reflection.RawSignature;
+
+public class BatchExpressionCompilerTest {
+
+  private static final RawSignature SIGNATURE =
+      new RawSignature("randoop.condition", "Ignored", "ignored", new Class<?>[] {String.class});
+
+  @Test
+  public void testOneClass() throws Exception {
+    try (SequenceCompiler compiler = new SequenceCompiler()) {
+      BatchExpressionCompiler batch = new BatchExpressionCompiler(compiler);
+      batch.add(SIGNATURE, "(String s)", "s.isEmpty()");
+      batch.add(SIGNATURE, "(String s)", "s.length() > 2");
+      batch.compile();
+      Method isEmpty = batch.getMethod(SIGNATURE, "(String s)", "s.isEmpty()");
+      Method isLong = batch.getMethod(SIGNATURE, "(String s)", "s.length() > 2");
+      assertNotNull(isEmpty);
+      assertNotNull(isLong);
+      assertSame(isEmpty.getDeclaringClass(), isLong.getDeclaringClass());
+      assertEquals(true, isEmpty.invoke(null, ""));
+      assertEquals(false, isLong.invoke(null, "ab"));
+    }
+  }
+
+  @Test
+  public void testUncompilable() throws IOException {
+    try (SequenceCompiler compiler = new SequenceCompiler()) {
+      BatchExpressionCompiler batch = new BatchExpressionCompiler(compiler);
+      batch.add(SIGNATURE, "(String s)", "s.isEmpty()");
+      batch.add(SIGNATURE, "(String s)", "s.length()");
+      batch.compile();
+      // The caller compiles each expression on its own.
+      assertNull(batch.getMethod(SIGNATURE, "(String s)", "s.isEmpty()"));
+      assertNull(batch.getMethod(SIGNATURE, "(String s)", "s.length()"));
+    }
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    Path cacheDir = Files.createTempDirectory("condition-cache");
+    Path oldCacheDir = GenInputsAbstract.condition_cache_dir;
+    GenInputsAbstract.condition_cache_dir = cacheDir;
+    try {
+      try (SequenceCompiler compiler = new SequenceCompiler()) {
+        BatchExpressionCompiler batch = new BatchExpressionCompiler(compiler);
+        batch.add(SIGNATURE, "(String s)", "s.startsWith(\"a\")");
+        batch.compile();
+      }
+      assertEquals(1, countFiles(cacheDir));
+
+      try (SequenceCompiler compiler = new SequenceCompiler()) {
+        BatchExpressionCompiler batch = new BatchExpressionCompiler(compiler);
+        batch.add(SIGNATURE, "(String s)", "s.startsWith(\"a\")");
+        batch.compile();
+        Method method = batch.getMethod(SIGNATURE, "(String s)", "s.startsWith(\"a\")");
+        assertNotNull(method);
+        assertTrue((Boolean) method.invoke(null, "abc"));
+        assertFalse((Boolean) method.invoke(null, "bc"));
+      }
+      assertEquals(1, countFiles(cacheDir));
+    } finally {
+      GenInputsAbstract.condition_cache_dir = oldCacheDir;
+      try (Stream<Path> files = Files.list(cacheDir)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(cacheDir);
+    }
+  }
+
+  @Test
+  public void testMalformedCache() throws Exception {
+    Path cacheDir = Files.createTempDirectory("condition-cache");
+    Path oldCacheDir = GenInputsAbstract.condition_cache_dir;
+    GenInputsAbstract.condition_cache_dir = cacheDir;
+    try {
+      compileStartsWith();
+      Path cacheFile;
+      try (Stream<Path> files = Files.list(cacheDir)) {
+        cacheFile = files.findFirst().get();
+      }
+      byte[] original = Files.readAllBytes(cacheFile);
+
+      List<byte[]> malformed =
+          Arrays.asList(
+              new byte[0],
+              cacheFile(-1, "C", 0),
+              cacheFile(Integer.MAX_VALUE, "C", 0),
+              cacheFile(1, "C", -1),
+              cacheFile(1, "C", Integer.MAX_VALUE),
+              cacheFile(1, "C", 4),
+              Arrays.copyOf(original, original.length - 1),
+              Arrays.copyOf(original, original.length + 1));
+      for (byte[] contents : malformed) {
+        Files.write(cacheFile, contents);
+        // The file is ignored, and replaced by a valid one.
+        compileStartsWith();
+        assertArrayEquals(original, Files.readAllBytes(cacheFile));
+      }
+    } finally {
+      GenInputsAbstract.condition_cache_dir = oldCacheDir;
+      try (Stream<Path> files = Files.list(cacheDir)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.delete(file);
+        }
+      }
+      Files.delete(cacheDir);
+    }
+  }
+
+  /** Compiles an expression, and checks that the compiled method works. */
+  private static void compileStartsWith() throws Exception {
+    try (SequenceCompiler compiler = new SequenceCompiler()) {
+      BatchExpressionCompiler batch = new BatchExpressionCompiler(compiler);
+      batch.add(SIGNATURE, "(String s)", "s.startsWith(\"a\")");
+      batch.compile();
+      Method method = batch.getMethod(SIGNATURE, "(String s)", "s.startsWith(\"a\")");
+      assertNotNull(method);
+      assertTrue((Boolean) method.invoke(null, "abc"));
+    }
+  }
+
+  /**
+   * Returns the contents of a cache file with the given header, followed by 4 zero bytes.
+   *
+   * @param count the number of classes
+   * @param name the name of the first class
+   * @param length the length of the first class file
+   * @return the contents of the cache file
+   */
+  private static byte[] cacheFile(int count, String name, int length) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(count);
+      out.writeUTF(name);
+      out.writeInt(length);
+      out.writeInt(0);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static long countFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+}
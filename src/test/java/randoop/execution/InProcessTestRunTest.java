@@ -0,0 +1,58 @@
+package randoop.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import randoop.compile.SequenceCompiler;
+import randoop.compile.SequenceCompilerException;
+
+/** Tests for {@link TestEnvironment#runTestInProcess}. */
+public class InProcessTestRunTest {
+
+  /** A test class with a passing test, and a failing assertion on line 10. */
+  private static final String SOURCE =
+      String.join(
+          "\n",
+          "import org.junit.Assert;",
+          "import org.junit.Test;",
+          "public class InProcessSample {",
+          "  @Test",
+          "  public void test1() {",
+          "    Assert.assertEquals(1, 1);",
+          "  }",
+          "  @Test",
+          "  public void test2() {",
+          "    Assert.assertEquals(1, 2);",
+          "  }",
+          "}");
+
+  private static List<TestFailure> run(String source)
+      throws IOException, SequenceCompilerException, RunCommand.CommandException {
+    Map<String, byte[]> classFiles;
+    try (SequenceCompiler compiler = new SequenceCompiler()) {
+      classFiles = compiler.compileToMemory(null, "InProcessSample", source);
+    }
+    TestEnvironment environment = new TestEnvironment(System.getProperty("java.class.path"));
+    assertTrue(environment.canRunInProcess());
+    return environment.runTestInProcess("InProcessSample", classFiles);
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    List<TestFailure> failures = run(SOURCE);
+    assertEquals(1, failures.size());
+    TestFailure failure = failures.get(0);
+    assertEquals("test2", failure.methodName);
+    assertEquals(10, failure.getLineNumber("InProcessSample"));
+  }
+
+  @Test
+  public void testPassing() throws Exception {
+    List<TestFailure> failures = run(SOURCE.replace("assertEquals(1, 2)", "assertEquals(2, 2)"));
+    assertEquals(0, failures.size());
+  }
+}
@@ -0,0 +1,149 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.main.GenInputsAbstract.BloodhoundCoverageUpdateMode;
+import randoop.operation.TypedOperation;
+import randoop.util.Randomness;
+
+public class BloodhoundTest {
+
+  /** The number of successful invocations after which Bloodhound updates its weights. */
+  private static final int UPDATE_INTERVAL = 100;
+
+  private List<TypedOperation> operations;
+
+  private boolean savedBackgroundUpdate;
+  private BloodhoundCoverageUpdateMode savedUpdateMode;
+  private boolean savedDeterministic;
+
+  @Before
+  public void setUp() throws NoSuchMethodException {
+    // Methods of classes that are not under test, which have no coverage information.
+    operations =
+        Arrays.asList(
+            TypedOperation.forMethod(String.class.getMethod("length")),
+            TypedOperation.forMethod(String.class.getMethod("isEmpty")),
+            TypedOperation.forMethod(String.class.getMethod("trim")));
+    savedBackgroundUpdate = GenInputsAbstract.bloodhound_background_update;
+    savedUpdateMode = GenInputsAbstract.bloodhound_update_mode;
+    savedDeterministic = GenInputsAbstract.deterministic;
+    GenInputsAbstract.bloodhound_background_update = true;
+    GenInputsAbstract.bloodhound_update_mode = BloodhoundCoverageUpdateMode.INVOCATIONS;
+    Randomness.setSeed(0);
+  }
+
+  @After
+  public void tearDown() {
+    GenInputsAbstract.bloodhound_background_update = savedBackgroundUpdate;
+    GenInputsAbstract.bloodhound_update_mode = savedUpdateMode;
+    GenInputsAbstract.deterministic = savedDeterministic;
+  }
+
+  @Test
+  public void testBackgroundUpdate() {
+    GenInputsAbstract.deterministic = false;
+    Bloodhound bloodhound = new Bloodhound(operations, new NoCoverageTracker());
+    try {
+      Map<TypedOperation, Integer> counts = new HashMap<>();
+      for (int round = 0; round < 3; round++) {
+        invokeUntilUpdate(bloodhound, operations.get(round), counts);
+        // The update starts in the background; its weights are applied once they are ready.
+        TypedOperation selected = bloodhound.selectOperation();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (bloodhound.numSnapshotsApplied() == round) {
+          assertTrue("timed out", System.currentTimeMillis() < deadline);
+          Thread.yield();
+          selected = bloodhound.selectOperation();
+        }
+        assertEquals(round + 1, bloodhound.numSnapshotsApplied());
+        assertWeights(bloodhound, counts, selected);
+      }
+    } finally {
+      bloodhound.generationFinished();
+    }
+  }
+
+  @Test
+  public void testBackgroundUpdateDeterministic() {
+    GenInputsAbstract.deterministic = true;
+    Bloodhound bloodhound = new Bloodhound(operations, new NoCoverageTracker());
+    try {
+      Map<TypedOperation, Integer> counts = new HashMap<>();
+      Map<TypedOperation, Integer> previousCounts = null;
+      for (int round = 0; round < 4; round++) {
+        invokeUntilUpdate(bloodhound, operations.get(round % operations.size()), counts);
+        // Each update applies the weights computed from the coverage at the previous update.
+        TypedOperation selected = bloodhound.selectOperation();
+        assertEquals(round, bloodhound.numSnapshotsApplied());
+        if (previousCounts != null) {
+          assertWeights(bloodhound, previousCounts, selected);
+        }
+        previousCounts = new HashMap<>(counts);
+      }
+    } finally {
+      bloodhound.generationFinished();
+    }
+  }
+
+  /**
+   * Records successful invocations of the given operation, so that Bloodhound updates its weights
+   * at its next selection.
+   *
+   * @param bloodhound the selector
+   * @param operation the operation that was invoked
+   * @param counts the number of successful invocations of each operation, updated by this method
+   */
+  private static void invokeUntilUpdate(
+      Bloodhound bloodhound, TypedOperation operation, Map<TypedOperation, Integer> counts) {
+    // After an update, Bloodhound's count of invocations restarts at 1.
+    for (int i = 1; i < UPDATE_INTERVAL; i++) {
+      bloodhound.incrementSuccessfulInvocationCount(operation);
+      counts.merge(operation, 1, Integer::sum);
+    }
+  }
+
+  /**
+   * Checks that the weights of the operations, other than the one selected after the weights were
+   * applied, are the weights computed from the given invocation counts.
+   *
+   * @param bloodhound the selector
+   * @param counts the invocation counts when the coverage was collected
+   * @param selected the operation whose weight was changed by a selection
+   */
+  private void assertWeights(
+      Bloodhound bloodhound, Map<TypedOperation, Integer> counts, TypedOperation selected) {
+    int maxSucc = Math.max(1, Collections.max(counts.values()));
+    for (TypedOperation operation : operations) {
+      if (operation.equals(selected)) {
+        continue;
+      }
+      // The GRT formula, with alpha = 0.9 and the default uncovered ratio of 0.5.
+      double expected =
+          0.9 * 0.5 + 0.1 * (1.0 - (double) counts.getOrDefault(operation, 0) / maxSucc);
+      assertEquals(operation.toString(), expected, bloodhound.getWeight(operation), 1e-9);
+    }
+  }
+
+  /** A coverage tracker for no classes, which does not need the Jacoco agent. */
+  private static class NoCoverageTracker extends CoverageTracker {
+    NoCoverageTracker() {
+      super(Collections.emptySet());
+    }
+
+    @Override
+    public byte[] readExecutionData() {
+      return new byte[0];
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import randoop.sequence.Sequence;
+import randoop.util.Randomness;
+
+/** Tests for {@link CheckpointOutput} and {@link CheckpointInput}. */
+public class CheckpointStreamTest {
+
+  @Test
+  public void testSequencesAndPrimitives() throws IOException {
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence hello = Sequence.createSequenceForPrimitive("hello");
+    Sequence pair = Sequence.concatenate(Arrays.asList(one, hello));
+    pair.clearActiveFlag(0);
+    List<Object> primitives = Arrays.<Object>asList(true, (byte) 2, 'c', 3L, 4.5, "a\nb", 1 << 20);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CheckpointOutput out = new CheckpointOutput(bytes)) {
+      out.writeSequence(pair);
+      out.writeSequence(one);
+      out.writeSequence(pair);
+      for (Object value : primitives) {
+        out.writePrimitive(value);
+      }
+      out.writeVarInt(Integer.MAX_VALUE);
+    }
+
+    try (CheckpointInput in = new CheckpointInput(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Sequence pairCopy = in.readSequence();
+      assertEquals(pair, pairCopy);
+      assertEquals(pair.fingerprint(), pairCopy.fingerprint());
+      assertFalse(pairCopy.isActive(0));
+      assertTrue(pairCopy.isActive(1));
+      assertEquals(one, in.readSequence());
+      assertSame(pairCopy, in.readSequence());
+      for (Object value : primitives) {
+        assertEquals(value, in.readPrimitive());
+      }
+      assertEquals(Integer.MAX_VALUE, in.readVarInt());
+    }
+  }
+
+  @Test
+  public void testRandomState() throws IOException {
+    Randomness.setSeed(42);
+    Randomness.nextRandomInt(100);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CheckpointOutput out = new CheckpointOutput(bytes)) {
+      Randomness.writeState(out);
+    }
+    int[] expected = new int[10];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = Randomness.nextRandomInt(1000);
+    }
+
+    Randomness.setSeed(0);
+    try (CheckpointInput in = new CheckpointInput(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Randomness.readState(in);
+    }
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], Randomness.nextRandomInt(1000));
+    }
+    Randomness.setSeed(0);
+  }
+}
@@ -0,0 +1,159 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.Test;
+import randoop.types.ClassOrInterfaceType;
+
+/**
+ * Tests that the incremental updates of {@link CoverageTracker} give the same coverage as analyzing
+ * all the classes. The classes under test are instrumented by Jacoco within the test, so that the
+ * Jacoco agent is not needed.
+ */
+public class CoverageTrackerTest {
+
+  /** A class under test. */
+  public static class Branches {
+    public static int sign(int x) {
+      if (x < 0) {
+        return -1;
+      } else if (x > 0) {
+        return 1;
+      }
+      return 0;
+    }
+
+    public static boolean isEmpty(String s) {
+      return s == null || s.isEmpty();
+    }
+  }
+
+  /** Another class under test. */
+  public static class OtherBranches {
+    public static int max(int x, int y) {
+      return x > y ? x : y;
+    }
+  }
+
+  @Test
+  public void testIncrementalUpdate() throws Exception {
+    Set<ClassOrInterfaceType> classes = new HashSet<>();
+    for (Class<?> c : Arrays.asList(Branches.class, OtherBranches.class)) {
+      classes.add(ClassOrInterfaceType.forClass(c));
+    }
+    CoverageTracker incremental = new CoverageTracker(classes);
+
+    IRuntime runtime = new LoggerRuntime();
+    RuntimeData data = new RuntimeData();
+    runtime.startup(data);
+    try {
+      InstrumentedClassLoader loader = new InstrumentedClassLoader(runtime);
+      Class<?> branches = loader.loadClass(Branches.class.getName());
+      Class<?> otherBranches = loader.loadClass(OtherBranches.class.getName());
+
+      // Each step calls some methods, then updates the coverage. The third step covers nothing new.
+      Map<String, Double> previous = null;
+      for (int step = 0; step < 5; step++) {
+        switch (step) {
+          case 0:
+            branches.getMethod("sign", int.class).invoke(null, 1);
+            break;
+          case 1:
+            branches.getMethod("sign", int.class).invoke(null, -1);
+            otherBranches.getMethod("max", int.class, int.class).invoke(null, 1, 2);
+            break;
+          case 2:
+            branches.getMethod("sign", int.class).invoke(null, 1);
+            break;
+          case 3:
+            branches.getMethod("isEmpty", String.class).invoke(null, "");
+            break;
+          default:
+            otherBranches.getMethod("max", int.class, int.class).invoke(null, 2, 1);
+            break;
+        }
+        byte[] execData = executionData(data);
+        incremental.updateBranchCoverageMap(execData);
+        CoverageTracker full = new CoverageTracker(classes);
+        full.updateBranchCoverageMap(execData);
+        Map<String, Double> coverage = new HashMap<>(incremental.getBranchCoverageMap());
+        assertEquals("step " + step, full.getBranchCoverageMap(), coverage);
+        if (previous != null && step != 2) {
+          assertNotEquals(previous, coverage);
+        }
+        previous = coverage;
+      }
+    } finally {
+      runtime.shutdown();
+    }
+  }
+
+  /**
+   * Returns the execution data collected so far, serialized as by the Jacoco agent.
+   *
+   * @param data the runtime data of the instrumented classes
+   * @return the serialized execution data
+   * @throws IOException if the data cannot be serialized
+   */
+  private static byte[] executionData(RuntimeData data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ExecutionDataWriter writer = new ExecutionDataWriter(out);
+    data.collect(writer, writer, false);
+    writer.flush();
+    return out.toByteArray();
+  }
+
+  /** Loads the classes under test, instrumented by Jacoco. */
+  private static class InstrumentedClassLoader extends ClassLoader {
+
+    /** The instrumenter. */
+    private final Instrumenter instrumenter;
+
+    /**
+     * Creates a class loader that instruments the classes under test.
+     *
+     * @param runtime the Jacoco runtime that records the coverage
+     */
+    InstrumentedClassLoader(IRuntime runtime) {
+      super(CoverageTrackerTest.class.getClassLoader());
+      this.instrumenter = new Instrumenter(runtime);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.equals(Branches.class.getName()) && !name.equals(OtherBranches.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> c = findLoadedClass(name);
+        if (c == null) {
+          String resource = name.replace('.', '/') + ".class";
+          try (InputStream original = getParent().getResourceAsStream(resource)) {
+            byte[] bytes = instrumenter.instrument(original, name);
+            c = defineClass(name, bytes, 0, bytes.length);
+          } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+          }
+        }
+        if (resolve) {
+          resolveClass(c);
+        }
+        return c;
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package randoop.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import randoop.sequence.Sequence;
+import randoop.util.ListOfLists;
+import randoop.util.Randomness;
+import randoop.util.SimpleArrayList;
+
+public class OrienteeringSelectionTest {
+
+  private static final List<Sequence> SEQUENCES =
+      Arrays.asList(
+          Sequence.createSequenceForPrimitive(1),
+          Sequence.createSequenceForPrimitive(2),
+          Sequence.createSequenceForPrimitive(3),
+          Sequence.createSequenceForPrimitive("a"),
+          Sequence.createSequenceForPrimitive("b"));
+
+  @Test
+  public void testSelectionCountsBalance() {
+    Randomness.setSeed(0);
+    OrienteeringSelection selection = new OrienteeringSelection(new HashSet<>(SEQUENCES));
+    SimpleArrayList<Sequence> ints = new SimpleArrayList<>(SEQUENCES.subList(0, 3));
+    SimpleArrayList<Sequence> strings = new SimpleArrayList<>(SEQUENCES.subList(3, 5));
+    ListOfLists<Sequence> candidates = new ListOfLists<>(ints, strings);
+
+    Map<Sequence, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 5000; i++) {
+      counts.merge(selection.selectInputSequence(candidates), 1, Integer::sum);
+    }
+    // A sequence's weight is inversely proportional to its selection count, so every sequence is
+    // selected about equally often.
+    for (Sequence sequence : SEQUENCES) {
+      int count = counts.getOrDefault(sequence, 0);
+      assertTrue(sequence + " selected " + count + " times", count > 900 && count < 1100);
+    }
+  }
+
+  @Test
+  public void testListChanges() {
+    Randomness.setSeed(0);
+    OrienteeringSelection selection = new OrienteeringSelection(Collections.emptySet());
+    SimpleArrayList<Sequence> list = new SimpleArrayList<>(SEQUENCES.subList(0, 3));
+    for (int i = 0; i < 100; i++) {
+      assertTrue(list.contains(selection.selectInputSequence(list)));
+    }
+
+    // Appended sequences have not been selected, so they have the highest weights.
+    list.add(SEQUENCES.get(3));
+    list.add(SEQUENCES.get(4));
+    Map<Sequence, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      counts.merge(selection.selectInputSequence(list), 1, Integer::sum);
+    }
+    assertTrue(counts.get(SEQUENCES.get(3)) > 20);
+    assertTrue(counts.get(SEQUENCES.get(4)) > 20);
+
+    // Removing a sequence shifts the positions of the later ones.
+    Sequence removed = list.remove(1);
+    for (int i = 0; i < 100; i++) {
+      Sequence selected = selection.selectInputSequence(list);
+      assertNotEquals(removed, selected);
+      assertTrue(list.contains(selected));
+    }
+    list.clear();
+    list.add(removed);
+    assertEquals(removed, selection.selectInputSequence(list));
+  }
+
+  @Test
+  public void testFreshListsDoNotAccumulate() {
+    Randomness.setSeed(0);
+    OrienteeringSelection selection = new OrienteeringSelection(new HashSet<>(SEQUENCES));
+    SimpleArrayList<Sequence> pooled = new SimpleArrayList<>(SEQUENCES.subList(0, 3));
+    Sequence helper = SEQUENCES.get(3);
+    int numSelections = 5 * OrienteeringSelection.LEAF_RETENTION;
+    for (int i = 0; i < numSelections; i++) {
+      // Like the helper lists of ForwardGenerator's array and collection heuristics.
+      SimpleArrayList<Sequence> fresh = new SimpleArrayList<>(1);
+      fresh.add(helper);
+      selection.selectInputSequence(new ListOfLists<>(pooled, fresh));
+    }
+    // The weights of the fresh lists are discarded, and their slots and places are reused.
+    int bound = 3 * OrienteeringSelection.LEAF_RETENTION;
+    assertTrue(selection.numLeafSlots() + " leaf slots", selection.numLeafSlots() < bound);
+    assertTrue(selection.numPlaces(helper) + " places", selection.numPlaces(helper) < bound);
+    assertEquals(1, selection.numPlaces(SEQUENCES.get(0)));
+  }
+}
@@ -0,0 +1,99 @@
+package randoop.main;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import randoop.output.CodeWriter;
+import randoop.output.JUnitCreator;
+import randoop.output.NameGenerator;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+
+/**
+ * Tests that {@link GenTests#writeTestFiles} writes the same test classes, with the same test
+ * names, whether it uses one thread or several.
+ */
+public class WriteTestFilesTest {
+
+  private int savedTestsPerFile;
+  private int savedOutputThreads;
+  private boolean savedProgressDisplay;
+  private String savedPackageName;
+
+  @Before
+  public void setUp() {
+    savedTestsPerFile = GenInputsAbstract.testsperfile;
+    savedOutputThreads = GenInputsAbstract.output_threads;
+    savedProgressDisplay = GenInputsAbstract.progressdisplay;
+    savedPackageName = GenInputsAbstract.junit_package_name;
+    GenInputsAbstract.testsperfile = 3;
+    GenInputsAbstract.progressdisplay = false;
+    GenInputsAbstract.junit_package_name = "foo.bar";
+  }
+
+  @After
+  public void tearDown() {
+    GenInputsAbstract.testsperfile = savedTestsPerFile;
+    GenInputsAbstract.output_threads = savedOutputThreads;
+    GenInputsAbstract.progressdisplay = savedProgressDisplay;
+    GenInputsAbstract.junit_package_name = savedPackageName;
+  }
+
+  @Test
+  public void testParallelWrites() {
+    List<ExecutableSequence> sequences = new ArrayList<>();
+    for (int i = 0; i < 11; i++) {
+      sequences.add(new ExecutableSequence(Sequence.createSequenceForPrimitive(i)));
+    }
+    JUnitCreator creator = JUnitCreator.getTestCreator("foo.bar", null, null, null, null);
+
+    // The classes as written before the test classes were created in parallel: one name generator
+    // numbers the methods of all the classes, in order.
+    Map<String, String> expected = new TreeMap<>();
+    NameGenerator methodNames = new NameGenerator(GenTests.TEST_METHOD_NAME_PREFIX, 1, 11);
+    for (int i = 0; i * 3 < sequences.size(); i++) {
+      String className = "RegressionTest" + i;
+      List<ExecutableSequence> partition =
+          sequences.subList(i * 3, Math.min(i * 3 + 3, sequences.size()));
+      expected.put(className, creator.createTestClassSource(className, methodNames, partition));
+    }
+
+    for (int threads : new int[] {1, 2, 4}) {
+      GenInputsAbstract.output_threads = threads;
+      RecordingCodeWriter codeWriter = new RecordingCodeWriter();
+      GenTests.writeTestFiles(creator, sequences, codeWriter, "RegressionTest", "Regression");
+      Map<String, String> written = new TreeMap<>(codeWriter.classes);
+      written.remove("RegressionTest");
+      written.remove("RegressionTestDriver");
+      assertEquals("threads: " + threads, expected, written);
+    }
+  }
+
+  /** A {@link CodeWriter} that records the classes instead of writing them to files. */
+  private static class RecordingCodeWriter implements CodeWriter {
+
+    /** The source code of each class, indexed by class name. */
+    final Map<String, String> classes = new TreeMap<>();
+
+    @Override
+    public synchronized Path writeClassCode(
+        String packageName, String classname, String classCode) {
+      assertEquals("foo.bar", packageName);
+      classes.put(classname, classCode);
+      return Paths.get(classname + ".java");
+    }
+
+    @Override
+    public Path writeUnmodifiedClassCode(String packageName, String classname, String classCode) {
+      return writeClassCode(packageName, classname, classCode);
+    }
+  }
+}
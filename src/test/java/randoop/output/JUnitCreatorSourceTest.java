@@ -0,0 +1,121 @@
+package randoop.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static randoop.reflection.AccessibilityPredicate.IS_PUBLIC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import randoop.DummyVisitor;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
+import randoop.reflection.OmitMethodsPredicate;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
+import randoop.test.ContractSet;
+import randoop.test.TestCheckGenerator;
+import randoop.util.MultiMap;
+
+/**
+ * Tests that {@link JUnitCreator#createTestClassSource} produces the same text as printing {@link
+ * JUnitCreator#createTestClass}. For tests with checks, only the lines and their indentation must
+ * be the same: the text emitter keeps Randoop's own spacing within expressions.
+ */
+public class JUnitCreatorSourceTest {
+
+  private static List<ExecutableSequence> sequences() throws NoSuchMethodException {
+    Sequence primitive = Sequence.createSequenceForPrimitive(1);
+    Sequence constructor =
+        new Sequence().extend(TypedOperation.forConstructor(Object.class.getConstructor()));
+    List<ExecutableSequence> result = new ArrayList<>();
+    for (Sequence sequence : Arrays.asList(primitive, constructor, primitive)) {
+      result.add(new ExecutableSequence(sequence));
+    }
+    return result;
+  }
+
+  /**
+   * Returns executed sequences whose code contains regression assertions, expected exceptions in
+   * try-catch blocks, and string literals with unbalanced braces.
+   */
+  private static List<ExecutableSequence> executedSequences() throws NoSuchMethodException {
+    List<TypedOperation> operations =
+        Arrays.asList(
+            TypedOperation.forMethod(String.class.getMethod("length")),
+            TypedOperation.forMethod(String.class.getMethod("trim")),
+            TypedOperation.forMethod(Integer.class.getMethod("parseInt", String.class)));
+    TestCheckGenerator checkGenerator =
+        GenTests.createTestCheckGenerator(
+            IS_PUBLIC, new ContractSet(), new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION);
+    List<ExecutableSequence> result = new ArrayList<>();
+    for (String literal : Arrays.asList("{", "}", "} {", "a { \"}\" }", "12")) {
+      Sequence string = Sequence.createSequenceForPrimitive(literal);
+      for (TypedOperation operation : operations) {
+        ExecutableSequence eSeq =
+            new ExecutableSequence(string.extend(operation, string.getLastVariable()));
+        eSeq.execute(new DummyVisitor(), checkGenerator);
+        result.add(eSeq);
+      }
+    }
+    return result;
+  }
+
+  private static void checkSameSource(String packageName) throws NoSuchMethodException {
+    JUnitCreator creator = JUnitCreator.getTestCreator(packageName, null, null, null, null);
+    List<ExecutableSequence> sequences = sequences();
+    assertEquals(printTestClass(creator, sequences), writeTestClass(creator, sequences));
+  }
+
+  private static String printTestClass(JUnitCreator creator, List<ExecutableSequence> sequences) {
+    return creator
+        .createTestClass("RegressionTest0", new NameGenerator("test", 1, 3), sequences)
+        .toString();
+  }
+
+  private static String writeTestClass(JUnitCreator creator, List<ExecutableSequence> sequences) {
+    return creator.createTestClassSource(
+        "RegressionTest0", new NameGenerator("test", 1, 3), sequences);
+  }
+
+  /**
+   * Removes the whitespace within each line of the given source, keeping the line breaks and the
+   * indentation of each line.
+   *
+   * @param source the source text
+   * @return the source with no whitespace after the indentation of each line
+   */
+  private static String normalize(String source) {
+    StringBuilder result = new StringBuilder();
+    for (String line : source.split("\\R", -1)) {
+      String content = line.trim();
+      result.append(line, 0, line.indexOf(content));
+      result.append(content.replaceAll("\\s+", "")).append('\n');
+    }
+    return result.toString();
+  }
+
+  @Test
+  public void testDefaultPackage() throws NoSuchMethodException {
+    checkSameSource(null);
+  }
+
+  @Test
+  public void testPackage() throws NoSuchMethodException {
+    checkSameSource("foo.bar");
+  }
+
+  @Test
+  public void testChecks() throws NoSuchMethodException {
+    JUnitCreator creator = JUnitCreator.getTestCreator("foo.bar", null, null, null, null);
+    List<ExecutableSequence> sequences = executedSequences();
+    String source = writeTestClass(creator, sequences);
+    assertEquals(normalize(printTestClass(creator, sequences)), normalize(source));
+    // Make sure that the tests contain the constructs whose indentation is checked.
+    assertTrue(source, source.contains("NumberFormatException e) {"));
+    assertTrue(source, source.contains("// Expected exception."));
+    assertTrue(source, source.contains("org.junit.Assert.assert"));
+    assertTrue(source, source.contains("\"} {\""));
+  }
+}
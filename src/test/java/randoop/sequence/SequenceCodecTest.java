@@ -0,0 +1,78 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/** Tests for {@link SequenceEncoder} and {@link SequenceDecoder}. */
+public class SequenceCodecTest {
+
+  /** Sequences with shared operations and inputs at several distances. */
+  private static final List<Sequence> SEQUENCES;
+
+  static {
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence hello = Sequence.createSequenceForPrimitive("hello");
+    Sequence pair = Sequence.concatenate(Arrays.asList(one, hello));
+    Sequence nested =
+        Sequence.concatenate(Arrays.asList(hello, pair, Sequence.createSequenceForPrimitive('c')));
+    SEQUENCES = Arrays.asList(one, hello, pair, nested, new Sequence());
+  }
+
+  @Test
+  public void testStream() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    SequenceEncoder encoder = new SequenceEncoder(new DataOutputStream(bytes));
+    for (Sequence sequence : SEQUENCES) {
+      encoder.writeSequence(sequence);
+    }
+    int firstSize = bytes.size();
+    encoder.writeSequence(SEQUENCES.get(3));
+    // Every operation is in the dictionary: one byte for the length, one per operation.
+    assertEquals(1 + SEQUENCES.get(3).size(), bytes.size() - firstSize);
+
+    SequenceDecoder decoder =
+        new SequenceDecoder(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    for (Sequence sequence : SEQUENCES) {
+      Sequence copy = decoder.readSequence();
+      assertEquals(sequence, copy);
+      assertEquals(sequence.fingerprint(), copy.fingerprint());
+    }
+    assertEquals(SEQUENCES.get(3), decoder.readSequence());
+  }
+
+  @Test
+  public void testFile() throws IOException {
+    Path file = Files.createTempFile("sequences", ".bin");
+    try {
+      SequenceEncoder.writeFile(file, SEQUENCES);
+      assertEquals(SEQUENCES, SequenceDecoder.readFile(file));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testVarInt() throws IOException {
+    int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int value : values) {
+      SequenceEncoder.writeVarInt(out, value);
+    }
+    assertEquals(1 + 1 + 1 + 2 + 2 + 3 + 5, bytes.size());
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (int value : values) {
+      assertEquals(value, SequenceDecoder.readVarInt(in));
+    }
+  }
+}
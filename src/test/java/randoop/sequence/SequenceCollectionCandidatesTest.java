@@ -0,0 +1,67 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import randoop.types.JavaTypes;
+import randoop.types.Type;
+import randoop.util.SimpleList;
+
+/** Tests for the candidates returned by {@link SequenceCollection#getSequencesForType}. */
+public class SequenceCollectionCandidatesTest {
+
+  @Test
+  public void testCandidatesGrow() {
+    SequenceCollection collection = new SequenceCollection();
+    Sequence a = Sequence.createSequenceForPrimitive("a");
+    collection.add(a);
+    SimpleList<Sequence> objects =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false);
+    SimpleList<Sequence> receivers =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, true);
+    assertEquals(Collections.singletonList(a), objects.toJDKList());
+    assertEquals(0, receivers.size());
+
+    // A sequence of a new type, and one of a type that is already in the collection.
+    Sequence number = Sequence.zero(Type.forClass(Number.class));
+    collection.add(number);
+    Sequence b = Sequence.createSequenceForPrimitive("b");
+    collection.add(b);
+    // A sequence of a type that cannot be used as Object.
+    collection.add(Sequence.createSequenceForPrimitive(1));
+
+    assertSame(objects, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false));
+    assertEquals(Arrays.asList(a, number, b), objects.toJDKList());
+    assertSame(receivers, collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, true));
+    assertEquals(Collections.singletonList(number), receivers.toJDKList());
+    assertEquals(
+        Arrays.asList(a, b),
+        collection.getSequencesForType(JavaTypes.STRING_TYPE, false, false).toJDKList());
+  }
+
+  @Test
+  public void testCandidatesAfterEviction() {
+    SequenceCollection collection = new SequenceCollection();
+    collection.trackUsage();
+    for (int i = 0; i < 4; i++) {
+      collection.add(Sequence.createSequenceForPrimitive("s" + i));
+    }
+    SimpleList<Sequence> objects =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false);
+    assertEquals(4, objects.size());
+
+    assertEquals(2, collection.evict(0.5, Collections.<Sequence>emptySet(), false));
+    SimpleList<Sequence> remaining =
+        collection.getSequencesForType(JavaTypes.OBJECT_TYPE, false, false);
+    assertNotSame(objects, remaining);
+    List<Sequence> strings =
+        collection.getSequencesForType(JavaTypes.STRING_TYPE, true, false).toJDKList();
+    assertEquals(2, strings.size());
+    assertEquals(strings, remaining.toJDKList());
+  }
+}
@@ -0,0 +1,72 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import randoop.types.JavaTypes;
+
+/** Tests for {@link SequenceCollection#evict}. */
+public class SequenceCollectionEvictionTest {
+
+  @Test
+  public void testLeastRecentlyUsed() {
+    SequenceCollection collection = new SequenceCollection();
+    collection.trackUsage();
+    List<Sequence> ints = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Sequence s = Sequence.createSequenceForPrimitive(i);
+      ints.add(s);
+      collection.add(s);
+    }
+    Sequence string = Sequence.createSequenceForPrimitive("s");
+    collection.add(string);
+    collection.markUsed(ints.get(0));
+    collection.markUsed(ints.get(1));
+
+    // The least recently used are ints 2 through 6; the only String is never removed.
+    assertEquals(5, collection.evict(0.5, Collections.<Sequence>emptySet(), false));
+    List<Sequence> remaining =
+        collection.getSequencesForType(JavaTypes.INT_TYPE, true, false).toJDKList();
+    assertEquals(5, remaining.size());
+    assertTrue(remaining.contains(ints.get(0)));
+    assertTrue(remaining.contains(ints.get(1)));
+    assertTrue(remaining.contains(ints.get(9)));
+    assertEquals(
+        Collections.singletonList(string),
+        collection.getSequencesForType(JavaTypes.STRING_TYPE, true, false).toJDKList());
+    assertEquals(6, collection.size());
+  }
+
+  @Test
+  public void testPerTypeQuota() {
+    assertEquals(1, countStringsAfterEviction(false));
+    assertEquals(3, countStringsAfterEviction(true));
+  }
+
+  /**
+   * Adds 4 Strings and then 10 ints to a collection, and evicts half of them.
+   *
+   * @param perTypeQuota whether to evict with per-type quotas
+   * @return the number of Strings left in the collection
+   */
+  private static int countStringsAfterEviction(boolean perTypeQuota) {
+    SequenceCollection collection = new SequenceCollection();
+    collection.trackUsage();
+    for (int i = 0; i < 4; i++) {
+      collection.add(Sequence.createSequenceForPrimitive("s" + i));
+    }
+    Sequence seed = Sequence.createSequenceForPrimitive(0);
+    collection.add(seed);
+    for (int i = 1; i < 10; i++) {
+      collection.add(Sequence.createSequenceForPrimitive(i));
+    }
+    assertEquals(7, collection.evict(0.5, Collections.singleton(seed), perTypeQuota));
+    assertTrue(
+        collection.getSequencesForType(JavaTypes.INT_TYPE, true, false).toJDKList().contains(seed));
+    return collection.getSequencesForType(JavaTypes.STRING_TYPE, true, false).size();
+  }
+}
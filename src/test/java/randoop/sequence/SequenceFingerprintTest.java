@@ -0,0 +1,58 @@
+package randoop.sequence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import org.junit.Test;
+import randoop.util.SimpleArrayList;
+
+/** Tests for {@link Sequence#fingerprint()}. */
+public class SequenceFingerprintTest {
+
+  @Test
+  public void testOrderSensitive() {
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence two = Sequence.createSequenceForPrimitive(2);
+    Sequence oneTwo = Sequence.concatenate(Arrays.asList(one, two));
+    Sequence twoOne = Sequence.concatenate(Arrays.asList(two, one));
+
+    assertNotEquals(oneTwo, twoOne);
+    assertNotEquals(oneTwo.fingerprint(), twoOne.fingerprint());
+  }
+
+  @Test
+  public void testHashCodeCollisions() {
+    // These pairs of literals have equal 32-bit hash codes.
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    Sequence aa = Sequence.createSequenceForPrimitive("Aa");
+    Sequence bb = Sequence.createSequenceForPrimitive("BB");
+    assertNotEquals(aa, bb);
+    assertNotEquals(aa.fingerprint(), bb.fingerprint());
+
+    assertEquals(Long.valueOf(0L).hashCode(), Long.valueOf(0x100000001L).hashCode());
+    Sequence zero = Sequence.createSequenceForPrimitive(0L);
+    Sequence big = Sequence.createSequenceForPrimitive(0x100000001L);
+    assertNotEquals(zero, big);
+    assertNotEquals(zero.fingerprint(), big.fingerprint());
+
+    // Equal literals still have equal fingerprints.
+    assertEquals(aa.fingerprint(), Sequence.createSequenceForPrimitive("Aa").fingerprint());
+  }
+
+  @Test
+  public void testIncrementalMatchesFromScratch() {
+    Sequence one = Sequence.createSequenceForPrimitive(1);
+    Sequence hello = Sequence.createSequenceForPrimitive("hello");
+    Sequence pair = Sequence.concatenate(Arrays.asList(one, hello));
+    Sequence nested =
+        Sequence.concatenate(Arrays.asList(hello, pair, Sequence.createSequenceForPrimitive('c')));
+
+    for (Sequence sequence : Arrays.asList(one, pair, nested)) {
+      Sequence fromScratch = new Sequence(new SimpleArrayList<>(sequence.statements.toJDKList()));
+      assertEquals(sequence, fromScratch);
+      assertEquals(sequence.fingerprint(), fromScratch.fingerprint());
+      assertEquals(sequence.hashCode(), fromScratch.hashCode());
+    }
+  }
+}
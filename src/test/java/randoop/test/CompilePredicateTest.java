@@ -1,6 +1,7 @@
 package randoop.test;
 
 import static org.apache.commons.codec.CharEncoding.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -9,9 +10,16 @@ import com.github.javaparser.ParseException;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
+import randoop.main.GenTests;
+import randoop.operation.TypedOperation;
 import randoop.output.JUnitCreator;
+import randoop.sequence.ExecutableSequence;
+import randoop.sequence.Sequence;
 
 /** Test for compilation predicate. */
 public class CompilePredicateTest {
@@ -182,4 +190,31 @@ public class CompilePredicateTest {
     assertTrue(
         pred.testSource("CompilablePredicateTestClass", parseCU.getResult().get(), "foo.bar"));
   }
+
+  /** A class that generated tests cannot use. */
+  private static class Hidden {
+    public Hidden() {}
+  }
+
+  @Test
+  public void batchPredicateTest() throws NoSuchMethodException, IOException {
+    ExecutableSequence compilable =
+        new ExecutableSequence(
+            new Sequence().extend(TypedOperation.forConstructor(Object.class.getConstructor())));
+    ExecutableSequence uncompilable =
+        new ExecutableSequence(
+            new Sequence().extend(TypedOperation.forConstructor(Hidden.class.getConstructor())));
+    ExecutableSequence primitive = new ExecutableSequence(Sequence.createSequenceForPrimitive(1));
+    List<ExecutableSequence> sequences =
+        Arrays.asList(compilable, uncompilable, primitive, uncompilable, compilable);
+    JUnitCreator jUnitCreator = JUnitCreator.getTestCreator("foo.bar", null, null, null, null);
+    try (CompilableTestPredicate pred = new CompilableTestPredicate(jUnitCreator, new GenTests())) {
+      boolean[] expected = {true, false, true, false, true};
+      assertArrayEquals(expected, pred.testAll(sequences));
+      // The second time, the results are cached.
+      assertArrayEquals(expected, pred.testAll(sequences));
+      assertFalse(pred.test(uncompilable));
+      assertTrue(pred.test(primitive));
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package randoop.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static randoop.main.GenInputsAbstract.require_classname_in_test;
@@ -15,6 +16,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import randoop.generation.ComponentManager;
 import randoop.generation.ForwardGenerator;
+import randoop.generation.ParallelForwardGenerator;
 import randoop.generation.SeedSequences;
 import randoop.generation.TestUtils;
 import randoop.main.GenInputsAbstract;
@@ -174,6 +176,126 @@ public class ForwardExplorerTests {
     assertTrue(tree);
   }
 
+  @Test
+  public void testFingerprintDuplicateFilter() {
+    GenInputsAbstract.DuplicateFilter oldDuplicateFilter = GenInputsAbstract.duplicate_filter;
+    int oldSequenceHistory = GenInputsAbstract.sequence_history;
+    GenInputsAbstract.duplicate_filter = GenInputsAbstract.DuplicateFilter.FINGERPRINTS;
+    GenInputsAbstract.sequence_history = 50;
+    try {
+      randoop.util.Randomness.setSeed(0);
+      List<Class<?>> classes = new ArrayList<>();
+      classes.add(randoop.test.BiSortVal.class);
+      classes.add(BiSort.class);
+      ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+      ForwardGenerator explorer =
+          new ForwardGenerator(
+              getConcreteOperations(classes),
+              new LinkedHashSet<TypedOperation>(),
+              new GenInputsAbstract.Limits(0, 500, 500, 500),
+              mgr,
+              null,
+              null);
+      explorer.setTestCheckGenerator(createChecker(new ContractSet()));
+      explorer.setTestPredicate(createOutputTest());
+      explorer.createAndClassifySequences();
+
+      // Every sequence is counted, but only the most recent ones are kept.
+      assertTrue(explorer.numGeneratedSequences() > 50);
+      assertEquals(50, explorer.getAllSequences().size());
+      Set<Long> fingerprints = new LinkedHashSet<>();
+      for (Sequence s : explorer.getAllSequences()) {
+        assertTrue(fingerprints.add(s.fingerprint()));
+      }
+    } finally {
+      GenInputsAbstract.duplicate_filter = oldDuplicateFilter;
+      GenInputsAbstract.sequence_history = oldSequenceHistory;
+    }
+  }
+
+  @Test
+  public void testParallel() {
+    randoop.util.Randomness.setSeed(0);
+    ReflectionExecutor.resetStatistics();
+
+    List<Class<?>> classes = new ArrayList<>();
+    classes.add(randoop.test.BiSortVal.class);
+    classes.add(BiSort.class);
+    ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+    final List<TypedOperation> model = getConcreteOperations(classes);
+    assertFalse(model.isEmpty());
+    ParallelForwardGenerator explorer =
+        new ParallelForwardGenerator(
+            model,
+            new LinkedHashSet<TypedOperation>(),
+            new GenInputsAbstract.Limits(0, 1000, 1000, 100),
+            mgr,
+            null,
+            null,
+            4,
+            worker -> {
+              worker.setTestCheckGenerator(createChecker(new ContractSet()));
+              worker.setTestPredicate(createOutputTest());
+            });
+    explorer.setTestCheckGenerator(createChecker(new ContractSet()));
+    explorer.createAndClassifySequences();
+
+    // The workers stop together, once one of the limits is met, and their outputs are merged.
+    assertTrue(explorer.numAttemptedSequences() >= 1000 || explorer.numOutputSequences() >= 100);
+    assertEquals(explorer.numOutputSequences(), explorer.outputSequenceCount());
+    // No two workers created the same sequence.
+    assertEquals(explorer.numGeneratedSequences(), explorer.getAllSequences().size());
+    assertTrue(explorer.getCurrentSequences().size() <= 4);
+  }
+
+  @Test
+  public void testParallelDeterministic() {
+    boolean oldDeterministic = GenInputsAbstract.deterministic;
+    GenInputsAbstract.deterministic = true;
+    try {
+      List<String> first = runDeterministicParallel();
+      List<String> second = runDeterministicParallel();
+      assertFalse(first.isEmpty());
+      assertEquals(first, second);
+    } finally {
+      GenInputsAbstract.deterministic = oldDeterministic;
+    }
+  }
+
+  /**
+   * Runs a parallel generator on BiSort.
+   *
+   * @return the code of the regression sequences, in output order
+   */
+  private static List<String> runDeterministicParallel() {
+    ComponentManager mgr = new ComponentManager(SeedSequences.defaultSeeds());
+    List<Class<?>> classes = new ArrayList<>();
+    classes.add(randoop.test.BiSortVal.class);
+    classes.add(BiSort.class);
+    ParallelForwardGenerator explorer =
+        new ParallelForwardGenerator(
+            getConcreteOperations(classes),
+            new LinkedHashSet<TypedOperation>(),
+            new GenInputsAbstract.Limits(0, 600, 600, 600),
+            mgr,
+            null,
+            null,
+            3,
+            worker -> {
+              worker.setTestCheckGenerator(createChecker(new ContractSet()));
+              worker.setTestPredicate(createOutputTest());
+            });
+    explorer.setTestCheckGenerator(createChecker(new ContractSet()));
+    explorer.createAndClassifySequences();
+    // Each worker has its own share of the limits.
+    assertTrue(explorer.numAttemptedSequences() <= 600);
+    List<String> result = new ArrayList<>();
+    for (ExecutableSequence eSeq : explorer.getRegressionSequences()) {
+      result.add(eSeq.sequence.toCodeString());
+    }
+    return result;
+  }
+
   private static TestCheckGenerator createChecker(ContractSet contracts) {
     return GenTests.createTestCheckGenerator(
         IS_PUBLIC, contracts, new MultiMap<>(), OmitMethodsPredicate.NO_OMISSION);
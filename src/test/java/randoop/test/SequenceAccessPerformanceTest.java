@@ -0,0 +1,131 @@
+package randoop.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.junit.Test;
+import randoop.main.GenInputsAbstract;
+import randoop.util.ListOfLists;
+import randoop.util.OneMoreElementList;
+import randoop.util.SharedArrayList;
+import randoop.util.SimpleArrayList;
+import randoop.util.SimpleList;
+
+/**
+ * Measures the cost of {@link SimpleList#get(int)} for lists built the way {@link
+ * randoop.generation.ForwardGenerator} builds sequences: by concatenating earlier lists and
+ * appending one element. Compares the nested representation ({@link ListOfLists} and {@link
+ * OneMoreElementList}) with {@link SharedArrayList}, for lengths up to {@code --maxsize}.
+ *
+ * <p>This is a benchmark, not a regression test; it prints a table and is not run by default.
+ */
+public class SequenceAccessPerformanceTest {
+
+  /** The number of lists to build with each representation. */
+  private static final int POOL_SIZE = 20000;
+
+  /** The number of times to read every element of the measured lists. */
+  private static final int REPETITIONS = 20;
+
+  /** The width of a row of the table, in list lengths. */
+  private static final int BUCKET_WIDTH = 10;
+
+  /** Written by {@link #measure}, to make sure that the loop doesn't get optimized away. */
+  @SuppressWarnings("UnusedVariable")
+  private static volatile long sink;
+
+  @Test
+  public void test() {
+    int maxsize = GenInputsAbstract.maxsize;
+    List<SimpleList<Integer>> nested =
+        buildPool(
+            maxsize, new SimpleArrayList<Integer>(0), ListOfLists::new, OneMoreElementList::new);
+    List<SimpleList<Integer>> flat =
+        buildPool(
+            maxsize,
+            SharedArrayList.<Integer>empty(),
+            SharedArrayList::concatenate,
+            SharedArrayList::append);
+
+    // Warm up both representations before measuring.
+    measure(nested, 1, maxsize);
+    measure(flat, 1, maxsize);
+
+    System.out.printf("%-12s %16s %16s%n", "length", "nested ns/get", "flat ns/get");
+    for (int low = 1; low <= maxsize; low += BUCKET_WIDTH) {
+      int high = Math.min(low + BUCKET_WIDTH - 1, maxsize);
+      double nestedCost = measure(nested, low, high);
+      double flatCost = measure(flat, low, high);
+      System.out.printf("%-12s %16.2f %16.2f%n", low + "-" + high, nestedCost, flatCost);
+    }
+  }
+
+  /**
+   * Builds a pool of lists by repeatedly concatenating up to three random lists from the pool and
+   * appending one element. Lists longer than {@code maxsize} are discarded.
+   *
+   * @param maxsize the maximum length of a list
+   * @param empty the empty list
+   * @param concatenate the concatenation operation
+   * @param append the append operation
+   * @return the pool; each list is equal to the list built by the other representation from the
+   *     same random seed
+   */
+  private static List<SimpleList<Integer>> buildPool(
+      int maxsize,
+      SimpleList<Integer> empty,
+      Function<List<SimpleList<Integer>>, SimpleList<Integer>> concatenate,
+      BiFunction<SimpleList<Integer>, Integer, SimpleList<Integer>> append) {
+    Random random = new Random(0);
+    List<SimpleList<Integer>> pool = new ArrayList<>(POOL_SIZE);
+    pool.add(append.apply(empty, 0));
+    int element = 1;
+    while (pool.size() < POOL_SIZE) {
+      int count = 1 + random.nextInt(3);
+      List<SimpleList<Integer>> inputs = new ArrayList<>(count);
+      int size = 0;
+      for (int i = 0; i < count; i++) {
+        SimpleList<Integer> input = pool.get(random.nextInt(pool.size()));
+        inputs.add(input);
+        size += input.size();
+      }
+      if (size + 1 > maxsize) {
+        continue;
+      }
+      pool.add(append.apply(concatenate.apply(inputs), element++));
+    }
+    return pool;
+  }
+
+  /**
+   * Returns the average time to read one element of the lists in the pool whose length is in the
+   * given range.
+   *
+   * @param pool the lists
+   * @param low the minimum length, inclusive
+   * @param high the maximum length, inclusive
+   * @return the average time per call to {@code get}, in nanoseconds
+   */
+  private static double measure(List<SimpleList<Integer>> pool, int low, int high) {
+    long reads = 0;
+    long checksum = 0;
+    long startTime = System.nanoTime();
+    for (int r = 0; r < REPETITIONS; r++) {
+      for (SimpleList<Integer> list : pool) {
+        int size = list.size();
+        if (size < low || size > high) {
+          continue;
+        }
+        for (int i = 0; i < size; i++) {
+          checksum += list.get(i);
+        }
+        reads += size;
+      }
+    }
+    long time = System.nanoTime() - startTime;
+    sink = checksum;
+    return reads == 0 ? 0 : (double) time / reads;
+  }
+}
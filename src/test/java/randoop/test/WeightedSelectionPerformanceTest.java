@@ -0,0 +1,113 @@
+package randoop.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import randoop.util.Randomness;
+import randoop.util.SimpleArrayList;
+import randoop.util.WeightedSampler;
+
+/**
+ * Measures the cost of one weighted selection, as made by {@link
+ * randoop.generation.OrienteeringSelection} and {@link randoop.generation.Bloodhound}: a random
+ * draw followed by a change to the weight of the drawn element. As in Orienteering, an element's
+ * weight is divided by the number of times it has been selected. Compares {@link
+ * Randomness#randomMemberWeighted(randoop.util.SimpleList, Map, double)}, which scans a list of
+ * boxed weights, with {@link Randomness#randomIndexWeighted}, for pools of increasing size.
+ *
+ * <p>This is a benchmark, not a regression test; it prints a table and is not run by default.
+ */
+public class WeightedSelectionPerformanceTest {
+
+  /** The pool sizes to measure. */
+  private static final int[] POOL_SIZES = {10, 100, 1000, 10000, 100000};
+
+  /** The total number of weights to scan for each pool size, which bounds the time per row. */
+  private static final long WORK = 200_000_000L;
+
+  /** Written by the measurements, to make sure that the loops don't get optimized away. */
+  @SuppressWarnings("UnusedVariable")
+  private static volatile long sink;
+
+  @Test
+  public void test() {
+    // Warm up both implementations before measuring.
+    measureMap(1000, 2000);
+    measureSampler(1000, 2000);
+
+    System.out.printf("%-12s %16s %16s%n", "pool size", "map ns/select", "tree ns/select");
+    for (int size : POOL_SIZES) {
+      int selections = (int) Math.max(1000, WORK / size);
+      double mapCost = measureMap(size, selections);
+      double treeCost = measureSampler(size, selections);
+      System.out.printf("%-12d %16.1f %16.1f%n", size, mapCost, treeCost);
+    }
+  }
+
+  /**
+   * Returns the average time of a selection with {@link Randomness#randomMemberWeighted}.
+   *
+   * @param size the number of elements
+   * @param selections the number of selections to make
+   * @return the average time per selection, in nanoseconds
+   */
+  private static double measureMap(int size, int selections) {
+    Random random = new Random(0);
+    SimpleArrayList<Integer> list = new SimpleArrayList<>(size);
+    Map<Integer, Double> weights = new HashMap<>();
+    double[] baseWeights = new double[size];
+    int[] counts = new int[size];
+    double totalWeight = 0;
+    for (int i = 0; i < size; i++) {
+      baseWeights[i] = random.nextDouble();
+      counts[i] = 1;
+      list.add(i);
+      weights.put(i, baseWeights[i]);
+      totalWeight += baseWeights[i];
+    }
+    Randomness.setSeed(0);
+    long checksum = 0;
+    long startTime = System.nanoTime();
+    for (int i = 0; i < selections; i++) {
+      Integer selected = Randomness.randomMemberWeighted(list, weights, totalWeight);
+      double weight = baseWeights[selected] / ++counts[selected];
+      totalWeight += weight - weights.get(selected);
+      weights.put(selected, weight);
+      checksum += selected;
+    }
+    long time = System.nanoTime() - startTime;
+    sink = checksum;
+    return (double) time / selections;
+  }
+
+  /**
+   * Returns the average time of a selection with {@link Randomness#randomIndexWeighted}.
+   *
+   * @param size the number of elements
+   * @param selections the number of selections to make
+   * @return the average time per selection, in nanoseconds
+   */
+  private static double measureSampler(int size, int selections) {
+    Random random = new Random(0);
+    WeightedSampler sampler = new WeightedSampler(size);
+    double[] baseWeights = new double[size];
+    int[] counts = new int[size];
+    for (int i = 0; i < size; i++) {
+      baseWeights[i] = random.nextDouble();
+      counts[i] = 1;
+      sampler.add(baseWeights[i]);
+    }
+    Randomness.setSeed(0);
+    long checksum = 0;
+    long startTime = System.nanoTime();
+    for (int i = 0; i < selections; i++) {
+      int selected = Randomness.randomIndexWeighted(sampler);
+      sampler.set(selected, baseWeights[selected] / ++counts[selected]);
+      checksum += selected;
+    }
+    long time = System.nanoTime() - startTime;
+    sink = checksum;
+    return (double) time / selections;
+  }
+}
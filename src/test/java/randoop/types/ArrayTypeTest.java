@@ -2,6 +2,7 @@ package randoop.types;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static randoop.types.ExampleClassesForTests.ArrayHarvest;
 
@@ -12,6 +13,23 @@ import org.junit.Test;
 
 public class ArrayTypeTest {
 
+  @Test
+  public void testInterned() {
+    assertSame(
+        ArrayType.forClass(int[].class),
+        ArrayType.ofComponentType(PrimitiveType.forClass(int.class)));
+    assertSame(ArrayType.forClass(String[][].class), Type.forClass(String[][].class));
+    Type strALArrType =
+        ArrayType.ofComponentType(
+            GenericClassType.forClass(ArrayList.class)
+                .instantiate(NonParameterizedType.forClass(String.class)));
+    assertSame(
+        strALArrType,
+        ArrayType.ofComponentType(
+            GenericClassType.forClass(ArrayList.class)
+                .instantiate(NonParameterizedType.forClass(String.class))));
+  }
+
   @Test
   public void testAssignability() {
     Type intArrType = ArrayType.ofComponentType(PrimitiveType.forClass(int.class));
@@ -3,6 +3,7 @@ package randoop.types;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static randoop.types.ExampleClassesForTests.BaseStream;
@@ -19,7 +20,9 @@ import static randoop.types.GenericsExamples.Variable1Ext3;
 import static randoop.types.GenericsExamples.Variable1Ext4;
 import static randoop.types.GenericsExamples.Variable2;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.junit.Test;
@@ -269,6 +272,28 @@ public class GenericTypesTest {
     assertTrue(stringStreamType.getInterfaces().contains(stringBaseStreamType));
   }
 
+  @Test
+  public void supertypeClosureTest() {
+    // ArrayList<String> reaches Collection<String> through AbstractList and through List.
+    InstantiatedType stringArrayListType =
+        JDKTypes.ARRAY_LIST_TYPE.instantiate(JavaTypes.STRING_TYPE);
+    Collection<ClassOrInterfaceType> supertypes = stringArrayListType.getSuperTypes();
+    assertEquals(new HashSet<>(supertypes).size(), supertypes.size());
+    assertTrue(supertypes.contains(JDKTypes.LIST_TYPE.instantiate(JavaTypes.STRING_TYPE)));
+    assertTrue(supertypes.contains(JDKTypes.COLLECTION_TYPE.instantiate(JavaTypes.STRING_TYPE)));
+    assertTrue(supertypes.contains(JavaTypes.OBJECT_TYPE));
+    assertFalse(supertypes.contains(stringArrayListType));
+    assertSame(supertypes, stringArrayListType.getSuperTypes());
+
+    Collection<ClassOrInterfaceType> inclusive = stringArrayListType.getAllSupertypesInclusive();
+    assertEquals(supertypes.size() + 1, inclusive.size());
+    assertTrue(inclusive.contains(stringArrayListType));
+    assertTrue(inclusive.containsAll(supertypes));
+    assertSame(inclusive, stringArrayListType.getAllSupertypesInclusive());
+
+    assertTrue(JavaTypes.OBJECT_TYPE.getSuperTypes().isEmpty());
+  }
+
   @Test
   public void wildcardAssignabilityTest() {
     // List<? extends Number> list;
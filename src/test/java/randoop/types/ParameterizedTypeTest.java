@@ -3,6 +3,8 @@ package randoop.types;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static randoop.types.ExampleClassesForTests.A;
@@ -25,6 +27,33 @@ import randoop.types.test.ParameterInput;
 
 public class ParameterizedTypeTest {
 
+  @Test
+  public void testInterned() throws NoSuchMethodException {
+    GenericClassType listType = GenericClassType.forClass(List.class);
+    InstantiatedType strListType =
+        listType.instantiate(NonParameterizedType.forClass(String.class));
+    // A type created from reflection is the same object as an equal type created by substitution.
+    Method method = ParameterizedTypeTest.class.getDeclaredMethod("stringList");
+    assertSame(strListType, Type.forType(method.getGenericReturnType()));
+    assertSame(strListType, listType.instantiate(NonParameterizedType.forClass(String.class)));
+    assertSame(strListType, Type.intern(strListType));
+
+    // Types with type variables are not interned.
+    assertNotSame(
+        listType.instantiate(listType.getTypeParameters().get(0)),
+        listType.instantiate(listType.getTypeParameters().get(0)));
+  }
+
+  /**
+   * Used by {@link #testInterned}.
+   *
+   * @return null
+   */
+  @SuppressWarnings("UnusedMethod")
+  private static List<String> stringList() {
+    return null;
+  }
+
   @Test
   public void testAssignability() {
     Type strALType =
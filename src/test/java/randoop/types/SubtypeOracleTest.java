@@ -0,0 +1,57 @@
+package randoop.types;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+public class SubtypeOracleTest {
+
+  @Test
+  public void testMatchesType() {
+    GenericClassType listType = GenericClassType.forClass(List.class);
+    GenericClassType arrayListType = GenericClassType.forClass(ArrayList.class);
+    List<Type> types =
+        Arrays.asList(
+            PrimitiveType.forClass(int.class),
+            PrimitiveType.forClass(long.class),
+            Type.forClass(Integer.class),
+            Type.forClass(Number.class),
+            Type.forClass(Object.class),
+            Type.forClass(Serializable.class),
+            Type.forClass(String.class),
+            Type.forClass(int[].class),
+            Type.forClass(Object[].class),
+            Type.forClass(String[].class),
+            NonParameterizedType.forClass(Collection.class),
+            NonParameterizedType.forClass(ArrayList.class),
+            listType.instantiate(NonParameterizedType.forClass(String.class)),
+            arrayListType.instantiate(NonParameterizedType.forClass(String.class)),
+            arrayListType.instantiate(NonParameterizedType.forClass(Integer.class)),
+            ArrayType.ofComponentType(
+                arrayListType.instantiate(NonParameterizedType.forClass(String.class))),
+            // Generic types are not memoized.
+            listType,
+            listType.instantiate(listType.getTypeParameters().get(0)));
+
+    // The second round uses the memoized results.
+    for (int round = 0; round < 2; round++) {
+      for (Type type : types) {
+        for (Type otherType : types) {
+          assertEquals(
+              type + " <: " + otherType,
+              type.isSubtypeOf(otherType),
+              SubtypeOracle.isSubtypeOf(type, otherType));
+          assertEquals(
+              type + " := " + otherType,
+              type.isAssignableFrom(otherType),
+              SubtypeOracle.isAssignableFrom(type, otherType));
+        }
+      }
+    }
+  }
+}
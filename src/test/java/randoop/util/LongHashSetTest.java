@@ -0,0 +1,40 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+  @Test
+  public void testAddAndContains() {
+    LongHashSet set = new LongHashSet();
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      // Draw from a small range so that some values repeat.
+      long value = random.nextInt(5000) * 0x100000001L;
+      assertEquals(expected.add(value), set.add(value));
+    }
+    assertEquals(expected.size(), set.size());
+    for (long value : expected) {
+      assertTrue(set.contains(value));
+    }
+    assertFalse(set.contains(7));
+  }
+
+  @Test
+  public void testZero() {
+    LongHashSet set = new LongHashSet(0);
+    assertFalse(set.contains(0));
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    assertTrue(set.contains(0));
+    assertEquals(1, set.size());
+  }
+}
@@ -0,0 +1,119 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Checks that calls through {@link MethodHandleReflectionCode} have the same outcome as calls
+ * through {@link MethodReflectionCode} and {@link ConstructorReflectionCode}.
+ */
+public class MethodHandleReflectionCodeTest {
+
+  @Test
+  public void testInstanceMethod() throws NoSuchMethodException {
+    Method method = List.class.getMethod("add", Object.class);
+    List<String> list = new ArrayList<>();
+    Object[] inputs = new Object[] {list, "one"};
+
+    MethodHandleReflectionCode code = runHandle(method, inputs);
+    assertNull(code.getExceptionThrown());
+    assertEquals(true, code.getReturnValue());
+    assertEquals(1, list.size());
+  }
+
+  @Test
+  public void testStaticMethodWithPrimitives() throws NoSuchMethodException {
+    Method method = Math.class.getMethod("max", int.class, int.class);
+    Object[] inputs = new Object[] {3, 7};
+
+    MethodReflectionCode reflective = new MethodReflectionCode(method, null, inputs);
+    reflective.runReflectionCode();
+    MethodHandleReflectionCode code = runHandle(method, inputs);
+    assertEquals(reflective.getReturnValue(), code.getReturnValue());
+  }
+
+  @Test
+  public void testVoidMethod() throws NoSuchMethodException {
+    Method method = List.class.getMethod("clear");
+    List<String> list = new ArrayList<>();
+    list.add("one");
+
+    MethodHandleReflectionCode code = runHandle(method, new Object[] {list});
+    assertNull(code.getExceptionThrown());
+    assertNull(code.getReturnValue());
+    assertTrue(list.isEmpty());
+  }
+
+  @Test
+  public void testThrownException() throws NoSuchMethodException {
+    Method method = List.class.getMethod("get", int.class);
+    List<String> list = new ArrayList<>();
+
+    MethodReflectionCode reflective = new MethodReflectionCode(method, list, new Object[] {5});
+    reflective.runReflectionCode();
+    MethodHandleReflectionCode code = runHandle(method, new Object[] {list, 5});
+    assertNotNull(code.getExceptionThrown());
+    assertEquals(
+        reflective.getExceptionThrown().getClass(), code.getExceptionThrown().getClass());
+  }
+
+  @Test
+  public void testConstructor() throws NoSuchMethodException {
+    Constructor<?> constructor = StringBuilder.class.getConstructor(String.class);
+    constructor.setAccessible(true);
+    MethodHandle handle = MethodHandleReflectionCode.spreadHandle(constructor);
+    assertNotNull(handle);
+
+    MethodHandleReflectionCode code =
+        new MethodHandleReflectionCode(constructor, handle, new Object[] {"abc"});
+    code.runReflectionCode();
+    assertNull(code.getExceptionThrown());
+    assertEquals("abc", code.getReturnValue().toString());
+  }
+
+  @Test
+  public void testArgumentsMatch() {
+    Class<?>[] parameterTypes = new Class<?>[] {int.class, CharSequence.class};
+    assertTrue(MethodHandleReflectionCode.argumentsMatch(parameterTypes, new Object[] {1, "s"}, 0));
+    assertTrue(
+        MethodHandleReflectionCode.argumentsMatch(parameterTypes, new Object[] {1, null}, 0));
+    assertTrue(
+        MethodHandleReflectionCode.argumentsMatch(
+            parameterTypes, new Object[] {"receiver", 1, "s"}, 1));
+    // A null or widened primitive is left to core reflection.
+    assertFalse(
+        MethodHandleReflectionCode.argumentsMatch(parameterTypes, new Object[] {null, "s"}, 0));
+    assertFalse(
+        MethodHandleReflectionCode.argumentsMatch(
+            parameterTypes, new Object[] {(short) 1, "s"}, 0));
+    // Wrong reference type or wrong number of arguments.
+    assertFalse(MethodHandleReflectionCode.argumentsMatch(parameterTypes, new Object[] {1, 2}, 0));
+    assertFalse(MethodHandleReflectionCode.argumentsMatch(parameterTypes, new Object[] {1}, 0));
+  }
+
+  /**
+   * Runs the given method through a spread-adapted method handle.
+   *
+   * @param method the method to call
+   * @param inputs the receiver, if any, followed by the arguments
+   * @return the executed code
+   */
+  private static MethodHandleReflectionCode runHandle(Method method, Object[] inputs) {
+    method.setAccessible(true);
+    MethodHandle handle = MethodHandleReflectionCode.spreadHandle(method);
+    assertNotNull(handle);
+    MethodHandleReflectionCode code = new MethodHandleReflectionCode(method, handle, inputs);
+    code.runReflectionCode();
+    return code;
+  }
+}
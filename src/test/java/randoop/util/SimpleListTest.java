@@ -1,5 +1,7 @@
 package randoop.util;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -112,4 +114,72 @@ public class SimpleListTest {
 
     assertTrue(sl.isEmpty());
   }
+
+  @Test
+  public void sharedArrayAppend() {
+    SimpleList<String> base = SharedArrayList.empty();
+    for (int i = 0; i < 50; i++) {
+      base = SharedArrayList.append(base, "str" + i);
+    }
+    // Two extensions of the same list must not overwrite each other's last element.
+    SimpleList<String> left = SharedArrayList.append(base, "left");
+    SimpleList<String> right = SharedArrayList.append(base, "right");
+    assertEquals(50, base.size());
+    assertEquals("left", left.get(50));
+    assertEquals("right", right.get(50));
+    for (int i = 0; i < 50; i++) {
+      assertEquals("str" + i, left.get(i));
+      assertEquals("str" + i, right.get(i));
+    }
+    assertSame(left, left.getSublist(50));
+    assertEquals(base.toJDKList(), base.getSublist(49).toJDKList());
+  }
+
+  @Test
+  public void sharedArrayConcatenate() {
+    List<SimpleList<String>> lists = new ArrayList<>();
+    List<String> al = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      SimpleList<String> part = SharedArrayList.empty();
+      for (int j = 0; j < 10; j++) {
+        String v = "str" + i + "-" + j;
+        part = SharedArrayList.append(part, v);
+        al.add(v);
+      }
+      lists.add(part);
+    }
+    lists.add(SharedArrayList.<String>empty());
+    SimpleList<String> sl = SharedArrayList.concatenate(lists);
+    assertEquals(al, sl.toJDKList());
+    assertSame(lists.get(2), sl.getSublist(29));
+
+    SimpleList<String> extended = SharedArrayList.append(sl, "last");
+    assertEquals(41, extended.size());
+    assertEquals("last", extended.get(40));
+    assertSame(lists.get(0), extended.getSublist(9));
+  }
+
+  @Test
+  public void prefixedList() {
+    SimpleArrayList<String> prefix = new SimpleArrayList<>(Collections.singletonList("literal"));
+    SimpleArrayList<String> rest = new SimpleArrayList<>(1);
+    rest.add("str0");
+    PrefixedList<String> sl = new PrefixedList<>(prefix, rest);
+    assertEquals(2, sl.size());
+
+    // Elements appended to the second list appear in the view, without copying.
+    for (int i = 1; i < 10; i++) {
+      rest.add("str" + i);
+    }
+    assertEquals(11, sl.size());
+    assertEquals("literal", sl.get(0));
+    for (int i = 0; i < 10; i++) {
+      assertEquals("str" + i, sl.get(i + 1));
+    }
+    assertSame(prefix, sl.getSublist(0));
+    assertSame(rest, sl.getSublist(10));
+    assertEquals(11, sl.toJDKList().size());
+    SimpleArrayList<String> empty = new SimpleArrayList<>(0);
+    assertTrue(new PrefixedList<>(empty, empty).isEmpty());
+  }
 }
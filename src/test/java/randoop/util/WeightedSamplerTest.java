@@ -0,0 +1,87 @@
+package randoop.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class WeightedSamplerTest {
+
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  public void testFindMatchesLinearScan() {
+    Random random = new Random(0);
+    WeightedSampler sampler = new WeightedSampler(0);
+    double[] weights = new double[1000];
+    for (int i = 0; i < weights.length; i++) {
+      // Some weights are zero, and must never be found.
+      weights[i] = random.nextInt(4) == 0 ? 0 : random.nextDouble();
+      assertEquals(i, sampler.add(weights[i]));
+    }
+    for (int i = 0; i < 5000; i++) {
+      int index = random.nextInt(weights.length);
+      weights[index] = random.nextDouble();
+      sampler.set(index, weights[index]);
+    }
+    assertEquals(sum(weights), sampler.totalWeight(), EPSILON);
+    for (int i = 0; i < 5000; i++) {
+      double point = random.nextDouble() * sum(weights);
+      assertEquals(linearFind(weights, point), sampler.find(point));
+    }
+  }
+
+  @Test
+  public void testSetAll() {
+    WeightedSampler sampler = new WeightedSampler();
+    sampler.add(5);
+    double[] weights = {0, 1, 0, 2, 3, 0, 0};
+    sampler.setAll(weights);
+    assertEquals(weights.length, sampler.size());
+    assertEquals(6, sampler.totalWeight(), EPSILON);
+    assertEquals(1, sampler.find(0));
+    assertEquals(3, sampler.find(1));
+    assertEquals(4, sampler.find(3.5));
+    // A point past the end, as from round-off error, finds the last element with a weight.
+    assertEquals(4, sampler.find(6));
+  }
+
+  @Test
+  public void testRandomIndexWeighted() {
+    Randomness.setSeed(0);
+    WeightedSampler sampler = new WeightedSampler();
+    int sumOfAllWeights = 0;
+    for (int i = 1; i < 10; i++) {
+      sampler.add(i);
+      sumOfAllWeights += i;
+    }
+    int[] timesSelected = new int[sampler.size()];
+    int totalSelections = 100000;
+    for (int i = 0; i < totalSelections; i++) {
+      timesSelected[Randomness.randomIndexWeighted(sampler)]++;
+    }
+    for (int i = 0; i < timesSelected.length; i++) {
+      double expectedRatio = sampler.get(i) / sumOfAllWeights;
+      assertEquals(expectedRatio, timesSelected[i] / (double) totalSelections, 0.01);
+    }
+  }
+
+  private static double sum(double[] weights) {
+    double result = 0;
+    for (double weight : weights) {
+      result += weight;
+    }
+    return result;
+  }
+
+  private static int linearFind(double[] weights, double point) {
+    double currentPoint = 0;
+    for (int i = 0; i < weights.length; i++) {
+      currentPoint += weights[i];
+      if (currentPoint > point) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("point past the end: " + point);
+  }
+}